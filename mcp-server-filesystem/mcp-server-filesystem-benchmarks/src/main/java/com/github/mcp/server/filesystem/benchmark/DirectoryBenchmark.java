@@ -0,0 +1,89 @@
+package com.github.mcp.server.filesystem.benchmark;
+
+import com.github.mcp.server.filesystem.common.FileHelper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link FileHelper#listDirectory(String)} on a flat directory and {@link
+ * FileHelper#fuzzySearch(String, String)} on a tree, both holding from a handful up to a million
+ * entries. The tree is not covered by a filename index, so searches walk it.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectoryBenchmark {
+  /** The number of entries of the directory and of the tree. */
+  @Param({"10", "10000", "1000000"})
+  public int entries;
+
+  /** The temporary directory holding the flat directory and the tree. */
+  private Path dir;
+
+  /** The flat directory to list. */
+  private String flatDir;
+
+  /** The root of the tree to search. */
+  private String tree;
+
+  /**
+   * Creates the flat directory and the tree.
+   *
+   * @throws IOException if an entry cannot be created
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    dir = Fixtures.createTempDir("directory");
+    Path flatPath = dir.resolve("flat");
+    Fixtures.createFlatDir(flatPath, entries);
+    flatDir = flatPath.toString();
+    Path treePath = dir.resolve("tree");
+    Fixtures.createTree(treePath, entries);
+    tree = treePath.toString();
+  }
+
+  /**
+   * Deletes the flat directory and the tree.
+   *
+   * @throws IOException if an entry cannot be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Fixtures.delete(dir);
+  }
+
+  @Benchmark
+  public List<String> listDirectory() throws IOException {
+    return FileHelper.listDirectory(flatDir);
+  }
+
+  @Benchmark
+  public List<String> fuzzySearch() throws IOException {
+    return FileHelper.fuzzySearch(tree, Fixtures.NEEDLE);
+  }
+
+  @Benchmark
+  public List<String> fuzzySearchGlob() throws IOException {
+    return FileHelper.fuzzySearch(tree, "glob:" + Fixtures.NEEDLE + "-*.txt");
+  }
+}
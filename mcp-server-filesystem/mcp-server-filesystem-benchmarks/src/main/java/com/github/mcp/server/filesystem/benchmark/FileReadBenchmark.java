@@ -0,0 +1,100 @@
+package com.github.mcp.server.filesystem.benchmark;
+
+import com.github.mcp.server.filesystem.common.FileChunk;
+import com.github.mcp.server.filesystem.common.FileHelper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the paged reads of {@link FileHelper#readChunk(Path, long, long, FileChunk.Unit)} on
+ * files from a few kilobytes up to several gigabytes, reading the first window, a window in the
+ * middle and the last window of each file.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileReadBenchmark {
+  /** The size of the file to read, in bytes. */
+  @Param({"4096", "16777216", "4294967296"})
+  public long size;
+
+  /** The unit of the paged reads. */
+  @Param({"bytes", "lines"})
+  public String unit;
+
+  /** The temporary directory holding the file. */
+  private Path dir;
+
+  /** The file to read. */
+  private Path file;
+
+  /** The unit of the paged reads. */
+  private FileChunk.Unit chunkUnit;
+
+  /** The size of a window, in the unit of the paged reads. */
+  private long window;
+
+  /** The offset of the last window, in the unit of the paged reads. */
+  private long lastOffset;
+
+  /**
+   * Creates the file to read.
+   *
+   * @throws IOException if the file cannot be created
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    dir = Fixtures.createTempDir("read");
+    file = dir.resolve("file.txt");
+    Fixtures.createTextFile(file, size);
+    chunkUnit = FileChunk.Unit.of(unit);
+    final long lineLength = 80;
+    window = chunkUnit == FileChunk.Unit.LINES ? 1000 : 1000 * lineLength;
+    final long units = chunkUnit == FileChunk.Unit.LINES ? size / lineLength : size;
+    lastOffset = Math.max(0, units - window);
+  }
+
+  /**
+   * Deletes the file to read.
+   *
+   * @throws IOException if the file cannot be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Fixtures.delete(dir);
+  }
+
+  @Benchmark
+  public FileChunk readFirstChunk() throws IOException {
+    return FileHelper.readChunk(file, 0, window, chunkUnit);
+  }
+
+  @Benchmark
+  public FileChunk readMiddleChunk() throws IOException {
+    return FileHelper.readChunk(file, lastOffset / 2, window, chunkUnit);
+  }
+
+  @Benchmark
+  public FileChunk readLastChunk() throws IOException {
+    return FileHelper.readChunk(file, lastOffset, window, chunkUnit);
+  }
+}
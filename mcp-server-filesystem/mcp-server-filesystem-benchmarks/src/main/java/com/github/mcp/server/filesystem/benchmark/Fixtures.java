@@ -0,0 +1,142 @@
+package com.github.mcp.server.filesystem.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Generates the synthetic file trees and files the benchmarks run against, in temporary directories
+ * that are deleted once the benchmark is done.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+final class Fixtures {
+  /** The number of entries per directory of a generated tree. */
+  private static final int FANOUT = 64;
+
+  /** Every how many entries of a generated tree an entry is named after {@link #NEEDLE}. */
+  private static final int NEEDLE_INTERVAL = 1000;
+
+  /** The name part shared by the entries the search benchmarks look for. */
+  static final String NEEDLE = "needle";
+
+  /** The size of the block written repeatedly to generate a text file, 1 MiB. */
+  private static final int BLOCK_SIZE = 1024 * 1024;
+
+  private Fixtures() {}
+
+  /**
+   * Creates a temporary directory for a benchmark.
+   *
+   * @param name the name of the benchmark
+   * @return the created directory
+   * @throws IOException if the directory cannot be created
+   */
+  static Path createTempDir(String name) throws IOException {
+    return Files.createTempDirectory("mcp-server-filesystem-" + name + "-");
+  }
+
+  /**
+   * Creates a tree of the given number of empty files under the given root, with {@value #FANOUT}
+   * entries per directory. One file out of {@value #NEEDLE_INTERVAL} has a name containing {@link
+   * #NEEDLE}.
+   *
+   * @param root the root directory of the tree
+   * @param entries the number of files to create
+   * @throws IOException if a file cannot be created
+   */
+  static void createTree(Path root, int entries) throws IOException {
+    Path lastDir = null;
+    for (int i = 0; i < entries; i++) {
+      Path dir = root;
+      for (int n = i / FANOUT; n > 0; n /= FANOUT) {
+        dir = dir.resolve("dir-" + (n % FANOUT));
+      }
+      if (!dir.equals(lastDir)) {
+        Files.createDirectories(dir);
+        lastDir = dir;
+      }
+      final String prefix = i % NEEDLE_INTERVAL == 0 ? NEEDLE : "file";
+      Files.createFile(dir.resolve(prefix + "-" + i + ".txt"));
+    }
+  }
+
+  /**
+   * Creates a flat directory of the given number of empty files.
+   *
+   * @param dir the directory to create the files in
+   * @param entries the number of files to create
+   * @throws IOException if a file cannot be created
+   */
+  static void createFlatDir(Path dir, int entries) throws IOException {
+    Files.createDirectories(dir);
+    for (int i = 0; i < entries; i++) {
+      Files.createFile(dir.resolve("file-" + i + ".txt"));
+    }
+  }
+
+  /**
+   * Creates a UTF-8 text file of the given size, made of numbered lines of about 80 characters.
+   *
+   * @param file the file to create
+   * @param size the size of the file in bytes
+   * @throws IOException if the file cannot be written
+   */
+  static void createTextFile(Path file, long size) throws IOException {
+    StringBuilder block = new StringBuilder(BLOCK_SIZE);
+    for (int line = 0; block.length() < BLOCK_SIZE; line++) {
+      block.append(String.format("%08d The quick brown fox jumps over the lazy dog, ", line));
+      block.append("and then some more text.\n");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(block.toString().getBytes(StandardCharsets.UTF_8));
+
+    try (FileChannel channel =
+        FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      long written = 0;
+      while (written < size) {
+        buffer.clear().limit((int) Math.min(buffer.capacity(), size - written));
+        while (buffer.hasRemaining()) {
+          written += channel.write(buffer);
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes the given directory and everything under it.
+   *
+   * @param root the directory to delete
+   * @throws IOException if an entry cannot be deleted
+   */
+  static void delete(Path root) throws IOException {
+    if (Files.notExists(root)) {
+      return;
+    }
+    Files.walkFileTree(
+        root,
+        new SimpleFileVisitor<>() {
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+              throws IOException {
+            Files.delete(file);
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+            if (e != null) {
+              throw e;
+            }
+            Files.delete(dir);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.mcp.server.filesystem.benchmark;
+
+import com.github.mcp.server.filesystem.common.ServerInfo;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.client.transport.HttpClientStreamableHttpTransport;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import java.util.Locale;
+
+/**
+ * The servers {@link LoadTest} can drive, each pairing a server main class with the client
+ * transport speaking its protocol.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+enum LoadTarget {
+  /** The SSE server of the official MCP Java SDK implementation. */
+  OFFICIAL_SSE(true) {
+    @Override
+    void start() throws Exception {
+      com.github.mcp.server.filesystem.official.McpSseServer.main(new String[0]);
+    }
+  },
+
+  /** The Streamable HTTP server of the official MCP Java SDK implementation. */
+  OFFICIAL_STREAMABLE(false) {
+    @Override
+    void start() throws Exception {
+      com.github.mcp.server.filesystem.official.McpStreamableServer.main(new String[0]);
+    }
+  },
+
+  /** The SSE server of the declarative MCP Java SDK implementation. */
+  DECLARATIVE_SSE(true) {
+    @Override
+    void start() {
+      com.github.mcp.server.filesystem.declarative.McpSseServer.main(new String[0]);
+    }
+  },
+
+  /** The Streamable HTTP server of the declarative MCP Java SDK implementation. */
+  DECLARATIVE_STREAMABLE(false) {
+    @Override
+    void start() {
+      com.github.mcp.server.filesystem.declarative.McpStreamableServer.main(new String[0]);
+    }
+  };
+
+  /** Whether the server speaks the HTTP SSE transport rather than Streamable HTTP. */
+  private final boolean sse;
+
+  LoadTarget(boolean sse) {
+    this.sse = sse;
+  }
+
+  /**
+   * Returns the target with the given label, such as {@code official-streamable}, ignoring case.
+   *
+   * @param label the label of the target
+   * @return the target with the given label
+   * @throws IllegalArgumentException if no target has the given label
+   */
+  static LoadTarget of(String label) {
+    return valueOf(label.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Returns the label of this target, such as {@code official-streamable}.
+   *
+   * @return the label
+   */
+  String label() {
+    return name().replace('_', '-').toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Starts the server, listening on the port given by the {@code http.port} setting. Blocks until
+   * the server is stopped.
+   *
+   * @throws Exception if the server cannot be started
+   */
+  abstract void start() throws Exception;
+
+  /**
+   * Creates a client transport connecting to the server on the given port.
+   *
+   * @param port the port of the server
+   * @return the client transport
+   */
+  McpClientTransport createTransport(int port) {
+    final String baseUri = "http://localhost:" + port;
+    if (sse) {
+      return HttpClientSseClientTransport.builder(baseUri)
+          .sseEndpoint(ServerInfo.SSE_ENDPOINT)
+          .build();
+    }
+    return HttpClientStreamableHttpTransport.builder(baseUri)
+        .endpoint(ServerInfo.MCP_ENDPOINT)
+        .build();
+  }
+}
@@ -0,0 +1,364 @@
+package com.github.mcp.server.filesystem.benchmark;
+
+import com.github.mcp.server.filesystem.common.ServerConfig;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An end-to-end load test of one MCP server over HTTP. It starts the server in-process on a free
+ * port, connects a number of concurrent MCP clients of the official MCP Java SDK to it, and has
+ * every client call the {@code find}, {@code read} and {@code delete} tools against a generated
+ * tree for a warmup period and then a measurement period. It then reports the latency percentiles,
+ * the throughput and the allocation rate of the measurement period.
+ *
+ * <p>The load test is configured by the following system properties:
+ *
+ * <ul>
+ *   <li>{@code mcp.server.filesystem.loadtest.target}: the server to drive, one of {@code
+ *       official-sse}, {@code official-streamable}, {@code declarative-sse} and {@code
+ *       declarative-streamable}, defaults to {@code official-streamable}
+ *   <li>{@code mcp.server.filesystem.loadtest.clients}: the number of concurrent clients, defaults
+ *       to 16
+ *   <li>{@code mcp.server.filesystem.loadtest.warmup}: the warmup period in seconds, defaults to 10
+ *   <li>{@code mcp.server.filesystem.loadtest.duration}: the measurement period in seconds,
+ *       defaults to 30
+ *   <li>{@code mcp.server.filesystem.loadtest.entries}: the number of files of the tree searched by
+ *       {@code find}, defaults to 10000
+ * </ul>
+ *
+ * <p>The clients run in the same JVM as the server, so the allocation rate covers both sides.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class LoadTest {
+  /** Logger instance for logging the progress of the load test. */
+  private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+  /** The size of the file read by {@code read}, 64 KiB. */
+  private static final long FILE_SIZE = 64 * 1024;
+
+  /** The share of {@code find} calls in the workload, in percent. */
+  private static final int FIND_PERCENT = 20;
+
+  /** The share of {@code delete} calls in the workload, in percent. */
+  private static final int DELETE_PERCENT = 10;
+
+  /** The maximum time to wait for the server to accept connections. */
+  private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+
+  /** The timeout of a single tool call. */
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+  /** The latencies of the tool calls, in microseconds. */
+  private final Recorder latencies = new Recorder(3);
+
+  /** The number of failed tool calls. */
+  private final LongAdder errors = new LongAdder();
+
+  /** Whether the clients must stop calling tools. */
+  private final AtomicBoolean stopped = new AtomicBoolean();
+
+  /** The temporary directory holding the tree, the file to read and the files to delete. */
+  private final Path dir;
+
+  /** The root of the tree searched by {@code find}. */
+  private final String tree;
+
+  /** The file read by {@code read}. */
+  private final String file;
+
+  private LoadTest(Path dir, String tree, String file) {
+    this.dir = dir;
+    this.tree = tree;
+    this.file = file;
+  }
+
+  /**
+   * Runs the load test configured by the system properties and prints its report.
+   *
+   * @param args command line arguments, unused
+   * @throws Exception if the fixtures cannot be created or the server cannot be started
+   */
+  public static void main(String[] args) throws Exception {
+    final LoadTarget target =
+        LoadTarget.of(ServerConfig.getString("loadtest.target", "official-streamable"));
+    final int clients = ServerConfig.getInt("loadtest.clients", 16);
+    final Duration warmup = Duration.ofSeconds(ServerConfig.getLong("loadtest.warmup", 10));
+    final Duration duration = Duration.ofSeconds(ServerConfig.getLong("loadtest.duration", 30));
+    final int entries = ServerConfig.getInt("loadtest.entries", 10_000);
+
+    // Step 1: Generate the tree and the file the tools are called on.
+    Path dir = Fixtures.createTempDir("loadtest");
+    Path tree = dir.resolve("tree");
+    Fixtures.createTree(tree, entries);
+    Path file = dir.resolve("file.txt");
+    Fixtures.createTextFile(file, FILE_SIZE);
+    Files.createDirectories(dir.resolve("delete"));
+
+    try {
+      // Step 2: Start the server on a free port and wait until it accepts connections.
+      final int port = startServer(target);
+
+      // Step 3: Drive the server and print the report.
+      LoadTest loadTest = new LoadTest(dir, tree.toString(), file.toString());
+      Report report = loadTest.run(target, port, clients, warmup, duration);
+      System.out.println(Report.HEADER);
+      System.out.println(report);
+    } finally {
+      Fixtures.delete(dir);
+    }
+    // The servers block on their HTTP server and only stop at shutdown.
+    System.exit(0);
+  }
+
+  /**
+   * Starts the given server on a daemon thread, listening on a free port.
+   *
+   * @param target the server to start
+   * @return the port of the server
+   * @throws IOException if no free port is found or the server does not start in time
+   */
+  private static int startServer(LoadTarget target) throws IOException {
+    final int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    System.setProperty("mcp.server.filesystem.http.port", String.valueOf(port));
+
+    Thread server =
+        new Thread(
+            () -> {
+              try {
+                target.start();
+              } catch (Exception e) {
+                log.error("Error running server {}", target.label(), e);
+              }
+            },
+            "loadtest-server");
+    server.setDaemon(true);
+    server.start();
+
+    final long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      try (Socket socket = new Socket()) {
+        socket.connect(new InetSocketAddress("localhost", port), 1000);
+        log.info("Server {} is listening on port {}", target.label(), port);
+        return port;
+      } catch (IOException e) {
+        sleep(100);
+      }
+    }
+    throw new IOException("Server " + target.label() + " did not start on port " + port);
+  }
+
+  /**
+   * Connects the clients to the server and has them call tools for the warmup period and then the
+   * measurement period.
+   *
+   * @param target the server to drive
+   * @param port the port of the server
+   * @param clients the number of concurrent clients
+   * @param warmup the warmup period
+   * @param duration the measurement period
+   * @return the report of the measurement period
+   */
+  private Report run(LoadTarget target, int port, int clients, Duration warmup, Duration duration) {
+    List<McpSyncClient> mcpClients = new ArrayList<>(clients);
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    try {
+      for (int i = 0; i < clients; i++) {
+        McpSyncClient client =
+            McpClient.sync(target.createTransport(port)).requestTimeout(REQUEST_TIMEOUT).build();
+        client.initialize();
+        mcpClients.add(client);
+      }
+      log.info("Connected {} clients, warming up for {}", clients, warmup);
+      for (McpSyncClient client : mcpClients) {
+        executor.execute(() -> callTools(client));
+      }
+
+      sleep(warmup.toMillis());
+      latencies.getIntervalHistogram();
+      errors.reset();
+      final long allocatedStart = allocatedBytes();
+      final long start = System.nanoTime();
+      log.info("Measuring for {}", duration);
+
+      sleep(duration.toMillis());
+      Histogram histogram = latencies.getIntervalHistogram();
+      final long errorCount = errors.sum();
+      final long elapsed = System.nanoTime() - start;
+      final long allocated = allocatedBytes() - allocatedStart;
+      return new Report(target.label(), clients, histogram, errorCount, elapsed, allocated);
+    } finally {
+      stopped.set(true);
+      executor.shutdown();
+      awaitTermination(executor);
+      mcpClients.forEach(McpSyncClient::closeGracefully);
+    }
+  }
+
+  /**
+   * Calls a random mix of tools with the given client until the load test is stopped, recording the
+   * latency of every call.
+   *
+   * @param client the client to call the tools with
+   */
+  private void callTools(McpSyncClient client) {
+    while (!stopped.get()) {
+      final int dice = ThreadLocalRandom.current().nextInt(100);
+      final McpSchema.CallToolRequest request;
+      try {
+        if (dice < FIND_PERCENT) {
+          Map<String, Object> arguments = Map.of("start", tree, "name", Fixtures.NEEDLE);
+          request = new McpSchema.CallToolRequest("find", arguments);
+        } else if (dice < FIND_PERCENT + DELETE_PERCENT) {
+          Path target = Files.createTempFile(dir.resolve("delete"), "delete-", ".txt");
+          request = new McpSchema.CallToolRequest("delete", Map.of("path", target.toString()));
+        } else {
+          request = new McpSchema.CallToolRequest("read", Map.of("path", file));
+        }
+      } catch (IOException e) {
+        log.error("Error creating a file to delete", e);
+        errors.increment();
+        continue;
+      }
+
+      final long start = System.nanoTime();
+      try {
+        McpSchema.CallToolResult result = client.callTool(request);
+        if (Boolean.TRUE.equals(result.isError())) {
+          errors.increment();
+        }
+      } catch (RuntimeException e) {
+        if (!stopped.get()) {
+          log.warn("Error calling tool {}", request.name(), e);
+          errors.increment();
+        }
+      }
+      latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+  }
+
+  /**
+   * Returns the number of bytes allocated so far by the live threads of the JVM, which include the
+   * threads of the clients for the whole measured period.
+   *
+   * @return the number of allocated bytes, or {@code -1} if the JVM cannot measure it
+   */
+  private static long allocatedBytes() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+        && threads.isThreadAllocatedMemoryEnabled()) {
+      long total = 0;
+      for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+        if (bytes >= 0) {
+          total += bytes;
+        }
+      }
+      return total;
+    }
+    return -1;
+  }
+
+  /**
+   * Waits for the clients to finish their last tool call.
+   *
+   * @param executor the executor running the clients
+   */
+  private static void awaitTermination(ExecutorService executor) {
+    try {
+      if (!executor.awaitTermination(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Sleeps for the given time, restoring the interrupt flag if interrupted.
+   *
+   * @param millis the time to sleep in milliseconds
+   */
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * The outcome of the measurement period of a load test.
+   *
+   * @param target the label of the server driven
+   * @param clients the number of concurrent clients
+   * @param latencies the latencies of the tool calls, in microseconds
+   * @param errors the number of failed tool calls
+   * @param elapsedNanos the length of the measurement period, in nanoseconds
+   * @param allocatedBytes the number of bytes allocated during the period, {@code -1} if unknown
+   */
+  private record Report(
+      String target,
+      int clients,
+      Histogram latencies,
+      long errors,
+      long elapsedNanos,
+      long allocatedBytes) {
+
+    /** The header of the report table. */
+    static final String HEADER =
+        String.format(
+            "%-24s %8s %10s %8s %12s %10s %10s %10s %12s",
+            "target",
+            "clients",
+            "calls",
+            "errors",
+            "calls/s",
+            "p50 (ms)",
+            "p99 (ms)",
+            "p999 (ms)",
+            "alloc MB/s");
+
+    @Override
+    public String toString() {
+      final double seconds = elapsedNanos / 1e9;
+      final double allocationRate =
+          allocatedBytes < 0 ? Double.NaN : allocatedBytes / seconds / 1e6;
+      return String.format(
+          "%-24s %8d %10d %8d %12.1f %10.2f %10.2f %10.2f %12.1f",
+          target,
+          clients,
+          latencies.getTotalCount(),
+          errors,
+          latencies.getTotalCount() / seconds,
+          latencies.getValueAtPercentile(50) / 1e3,
+          latencies.getValueAtPercentile(99) / 1e3,
+          latencies.getValueAtPercentile(99.9) / 1e3,
+          allocationRate);
+    }
+  }
+}
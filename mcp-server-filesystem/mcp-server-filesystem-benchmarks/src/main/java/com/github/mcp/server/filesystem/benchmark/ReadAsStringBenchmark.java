@@ -0,0 +1,77 @@
+package com.github.mcp.server.filesystem.benchmark;
+
+import com.github.mcp.server.filesystem.common.FileHelper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link FileHelper#readAsString(Path)}, which reads whole files into the heap, with and
+ * without the file content cache. Sizes stop well below the maximum length of a string.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadAsStringBenchmark {
+  /** The size of the file to read, in bytes. */
+  @Param({"128", "65536", "1048576", "67108864"})
+  public long size;
+
+  /** Whether the file content cache is enabled. */
+  @Param({"true", "false"})
+  public boolean cached;
+
+  /** The temporary directory holding the file. */
+  private Path dir;
+
+  /** The file to read. */
+  private Path file;
+
+  /**
+   * Creates the file to read and enables or disables the cache.
+   *
+   * @throws IOException if the file cannot be created
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    if (!cached) {
+      System.setProperty("mcp.server.filesystem.cache.size", "0");
+    }
+    dir = Fixtures.createTempDir("read-as-string");
+    file = dir.resolve("file.txt");
+    Fixtures.createTextFile(file, size);
+  }
+
+  /**
+   * Deletes the file to read.
+   *
+   * @throws IOException if the file cannot be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Fixtures.delete(dir);
+  }
+
+  @Benchmark
+  public String readAsString() throws IOException {
+    return FileHelper.readAsString(file);
+  }
+}
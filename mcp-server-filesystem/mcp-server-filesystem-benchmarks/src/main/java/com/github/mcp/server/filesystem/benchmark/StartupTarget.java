@@ -0,0 +1,230 @@
+package com.github.mcp.server.filesystem.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipFile;
+
+/**
+ * The STDIO servers {@link StartupTest} can launch, each from the jar or executable built by its
+ * module.
+ *
+ * <p>The shaded jars of the official and declarative implementations are launched as they are. The
+ * Spring Boot jar nests its dependencies, which CDS cannot archive, so it is extracted next to it
+ * first and launched from the extracted jar. If the Spring Boot jar was built with its
+ * AOT-generated bean definitions, which the {@code fast-startup} profile does, the server is told
+ * to use them instead of scanning the classpath. The native executable of the official
+ * implementation, built by its {@code native} profile, is launched without a JVM, so it takes no
+ * JVM options and has no CDS archive.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+enum StartupTarget {
+  /** The STDIO server of the official MCP Java SDK implementation. */
+  OFFICIAL("mcp-server-filesystem-official-sdk-implementation", Packaging.JAR),
+
+  /** The STDIO server of the declarative MCP Java SDK implementation. */
+  DECLARATIVE("mcp-server-filesystem-declarative-sdk-implementation", Packaging.JAR),
+
+  /** The STDIO server of the Spring AI MCP implementation. */
+  SPRING("mcp-server-filesystem-spring-ai-sdk-implementation", Packaging.SPRING_BOOT),
+
+  /** The native executable of the STDIO server of the official MCP Java SDK implementation. */
+  NATIVE("mcp-server-filesystem-official-sdk-implementation", Packaging.NATIVE);
+
+  /** The entry of the Spring Boot jar generated by its AOT processing. */
+  private static final String AOT_INITIALIZER =
+      "BOOT-INF/classes/com/github/mcp/server/filesystem/spring/"
+          + "McpStdioServer__ApplicationContextInitializer.class";
+
+  /** The name of the module building the jar of the server. */
+  private final String module;
+
+  /** How the server is packaged by its module. */
+  private final Packaging packaging;
+
+  StartupTarget(String module, Packaging packaging) {
+    this.module = module;
+    this.packaging = packaging;
+  }
+
+  /**
+   * Returns the target with the given label, such as {@code official}, ignoring case.
+   *
+   * @param label the label of the target
+   * @return the target with the given label
+   * @throws IllegalArgumentException if no target has the given label
+   */
+  static StartupTarget of(String label) {
+    return valueOf(label.trim().toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Returns the label of this target, such as {@code official}.
+   *
+   * @return the label
+   */
+  String label() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns whether the server runs on a JVM, so that it takes JVM options and has a CDS archive.
+   *
+   * @return {@code false} for the native executable
+   */
+  boolean isJvm() {
+    return packaging != Packaging.NATIVE;
+  }
+
+  /**
+   * Returns the command launching the server.
+   *
+   * @param java the Java executable
+   * @param projectDir the directory holding the modules of the servers
+   * @param jvmOptions the JVM options, ignored by the native executable
+   * @return the command
+   * @throws IOException if the jar built by the module cannot be read
+   */
+  List<String> command(String java, Path projectDir, List<String> jvmOptions) throws IOException {
+    if (!isJvm()) {
+      return List.of(builtJar(projectDir).toString());
+    }
+    List<String> command = new ArrayList<>();
+    command.add(java);
+    command.addAll(jvmOptions);
+    command.addAll(options(projectDir));
+    command.add("-jar");
+    command.add(jar(projectDir).toString());
+    return command;
+  }
+
+  /**
+   * Returns the CDS archive of the server, next to the jar built by its module.
+   *
+   * @param projectDir the directory holding the modules of the servers
+   * @return the archive, which may not exist, or {@code null} for the native executable
+   */
+  Path archive(Path projectDir) {
+    return isJvm() ? targetDir(projectDir).resolve(module + ".jsa") : null;
+  }
+
+  /**
+   * Prepares the jar the server is launched from, by extracting the Spring Boot jar if it is newer
+   * than its extracted copy.
+   *
+   * @param java the Java executable
+   * @param projectDir the directory holding the modules of the servers
+   * @throws IOException if the jar does not exist or cannot be extracted
+   * @throws InterruptedException if interrupted while waiting for the extraction
+   */
+  void prepare(String java, Path projectDir) throws IOException, InterruptedException {
+    final Path built = builtJar(projectDir);
+    if (!Files.isRegularFile(built)) {
+      throw new IOException("Build of " + label() + " not found, run mvn package first: " + built);
+    }
+    final Path extracted = jar(projectDir);
+    if (packaging != Packaging.SPRING_BOOT || isNewer(extracted, built)) {
+      return;
+    }
+    Process process =
+        new ProcessBuilder(
+                java,
+                "-Djarmode=tools",
+                "-jar",
+                built.toString(),
+                "extract",
+                "--force",
+                "--destination",
+                extracted.getParent().toString())
+            .inheritIO()
+            .start();
+    if (process.waitFor() != 0) {
+      throw new IOException("Error extracting " + built + ", exit code " + process.exitValue());
+    }
+  }
+
+  /**
+   * Returns the jar the server is launched from.
+   *
+   * @param projectDir the directory holding the modules of the servers
+   * @return the jar
+   */
+  private Path jar(Path projectDir) {
+    if (packaging == Packaging.SPRING_BOOT) {
+      return targetDir(projectDir).resolve(module + "-exec").resolve(module + "-exec.jar");
+    }
+    return builtJar(projectDir);
+  }
+
+  /**
+   * Returns the JVM options the server needs to be launched with.
+   *
+   * @param projectDir the directory holding the modules of the servers
+   * @return the options
+   * @throws IOException if the jar built by the module cannot be read
+   */
+  private List<String> options(Path projectDir) throws IOException {
+    if (packaging != Packaging.SPRING_BOOT) {
+      return List.of();
+    }
+    try (ZipFile zip = new ZipFile(builtJar(projectDir).toFile())) {
+      if (zip.getEntry(AOT_INITIALIZER) != null) {
+        return List.of("-Dspring.aot.enabled=true");
+      }
+    }
+    return List.of();
+  }
+
+  /**
+   * Returns whether the given file exists and was modified after the given other file.
+   *
+   * @param file the file
+   * @param other the other file
+   * @return {@code true} if the file is at least as recent as the other file
+   * @throws IOException if the modification time of a file cannot be read
+   */
+  private static boolean isNewer(Path file, Path other) throws IOException {
+    return Files.isRegularFile(file)
+        && Files.getLastModifiedTime(file).compareTo(Files.getLastModifiedTime(other)) >= 0;
+  }
+
+  /**
+   * Returns the jar or executable built by the module of the server.
+   *
+   * @param projectDir the directory holding the modules of the servers
+   * @return the jar or executable
+   */
+  private Path builtJar(Path projectDir) {
+    return switch (packaging) {
+      case JAR -> targetDir(projectDir).resolve(module + ".jar");
+      case SPRING_BOOT -> targetDir(projectDir).resolve(module + "-exec.jar");
+      case NATIVE -> targetDir(projectDir).resolve(module);
+    };
+  }
+
+  /**
+   * Returns the build output directory of the module of the server.
+   *
+   * @param projectDir the directory holding the modules of the servers
+   * @return the directory
+   */
+  private Path targetDir(Path projectDir) {
+    return projectDir.resolve(module).resolve("target");
+  }
+
+  /** How a server is packaged by its module. */
+  private enum Packaging {
+    /** A shaded jar, launched as it is. */
+    JAR,
+
+    /** A Spring Boot jar, extracted before it is launched. */
+    SPRING_BOOT,
+
+    /** A native executable, built by the {@code native} profile. */
+    NATIVE
+  }
+}
@@ -0,0 +1,389 @@
+package com.github.mcp.server.filesystem.benchmark;
+
+import com.github.mcp.server.filesystem.common.ServerConfig;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A startup test of the STDIO servers, as they are spawned by MCP clients once per session. It
+ * launches each server from its jar in a fresh JVM, or as a native executable, sends the {@code
+ * initialize} request right away and measures the time until the response arrives, over a number of
+ * runs. It also reports the resident set size of the server once it has responded, on Linux, where
+ * it can be read from {@code /proc}. Each JVM server is measured without and, if its archive
+ * exists, with its CDS archive.
+ *
+ * <p>In training mode, it first creates the CDS archive of each server. It runs a short session
+ * against the server, listing and calling its tools on a generated tree, with the {@code
+ * -XX:ArchiveClassesAtExit} option, so that the archive holds every class a session loads. The
+ * {@code fast-startup} profile of this module runs the training after packaging.
+ *
+ * <p>The startup test is configured by the following system properties:
+ *
+ * <ul>
+ *   <li>{@code mcp.server.filesystem.startup.dir}: the directory holding the modules of the
+ *       servers, defaults to {@code mcp-server-filesystem}
+ *   <li>{@code mcp.server.filesystem.startup.targets}: the servers to launch, a comma-separated
+ *       list of {@code official}, {@code declarative}, {@code spring} and {@code native}, defaults
+ *       to all but {@code native}, which needs GraalVM to be built
+ *   <li>{@code mcp.server.filesystem.startup.runs}: the number of runs of each server, defaults to
+ *       10
+ *   <li>{@code mcp.server.filesystem.startup.train}: whether to create the CDS archives first,
+ *       defaults to {@code false}
+ *   <li>{@code mcp.server.filesystem.startup.jvm-args}: additional space-separated JVM options of
+ *       the JVM servers, such as {@code -XX:TieredStopAtLevel=1}, defaults to none
+ * </ul>
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class StartupTest {
+  /** Logger instance for logging the progress of the startup test. */
+  private static final Logger log = LoggerFactory.getLogger(StartupTest.class);
+
+  /** The maximum time to wait for a response of the server. */
+  private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(60);
+
+  /** The maximum time to wait for the server to exit once its input is closed. */
+  private static final Duration EXIT_TIMEOUT = Duration.ofSeconds(10);
+
+  /** The pattern of the id of a JSON-RPC message. */
+  private static final Pattern MESSAGE_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+  /** The {@code initialize} request, sent first in every run. */
+  private static final String INITIALIZE =
+      "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\",\"params\":{"
+          + "\"protocolVersion\":\"2024-11-05\",\"capabilities\":{},"
+          + "\"clientInfo\":{\"name\":\"startup-test\",\"version\":\"1.0.0\"}}}";
+
+  /** The notification telling the server that the session is initialized. */
+  private static final String INITIALIZED =
+      "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}";
+
+  /**
+   * The JVM options sending the warnings of the JVM to standard error, as they would otherwise be
+   * printed to standard output, where the server writes its messages.
+   */
+  private static final List<String> LOG_OPTIONS =
+      List.of("-Xlog:disable", "-Xlog:all=warning:stderr");
+
+  /** The timer killing servers that do not respond in time. */
+  private static final ScheduledExecutorService TIMER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "startup-test-timeout");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /** The Java executable launching the servers, the one running this test. */
+  private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+  /** The directory holding the modules of the servers. */
+  private final Path projectDir;
+
+  /** The additional JVM options of the servers. */
+  private final List<String> jvmArgs;
+
+  private StartupTest(Path projectDir, List<String> jvmArgs) {
+    this.projectDir = projectDir;
+    this.jvmArgs = jvmArgs;
+  }
+
+  /**
+   * Runs the startup test configured by the system properties and prints its report.
+   *
+   * @param args command line arguments, unused
+   * @throws Exception if a server cannot be launched or does not respond
+   */
+  public static void main(String[] args) throws Exception {
+    final Path projectDir = Path.of(ServerConfig.getString("startup.dir", "mcp-server-filesystem"));
+    final String targets = ServerConfig.getString("startup.targets", "official,declarative,spring");
+    final int runs = ServerConfig.getInt("startup.runs", 10);
+    final boolean train = ServerConfig.getBoolean("startup.train", false);
+    final String jvmArgs = ServerConfig.getString("startup.jvm-args", "");
+
+    StartupTest startupTest =
+        new StartupTest(
+            projectDir.toAbsolutePath(),
+            jvmArgs.isBlank() ? List.of() : List.of(jvmArgs.trim().split("\\s+")));
+    List<Report> reports = new ArrayList<>();
+    for (String label : targets.split(",")) {
+      final StartupTarget target = StartupTarget.of(label);
+
+      // Step 1: Extract the jar if needed, and create the CDS archive if asked to.
+      target.prepare(startupTest.java, startupTest.projectDir);
+      if (train && target.isJvm()) {
+        startupTest.train(target);
+      }
+
+      // Step 2: Measure the startup without and with the CDS archive.
+      reports.add(startupTest.measure(target, null, runs));
+      final Path archive = target.archive(startupTest.projectDir);
+      if (archive != null && Files.isRegularFile(archive)) {
+        reports.add(startupTest.measure(target, archive, runs));
+      }
+    }
+
+    System.out.println(Report.HEADER);
+    reports.forEach(System.out::println);
+  }
+
+  /**
+   * Creates the CDS archive of the given server by running a training session against it.
+   *
+   * @param target the server to train
+   * @throws IOException if the server cannot be launched or does not respond
+   * @throws InterruptedException if interrupted while waiting for the server
+   */
+  private void train(StartupTarget target) throws IOException, InterruptedException {
+    final Path archive = target.archive(projectDir);
+    Files.deleteIfExists(archive);
+    log.info("Training {} into {}", target.label(), archive);
+
+    Path dir = Fixtures.createTempDir("startup");
+    try {
+      Path tree = dir.resolve("tree");
+      Fixtures.createTree(tree, 100);
+      Path file = dir.resolve("file.txt");
+      Fixtures.createTextFile(file, 64 * 1024);
+
+      Process process = launch(target, "-XX:ArchiveClassesAtExit=" + archive);
+      try (Session session = new Session(process)) {
+        session.request(1, INITIALIZE);
+        session.send(INITIALIZED);
+        session.request(2, "{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"tools/list\"}");
+        session.request(3, "{\"jsonrpc\":\"2.0\",\"id\":3,\"method\":\"prompts/list\"}");
+        session.request(4, "{\"jsonrpc\":\"2.0\",\"id\":4,\"method\":\"resources/list\"}");
+        session.request(5, callTool(5, "read", "\"path\":" + quote(file)));
+        session.request(6, callTool(6, "find", "\"start\":" + quote(tree) + ",\"name\":\"a\""));
+        session.request(7, callTool(7, "tree", "\"path\":" + quote(tree)));
+      }
+
+      // The archive is written when the JVM exits, either once its input is closed, or on SIGTERM.
+      if (!process.waitFor(EXIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+        process.destroy();
+        process.waitFor();
+      }
+    } finally {
+      Fixtures.delete(dir);
+    }
+    if (!Files.isRegularFile(archive)) {
+      throw new IOException("Training " + target.label() + " did not create " + archive);
+    }
+  }
+
+  /**
+   * Measures the time from the launch of the given server to its response to {@code initialize},
+   * and its resident set size at that time.
+   *
+   * @param target the server to measure
+   * @param archive the CDS archive to launch the server with, {@code null} for none
+   * @param runs the number of runs
+   * @return the report of the runs
+   * @throws IOException if the server cannot be launched or does not respond
+   * @throws InterruptedException if interrupted while waiting for the server
+   */
+  private Report measure(StartupTarget target, Path archive, int runs)
+      throws IOException, InterruptedException {
+    final String variant = archive == null ? "default" : "cds";
+    log.info("Measuring {} with {} options over {} runs", target.label(), variant, runs);
+    // -Xshare:auto is the default, it makes sure the test measures the JVM with the default CDS
+    // archive of the JDK, rather than with no archive at all.
+    final String share = archive == null ? "-Xshare:auto" : "-XX:SharedArchiveFile=" + archive;
+
+    long[] nanos = new long[runs];
+    long[] rssKiB = new long[runs];
+    for (int i = 0; i < runs; i++) {
+      final long start = System.nanoTime();
+      Process process = launch(target, share);
+      try (Session session = new Session(process)) {
+        session.request(1, INITIALIZE);
+        nanos[i] = System.nanoTime() - start;
+        rssKiB[i] = rssKiB(process);
+      } finally {
+        process.destroyForcibly();
+        process.waitFor();
+      }
+    }
+    return new Report(target.label(), target.isJvm() ? variant : "native", nanos, rssKiB);
+  }
+
+  /**
+   * Launches the given server with the given additional JVM option.
+   *
+   * @param target the server to launch
+   * @param option the additional JVM option, ignored by the native executable
+   * @return the server process, with standard error discarded
+   * @throws IOException if the server cannot be launched
+   */
+  private Process launch(StartupTarget target, String option) throws IOException {
+    List<String> jvmOptions = new ArrayList<>(LOG_OPTIONS);
+    jvmOptions.addAll(jvmArgs);
+    jvmOptions.add(option);
+    List<String> command = target.command(java, projectDir, jvmOptions);
+    return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+  }
+
+  /**
+   * Returns the resident set size of the given process, read from {@code /proc/<pid>/status}.
+   *
+   * @param process the process
+   * @return the resident set size in KiB, or -1 if it cannot be read on this platform
+   */
+  private static long rssKiB(Process process) {
+    final Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+    try {
+      for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+        if (line.startsWith("VmRSS:")) {
+          return Long.parseLong(line.replaceAll("\\D", ""));
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      log.debug("Cannot read the resident set size from {}", status, e);
+    }
+    return -1;
+  }
+
+  /**
+   * Returns a {@code tools/call} request.
+   *
+   * @param id the id of the request
+   * @param tool the name of the tool
+   * @param arguments the arguments of the tool as JSON members, without braces
+   * @return the request
+   */
+  private static String callTool(int id, String tool, String arguments) {
+    return String.format(
+        "{\"jsonrpc\":\"2.0\",\"id\":%d,\"method\":\"tools/call\","
+            + "\"params\":{\"name\":\"%s\",\"arguments\":{%s}}}",
+        id, tool, arguments);
+  }
+
+  /**
+   * Returns the given path as a JSON string.
+   *
+   * @param path the path
+   * @return the quoted and escaped path
+   */
+  private static String quote(Path path) {
+    return '"' + path.toString().replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+  }
+
+  /** A JSON-RPC session with a server over its standard input and output, one message per line. */
+  private static final class Session implements AutoCloseable {
+    /** The server process. */
+    private final Process process;
+
+    /** The standard input of the server. */
+    private final OutputStream input;
+
+    /** The standard output of the server. */
+    private final BufferedReader output;
+
+    Session(Process process) {
+      this.process = process;
+      this.input = process.getOutputStream();
+      this.output =
+          new BufferedReader(
+              new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends the given message.
+     *
+     * @param message the message, on a single line
+     * @throws IOException if the server closed its input
+     */
+    void send(String message) throws IOException {
+      input.write((message + "\n").getBytes(StandardCharsets.UTF_8));
+      input.flush();
+    }
+
+    /**
+     * Sends the given request and waits for its response, skipping any other output. The server is
+     * killed if it does not respond in time.
+     *
+     * @param id the id of the request
+     * @param request the request, on a single line
+     * @throws IOException if the server exits or does not respond in time
+     */
+    void request(int id, String request) throws IOException {
+      send(request);
+      ScheduledFuture<?> killer =
+          TIMER.schedule(
+              process::destroyForcibly, RESPONSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+      try {
+        String line;
+        while ((line = output.readLine()) != null) {
+          if (!line.contains("\"result\"") && !line.contains("\"error\"")) {
+            continue;
+          }
+          Matcher matcher = MESSAGE_ID.matcher(line);
+          if (matcher.find() && Integer.parseInt(matcher.group(1)) == id) {
+            return;
+          }
+        }
+      } finally {
+        killer.cancel(false);
+      }
+      throw new IOException("Server exited before responding to request " + id);
+    }
+
+    @Override
+    public void close() throws IOException {
+      input.close();
+    }
+  }
+
+  /**
+   * The outcome of the runs of a server with a given set of options.
+   *
+   * @param target the label of the server
+   * @param variant the label of the options, {@code default}, {@code cds} or {@code native}
+   * @param nanos the time to the {@code initialize} response of each run, in nanoseconds
+   * @param rssKiB the resident set size at the {@code initialize} response of each run, in KiB, or
+   *     -1 where unknown
+   */
+  private record Report(String target, String variant, long[] nanos, long[] rssKiB) {
+
+    /** The header of the report table. */
+    static final String HEADER =
+        String.format(
+            "%-12s %-8s %6s %10s %10s %10s %14s",
+            "target", "variant", "runs", "min (ms)", "p50 (ms)", "max (ms)", "p50 RSS (MiB)");
+
+    @Override
+    public String toString() {
+      long[] sorted = nanos.clone();
+      Arrays.sort(sorted);
+      long[] sortedRss = rssKiB.clone();
+      Arrays.sort(sortedRss);
+      final long rss = sortedRss[sortedRss.length / 2];
+      return String.format(
+          "%-12s %-8s %6d %10.1f %10.1f %10.1f %14s",
+          target,
+          variant,
+          sorted.length,
+          sorted[0] / 1e6,
+          sorted[sorted.length / 2] / 1e6,
+          sorted[sorted.length - 1] / 1e6,
+          rss < 0 ? "-" : String.format("%.1f", rss / 1024.0));
+    }
+  }
+}
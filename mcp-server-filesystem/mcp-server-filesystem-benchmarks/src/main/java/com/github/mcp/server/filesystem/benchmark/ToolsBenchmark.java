@@ -0,0 +1,248 @@
+package com.github.mcp.server.filesystem.benchmark;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@code find}, {@code read} and {@code delete} tool handlers of the three server
+ * implementations, calling them in-process so that the measured time is the handler's own work
+ * without any transport.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolsBenchmark {
+  /** The number of entries of the tree searched by {@code find}. */
+  private static final int TREE_ENTRIES = 10_000;
+
+  /** The size of the file read by {@code read}, 64 KiB. */
+  private static final long FILE_SIZE = 64 * 1024;
+
+  /** The server implementation whose tool handlers are called. */
+  @Param({"official", "declarative", "spring"})
+  public String implementation;
+
+  /** The temporary directory holding the tree, the file to read and the files to delete. */
+  private Path dir;
+
+  /** The root of the tree searched by {@code find}. */
+  private String tree;
+
+  /** The file read by {@code read}. */
+  private String file;
+
+  /** The tool handlers of the benchmarked implementation. */
+  private ToolInvoker invoker;
+
+  /**
+   * Creates the tree, the file to read and the tool handlers.
+   *
+   * @throws IOException if the fixtures or the tool specifications cannot be created
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    dir = Fixtures.createTempDir("tools");
+    Path treePath = dir.resolve("tree");
+    Fixtures.createTree(treePath, TREE_ENTRIES);
+    tree = treePath.toString();
+    Path filePath = dir.resolve("file.txt");
+    Fixtures.createTextFile(filePath, FILE_SIZE);
+    file = filePath.toString();
+    invoker =
+        switch (implementation) {
+          case "official" -> new OfficialToolInvoker();
+          case "declarative" -> new DeclarativeToolInvoker();
+          case "spring" -> new SpringToolInvoker();
+          default ->
+              throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+  }
+
+  /**
+   * Deletes the tree, the file to read and any file left to delete.
+   *
+   * @throws IOException if an entry cannot be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Fixtures.delete(dir);
+  }
+
+  @Benchmark
+  public Object find() {
+    return invoker.find(tree, Fixtures.NEEDLE);
+  }
+
+  @Benchmark
+  public Object read() {
+    return invoker.read(file);
+  }
+
+  @Benchmark
+  public Object delete(DeleteTarget target) {
+    return invoker.delete(target.path);
+  }
+
+  /**
+   * A fresh file for each call of the {@code delete} tool, created outside of the measured time.
+   */
+  @State(Scope.Thread)
+  public static class DeleteTarget {
+    /** The file to delete. */
+    private String path;
+
+    /**
+     * Creates the file to delete.
+     *
+     * @param benchmark the benchmark state holding the temporary directory
+     * @throws IOException if the file cannot be created
+     */
+    @Setup(Level.Invocation)
+    public void setUp(ToolsBenchmark benchmark) throws IOException {
+      Path target = benchmark.dir.resolve("delete-" + System.nanoTime() + ".txt");
+      path = Files.createFile(target).toString();
+    }
+  }
+
+  /** The tool handlers of one server implementation. */
+  private interface ToolInvoker {
+    /**
+     * Calls the {@code find} tool.
+     *
+     * @param start the starting directory
+     * @param name the name to search for
+     * @return the result of the call
+     */
+    Object find(String start, String name);
+
+    /**
+     * Calls the {@code read} tool with the default paging.
+     *
+     * @param path the file to read
+     * @return the result of the call
+     */
+    Object read(String path);
+
+    /**
+     * Calls the {@code delete} tool.
+     *
+     * @param path the file to delete
+     * @return the result of the call
+     */
+    Object delete(String path);
+  }
+
+  /** Calls the tool specifications of the official MCP Java SDK implementation. */
+  private static final class OfficialToolInvoker implements ToolInvoker {
+    /** The {@code find} tool specification. */
+    private final McpServerFeatures.SyncToolSpecification find =
+        com.github.mcp.server.filesystem.official.Tools.find();
+
+    /** The {@code read} tool specification. */
+    private final McpServerFeatures.SyncToolSpecification read =
+        com.github.mcp.server.filesystem.official.Tools.read();
+
+    /** The {@code delete} tool specification. */
+    private final McpServerFeatures.SyncToolSpecification delete =
+        com.github.mcp.server.filesystem.official.Tools.delete();
+
+    private OfficialToolInvoker() throws IOException {}
+
+    @Override
+    public Object find(String start, String name) {
+      return call(find, Map.of("start", start, "name", name));
+    }
+
+    @Override
+    public Object read(String path) {
+      return call(read, Map.of("path", path));
+    }
+
+    @Override
+    public Object delete(String path) {
+      return call(delete, Map.of("path", path));
+    }
+
+    /**
+     * Calls the handler of the given tool specification without a client exchange, which the
+     * handlers only use to notify the client.
+     *
+     * @param tool the tool specification
+     * @param arguments the arguments of the call
+     * @return the result of the call
+     */
+    private static McpSchema.CallToolResult call(
+        McpServerFeatures.SyncToolSpecification tool, Map<String, Object> arguments) {
+      McpSchema.CallToolRequest request =
+          new McpSchema.CallToolRequest(tool.tool().name(), arguments);
+      return tool.callHandler().apply(null, request);
+    }
+  }
+
+  /** Calls the tool methods of the declarative MCP Java SDK implementation. */
+  private static final class DeclarativeToolInvoker implements ToolInvoker {
+    /** The tool methods. */
+    private final com.github.mcp.server.filesystem.declarative.Tools tools =
+        new com.github.mcp.server.filesystem.declarative.Tools();
+
+    @Override
+    public Object find(String start, String name) {
+      return tools.find(start, name, null);
+    }
+
+    @Override
+    public Object read(String path) {
+      return tools.read(path, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    @Override
+    public Object delete(String path) {
+      return tools.delete(path, null, null, null, null, null);
+    }
+  }
+
+  /** Calls the tool methods of the Spring AI implementation. */
+  private static final class SpringToolInvoker implements ToolInvoker {
+    /** The tool methods. */
+    private final com.github.mcp.server.filesystem.spring.Tools tools =
+        new com.github.mcp.server.filesystem.spring.Tools();
+
+    @Override
+    public Object find(String start, String name) {
+      return tools.find(start, name, null, null);
+    }
+
+    @Override
+    public Object read(String path) {
+      return tools.read(path, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    @Override
+    public Object delete(String path) {
+      return tools.delete(path, null, null, null, null, null);
+    }
+  }
+}
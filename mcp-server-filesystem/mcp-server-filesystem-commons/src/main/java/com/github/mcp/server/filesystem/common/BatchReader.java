@@ -0,0 +1,240 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads many files in one call. The files are read in parallel, at most {@code
+ * read-many.max-concurrency} at a time, and their total size is bounded by the {@code
+ * read-many.max-bytes} byte budget, see {@link ServerConfig}. The budget is handed out in the
+ * requested order, so that the same request always gets the same files and the same truncation.
+ *
+ * <p>Each file is read from its start through {@link FileHelper#readChunk}, so it is served from
+ * {@link FileCache} or from a memory mapping when possible, and a file larger than its share of the
+ * budget is truncated with a hint on how to continue reading it.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class BatchReader {
+  /** Logger instance for logging batch read events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(BatchReader.class);
+
+  /** The default maximum number of files read at the same time by a single call. */
+  private static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+  /** The default maximum total number of bytes read by a single call, 4 MiB. */
+  private static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+  /** The default maximum number of files read by a single call. */
+  private static final int DEFAULT_MAX_FILES = 500;
+
+  /** The thread number of the next worker thread. */
+  private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+  /** The worker threads shared by all batch reads, bounded by the concurrency of each call. */
+  private static final ExecutorService EXECUTOR =
+      Executors.newCachedThreadPool(
+          runnable -> {
+            Thread thread = new Thread(runnable, "batch-reader-" + THREAD_NUMBER.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private BatchReader() {}
+
+  /**
+   * Reads the given files, bounded by the {@code read-many.*} settings.
+   *
+   * @param paths the paths of the files to read
+   * @return the outcome of each file, in the requested order
+   * @throws InterruptedIOException if the current thread is interrupted while waiting for the reads
+   */
+  public static List<FileContent> read(List<String> paths) throws InterruptedIOException {
+    final int concurrency =
+        ServerConfig.getInt("read-many.max-concurrency", DEFAULT_MAX_CONCURRENCY);
+    final long maxBytes = ServerConfig.getLong("read-many.max-bytes", DEFAULT_MAX_BYTES);
+    final int maxFiles = ServerConfig.getInt("read-many.max-files", DEFAULT_MAX_FILES);
+    return read(paths, concurrency, maxBytes, maxFiles);
+  }
+
+  /**
+   * Reads the given files in parallel. Directories, missing files, files outside of the allowed
+   * roots of {@link PathSandbox}, files beyond the maximum number of files and files left without
+   * budget are reported as errors without failing the others.
+   *
+   * @param paths the paths of the files to read
+   * @param concurrency the maximum number of files read at the same time
+   * @param maxBytes the maximum total number of bytes read
+   * @param maxFiles the maximum number of files read
+   * @return the outcome of each file, in the requested order
+   * @throws InterruptedIOException if the current thread is interrupted while waiting for the reads
+   * @throws IllegalArgumentException if the concurrency is not positive
+   */
+  public static List<FileContent> read(
+      List<String> paths, int concurrency, long maxBytes, int maxFiles)
+      throws InterruptedIOException {
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+    }
+
+    // Step 1: Hand out the byte budget in the requested order.
+    final FileContent[] results = new FileContent[paths.size()];
+    final long[] limits = new long[paths.size()];
+    final Path[] files = new Path[paths.size()];
+    final List<Integer> pending = new ArrayList<>();
+    final long maxChunkSize = FileHelper.maxChunkSize();
+    long remaining = maxBytes;
+    for (int i = 0; i < paths.size(); i++) {
+      final String path = paths.get(i);
+      if (i >= maxFiles) {
+        results[i] = failure(path, "Skipped, at most " + maxFiles + " files are read per call");
+        continue;
+      }
+      try {
+        ResolvedPath resolved = PathSandbox.resolve(path);
+        if (!resolved.exists()) {
+          throw new NoSuchFileException(path);
+        }
+        BasicFileAttributes attributes = resolved.attributes();
+        if (attributes.isDirectory()) {
+          results[i] = failure(path, "Is a directory, use the tool 'read' to list it");
+          continue;
+        }
+        if (attributes.size() == 0) {
+          results[i] = new FileContent(path, emptyChunk(), null);
+          continue;
+        }
+        if (remaining <= 0) {
+          results[i] = failure(path, "Skipped, the budget of " + maxBytes + " bytes is exhausted");
+          continue;
+        }
+        files[i] = resolved.path();
+        // A single read returns at most a chunk, so a larger file must not reserve more budget.
+        limits[i] = Math.min(Math.min(attributes.size(), maxChunkSize), remaining);
+        remaining -= limits[i];
+        pending.add(i);
+      } catch (IOException | RuntimeException e) {
+        results[i] = failure(path, e.toString());
+      }
+    }
+
+    // Step 2: Read the files with at most the given number of workers.
+    final AtomicInteger next = new AtomicInteger();
+    final int workers = Math.min(concurrency, pending.size());
+    List<Future<?>> futures = new ArrayList<>(workers);
+    for (int w = 0; w < workers; w++) {
+      futures.add(
+          EXECUTOR.submit(
+              () -> {
+                for (int n = next.getAndIncrement(); n < pending.size(); ) {
+                  final int i = pending.get(n);
+                  results[i] = readFile(paths.get(i), files[i], limits[i]);
+                  n = next.getAndIncrement();
+                }
+              }));
+    }
+
+    // Step 3: Wait for all workers to finish.
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      InterruptedIOException exception =
+          new InterruptedIOException("Interrupted while reading " + paths.size() + " files");
+      exception.initCause(e);
+      throw exception;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Unexpected error reading files", e.getCause());
+    }
+    return List.of(results);
+  }
+
+  /**
+   * Lists the regular files under the given start directory matching the given glob pattern, sorted
+   * in lexicographic order. A pattern containing {@code /} is matched against the path relative to
+   * the start directory, such as {@code src/**}{@code /*.java}. Any other pattern is matched
+   * against file names, such as {@code *.java}.
+   *
+   * @param start the starting directory
+   * @param glob the glob pattern
+   * @return the absolute paths of the matching files
+   * @throws IOException if the start directory does not exist or cannot be read
+   * @throws IllegalArgumentException if the glob syntax is invalid
+   */
+  public static List<String> glob(Path start, String glob) throws IOException {
+    return FileWalker.glob(start, glob, Files::isRegularFile);
+  }
+
+  /**
+   * Converts the outcome of a batch read into a human-readable text.
+   *
+   * @param contents the outcome of each file
+   * @return the text to return to the client
+   */
+  public static String toText(List<FileContent> contents) {
+    if (contents.isEmpty()) {
+      return "No file to read";
+    }
+    final long failed = contents.stream().filter(content -> !content.isSuccess()).count();
+    StringBuilder text = new StringBuilder();
+    text.append(String.format("Read %d of %d files:", contents.size() - failed, contents.size()));
+    for (FileContent content : contents) {
+      text.append(System.lineSeparator()).append(System.lineSeparator()).append(content);
+    }
+    return text.toString();
+  }
+
+  /**
+   * Reads a file from its start, bounded by its share of the byte budget.
+   *
+   * @param path the path of the file, as requested
+   * @param file the path of the file, resolved by {@link PathSandbox}
+   * @param limit the maximum number of bytes to read
+   * @return the outcome of the read
+   */
+  private static FileContent readFile(String path, Path file, long limit) {
+    try {
+      FileChunk chunk = FileHelper.readChunk(file, 0, limit, FileChunk.Unit.BYTES);
+      return new FileContent(path, chunk, null);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Error reading file: {}", path, e);
+      return failure(path, e.toString());
+    }
+  }
+
+  /**
+   * Creates the outcome of a failed read.
+   *
+   * @param path the path of the file
+   * @param error the reason why the read failed
+   * @return the outcome of the read
+   */
+  private static FileContent failure(String path, String error) {
+    return new FileContent(path, null, error);
+  }
+
+  /**
+   * Creates the chunk of an empty file.
+   *
+   * @return the chunk
+   */
+  private static FileChunk emptyChunk() {
+    return new FileChunk("", FileChunk.Unit.BYTES, 0, 0, 0, true);
+  }
+}
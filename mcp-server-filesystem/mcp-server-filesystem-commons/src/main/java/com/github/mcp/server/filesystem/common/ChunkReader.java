@@ -0,0 +1,435 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads windows of a file either through a {@link FileChannel}, through an {@link
+ * AsynchronousFileChannel} or straight from a memory mapping, so that the memory used by a single
+ * read is bounded by the maximum chunk size whatever the size of the file. Content is decoded as
+ * UTF-8 and windows are aligned to character boundaries, so that consecutive windows can be
+ * concatenated.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+final class ChunkReader {
+  /** The size of the buffer used to scan for line breaks. */
+  private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+  /** The maximum number of bytes of a UTF-8 encoded character. */
+  private static final int MAX_UTF8_LENGTH = 4;
+
+  private ChunkReader() {}
+
+  /**
+   * Reads a window of bytes from the given channel.
+   *
+   * @param channel the channel to read from
+   * @param offset the byte offset to start reading at
+   * @param limit the maximum number of bytes to read
+   * @return the chunk read
+   * @throws IOException if an I/O error occurs while reading
+   */
+  static FileChunk readBytes(FileChannel channel, long offset, long limit) throws IOException {
+    final long size = channel.size();
+    final long start = Math.min(offset, size);
+    final int length = (int) Math.min(limit, size - start);
+
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, start + buffer.position()) < 0) {
+        break;
+      }
+    }
+    Metrics.BYTES_READ.add(buffer.position());
+    return toBytesChunk(buffer, start, size);
+  }
+
+  /**
+   * Reads a window of bytes from the given asynchronous channel, without blocking the calling
+   * thread. The returned future completes on a thread of the channel's thread pool.
+   *
+   * @param channel the channel to read from, not closed by this method
+   * @param offset the byte offset to start reading at
+   * @param limit the maximum number of bytes to read
+   * @return the future of the chunk read
+   * @throws IOException if the size of the file cannot be read
+   */
+  static CompletableFuture<FileChunk> readBytes(
+      AsynchronousFileChannel channel, long offset, long limit) throws IOException {
+    final long size = channel.size();
+    final long start = Math.min(offset, size);
+    final int length = (int) Math.min(limit, size - start);
+
+    CompletableFuture<FileChunk> future = new CompletableFuture<>();
+    CompletionHandler<Integer, ByteBuffer> handler =
+        new CompletionHandler<>() {
+          @Override
+          public void completed(Integer count, ByteBuffer buffer) {
+            if (count >= 0 && buffer.hasRemaining()) {
+              channel.read(buffer, start + buffer.position(), buffer, this);
+              return;
+            }
+            try {
+              Metrics.BYTES_READ.add(buffer.position());
+              future.complete(toBytesChunk(buffer, start, size));
+            } catch (IOException | RuntimeException e) {
+              future.completeExceptionally(e);
+            }
+          }
+
+          @Override
+          public void failed(Throwable e, ByteBuffer buffer) {
+            future.completeExceptionally(e);
+          }
+        };
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    channel.read(buffer, start, buffer, handler);
+    return future;
+  }
+
+  /**
+   * Decodes a window of bytes read from a file into a chunk, trimming partial characters at both
+   * ends of the window.
+   *
+   * @param buffer the bytes read, from the start of the buffer up to its position
+   * @param start the byte offset of the window in the file
+   * @param size the size of the file in bytes
+   * @return the chunk read
+   * @throws IOException if an I/O error occurs while decoding
+   */
+  private static FileChunk toBytesChunk(ByteBuffer buffer, long start, long size)
+      throws IOException {
+    final int count = buffer.position();
+    final int from = start == 0 ? 0 : skipContinuationBytes(buffer, 0, count);
+    final int to = start + count < size ? alignToCharBoundary(buffer, from, count) : count;
+    final String content = decode(buffer, from, to);
+    final long nextOffset = start + to;
+    final boolean eof = nextOffset >= size;
+    return new FileChunk(content, FileChunk.Unit.BYTES, start, nextOffset, size, eof);
+  }
+
+  /**
+   * Reads a window of bytes straight from the given memory mapping of a whole file, without copying
+   * the window into an intermediate array.
+   *
+   * @param mapping the mapping of the whole file
+   * @param offset the byte offset to start reading at
+   * @param limit the maximum number of bytes to read
+   * @return the chunk read
+   * @throws IOException if an I/O error occurs while reading
+   */
+  static FileChunk readBytes(ByteBuffer mapping, long offset, long limit) throws IOException {
+    final int size = mapping.limit();
+    final int start = (int) Math.min(offset, size);
+    final int end = (int) Math.min(start + limit, size);
+
+    final int from = start == 0 ? start : skipContinuationBytes(mapping, start, end);
+    final int to = end < size ? alignToCharBoundary(mapping, from, end) : end;
+    final String content = decode(mapping, from, to);
+    Metrics.BYTES_READ.add(to - start);
+    return new FileChunk(content, FileChunk.Unit.BYTES, start, to, size, to >= size);
+  }
+
+  /**
+   * Reads a window of lines from the given channel. The returned content ends at a line break,
+   * unless a single line is longer than the maximum chunk size, in which case the line is cut and
+   * its remainder is skipped. If the byte position of the first line is given and follows a line
+   * break, reading starts right there. Otherwise, the lines to skip are counted from the start of
+   * the file.
+   *
+   * @param channel the channel to read from
+   * @param offset the number of lines to skip
+   * @param hint the byte position of the first line as returned by a previous read, or {@code -1}
+   * @param limit the maximum number of lines to read
+   * @param maxBytes the maximum number of bytes to read
+   * @return the chunk read
+   * @throws IOException if an I/O error occurs while reading
+   */
+  static FileChunk readLines(FileChannel channel, long offset, long hint, long limit, long maxBytes)
+      throws IOException {
+    final long size = channel.size();
+    ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+    final byte[] bytes = buffer.array();
+
+    // Step 1: Seek to the first line if its position is known, or skip the lines before it.
+    long position = 0;
+    long skipped = 0;
+    if (offset > 0 && hint > 0 && hint <= size && isLineBreak(channel, hint - 1)) {
+      position = hint;
+      skipped = offset;
+    }
+    while (skipped < offset && position < size) {
+      final int count = read(channel, buffer, position);
+      if (count == 0) {
+        break;
+      }
+      int i = 0;
+      while (i < count && skipped < offset) {
+        if (bytes[i++] == '\n') {
+          skipped++;
+        }
+      }
+      position += i;
+    }
+
+    // Step 2: Collect the requested number of lines, bounded by the maximum chunk size.
+    final long start = position;
+    ByteArrayOutputStream output = new ByteArrayOutputStream((int) Math.min(maxBytes, 8192));
+    long lines = 0;
+    boolean cut = false;
+    while (lines < limit && position < size && !cut) {
+      final int count = read(channel, buffer, position);
+      if (count == 0) {
+        break;
+      }
+      final long linesBefore = lines;
+      int i = 0;
+      while (i < count && lines < limit) {
+        if (bytes[i++] == '\n') {
+          lines++;
+        }
+      }
+      if (output.size() + i > maxBytes) {
+        i = (int) (maxBytes - output.size());
+        lines = linesBefore + countLineBreaks(ByteBuffer.wrap(bytes), 0, i);
+        cut = true;
+      }
+      output.write(bytes, 0, i);
+      position += i;
+    }
+
+    // Step 3: End the content at a line break, or cut a single line longer than the chunk size.
+    ByteBuffer content = ByteBuffer.wrap(output.toByteArray());
+    final int length = content.capacity();
+    int end = length;
+    long nextPosition = start + length;
+    if (cut && length > 0 && content.get(length - 1) != '\n') {
+      final int lastLineBreak = lastLineBreak(content, 0, length);
+      if (lastLineBreak >= 0) {
+        end = lastLineBreak + 1;
+        nextPosition = start + end;
+      } else {
+        end = alignToCharBoundary(content, 0, length);
+        nextPosition = -1;
+        lines++;
+      }
+    } else if (!cut && position >= size && length > 0 && content.get(length - 1) != '\n') {
+      lines++;
+    }
+    final String text = decode(content, 0, end);
+    final boolean eof = !cut && position >= size;
+    final long nextOffset = skipped + lines;
+    return new FileChunk(text, FileChunk.Unit.LINES, skipped, nextOffset, nextPosition, size, eof);
+  }
+
+  /**
+   * Reads a window of lines straight from the given memory mapping of a whole file, without copying
+   * the window into an intermediate array. The returned content ends at a line break, unless a
+   * single line is longer than the maximum chunk size, in which case the line is cut and its
+   * remainder is skipped. The first line is found like {@link #readLines(FileChannel, long, long,
+   * long, long)} does.
+   *
+   * @param mapping the mapping of the whole file
+   * @param offset the number of lines to skip
+   * @param hint the byte position of the first line as returned by a previous read, or {@code -1}
+   * @param limit the maximum number of lines to read
+   * @param maxBytes the maximum number of bytes to read
+   * @return the chunk read
+   * @throws IOException if an I/O error occurs while reading
+   */
+  static FileChunk readLines(ByteBuffer mapping, long offset, long hint, long limit, long maxBytes)
+      throws IOException {
+    final int size = mapping.limit();
+
+    // Step 1: Seek to the first line if its position is known, or skip the lines before it.
+    int position = 0;
+    long skipped = 0;
+    if (offset > 0 && hint > 0 && hint <= size && mapping.get((int) hint - 1) == '\n') {
+      position = (int) hint;
+      skipped = offset;
+    }
+    while (skipped < offset && position < size) {
+      if (mapping.get(position++) == '\n') {
+        skipped++;
+      }
+    }
+
+    // Step 2: Find the end of the requested number of lines, bounded by the maximum chunk size.
+    final int start = position;
+    final int end = (int) Math.min(start + maxBytes, size);
+    long lines = 0;
+    while (position < end && lines < limit) {
+      if (mapping.get(position++) == '\n') {
+        lines++;
+      }
+    }
+
+    // Step 3: End the content at a line break, or cut a single line longer than the chunk size.
+    final boolean cut = lines < limit && position < size;
+    long nextPosition = position;
+    if (cut && position > start && mapping.get(position - 1) != '\n') {
+      final int lastLineBreak = lastLineBreak(mapping, start, position);
+      if (lastLineBreak >= 0) {
+        position = lastLineBreak + 1;
+        nextPosition = position;
+      } else {
+        position = alignToCharBoundary(mapping, start, position);
+        nextPosition = -1;
+        lines++;
+      }
+    } else if (!cut && position >= size && position > start && mapping.get(position - 1) != '\n') {
+      lines++;
+    }
+    final String text = decode(mapping, start, position);
+    final boolean eof = !cut && position >= size;
+    Metrics.BYTES_READ.add(position - start);
+    final long nextOffset = skipped + lines;
+    return new FileChunk(text, FileChunk.Unit.LINES, skipped, nextOffset, nextPosition, size, eof);
+  }
+
+  /**
+   * Decodes the given range of a buffer as UTF-8, replacing malformed input.
+   *
+   * @param buffer the buffer to decode, its position and limit are not modified
+   * @param from the start of the range
+   * @param to the end of the range
+   * @return the decoded string
+   * @throws CharacterCodingException never, as malformed input is replaced
+   */
+  private static String decode(ByteBuffer buffer, int from, int to)
+      throws CharacterCodingException {
+    return StandardCharsets.UTF_8
+        .newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+        .decode(buffer.slice(from, to - from))
+        .toString();
+  }
+
+  /**
+   * Reads as many bytes as available into the given buffer, starting at the given position.
+   *
+   * @param channel the channel to read from
+   * @param buffer the buffer to read into, cleared before reading
+   * @param position the position to read at
+   * @return the number of bytes read, zero at the end of the file
+   * @throws IOException if an I/O error occurs while reading
+   */
+  private static int read(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    buffer.clear();
+    final int count = Math.max(channel.read(buffer, position), 0);
+    Metrics.BYTES_READ.add(count);
+    return count;
+  }
+
+  /**
+   * Tests whether the byte at the given position of a file is a line break.
+   *
+   * @param channel the channel to read from
+   * @param position the position of the byte, within the file
+   * @return {@code true} if the byte is a line break
+   * @throws IOException if an I/O error occurs while reading
+   */
+  private static boolean isLineBreak(FileChannel channel, long position) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(1);
+    return channel.read(buffer, position) == 1 && buffer.get(0) == '\n';
+  }
+
+  /**
+   * Counts the line breaks in the given range.
+   *
+   * @param buffer the bytes to scan
+   * @param from the start of the range
+   * @param to the end of the range
+   * @return the number of line breaks in the range
+   */
+  private static int countLineBreaks(ByteBuffer buffer, int from, int to) {
+    int count = 0;
+    for (int i = from; i < to; i++) {
+      if (buffer.get(i) == '\n') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the index of the last line break in the given range.
+   *
+   * @param buffer the bytes to scan
+   * @param from the start of the range
+   * @param to the end of the range
+   * @return the index of the last line break, or {@code -1} if there is none
+   */
+  private static int lastLineBreak(ByteBuffer buffer, int from, int to) {
+    for (int i = to - 1; i >= from; i--) {
+      if (buffer.get(i) == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Skips the UTF-8 continuation bytes at the start of the given range, which belong to a character
+   * that started before the range.
+   *
+   * @param buffer the bytes to scan
+   * @param from the start of the range
+   * @param to the end of the range
+   * @return the index of the first byte that does not continue a previous character
+   */
+  private static int skipContinuationBytes(ByteBuffer buffer, int from, int to) {
+    int index = from;
+    while (index < to && index - from < MAX_UTF8_LENGTH - 1 && isContinuation(buffer.get(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Moves the end of the given range back to the start of a trailing, incomplete UTF-8 character,
+   * so that the character is read as a whole by the next window.
+   *
+   * @param buffer the bytes to scan
+   * @param from the start of the range
+   * @param to the end of the range
+   * @return the end of the range aligned to a character boundary, or {@code to} if the range does
+   *     not contain a complete character at all
+   */
+  private static int alignToCharBoundary(ByteBuffer buffer, int from, int to) {
+    int lead = to - 1;
+    while (lead > from && to - lead < MAX_UTF8_LENGTH && isContinuation(buffer.get(lead))) {
+      lead--;
+    }
+    if (lead < from) {
+      return to;
+    }
+    final int b = buffer.get(lead) & 0xFF;
+    final int expected = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+    if (to - lead >= expected || lead == from) {
+      return to;
+    }
+    return lead;
+  }
+
+  /**
+   * Tests whether the given byte continues a multi-byte UTF-8 character.
+   *
+   * @param b the byte to test
+   * @return {@code true} if the byte is a continuation byte
+   */
+  private static boolean isContinuation(byte b) {
+    return (b & 0xC0) == 0x80;
+  }
+}
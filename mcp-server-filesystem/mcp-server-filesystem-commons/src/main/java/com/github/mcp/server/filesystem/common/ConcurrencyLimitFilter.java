@@ -0,0 +1,91 @@
+package com.github.mcp.server.filesystem.common;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A servlet filter that bounds the number of requests handled at the same time. Requests beyond the
+ * limit wait in a bounded queue for a slot, and are rejected with status 503 if the queue is full
+ * or no slot frees up in time, so that excess load is shed instead of piling up on the thread pool.
+ *
+ * <p>A slot is held while the servlet handles the request. Long-lived SSE streams hand their
+ * request over to the container asynchronously, so they do not hold a slot for their lifetime.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+final class ConcurrencyLimitFilter implements Filter {
+  /** Logger instance for logging rejected requests. */
+  private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+  /** The number of seconds after which rejected clients are asked to retry. */
+  private static final String RETRY_AFTER_SECONDS = "1";
+
+  /** The slots of the requests being handled. */
+  private final Semaphore slots;
+
+  /** The maximum number of requests waiting for a slot. */
+  private final int maxQueuedRequests;
+
+  /** The maximum time a request waits for a slot. */
+  private final Duration queueTimeout;
+
+  /** The number of requests waiting for a slot. */
+  private final AtomicInteger queued = new AtomicInteger();
+
+  ConcurrencyLimitFilter(int maxConcurrentRequests, int maxQueuedRequests, Duration queueTimeout) {
+    this.slots = new Semaphore(maxConcurrentRequests);
+    this.maxQueuedRequests = maxQueuedRequests;
+    this.queueTimeout = queueTimeout;
+  }
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException {
+    if (!acquire()) {
+      log.warn("Rejecting request, {} requests are queued already", queued.get());
+      HttpServletResponse httpResponse = (HttpServletResponse) response;
+      httpResponse.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+      httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      return;
+    }
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      slots.release();
+    }
+  }
+
+  /**
+   * Acquires a slot, waiting in the queue if no slot is free.
+   *
+   * @return {@code true} if a slot was acquired, {@code false} if the request must be rejected
+   */
+  private boolean acquire() {
+    if (slots.tryAcquire()) {
+      return true;
+    }
+    if (queued.incrementAndGet() > maxQueuedRequests) {
+      queued.decrementAndGet();
+      return false;
+    }
+    try {
+      return slots.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      queued.decrementAndGet();
+    }
+  }
+}
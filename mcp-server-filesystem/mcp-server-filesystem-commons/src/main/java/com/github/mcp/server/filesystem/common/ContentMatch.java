@@ -0,0 +1,27 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.util.Comparator;
+
+/**
+ * A line of a file containing a match of a content search.
+ *
+ * @param path the absolute path of the file
+ * @param line the number of the matching line, starting at 1
+ * @param text the text of the matching line, without its line break
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record ContentMatch(String path, long line, String text) {
+  /** Orders matches by path, then by line number. */
+  public static final Comparator<ContentMatch> ORDER =
+      Comparator.comparing(ContentMatch::path).thenComparingLong(ContentMatch::line);
+
+  /**
+   * Returns this match in the {@code path:line: text} format of the {@code grep} command.
+   *
+   * @return the text to return to the client
+   */
+  @Override
+  public String toString() {
+    return path + ":" + line + ": " + text;
+  }
+}
@@ -0,0 +1,437 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Searches the contents of the files of a file tree for a literal text. Files are scanned in
+ * parallel by the worker threads of {@link FileWalker}, and each file is matched on its raw UTF-8
+ * bytes with the Boyer-Moore-Horspool algorithm, so that only the matching lines are ever decoded.
+ * Files containing a NUL byte within their first 8 KiB are considered binary and skipped, like the
+ * {@code grep} command does. The matching lines found so far are handed over in batches while the
+ * search runs, like {@link FileFinder} does with paths.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class ContentSearcher {
+  /** Logger instance for logging search events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(ContentSearcher.class);
+
+  /** The size of the buffer each file is scanned with. */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** The number of leading bytes inspected to detect binary files. */
+  private static final int BINARY_CHECK_SIZE = 8 * 1024;
+
+  /** The default maximum number of matches returned by a single search. */
+  private static final int DEFAULT_MAX_RESULTS = 1000;
+
+  /** The default interval between two batches of matches, in milliseconds. */
+  private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 50;
+
+  /** The maximum number of characters of a matching line returned to the client. */
+  private static final int MAX_LINE_LENGTH = 500;
+
+  /** The scan buffer of each worker thread, reused across files. */
+  private static final ThreadLocal<byte[]> BUFFERS =
+      ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+  private ContentSearcher() {}
+
+  /**
+   * Searches the files under the given start path for the given literal text, and hands over every
+   * new batch of matching lines to the listener on the calling thread, every {@code
+   * grep.flush-interval} milliseconds, see {@link ServerConfig}. Only the first match of a line is
+   * reported, and the search stops as soon as the maximum number of matches is reached, the search
+   * is cancelled, or a batch cannot be delivered, so that no more than {@code maxResults} matches
+   * are ever kept.
+   *
+   * @param start the starting path of the search, a file or a directory
+   * @param literal the text to search for, case-sensitive
+   * @param include the matcher the names of the searched files must match
+   * @param maxResults the maximum number of matches to report
+   * @param cancelled the condition telling whether the search is cancelled, checked concurrently
+   * @param listener the listener to receive the batches of matches, in the order they were found,
+   *     an exception thrown by the listener stops the search and is rethrown
+   * @return the list of the matches found sorted by path and line number, at most {@code
+   *     maxResults} of them
+   * @throws IOException if the start path does not exist or cannot be read, or if the calling
+   *     thread is interrupted, in which case the search is stopped
+   * @throws IllegalArgumentException if the literal text is empty or the maximum is not positive
+   */
+  public static List<ContentMatch> search(
+      Path start,
+      String literal,
+      NameMatcher include,
+      int maxResults,
+      BooleanSupplier cancelled,
+      Consumer<List<ContentMatch>> listener)
+      throws IOException {
+    if (maxResults <= 0) {
+      throw new IllegalArgumentException("Max results must be positive: " + maxResults);
+    }
+    final BytePattern pattern = new BytePattern(literal.getBytes(StandardCharsets.UTF_8));
+
+    // Step 1: Scan the files on the worker threads, until enough matches are found.
+    final ResultStream<ContentMatch> stream = new ResultStream<>(flushIntervalMillis(), listener);
+    final AtomicInteger remaining = new AtomicInteger(maxResults);
+    final BooleanSupplier stopped =
+        () -> stream.isAborted() || remaining.get() <= 0 || cancelled.getAsBoolean();
+    CompletableFuture<Void> walk =
+        FileWalker.walkAsync(
+            start,
+            include,
+            stopped,
+            path -> {
+              if (!stopped.getAsBoolean() && Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) {
+                scan(path, pattern, remaining, stream::add);
+              }
+            });
+
+    // Step 2: Hand over the matches found so far on this thread, until the walk is done.
+    List<ContentMatch> matches = stream.drain(start, walk);
+    matches.sort(ContentMatch.ORDER);
+    return matches;
+  }
+
+  /**
+   * Searches the files under the given start path for the given literal text, and collects the
+   * matching lines without streaming.
+   *
+   * @param start the starting path of the search, a file or a directory
+   * @param literal the text to search for, case-sensitive
+   * @param include the matcher the names of the searched files must match
+   * @param maxResults the maximum number of matches to return
+   * @return the list of the matches found sorted by path and line number
+   * @throws IOException if the start path does not exist or cannot be read
+   * @throws IllegalArgumentException if the literal text is empty or the maximum is not positive
+   */
+  public static List<ContentMatch> search(
+      Path start, String literal, NameMatcher include, int maxResults) throws IOException {
+    return search(start, literal, include, maxResults, () -> false, matches -> {});
+  }
+
+  /**
+   * Returns the default maximum number of matches of a search, which is the {@code
+   * grep.max-results} setting, see {@link ServerConfig}.
+   *
+   * @return the default maximum number of matches
+   */
+  public static int defaultMaxResults() {
+    return ServerConfig.getInt("grep.max-results", DEFAULT_MAX_RESULTS);
+  }
+
+  /**
+   * Returns the given matches as text, one {@code path:line: text} per line, followed by a hint if
+   * the search stopped at the maximum number of matches.
+   *
+   * @param literal the text that was searched for
+   * @param matches the matches of the search
+   * @param maxResults the maximum number of matches of the search
+   * @return the text to return to the client
+   */
+  public static String toText(String literal, List<ContentMatch> matches, int maxResults) {
+    if (matches.isEmpty()) {
+      return String.format("No match found for '%s'", literal);
+    }
+    StringBuilder text = new StringBuilder();
+    text.append(String.format("Found %d matches for '%s':", matches.size(), literal));
+    for (ContentMatch match : matches) {
+      text.append(System.lineSeparator()).append(match);
+    }
+    if (matches.size() >= maxResults) {
+      text.append(System.lineSeparator()).append(System.lineSeparator());
+      text.append(
+          String.format(
+              "[Stopped after %d matches. Narrow the search or raise maxResults to see more.]",
+              maxResults));
+    }
+    return text.toString();
+  }
+
+  /**
+   * Returns the interval between two batches of matches, which is the {@code grep.flush-interval}
+   * setting in milliseconds, see {@link ServerConfig}.
+   *
+   * @return the interval in milliseconds
+   */
+  private static long flushIntervalMillis() {
+    return ServerConfig.getLong("grep.flush-interval", DEFAULT_FLUSH_INTERVAL_MILLIS);
+  }
+
+  /**
+   * Scans a single file for the given pattern. Unreadable files are logged and skipped.
+   *
+   * @param path the absolute path of the file
+   * @param pattern the pattern to search for
+   * @param remaining the number of matches that may still be reported
+   * @param consumer the consumer to receive the matches
+   */
+  private static void scan(
+      Path path, BytePattern pattern, AtomicInteger remaining, Consumer<ContentMatch> consumer) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      scan(channel, path.toString(), pattern, remaining, consumer);
+    } catch (IOException e) {
+      log.debug("Skipping unreadable file: {}", path, e);
+    }
+  }
+
+  /**
+   * Scans the content of a file for the given pattern, block by block. Each block ends at a line
+   * break, so that matches never span two blocks, unless a single line is longer than the buffer,
+   * in which case the line is scanned in pieces. The pieces overlap by the length of the pattern
+   * less one byte, so that a match across two pieces is still found, and a line matching in several
+   * pieces is only reported once, with the text of the piece its first match was found in.
+   *
+   * @param channel the channel to read the file from
+   * @param path the path of the file, as reported in matches
+   * @param pattern the pattern to search for
+   * @param remaining the number of matches that may still be reported
+   * @param consumer the consumer to receive the matches
+   * @throws IOException if an I/O error occurs while reading the file
+   */
+  private static void scan(
+      FileChannel channel,
+      String path,
+      BytePattern pattern,
+      AtomicInteger remaining,
+      Consumer<ContentMatch> consumer)
+      throws IOException {
+    final byte[] buffer = BUFFERS.get();
+    final ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+    int length = 0;
+    long line = 1;
+    boolean eof = false;
+    boolean checked = false;
+    boolean matched = false;
+
+    while (!eof || length > 0) {
+      // Step 1: Fill the buffer, or reach the end of the file.
+      while (!eof && length < buffer.length) {
+        wrapper.limit(buffer.length).position(length);
+        final int count = channel.read(wrapper);
+        if (count < 0) {
+          eof = true;
+        } else if (count == 0) {
+          break;
+        } else {
+          length += count;
+          Metrics.BYTES_READ.add(count);
+        }
+      }
+      if (!checked) {
+        if (isBinary(buffer, Math.min(length, BINARY_CHECK_SIZE))) {
+          return;
+        }
+        checked = true;
+      }
+
+      // Step 2: Scan a piece of a line longer than the buffer, keeping its last bytes for the next
+      // piece, since they may start a match.
+      final int end = eof ? length : lastIndexOf(buffer, (byte) '\n', length) + 1;
+      if (end == 0) {
+        if (!matched && pattern.indexOf(buffer, 0, length) >= 0) {
+          if (remaining.getAndDecrement() <= 0) {
+            return;
+          }
+          consumer.accept(new ContentMatch(path, line, decodeLine(buffer, 0, length)));
+          matched = true;
+        }
+        final int overlap = Math.min(pattern.length() - 1, length - 1);
+        System.arraycopy(buffer, length - overlap, buffer, 0, overlap);
+        length = overlap;
+        continue;
+      }
+
+      // Step 3: Scan up to the last complete line in the buffer, skipping the end of a long line
+      // that already matched.
+      int position = 0;
+      if (matched) {
+        final int lineEnd = indexOf(buffer, (byte) '\n', 0, end);
+        position = lineEnd < 0 ? end : lineEnd + 1;
+        matched = false;
+      }
+      int counted = 0;
+      while (position < end) {
+        final int index = pattern.indexOf(buffer, position, end);
+        if (index < 0) {
+          break;
+        }
+        final int lineStart = lastIndexOf(buffer, (byte) '\n', index) + 1;
+        int lineEnd = indexOf(buffer, (byte) '\n', index, end);
+        lineEnd = lineEnd < 0 ? end : lineEnd;
+        line += count(buffer, (byte) '\n', counted, lineStart);
+        counted = lineStart;
+        if (remaining.getAndDecrement() <= 0) {
+          return;
+        }
+        consumer.accept(new ContentMatch(path, line, decodeLine(buffer, lineStart, lineEnd)));
+        position = lineEnd + 1;
+      }
+      line += count(buffer, (byte) '\n', counted, end);
+
+      // Step 4: Keep the incomplete last line for the next block.
+      System.arraycopy(buffer, end, buffer, 0, length - end);
+      length -= end;
+      if (eof && length == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Tests whether the given leading bytes of a file contain a NUL byte.
+   *
+   * @param buffer the leading bytes of the file
+   * @param length the number of bytes to inspect
+   * @return {@code true} if the file is considered binary
+   */
+  private static boolean isBinary(byte[] buffer, int length) {
+    return indexOf(buffer, (byte) 0, 0, length) >= 0;
+  }
+
+  /**
+   * Decodes a matching line, without its trailing carriage return and cut to the maximum line
+   * length.
+   *
+   * @param buffer the bytes of the block containing the line
+   * @param from the start of the line
+   * @param to the end of the line, excluding the line break
+   * @return the decoded line
+   */
+  private static String decodeLine(byte[] buffer, int from, int to) {
+    if (to > from && buffer[to - 1] == '\r') {
+      to--;
+    }
+    final String text = new String(buffer, from, to - from, StandardCharsets.UTF_8);
+    if (text.length() <= MAX_LINE_LENGTH) {
+      return text;
+    }
+    return text.substring(0, MAX_LINE_LENGTH) + "...";
+  }
+
+  /**
+   * Returns the index of the first occurrence of a byte in the given range.
+   *
+   * @param buffer the bytes to scan
+   * @param b the byte to search for
+   * @param from the start of the range
+   * @param to the end of the range
+   * @return the index of the byte, or {@code -1} if it does not occur
+   */
+  private static int indexOf(byte[] buffer, byte b, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (buffer[i] == b) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of the last occurrence of a byte before the given index.
+   *
+   * @param buffer the bytes to scan
+   * @param b the byte to search for
+   * @param to the end of the range
+   * @return the index of the byte, or {@code -1} if it does not occur
+   */
+  private static int lastIndexOf(byte[] buffer, byte b, int to) {
+    for (int i = to - 1; i >= 0; i--) {
+      if (buffer[i] == b) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Counts the occurrences of a byte in the given range.
+   *
+   * @param buffer the bytes to scan
+   * @param b the byte to count
+   * @param from the start of the range
+   * @param to the end of the range
+   * @return the number of occurrences
+   */
+  private static int count(byte[] buffer, byte b, int from, int to) {
+    int count = 0;
+    for (int i = from; i < to; i++) {
+      if (buffer[i] == b) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /** A literal byte pattern matched with the Boyer-Moore-Horspool algorithm. */
+  private static final class BytePattern {
+    /** The bytes of the pattern. */
+    private final byte[] pattern;
+
+    /** The distance to shift the pattern by, indexed by the byte under its last position. */
+    private final int[] shifts = new int[256];
+
+    BytePattern(byte[] pattern) {
+      if (pattern.length == 0) {
+        throw new IllegalArgumentException("Search text must not be empty");
+      }
+      this.pattern = pattern;
+      Arrays.fill(shifts, pattern.length);
+      for (int i = 0; i < pattern.length - 1; i++) {
+        shifts[pattern[i] & 0xFF] = pattern.length - 1 - i;
+      }
+    }
+
+    /**
+     * Returns the number of bytes of this pattern.
+     *
+     * @return the length of the pattern
+     */
+    int length() {
+      return pattern.length;
+    }
+
+    /**
+     * Returns the index of the first occurrence of this pattern in the given range.
+     *
+     * @param buffer the bytes to scan
+     * @param from the start of the range
+     * @param to the end of the range
+     * @return the index of the first occurrence, or {@code -1} if there is none
+     */
+    int indexOf(byte[] buffer, int from, int to) {
+      final int last = pattern.length - 1;
+      final byte lastByte = pattern[last];
+      int i = from;
+      while (i + last < to) {
+        final byte b = buffer[i + last];
+        if (b == lastByte) {
+          int j = last - 1;
+          while (j >= 0 && buffer[i + j] == pattern[j]) {
+            j--;
+          }
+          if (j < 0) {
+            return i;
+          }
+        }
+        i += shifts[b & 0xFF];
+      }
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.util.List;
+
+/**
+ * The outcome of a copy or move by {@link FileCopier}, or its progress so far.
+ *
+ * @param source the path copied or moved
+ * @param target the path it was copied or moved to
+ * @param moved whether the source was moved rather than copied
+ * @param renamed whether the source was moved by a single rename, in which case nothing was copied
+ *     and the counts are zero
+ * @param files the number of files copied
+ * @param dirs the number of directories created
+ * @param links the number of symbolic links copied as links
+ * @param bytes the number of bytes copied
+ * @param failures the number of entries that could not be copied
+ * @param errors the first errors met, at most ten of them
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record CopyResult(
+    String source,
+    String target,
+    boolean moved,
+    boolean renamed,
+    long files,
+    long dirs,
+    long links,
+    long bytes,
+    long failures,
+    List<String> errors) {
+
+  /**
+   * Returns whether every entry was copied or moved.
+   *
+   * @return {@code true} if no entry failed
+   */
+  public boolean isSuccess() {
+    return failures == 0;
+  }
+
+  @Override
+  public String toString() {
+    if (renamed) {
+      return String.format("Moved %s to %s", source, target);
+    }
+    StringBuilder text = new StringBuilder();
+    text.append(
+        String.format(
+            "%s %s to %s, %d files, %d dirs and %d links, %d bytes",
+            moved ? "Moved" : "Copied", source, target, files, dirs, links, bytes));
+    if (failures > 0) {
+      text.append(", ").append(failures).append(" failed:");
+      for (String error : errors) {
+        text.append(System.lineSeparator()).append("  ").append(error);
+      }
+    }
+    return text.toString();
+  }
+}
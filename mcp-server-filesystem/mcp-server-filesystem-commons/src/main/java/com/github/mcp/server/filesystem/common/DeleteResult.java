@@ -0,0 +1,29 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.util.List;
+
+/**
+ * The outcome of deleting a single path given to the {@code delete} tool, or of pretending to in a
+ * dry run, see {@link FileDeleter}.
+ *
+ * @param path the absolute path given to delete
+ * @param files the number of files deleted, symbolic links and other entries that are not
+ *     directories included
+ * @param dirs the number of directories deleted, the path itself included
+ * @param bytes the total size of the files deleted, in bytes
+ * @param failures the number of entries that could not be deleted
+ * @param errors the first errors met, one line each
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record DeleteResult(
+    String path, long files, long dirs, long bytes, long failures, List<String> errors) {
+
+  /**
+   * Returns whether the path was entirely deleted.
+   *
+   * @return {@code true} if no entry failed to be deleted
+   */
+  public boolean isSuccess() {
+    return failures == 0;
+  }
+}
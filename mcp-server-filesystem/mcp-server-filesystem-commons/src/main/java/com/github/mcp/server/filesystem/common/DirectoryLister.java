@@ -0,0 +1,234 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lists a directory one page at a time, filtered and sorted, with memory bounded by the size of a
+ * page whatever the size of the directory. Each page streams the whole directory once, reads the
+ * attributes of each entry, and keeps only the entries that come right after the cursor in a heap
+ * holding at most one page. The cursor is the sort key of the last entry of the previous page, so
+ * it stays valid while entries are added or removed in the meantime.
+ *
+ * <p>Where the platform supports it, the attributes are read relative to the open directory through
+ * a {@link SecureDirectoryStream}, which spares resolving the full path of every entry again.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class DirectoryLister {
+  /** Logger instance for logging listing events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(DirectoryLister.class);
+
+  /** The separator of the fields of a cursor. */
+  private static final String CURSOR_SEPARATOR = ":";
+
+  private DirectoryLister() {}
+
+  /**
+   * Lists a page of the given directory.
+   *
+   * @param dir the directory to list
+   * @param query the filters, order and position of the page
+   * @return the listing of the page, with the cursor of the next page if there is one
+   * @throws IOException if the directory cannot be read
+   * @throws IllegalArgumentException if the cursor is invalid or was returned for another order
+   */
+  public static FileListing list(Path dir, DirectoryQuery query) throws IOException {
+    final Path dirPath = dir.toAbsolutePath();
+    final Comparator<Item> order = order(query);
+    final Item after = query.cursor() == null ? null : decode(query.cursor(), query);
+
+    // Step 1: Stream the directory, keeping the first entries after the cursor in a bounded heap,
+    // with one entry more than the page to tell whether there is a next page.
+    PriorityQueue<Item> page = new PriorityQueue<>(order.reversed());
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dirPath)) {
+      for (Path path : stream) {
+        if (!query.include().matches(path)) {
+          continue;
+        }
+        FileEntry entry = entry(stream, path);
+        if (!query.accepts(entry)) {
+          continue;
+        }
+        Item item = new Item(path.getFileName().toString(), entry);
+        if (after != null && order.compare(item, after) <= 0) {
+          continue;
+        }
+        page.add(item);
+        if (page.size() > query.limit() + 1) {
+          page.poll();
+        }
+      }
+    } catch (DirectoryIteratorException e) {
+      throw e.getCause();
+    }
+
+    // Step 2: Drop the extra entry, which the next page starts with.
+    final boolean hasNext = page.size() > query.limit();
+    if (hasNext) {
+      page.poll();
+    }
+    List<Item> items = new ArrayList<>(page);
+    items.sort(order);
+
+    List<FileEntry> entries = new ArrayList<>(items.size());
+    for (Item item : items) {
+      entries.add(item.entry());
+    }
+    final String nextCursor = hasNext ? encode(items.get(items.size() - 1), query) : null;
+    return new FileListing(dirPath.toString(), entries, hasNext, nextCursor);
+  }
+
+  /**
+   * Returns the given page as text, followed by a hint on how to list the next page if there is
+   * one.
+   *
+   * @param dir the directory that was listed, as given by the client
+   * @param listing the listing of the page
+   * @param withEntries whether to include the entries, or only a summary
+   * @return the text to return to the client
+   */
+  public static String toText(String dir, FileListing listing, boolean withEntries) {
+    final int count = listing.entries().size();
+    if (listing.nextCursor() == null) {
+      return listing.toText(
+          String.format("The dir '%s' contains %d matching entries:", dir, count), withEntries);
+    }
+    final String text =
+        listing.toText(
+            String.format("Listing %d matching entries of the dir '%s':", count, dir), withEntries);
+    final String hint =
+        String.format(
+            "[More entries follow. Call the tool 'read' again with cursor=%s to list them.]",
+            listing.nextCursor());
+    return text + System.lineSeparator() + System.lineSeparator() + hint;
+  }
+
+  /**
+   * Reads the entry of the given path listed by the given stream, relative to the open directory if
+   * the stream supports it.
+   *
+   * @param stream the stream listing the directory
+   * @param path the path of the entry
+   * @return the entry, with the {@code unknown} type if its attributes cannot be read
+   */
+  private static FileEntry entry(DirectoryStream<Path> stream, Path path) {
+    if (!(stream instanceof SecureDirectoryStream<Path> secure)) {
+      return FileEntry.of(path);
+    }
+    try {
+      BasicFileAttributes attributes =
+          secure
+              .getFileAttributeView(
+                  path.getFileName(), BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS)
+              .readAttributes();
+      return FileEntry.of(path, attributes);
+    } catch (IOException e) {
+      log.debug("Cannot read the attributes of: {}", path, e);
+      return new FileEntry(path.toString(), "unknown", 0, 0);
+    }
+  }
+
+  /**
+   * Returns the order of the entries of the given query. Ties are broken by name, so that the order
+   * is total and a cursor designates a single position.
+   *
+   * @param query the query
+   * @return the comparator of the entries
+   */
+  private static Comparator<Item> order(DirectoryQuery query) {
+    final Comparator<Item> byName = Comparator.comparing(Item::name);
+    Comparator<Item> order =
+        switch (query.sort()) {
+          case NAME -> byName;
+          case SIZE ->
+              Comparator.comparingLong((Item item) -> item.entry().size()).thenComparing(byName);
+          case MODIFIED ->
+              Comparator.comparingLong((Item item) -> item.entry().lastModified())
+                  .thenComparing(byName);
+        };
+    return query.descending() ? order.reversed() : order;
+  }
+
+  /**
+   * Encodes the cursor designating the position right after the given entry.
+   *
+   * @param item the last entry of a page
+   * @param query the query of the page
+   * @return the cursor, an opaque URL-safe string
+   */
+  private static String encode(Item item, DirectoryQuery query) {
+    final long key =
+        switch (query.sort()) {
+          case NAME -> 0;
+          case SIZE -> item.entry().size();
+          case MODIFIED -> item.entry().lastModified();
+        };
+    final String cursor =
+        String.join(
+            CURSOR_SEPARATOR,
+            query.sort().label,
+            query.descending() ? "desc" : "asc",
+            Long.toString(key),
+            item.name());
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes the given cursor into the entry it designates the position after.
+   *
+   * @param cursor the cursor returned by the previous page
+   * @param query the query of the page
+   * @return an entry holding the sort key of the cursor
+   * @throws IllegalArgumentException if the cursor is invalid or was returned for another order
+   */
+  private static Item decode(String cursor, DirectoryQuery query) {
+    final String[] fields;
+    try {
+      final byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+      fields = new String(bytes, StandardCharsets.UTF_8).split(CURSOR_SEPARATOR, 4);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+    if (fields.length != 4) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+    final String order = query.descending() ? "desc" : "asc";
+    if (!fields[0].equals(query.sort().label) || !fields[1].equals(order)) {
+      throw new IllegalArgumentException(
+          "The cursor was returned for another order: " + fields[0] + " " + fields[1]);
+    }
+    final long key;
+    try {
+      key = Long.parseLong(fields[2]);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+    return new Item(fields[3], new FileEntry(fields[3], "unknown", key, key));
+  }
+
+  /**
+   * A listed entry together with its name, which it is sorted by.
+   *
+   * @param name the name of the entry
+   * @param entry the entry
+   */
+  private record Item(String name, FileEntry entry) {}
+}
@@ -0,0 +1,200 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A page of a directory listing to return, see {@link DirectoryLister}: which entries to keep, in
+ * which order, and where the page starts.
+ *
+ * @param include the matcher the names of the listed entries must match
+ * @param type the type the listed entries must have, see {@link FileEntry#type()}, {@code null} for
+ *     any type
+ * @param minSize the minimum size of the listed entries in bytes
+ * @param maxSize the maximum size of the listed entries in bytes
+ * @param modifiedSince the time the listed entries must have been modified at or after, in
+ *     milliseconds since the epoch
+ * @param sort the key the entries are sorted by
+ * @param descending whether the entries are sorted in descending order
+ * @param cursor the cursor returned by the previous page, {@code null} for the first page
+ * @param limit the maximum number of entries of the page
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record DirectoryQuery(
+    NameMatcher include,
+    String type,
+    long minSize,
+    long maxSize,
+    long modifiedSince,
+    Sort sort,
+    boolean descending,
+    String cursor,
+    int limit) {
+
+  /** The default maximum number of entries of a page. */
+  private static final int DEFAULT_PAGE_SIZE = 1000;
+
+  /** The types entries can be filtered by. */
+  private static final List<String> TYPES = List.of("file", "directory", "symlink", "other");
+
+  /**
+   * Parses a query from the arguments of a tool call, all of which are optional.
+   *
+   * @param include the pattern the names of the listed entries must match, same syntax as {@link
+   *     NameMatcher#of(String)}
+   * @param type the type of the listed entries: {@code file}, {@code directory}, {@code symlink} or
+   *     {@code other}
+   * @param minSize the minimum size of the listed entries in bytes
+   * @param maxSize the maximum size of the listed entries in bytes
+   * @param modifiedSince the time the listed entries must have been modified at or after, as an
+   *     ISO-8601 instant such as {@code 2024-01-31T12:00:00Z}, an ISO-8601 date taken at midnight
+   *     UTC, or a number of milliseconds since the epoch
+   * @param sort the key to sort by: {@code name}, {@code size} or {@code modified}, defaults to
+   *     {@code name}
+   * @param order the order to sort in: {@code asc} or {@code desc}, defaults to {@code asc}
+   * @param cursor the cursor returned by the previous page
+   * @param limit the maximum number of entries of the page, capped by the {@code list.page-size}
+   *     setting, see {@link ServerConfig}
+   * @return the query
+   * @throws IllegalArgumentException if an argument is invalid
+   */
+  public static DirectoryQuery of(
+      String include,
+      String type,
+      Long minSize,
+      Long maxSize,
+      String modifiedSince,
+      String sort,
+      String order,
+      String cursor,
+      Long limit) {
+    final String entryType = isBlank(type) ? null : type.trim().toLowerCase(Locale.ROOT);
+    if (entryType != null && !TYPES.contains(entryType)) {
+      throw new IllegalArgumentException(
+          "Unsupported type: " + type + ", expected one of " + String.join(", ", TYPES));
+    }
+
+    final boolean descending;
+    if (isBlank(order) || order.trim().equalsIgnoreCase("asc")) {
+      descending = false;
+    } else if (order.trim().equalsIgnoreCase("desc")) {
+      descending = true;
+    } else {
+      throw new IllegalArgumentException("Unsupported order: " + order + ", expected asc or desc");
+    }
+
+    final int pageSize = pageSize();
+    if (limit != null && limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive: " + limit);
+    }
+
+    return new DirectoryQuery(
+        NameMatcher.of(isBlank(include) ? "*" : include),
+        entryType,
+        minSize == null ? 0 : minSize,
+        maxSize == null ? Long.MAX_VALUE : maxSize,
+        isBlank(modifiedSince) ? Long.MIN_VALUE : parseTime(modifiedSince.trim()),
+        Sort.of(sort),
+        descending,
+        isBlank(cursor) ? null : cursor.trim(),
+        limit == null ? pageSize : (int) Math.min(limit, pageSize));
+  }
+
+  /**
+   * Returns the default and maximum number of entries of a page, which is the {@code
+   * list.page-size} setting, see {@link ServerConfig}.
+   *
+   * @return the page size
+   */
+  public static int pageSize() {
+    return ServerConfig.getInt("list.page-size", DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * Returns whether the given entry passes the filters of this query, all but its name.
+   *
+   * @param entry the entry to test
+   * @return {@code true} if the entry is to be listed
+   */
+  boolean accepts(FileEntry entry) {
+    return (type == null || type.equals(entry.type()))
+        && entry.size() >= minSize
+        && entry.size() <= maxSize
+        && entry.lastModified() >= modifiedSince;
+  }
+
+  /**
+   * Parses a point in time given as an ISO-8601 instant, an ISO-8601 date, or a number of
+   * milliseconds since the epoch.
+   *
+   * @param time the time to parse
+   * @return the time in milliseconds since the epoch
+   * @throws IllegalArgumentException if the time cannot be parsed
+   */
+  private static long parseTime(String time) {
+    try {
+      if (time.chars().allMatch(Character::isDigit)) {
+        return Long.parseLong(time);
+      }
+      if (time.contains("T")) {
+        return Instant.parse(time).toEpochMilli();
+      }
+      return LocalDate.parse(time).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    } catch (NumberFormatException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid time: " + time, e);
+    }
+  }
+
+  /**
+   * Returns whether the given argument is absent.
+   *
+   * @param argument the argument
+   * @return {@code true} if the argument is {@code null} or blank
+   */
+  private static boolean isBlank(String argument) {
+    return argument == null || argument.isBlank();
+  }
+
+  /** The key directory entries are sorted by. Ties are broken by name. */
+  public enum Sort {
+    /** Entries are sorted by name. */
+    NAME("name"),
+
+    /** Entries are sorted by size. */
+    SIZE("size"),
+
+    /** Entries are sorted by modification time. */
+    MODIFIED("modified");
+
+    /** The label of the key as accepted by the {@code read} tool. */
+    final String label;
+
+    Sort(String label) {
+      this.label = label;
+    }
+
+    /**
+     * Returns the key with the given label, ignoring case.
+     *
+     * @param label the label of the key, {@code null} or blank for {@link #NAME}
+     * @return the key with the given label
+     * @throws IllegalArgumentException if no key has the given label
+     */
+    public static Sort of(String label) {
+      if (label == null || label.isBlank()) {
+        return NAME;
+      }
+      for (Sort sort : values()) {
+        if (sort.label.equalsIgnoreCase(label.trim())) {
+          return sort;
+        }
+      }
+      throw new IllegalArgumentException(
+          "Unsupported sort: " + label + ", expected name, size or modified");
+    }
+  }
+}
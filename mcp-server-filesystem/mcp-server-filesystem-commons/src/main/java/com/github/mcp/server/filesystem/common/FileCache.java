@@ -0,0 +1,419 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A size-bounded cache of file contents and directory listings, so that repeated reads of the same
+ * small files are served from memory instead of paying disk I/O again. Entries are keyed by real
+ * path and validated against the current modification time, size and file key before every hit.
+ *
+ * <p>The cache is bounded by the {@code cache.size} setting in bytes, and only files up to the
+ * {@code cache.max-entry-size} setting are cached, see {@link ServerConfig}. Eviction follows the
+ * TinyLFU policy: a frequency sketch of recent accesses decides whether a new entry is worth
+ * evicting the least recently used ones, so that one-off reads do not flush frequently read files.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class FileCache {
+  /** The default maximum total weight of all cached entries, 64 MiB. */
+  private static final long DEFAULT_CACHE_SIZE = 64 * 1024 * 1024;
+
+  /** The default maximum size of a single cached file, 4 MiB. */
+  private static final long DEFAULT_MAX_ENTRY_SIZE = 4 * 1024 * 1024;
+
+  /** The estimated weight of an entry besides its content, in bytes. */
+  private static final int ENTRY_OVERHEAD = 128;
+
+  /** The cached entries in access order, keyed by real path. */
+  private static final Map<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** The frequency sketch of recent accesses, guarded by the lock of {@link #entries}. */
+  private static final FrequencySketch sketch = new FrequencySketch(1 << 16);
+
+  /** The total weight of all cached entries, guarded by the lock of {@link #entries}. */
+  private static long weight;
+
+  /** The number of requests served from the cache, guarded by the lock of {@link #entries}. */
+  private static long hits;
+
+  /** The number of requests not served from the cache, guarded by the lock of {@link #entries}. */
+  private static long misses;
+
+  /** The number of evicted entries, guarded by the lock of {@link #entries}. */
+  private static long evictions;
+
+  /** The number of entries rejected by the admission policy, guarded by the lock. */
+  private static long rejections;
+
+  private FileCache() {}
+
+  /**
+   * Returns the content of the given file, from the cache if the file has not changed since it was
+   * cached, otherwise by calling the loader and caching its result if the file is small enough.
+   *
+   * @param realPath the real path of the file
+   * @param attributes the current attributes of the file
+   * @param loader the loader reading the content of the file
+   * @return the content of the file
+   * @throws IOException if an I/O error occurs while loading the file
+   */
+  static byte[] content(Path realPath, BasicFileAttributes attributes, Loader<byte[]> loader)
+      throws IOException {
+    return get(
+        realPath,
+        attributes,
+        loader,
+        content -> content.length == attributes.size() ? content.length : -1);
+  }
+
+  /**
+   * Returns the names of the entries of the given directory, from the cache if the directory has
+   * not changed since it was cached, otherwise by calling the loader and caching its result.
+   *
+   * @param realPath the real path of the directory
+   * @param attributes the current attributes of the directory
+   * @param loader the loader listing the directory
+   * @return the names of the entries of the directory
+   * @throws IOException if an I/O error occurs while listing the directory
+   */
+  static List<String> listing(
+      Path realPath, BasicFileAttributes attributes, Loader<List<String>> loader)
+      throws IOException {
+    return get(realPath, attributes, loader, FileCache::weigh);
+  }
+
+  /**
+   * Tests whether a file of the given size is small enough to be cached.
+   *
+   * @param size the size of the file in bytes
+   * @return {@code true} if the file may be cached
+   */
+  static boolean isCacheable(long size) {
+    final long maxEntrySize = ServerConfig.getLong("cache.max-entry-size", DEFAULT_MAX_ENTRY_SIZE);
+    return maxCacheSize() > 0 && size <= maxEntrySize;
+  }
+
+  /**
+   * Removes the entry of the given path from the cache, if there is one.
+   *
+   * @param realPath the real path of the file or directory
+   */
+  public static void invalidate(Path realPath) {
+    synchronized (entries) {
+      Entry entry = entries.remove(realPath);
+      if (entry != null) {
+        weight -= entry.weight;
+      }
+    }
+  }
+
+  /**
+   * Returns a snapshot of the counters of the cache.
+   *
+   * @return the cache statistics
+   */
+  public static Stats stats() {
+    synchronized (entries) {
+      return new Stats(hits, misses, evictions, rejections, entries.size(), weight);
+    }
+  }
+
+  /**
+   * Returns the cached value of the given path if it is still valid, otherwise loads and caches it,
+   * subject to the admission policy.
+   *
+   * @param realPath the real path of the file or directory
+   * @param attributes the current attributes of the file or directory
+   * @param loader the loader of the value
+   * @param weigher the function estimating the weight of the value in bytes
+   * @param <T> the type of the value
+   * @return the value
+   * @throws IOException if an I/O error occurs while loading the value
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> T get(
+      Path realPath, BasicFileAttributes attributes, Loader<T> loader, Weigher<T> weigher)
+      throws IOException {
+    final long maxCacheSize = maxCacheSize();
+    if (maxCacheSize <= 0) {
+      return loader.load();
+    }
+
+    synchronized (entries) {
+      sketch.increment(realPath);
+      Entry entry = entries.get(realPath);
+      if (entry != null && entry.matches(attributes)) {
+        hits++;
+        return (T) entry.value;
+      }
+      if (entry != null) {
+        entries.remove(realPath);
+        weight -= entry.weight;
+      }
+      misses++;
+    }
+
+    final T value = loader.load();
+    final long valueWeight = weigher.weigh(value);
+    final long entryWeight = valueWeight + ENTRY_OVERHEAD;
+    if (valueWeight < 0 || entryWeight > maxCacheSize) {
+      return value;
+    }
+
+    synchronized (entries) {
+      if (!admit(realPath, entryWeight, maxCacheSize)) {
+        rejections++;
+        return value;
+      }
+      Entry previous = entries.put(realPath, new Entry(value, entryWeight, attributes));
+      weight += entryWeight - (previous == null ? 0 : previous.weight);
+    }
+    return value;
+  }
+
+  /**
+   * Makes room for a new entry by evicting the least recently used entries, if the new entry has
+   * been accessed more frequently than each of them. The victims are only evicted once the new
+   * entry is admitted, so that a rejected entry leaves the cache unchanged. Must be called while
+   * holding the lock of {@link #entries}.
+   *
+   * @param realPath the real path of the new entry
+   * @param entryWeight the weight of the new entry
+   * @param maxCacheSize the maximum total weight of all entries
+   * @return {@code true} if the new entry may be cached, {@code false} if it was rejected
+   */
+  private static boolean admit(Path realPath, long entryWeight, long maxCacheSize) {
+    // Step 1: Find the victims and decide admission without removing anything.
+    final int frequency = sketch.frequency(realPath);
+    long freed = 0;
+    int victims = 0;
+    for (Map.Entry<Path, Entry> victim : entries.entrySet()) {
+      if (weight - freed + entryWeight <= maxCacheSize) {
+        break;
+      }
+      if (!victim.getKey().equals(realPath) && sketch.frequency(victim.getKey()) >= frequency) {
+        return false;
+      }
+      freed += victim.getValue().weight;
+      victims++;
+    }
+
+    // Step 2: Evict the victims, which are still the least recently used entries.
+    Iterator<Map.Entry<Path, Entry>> iterator = entries.entrySet().iterator();
+    for (int i = 0; i < victims; i++) {
+      Map.Entry<Path, Entry> victim = iterator.next();
+      iterator.remove();
+      weight -= victim.getValue().weight;
+      evictions++;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the maximum total weight of all cached entries.
+   *
+   * @return the maximum cache size in bytes, zero or negative if the cache is disabled
+   */
+  private static long maxCacheSize() {
+    return ServerConfig.getLong("cache.size", DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Estimates the weight of a directory listing.
+   *
+   * @param names the names of the entries of the directory
+   * @return the estimated weight in bytes
+   */
+  private static long weigh(List<String> names) {
+    long total = 0;
+    for (String name : names) {
+      total += ENTRY_OVERHEAD / 2 + 2L * name.length();
+    }
+    return total;
+  }
+
+  /**
+   * A loader of a value that is not cached yet.
+   *
+   * @param <T> the type of the value
+   */
+  @FunctionalInterface
+  interface Loader<T> {
+    /**
+     * Loads the value.
+     *
+     * @return the value
+     * @throws IOException if an I/O error occurs while loading the value
+     */
+    T load() throws IOException;
+  }
+
+  /**
+   * A function estimating the weight of a value.
+   *
+   * @param <T> the type of the value
+   */
+  @FunctionalInterface
+  private interface Weigher<T> {
+    /**
+     * Estimates the weight of the value.
+     *
+     * @param value the value
+     * @return the estimated weight in bytes, negative if the value must not be cached because the
+     *     file changed while it was loaded
+     */
+    long weigh(T value);
+  }
+
+  /**
+   * A snapshot of the counters of the cache.
+   *
+   * @param hits the number of requests served from the cache
+   * @param misses the number of requests not served from the cache
+   * @param evictions the number of evicted entries
+   * @param rejections the number of entries rejected by the admission policy
+   * @param entries the number of cached entries
+   * @param weight the total weight of all cached entries in bytes
+   */
+  public record Stats(
+      long hits, long misses, long evictions, long rejections, int entries, long weight) {
+    /**
+     * Returns the ratio of requests served from the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 if there was no request yet
+     */
+    public double hitRate() {
+      final long requests = hits + misses;
+      return requests == 0 ? 0 : (double) hits / requests;
+    }
+  }
+
+  /** A cached value together with the attributes of the file it was loaded from. */
+  private static final class Entry {
+    /** The cached value. */
+    final Object value;
+
+    /** The estimated weight of the entry in bytes. */
+    final long weight;
+
+    /** The size of the file when it was loaded. */
+    final long size;
+
+    /** The modification time of the file when it was loaded. */
+    final FileTime lastModifiedTime;
+
+    /** The key of the file when it was loaded, may be {@code null}. */
+    final Object fileKey;
+
+    Entry(Object value, long weight, BasicFileAttributes attributes) {
+      this.value = value;
+      this.weight = weight;
+      this.size = attributes.size();
+      this.lastModifiedTime = attributes.lastModifiedTime();
+      this.fileKey = attributes.fileKey();
+    }
+
+    /**
+     * Tests whether this entry still reflects the file with the given attributes.
+     *
+     * @param attributes the current attributes of the file
+     * @return {@code true} if the file has not changed since it was loaded
+     */
+    boolean matches(BasicFileAttributes attributes) {
+      return size == attributes.size()
+          && lastModifiedTime.equals(attributes.lastModifiedTime())
+          && Objects.equals(fileKey, attributes.fileKey());
+    }
+  }
+
+  /**
+   * A count-min sketch estimating how often each key was accessed recently. Counters are capped at
+   * 15 and halved periodically, so that the estimate favors recent accesses.
+   */
+  private static final class FrequencySketch {
+    /** The seeds of the four hash functions. */
+    private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    /** The maximum value of a counter. */
+    private static final int MAX_COUNT = 15;
+
+    /** The counters, four per key. */
+    private final byte[] counters;
+
+    /** The mask mapping a hash to a counter index. */
+    private final int mask;
+
+    /** The number of increments after which all counters are halved. */
+    private final int sampleSize;
+
+    /** The number of increments since the counters were last halved. */
+    private int additions;
+
+    FrequencySketch(int size) {
+      this.counters = new byte[size];
+      this.mask = size - 1;
+      this.sampleSize = 10 * size;
+    }
+
+    /**
+     * Records an access to the given key.
+     *
+     * @param key the accessed key
+     */
+    void increment(Object key) {
+      final int hash = key.hashCode();
+      boolean added = false;
+      for (long seed : SEEDS) {
+        final int index = indexOf(hash, seed);
+        if (counters[index] < MAX_COUNT) {
+          counters[index]++;
+          added = true;
+        }
+      }
+      if (added && ++additions >= sampleSize) {
+        for (int i = 0; i < counters.length; i++) {
+          counters[i] >>= 1;
+        }
+        additions /= 2;
+      }
+    }
+
+    /**
+     * Estimates how often the given key was accessed recently.
+     *
+     * @param key the key
+     * @return the estimated access frequency, between 0 and 15
+     */
+    int frequency(Object key) {
+      final int hash = key.hashCode();
+      int frequency = MAX_COUNT;
+      for (long seed : SEEDS) {
+        frequency = Math.min(frequency, counters[indexOf(hash, seed)]);
+      }
+      return frequency;
+    }
+
+    /**
+     * Maps a hash to a counter index with the hash function of the given seed.
+     *
+     * @param hash the hash of the key
+     * @param seed the seed of the hash function
+     * @return the counter index
+     */
+    private int indexOf(int hash, long seed) {
+      long value = (hash + seed) * seed;
+      value += value >>> 32;
+      return (int) value & mask;
+    }
+  }
+}
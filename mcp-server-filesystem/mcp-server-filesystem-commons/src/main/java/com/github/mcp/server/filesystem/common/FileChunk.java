@@ -0,0 +1,103 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.util.Locale;
+
+/**
+ * A window of a file's content returned by a paged read, together with the cursor to continue
+ * reading from.
+ *
+ * @param content the decoded content of the window
+ * @param unit the unit of {@code offset} and {@code nextOffset}
+ * @param offset the offset the window starts at
+ * @param nextOffset the offset to continue reading from
+ * @param nextPosition the byte position of {@code nextOffset} in the file, so that a window counted
+ *     in lines can be continued without scanning the file from its start again, or {@code -1} if it
+ *     is not known because a line longer than the maximum chunk size was cut
+ * @param size the size of the whole file in bytes
+ * @param eof whether the window reaches the end of the file
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record FileChunk(
+    String content,
+    Unit unit,
+    long offset,
+    long nextOffset,
+    long nextPosition,
+    long size,
+    boolean eof) {
+
+  /**
+   * Creates a chunk whose next position is known only if it is counted in bytes, in which case it
+   * is the next offset.
+   *
+   * @param content the decoded content of the window
+   * @param unit the unit of {@code offset} and {@code nextOffset}
+   * @param offset the offset the window starts at
+   * @param nextOffset the offset to continue reading from
+   * @param size the size of the whole file in bytes
+   * @param eof whether the window reaches the end of the file
+   */
+  public FileChunk(
+      String content, Unit unit, long offset, long nextOffset, long size, boolean eof) {
+    this(content, unit, offset, nextOffset, unit == Unit.BYTES ? nextOffset : -1, size, eof);
+  }
+
+  /**
+   * Returns the content of this chunk, followed by a hint on how to continue reading if the end of
+   * the file has not been reached yet.
+   *
+   * @return the text to return to the client
+   */
+  public String toText() {
+    if (eof) {
+      return content;
+    }
+    final String next =
+        unit == Unit.LINES && nextPosition >= 0
+            ? String.format(
+                "offset=%d, unit=%s and position=%d", nextOffset, unit.label, nextPosition)
+            : String.format("offset=%d and unit=%s", nextOffset, unit.label);
+    final String hint =
+        String.format(
+            "[Showing %s %d-%d of a %d bytes file. "
+                + "Call the tool 'read' again with %s to continue.]",
+            unit.label, offset, nextOffset, size, next);
+    return content + System.lineSeparator() + System.lineSeparator() + hint;
+  }
+
+  /** The unit of paged read offsets and limits. */
+  public enum Unit {
+    /** Offsets and limits are counted in bytes. */
+    BYTES("bytes"),
+
+    /** Offsets and limits are counted in lines. */
+    LINES("lines");
+
+    /** The label of the unit as accepted by the {@code read} tool. */
+    private final String label;
+
+    Unit(String label) {
+      this.label = label;
+    }
+
+    /**
+     * Returns the unit with the given label, ignoring case.
+     *
+     * @param label the label of the unit, {@code null} or blank for {@link #BYTES}
+     * @return the unit with the given label
+     * @throws IllegalArgumentException if no unit has the given label
+     */
+    public static Unit of(String label) {
+      if (label == null || label.isBlank()) {
+        return BYTES;
+      }
+      for (Unit unit : values()) {
+        if (unit.label.equals(label.trim().toLowerCase(Locale.ROOT))) {
+          return unit;
+        }
+      }
+      throw new IllegalArgumentException(
+          "Unsupported unit: " + label + ", expected bytes or lines");
+    }
+  }
+}
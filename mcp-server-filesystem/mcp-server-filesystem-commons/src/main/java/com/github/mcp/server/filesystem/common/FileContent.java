@@ -0,0 +1,32 @@
+package com.github.mcp.server.filesystem.common;
+
+/**
+ * The outcome of reading one file of a batch read, either the chunk read or the error that
+ * prevented it.
+ *
+ * @param path the path of the file as requested
+ * @param chunk the chunk read from the start of the file, {@code null} if the read failed
+ * @param error the reason why the read failed, {@code null} if it succeeded
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record FileContent(String path, FileChunk chunk, String error) {
+  /**
+   * Returns whether the file was read.
+   *
+   * @return {@code true} if the file was read, {@code false} if the read failed
+   */
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  /**
+   * Returns this file as a header line naming the file, followed by its content or error.
+   *
+   * @return the text to return to the client
+   */
+  @Override
+  public String toString() {
+    final String body = isSuccess() ? chunk.toText() : "[Error: " + error + "]";
+    return "==> " + path + " <==" + System.lineSeparator() + body;
+  }
+}
@@ -0,0 +1,648 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies and moves files and directories. The content of each file is copied with {@link
+ * FileChannel#transferTo}, which the operating system carries out without copying the bytes through
+ * the JVM, with {@code copy_file_range} or {@code sendfile} on Linux. A directory is copied by one
+ * fork/join task per directory on a pool of its own, at most {@code copy.max-concurrency} files
+ * being copied at the same time, see {@link ServerConfig}. The counts so far are handed over to a
+ * listener on the calling thread every {@code copy.progress-interval} milliseconds, so that the
+ * client can be notified of the progress of a long copy.
+ *
+ * <p>A move is a single rename if the source and the target are on the same filesystem. Otherwise,
+ * or to merge a directory into an existing one, the source is copied, then deleted by {@link
+ * FileDeleter} if every entry was copied.
+ *
+ * <p>Both paths must be under the allowed roots of {@link PathSandbox}, which does not follow them
+ * if they are symbolic links. Symbolic links are copied as links, never followed, so that a copy
+ * never reads outside of the source tree. An existing target is only replaced with {@code
+ * overwrite} set, in which case an existing directory is merged into, and an existing file is
+ * replaced atomically through a temporary file. The parent directories of the target are created as
+ * needed. A failed entry does not stop the others.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class FileCopier {
+  /** Logger instance for logging copy events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(FileCopier.class);
+
+  /** The default maximum number of files copied at the same time. */
+  private static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+  /** The default interval between two progress reports, in milliseconds. */
+  private static final long DEFAULT_PROGRESS_INTERVAL_MILLIS = 500;
+
+  /** The maximum number of bytes copied by a single transfer, between two progress updates. */
+  private static final long TRANSFER_SIZE = 64L * 1024 * 1024;
+
+  /** The maximum number of errors kept for a single copy. */
+  private static final int MAX_ERRORS = 10;
+
+  /** The fork/join pool shared by all copies, bounded by the {@code copy.max-concurrency}. */
+  private static final ForkJoinPool POOL =
+      new ForkJoinPool(
+          Math.max(1, ServerConfig.getInt("copy.max-concurrency", DEFAULT_MAX_CONCURRENCY)),
+          FileCopier::newWorkerThread,
+          null,
+          false);
+
+  private FileCopier() {}
+
+  /**
+   * Copies the given file, directory or symbolic link to the given target path, directories with
+   * all their contents.
+   *
+   * @param source the path to copy
+   * @param target the path to copy it to, not the directory to copy it into
+   * @param overwrite whether to replace or merge into an existing target
+   * @param cancelled the condition telling whether the copy is cancelled, checked concurrently
+   * @param listener the listener to receive the progress of the copy on the calling thread
+   * @return the outcome of the copy
+   * @throws IOException if a path is not allowed, the source does not exist, the target exists
+   *     without {@code overwrite}, or the calling thread is interrupted
+   * @throws IllegalArgumentException if a directory is copied into itself
+   */
+  public static CopyResult copy(
+      String source,
+      String target,
+      boolean overwrite,
+      BooleanSupplier cancelled,
+      Consumer<CopyResult> listener)
+      throws IOException {
+    // Step 1: Resolve both paths within the allowed roots.
+    final ResolvedPath from = PathSandbox.resolve(source, LinkOption.NOFOLLOW_LINKS);
+    final ResolvedPath to = PathSandbox.resolve(target, LinkOption.NOFOLLOW_LINKS);
+    check(from, to, overwrite);
+
+    // Step 2: Copy on the worker threads.
+    Tally tally = new Tally(from.path(), to.path(), false, cancelled);
+    run(tally, from.attributes(), overwrite, listener);
+    invalidate(to.path());
+    return tally.toResult();
+  }
+
+  /**
+   * Moves the given file, directory or symbolic link to the given target path.
+   *
+   * @param source the path to move
+   * @param target the path to move it to, not the directory to move it into
+   * @param overwrite whether to replace or merge into an existing target
+   * @param cancelled the condition telling whether the move is cancelled, checked concurrently
+   *     while the source is copied
+   * @param listener the listener to receive the progress of the move on the calling thread, while
+   *     the source is copied
+   * @return the outcome of the move
+   * @throws IOException if a path is not allowed, the source does not exist, the target exists
+   *     without {@code overwrite}, or the calling thread is interrupted
+   * @throws IllegalArgumentException if a directory is moved into itself
+   */
+  public static CopyResult move(
+      String source,
+      String target,
+      boolean overwrite,
+      BooleanSupplier cancelled,
+      Consumer<CopyResult> listener)
+      throws IOException {
+    // Step 1: Resolve both paths within the allowed roots.
+    final ResolvedPath from = PathSandbox.resolve(source, LinkOption.NOFOLLOW_LINKS);
+    final ResolvedPath to = PathSandbox.resolve(target, LinkOption.NOFOLLOW_LINKS);
+    check(from, to, overwrite);
+    if (from.path().getParent() == null) {
+      throw new FileSystemException(source, null, "Refusing to move a root directory");
+    }
+
+    // Step 2: Rename the source, unless a directory is merged into an existing one.
+    if (!from.isDirectory() || !to.isDirectory()) {
+      try {
+        Files.move(from.path(), to.path(), StandardCopyOption.ATOMIC_MOVE);
+        invalidate(from.path());
+        invalidate(to.path());
+        return new CopyResult(from.toString(), to.toString(), true, true, 0, 0, 0, 0, 0, List.of());
+      } catch (AtomicMoveNotSupportedException e) {
+        log.debug("Cannot rename {} to {}, copying it instead", from, to);
+      }
+    }
+
+    // Step 3: Copy the source, then delete it if every entry was copied.
+    Tally tally = new Tally(from.path(), to.path(), true, cancelled);
+    run(tally, from.attributes(), overwrite, listener);
+    if (tally.failures.get() == 0) {
+      List<DeleteResult> results = FileDeleter.delete(List.of(from.toString()), true, false);
+      for (DeleteResult result : results) {
+        for (String error : result.errors()) {
+          tally.fail(from.path(), "copied but not deleted, " + error);
+        }
+      }
+    }
+    invalidate(from.path());
+    invalidate(to.path());
+    return tally.toResult();
+  }
+
+  /**
+   * Checks that the source exists and can be copied to the target, and creates the parent
+   * directories of the target if they are missing.
+   *
+   * @param from the source
+   * @param to the target
+   * @param overwrite whether to replace or merge into an existing target
+   * @throws IOException if the source does not exist, or the target exists and cannot be replaced
+   * @throws IllegalArgumentException if a directory is copied into itself
+   */
+  private static void check(ResolvedPath from, ResolvedPath to, boolean overwrite)
+      throws IOException {
+    if (!from.exists()) {
+      throw new NoSuchFileException(from.toString());
+    }
+    if (to.exists() && !overwrite) {
+      throw new FileAlreadyExistsException(
+          to.toString(), null, "pass overwrite=true to replace it or merge into it");
+    }
+    if (to.exists() && from.isDirectory() != to.isDirectory()) {
+      throw new FileSystemException(
+          to.toString(), null, from.isDirectory() ? "Not a directory" : "Is a directory");
+    }
+    final Path realSource = realPath(from.path());
+    final Path realTarget = realPath(to.path());
+    if (realSource.equals(realTarget)) {
+      throw new IllegalArgumentException("The source and the target are the same: " + from);
+    }
+    if (from.isDirectory() && realTarget.startsWith(realSource)) {
+      throw new IllegalArgumentException("Cannot copy a dir into itself: " + from + " to " + to);
+    }
+    if (!to.exists() && to.path().getParent() != null) {
+      Files.createDirectories(to.path().getParent());
+    }
+  }
+
+  /**
+   * Copies the source of the given tally to its target on the worker threads, and hands over the
+   * progress to the listener on the calling thread until the copy is done.
+   *
+   * @param tally the counts of the copy
+   * @param attributes the attributes of the source
+   * @param overwrite whether to replace or merge into existing targets
+   * @param listener the listener to receive the progress of the copy
+   * @throws IOException if the calling thread is interrupted, in which case the copy is stopped
+   */
+  private static void run(
+      Tally tally, BasicFileAttributes attributes, boolean overwrite, Consumer<CopyResult> listener)
+      throws IOException {
+    final ForkJoinTask<?> task;
+    if (attributes.isDirectory()) {
+      task = POOL.submit(new CopyTask(tally.source, tally.target, tally, overwrite));
+    } else {
+      task = POOL.submit(() -> copyEntry(tally.source, attributes, tally.target, tally, overwrite));
+    }
+    final long interval = progressIntervalMillis();
+    try {
+      while (true) {
+        try {
+          task.get(interval, TimeUnit.MILLISECONDS);
+          break;
+        } catch (TimeoutException e) {
+          listener.accept(tally.toResult());
+        }
+      }
+    } catch (InterruptedException e) {
+      tally.stopped.set(true);
+      Thread.currentThread().interrupt();
+      InterruptedIOException exception =
+          new InterruptedIOException("Interrupted while copying: " + tally.source);
+      exception.initCause(e);
+      throw exception;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof UncheckedIOException cause) {
+        throw cause.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IOException("Error copying: " + tally.source, e.getCause());
+    } catch (RuntimeException e) {
+      tally.stopped.set(true);
+      throw e;
+    }
+    if (tally.stopped.get()) {
+      tally.fail(tally.source, "cancelled, the copy is incomplete");
+    }
+  }
+
+  /**
+   * Copies a file, or a symbolic link as a link. Any other kind of entry is skipped as a failure.
+   *
+   * @param source the entry to copy
+   * @param attributes the attributes of the entry, links not followed
+   * @param target the path to copy it to
+   * @param tally the counts of the copy
+   * @param overwrite whether to replace an existing target
+   */
+  private static void copyEntry(
+      Path source, BasicFileAttributes attributes, Path target, Tally tally, boolean overwrite) {
+    try {
+      if (attributes.isRegularFile()) {
+        copyFile(source, target, tally, overwrite);
+        tally.files.increment();
+      } else if (attributes.isSymbolicLink()) {
+        final Path link = Files.readSymbolicLink(source);
+        prepare(target, overwrite);
+        Files.createSymbolicLink(target, link);
+        tally.links.increment();
+      } else {
+        tally.fail(source, "not a regular file, dir or symbolic link, skipped");
+      }
+    } catch (IOException | UnsupportedOperationException e) {
+      tally.fail(source, e);
+    }
+  }
+
+  /**
+   * Copies the content and permissions of a file. A new target is written in place and deleted if
+   * the copy fails, an existing one is replaced atomically through a temporary file, so that it is
+   * left untouched if the copy fails. A copy cancelled or cut short by a truncated source fails.
+   *
+   * @param source the file to copy
+   * @param target the path to copy it to
+   * @param tally the counts of the copy
+   * @param overwrite whether to replace an existing target
+   * @throws IOException if the file cannot be copied completely
+   */
+  private static void copyFile(Path source, Path target, Tally tally, boolean overwrite)
+      throws IOException {
+    final boolean exists = prepare(target, overwrite) != null;
+    final Path output =
+        exists
+            ? target.resolveSibling(
+                "." + target.getFileName() + "." + Long.toHexString(random()) + ".tmp")
+            : target;
+    try {
+      try (FileChannel in =
+              FileChannel.open(source, StandardOpenOption.READ, LinkOption.NOFOLLOW_LINKS);
+          FileChannel out =
+              FileChannel.open(
+                  output,
+                  StandardOpenOption.CREATE_NEW,
+                  StandardOpenOption.WRITE,
+                  LinkOption.NOFOLLOW_LINKS)) {
+        final long size = in.size();
+        long position = 0;
+        while (position < size && !tally.isStopped()) {
+          final long count = Math.min(TRANSFER_SIZE, size - position);
+          final long transferred = in.transferTo(position, count, out);
+          if (transferred <= 0) {
+            // The file was truncated while it was being copied, the rest is gone.
+            break;
+          }
+          position += transferred;
+          tally.bytes.add(transferred);
+          Metrics.BYTES_WRITTEN.add(transferred);
+        }
+        if (position < size) {
+          // Never leave a partial copy, let alone move it over an existing target.
+          final String reason = tally.isStopped() ? "cancelled" : "truncated while copied";
+          throw new FileSystemException(
+              source.toString(), null, reason + " after " + position + " of " + size + " bytes");
+        }
+      }
+      FileUpdater.copyPermissions(source, output);
+      if (exists) {
+        FileUpdater.move(output, target);
+      }
+    } catch (IOException | RuntimeException e) {
+      try {
+        Files.deleteIfExists(output);
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Prepares the given target of a file or link: a directory is never replaced, and an existing
+   * link is deleted, so that it is replaced rather than followed.
+   *
+   * @param target the target
+   * @param overwrite whether to replace an existing target
+   * @return the attributes of the existing target, {@code null} if there is none
+   * @throws IOException if the target exists and cannot be replaced
+   */
+  private static BasicFileAttributes prepare(Path target, boolean overwrite) throws IOException {
+    final BasicFileAttributes existing = attributes(target);
+    if (existing == null) {
+      return null;
+    }
+    if (!overwrite) {
+      throw new FileAlreadyExistsException(target.toString());
+    }
+    if (existing.isDirectory()) {
+      throw new FileSystemException(target.toString(), null, "Cannot replace a dir with a file");
+    }
+    if (!existing.isRegularFile()) {
+      Files.delete(target);
+      return null;
+    }
+    return existing;
+  }
+
+  /**
+   * Reads the attributes of the given path, without following links.
+   *
+   * @param path the path
+   * @return the attributes, or {@code null} if the path does not exist
+   * @throws IOException if the attributes cannot be read for another reason
+   */
+  private static BasicFileAttributes attributes(Path path) throws IOException {
+    try {
+      return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the real path of the given path, which may not exist: the real path of its closest
+   * existing ancestor, followed by the rest of the path.
+   *
+   * @param path the absolute path
+   * @return the real path
+   * @throws IOException if the closest existing ancestor cannot be resolved
+   */
+  private static Path realPath(Path path) throws IOException {
+    final Path normalized = path.normalize();
+    Path existing = normalized;
+    while (existing.getParent() != null && !Files.exists(existing, LinkOption.NOFOLLOW_LINKS)) {
+      existing = existing.getParent();
+    }
+    final Path parent = existing.getParent();
+    final Path real =
+        Files.isSymbolicLink(existing) && parent != null
+            ? parent.toRealPath().resolve(existing.getFileName())
+            : existing.toRealPath();
+    return real.resolve(existing.relativize(normalized));
+  }
+
+  /**
+   * Drops the cached content or listing of the given path and the cached listing of its parent.
+   *
+   * @param path the path
+   */
+  private static void invalidate(Path path) {
+    FileCache.invalidate(path);
+    if (path.getParent() != null) {
+      FileCache.invalidate(path.getParent());
+    }
+  }
+
+  /**
+   * Returns the interval between two progress reports, which is the {@code copy.progress-interval}
+   * setting, at least one millisecond.
+   *
+   * @return the interval in milliseconds
+   */
+  private static long progressIntervalMillis() {
+    return Math.max(
+        1, ServerConfig.getLong("copy.progress-interval", DEFAULT_PROGRESS_INTERVAL_MILLIS));
+  }
+
+  /**
+   * Returns a random number naming a temporary file.
+   *
+   * @return the random number
+   */
+  private static long random() {
+    return ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+  }
+
+  /**
+   * Creates a worker thread of {@link #POOL}, named after the pool.
+   *
+   * @param pool the pool
+   * @return the worker thread
+   */
+  private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName("file-copier-" + thread.getPoolIndex());
+    return thread;
+  }
+
+  /** The counts of a copy, updated concurrently by the tasks copying it. */
+  private static final class Tally {
+    /** The path copied. */
+    final Path source;
+
+    /** The path it is copied to. */
+    final Path target;
+
+    /** Whether the source is moved rather than copied. */
+    final boolean moved;
+
+    /** The condition telling whether the copy is cancelled. */
+    final BooleanSupplier cancelled;
+
+    /** Whether the copy has been stopped. */
+    final AtomicBoolean stopped = new AtomicBoolean();
+
+    /** The number of files copied. */
+    final LongAdder files = new LongAdder();
+
+    /** The number of directories created. */
+    final LongAdder dirs = new LongAdder();
+
+    /** The number of symbolic links copied. */
+    final LongAdder links = new LongAdder();
+
+    /** The number of bytes copied. */
+    final LongAdder bytes = new LongAdder();
+
+    /** The number of entries that could not be copied. */
+    final AtomicLong failures = new AtomicLong();
+
+    /** The first errors met. */
+    final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+    Tally(Path source, Path target, boolean moved, BooleanSupplier cancelled) {
+      this.source = source;
+      this.target = target;
+      this.moved = moved;
+      this.cancelled = cancelled;
+    }
+
+    /**
+     * Tells whether the copy must stop, because it has been cancelled or interrupted.
+     *
+     * @return {@code true} if the copy must stop
+     */
+    boolean isStopped() {
+      if (!stopped.get() && cancelled.getAsBoolean()) {
+        stopped.set(true);
+      }
+      return stopped.get();
+    }
+
+    /**
+     * Records that the given entry could not be copied.
+     *
+     * @param path the entry
+     * @param e the error
+     */
+    void fail(Path path, Exception e) {
+      log.debug("Cannot copy: {}", path, e);
+      fail(path, e.toString());
+    }
+
+    /**
+     * Records that the given entry could not be copied.
+     *
+     * @param path the entry
+     * @param reason the reason
+     */
+    void fail(Path path, String reason) {
+      if (failures.incrementAndGet() <= MAX_ERRORS) {
+        errors.add(path + ": " + reason);
+      }
+    }
+
+    /**
+     * Returns the outcome of the copy so far.
+     *
+     * @return the outcome
+     */
+    CopyResult toResult() {
+      return new CopyResult(
+          source.toString(),
+          target.toString(),
+          moved,
+          false,
+          files.sum(),
+          dirs.sum(),
+          links.sum(),
+          bytes.sum(),
+          failures.get(),
+          List.copyOf(errors));
+    }
+  }
+
+  /**
+   * A fork/join task copying a directory with all its contents. It creates the target directory,
+   * forks a subtask per subdirectory, copies the files and links itself, and copies the permissions
+   * of the directory once all its entries are copied, in case they forbid writing.
+   */
+  private static final class CopyTask extends RecursiveAction {
+    /** The directory to copy. */
+    private final transient Path source;
+
+    /** The path to copy it to. */
+    private final transient Path target;
+
+    /** The counts of the copy. */
+    private final transient Tally tally;
+
+    /** Whether to replace or merge into existing targets. */
+    private final boolean overwrite;
+
+    CopyTask(Path source, Path target, Tally tally, boolean overwrite) {
+      this.source = source;
+      this.target = target;
+      this.tally = tally;
+      this.overwrite = overwrite;
+    }
+
+    @Override
+    protected void compute() {
+      if (tally.isStopped()) {
+        return;
+      }
+      try {
+        final BasicFileAttributes existing = attributes(target);
+        if (existing == null) {
+          Files.createDirectory(target);
+          tally.dirs.increment();
+        } else if (!overwrite) {
+          throw new FileAlreadyExistsException(target.toString());
+        } else if (!existing.isDirectory()) {
+          throw new FileSystemException(
+              target.toString(), null, "Cannot replace a file with a dir");
+        }
+      } catch (IOException e) {
+        tally.fail(source, e);
+        return;
+      }
+
+      List<CopyTask> subtasks = new ArrayList<>();
+      long visited = 0;
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(source)) {
+        for (Path entry : stream) {
+          if (tally.isStopped()) {
+            break;
+          }
+          visited++;
+          final Path to = target.resolve(entry.getFileName().toString());
+          final BasicFileAttributes attributes;
+          try {
+            attributes = attributes(entry);
+          } catch (IOException e) {
+            tally.fail(entry, e);
+            continue;
+          }
+          if (attributes == null) {
+            continue;
+          }
+          if (attributes.isDirectory()) {
+            CopyTask subtask = new CopyTask(entry, to, tally, overwrite);
+            subtask.fork();
+            subtasks.add(subtask);
+          } else {
+            copyEntry(entry, attributes, to, tally, overwrite);
+          }
+        }
+      } catch (IOException | DirectoryIteratorException e) {
+        tally.fail(source, e);
+      }
+      Metrics.FILES_WALKED.add(visited);
+      subtasks.forEach(ForkJoinTask::join);
+
+      try {
+        FileUpdater.copyPermissions(source, target);
+      } catch (IOException e) {
+        tally.fail(target, e);
+      }
+    }
+  }
+}
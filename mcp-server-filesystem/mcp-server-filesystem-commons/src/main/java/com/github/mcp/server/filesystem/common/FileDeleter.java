@@ -0,0 +1,459 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes many files and directories in one call, directories with all their contents if asked to.
+ * The given paths are deleted in parallel on the pool of {@link FileWalker}, and each directory is
+ * deleted in post order by one fork/join task per directory: a task deletes the files of its
+ * directory, waits for the tasks of its subdirectories, then deletes its directory once it is
+ * empty. A dry run walks the same way without deleting anything, to tell what would be deleted and
+ * how many bytes would be freed.
+ *
+ * <p>Each path given to delete must be under the allowed roots of {@link PathSandbox}, which does
+ * not follow the path if it is a symbolic link. Symbolic links are deleted, never followed. Where
+ * the platform supports it, the entries of a directory are deleted relative to the open directory
+ * through a {@link SecureDirectoryStream}, and subdirectories are opened the same way without
+ * following links, so that a directory replaced by a link while it is being deleted cannot redirect
+ * the deletion outside of the tree.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class FileDeleter {
+  /** Logger instance for logging deletion events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(FileDeleter.class);
+
+  /** The maximum number of errors kept for a single path. */
+  private static final int MAX_ERRORS = 10;
+
+  /** The maximum number of paths listed one by one in the text of a deletion. */
+  private static final int MAX_LISTED_PATHS = 100;
+
+  private FileDeleter() {}
+
+  /**
+   * Deletes the given paths, in parallel. Paths nested under another given path are only deleted as
+   * part of it.
+   *
+   * @param paths the paths to delete
+   * @param recursive whether to delete directories with all their contents, otherwise only empty
+   *     directories are deleted
+   * @param dryRun whether to only tell what would be deleted, without deleting anything
+   * @return the outcome of each path, in the given order, nested paths excluded
+   */
+  public static List<DeleteResult> delete(List<String> paths, boolean recursive, boolean dryRun) {
+    List<TargetTask> tasks = new ArrayList<>();
+    for (Path path : prune(paths)) {
+      tasks.add(new TargetTask(path, recursive, dryRun));
+    }
+    tasks.forEach(FileWalker.POOL::execute);
+    List<DeleteResult> results = new ArrayList<>(tasks.size());
+    for (TargetTask task : tasks) {
+      results.add(task.join());
+    }
+    return results;
+  }
+
+  /**
+   * Lists the files and directories under the given start directory matching the given glob
+   * pattern, leaving out the ones nested under another match, which are deleted along with it. A
+   * pattern containing {@code /} is matched against the path relative to the start directory, such
+   * as {@code **}{@code /target}. Any other pattern is matched against names, such as {@code
+   * *.class}.
+   *
+   * @param start the starting directory
+   * @param glob the glob pattern
+   * @return the absolute paths of the matching files and directories, sorted
+   * @throws IOException if the start directory does not exist or cannot be read
+   * @throws IllegalArgumentException if the glob syntax is invalid
+   */
+  public static List<String> glob(Path start, String glob) throws IOException {
+    final Path root = start.toAbsolutePath().normalize();
+    List<String> matches = FileWalker.glob(root, glob, path -> !path.equals(root));
+    return prune(matches).stream().map(Path::toString).toList();
+  }
+
+  /**
+   * Converts the outcome of a deletion into a human-readable text: the totals, then each path with
+   * its own counts or errors, the first hundred paths only.
+   *
+   * @param results the outcome of each path
+   * @param dryRun whether the deletion was a dry run
+   * @return the text to return to the client
+   */
+  public static String toText(List<DeleteResult> results, boolean dryRun) {
+    if (results.isEmpty()) {
+      return "No file/dir to delete";
+    }
+    long files = 0;
+    long dirs = 0;
+    long bytes = 0;
+    long deleted = 0;
+    for (DeleteResult result : results) {
+      files += result.files();
+      dirs += result.dirs();
+      bytes += result.bytes();
+      deleted += result.isSuccess() ? 1 : 0;
+    }
+
+    StringBuilder text = new StringBuilder();
+    if (dryRun) {
+      text.append(
+          String.format(
+              "Dry run, nothing was deleted. Would delete %d of %d paths, %d files and %d dirs,"
+                  + " freeing %d bytes:",
+              deleted, results.size(), files, dirs, bytes));
+    } else {
+      text.append(
+          String.format(
+              "Deleted %d of %d paths, %d files and %d dirs, freeing %d bytes:",
+              deleted, results.size(), files, dirs, bytes));
+    }
+    final int listed = Math.min(results.size(), MAX_LISTED_PATHS);
+    for (DeleteResult result : results.subList(0, listed)) {
+      text.append(System.lineSeparator())
+          .append(result.path())
+          .append(" (")
+          .append(result.files())
+          .append(" files, ")
+          .append(result.dirs())
+          .append(" dirs, ")
+          .append(result.bytes())
+          .append(" bytes)");
+      if (result.failures() > 0) {
+        text.append(", ").append(result.failures()).append(" failed:");
+        for (String error : result.errors()) {
+          text.append(System.lineSeparator()).append("  ").append(error);
+        }
+      }
+    }
+    if (listed < results.size()) {
+      text.append(System.lineSeparator())
+          .append('[')
+          .append(results.size() - listed)
+          .append(" more paths]");
+    }
+    return text.toString();
+  }
+
+  /**
+   * Returns the given paths made absolute as {@link PathSandbox} does and normalized, without
+   * duplicates and without the paths nested under another one, in the given order.
+   *
+   * @param paths the paths
+   * @return the outermost paths
+   */
+  private static List<Path> prune(List<String> paths) {
+    List<Path> targets = new ArrayList<>(paths.size());
+    for (String path : paths) {
+      targets.add(PathSandbox.absolute(Path.of(path)).normalize());
+    }
+    final Set<Path> all = new HashSet<>(targets);
+    Set<Path> seen = new HashSet<>();
+    List<Path> outermost = new ArrayList<>();
+    for (Path target : targets) {
+      if (!seen.add(target)) {
+        continue;
+      }
+      Path parent = target.getParent();
+      while (parent != null && !all.contains(parent)) {
+        parent = parent.getParent();
+      }
+      if (parent == null) {
+        outermost.add(target);
+      }
+    }
+    return outermost;
+  }
+
+  /** The counts of a path being deleted, updated concurrently by the tasks deleting it. */
+  private static final class Tally {
+    /** The number of files deleted. */
+    final LongAdder files = new LongAdder();
+
+    /** The number of directories deleted. */
+    final LongAdder dirs = new LongAdder();
+
+    /** The total size of the files deleted. */
+    final LongAdder bytes = new LongAdder();
+
+    /** The number of entries that could not be deleted. */
+    final AtomicLong failures = new AtomicLong();
+
+    /** The first errors met. */
+    final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Records that the given entry could not be deleted.
+     *
+     * @param path the entry
+     * @param e the error
+     */
+    void fail(Path path, Exception e) {
+      log.debug("Cannot delete: {}", path, e);
+      if (failures.incrementAndGet() <= MAX_ERRORS) {
+        errors.add(path + ": " + e);
+      }
+    }
+
+    /**
+     * Records that the given entry could not be deleted.
+     *
+     * @param path the entry
+     * @param reason the reason
+     */
+    void fail(Path path, String reason) {
+      if (failures.incrementAndGet() <= MAX_ERRORS) {
+        errors.add(path + ": " + reason);
+      }
+    }
+
+    /**
+     * Returns the outcome of the given path.
+     *
+     * @param path the path given to delete
+     * @return the outcome
+     */
+    DeleteResult toResult(Path path) {
+      return new DeleteResult(
+          path.toString(),
+          files.sum(),
+          dirs.sum(),
+          bytes.sum(),
+          failures.get(),
+          List.copyOf(errors));
+    }
+  }
+
+  /** A fork/join task deleting a single path given to delete. */
+  private static final class TargetTask extends RecursiveTask<DeleteResult> {
+    /** The path to delete. */
+    private final transient Path path;
+
+    /** Whether to delete directories with all their contents. */
+    private final boolean recursive;
+
+    /** Whether to only tell what would be deleted. */
+    private final boolean dryRun;
+
+    TargetTask(Path path, boolean recursive, boolean dryRun) {
+      this.path = path;
+      this.recursive = recursive;
+      this.dryRun = dryRun;
+    }
+
+    @Override
+    protected DeleteResult compute() {
+      Tally tally = new Tally();
+      final BasicFileAttributes attributes;
+      try {
+        attributes = PathSandbox.resolve(path.toString(), LinkOption.NOFOLLOW_LINKS).attributes();
+      } catch (IOException e) {
+        tally.fail(path, e);
+        return tally.toResult(path);
+      }
+      if (attributes == null) {
+        tally.fail(path, "does not exist");
+        return tally.toResult(path);
+      }
+
+      if (!attributes.isDirectory()) {
+        try {
+          if (!dryRun) {
+            Files.delete(path);
+          }
+          tally.files.increment();
+          tally.bytes.add(attributes.size());
+        } catch (IOException e) {
+          tally.fail(path, e);
+        }
+      } else if (!recursive) {
+        try {
+          if (dryRun) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+              if (stream.iterator().hasNext()) {
+                throw new DirectoryNotEmptyException(path.toString());
+              }
+            }
+          } else {
+            Files.delete(path);
+          }
+          tally.dirs.increment();
+        } catch (DirectoryNotEmptyException e) {
+          tally.fail(path, "directory not empty, pass recursive=true to delete its contents too");
+        } catch (IOException e) {
+          tally.fail(path, e);
+        }
+      } else if (path.getParent() == null) {
+        tally.fail(path, "refusing to delete a root directory");
+      } else {
+        new DeleteTask(null, path, tally, dryRun).invoke();
+      }
+      return tally.toResult(path);
+    }
+  }
+
+  /**
+   * A fork/join task deleting a directory with all its contents, in post order. It deletes the
+   * files of the directory and forks a subtask per subdirectory, and deletes the directory itself
+   * once all its entries are deleted.
+   */
+  private static final class DeleteTask extends RecursiveTask<Boolean> {
+    /** The open parent directory, {@code null} for the path given to delete. */
+    private final transient DirectoryStream<Path> parent;
+
+    /** The directory to delete. */
+    private final transient Path dir;
+
+    /** The counts of the path given to delete. */
+    private final transient Tally tally;
+
+    /** Whether to only tell what would be deleted. */
+    private final boolean dryRun;
+
+    DeleteTask(DirectoryStream<Path> parent, Path dir, Tally tally, boolean dryRun) {
+      this.parent = parent;
+      this.dir = dir;
+      this.tally = tally;
+      this.dryRun = dryRun;
+    }
+
+    @Override
+    protected Boolean compute() {
+      boolean empty = true;
+      List<DeleteTask> subtasks = new ArrayList<>();
+      int visited = 0;
+      try (DirectoryStream<Path> stream = open()) {
+        try {
+          for (Path entry : stream) {
+            visited++;
+            try {
+              BasicFileAttributes attributes = attributes(stream, entry);
+              if (attributes.isDirectory()) {
+                subtasks.add(new DeleteTask(stream, entry, tally, dryRun));
+                continue;
+              }
+              if (!dryRun) {
+                deleteFile(stream, entry);
+              }
+              tally.files.increment();
+              tally.bytes.add(attributes.size());
+            } catch (IOException e) {
+              tally.fail(entry, e);
+              empty = false;
+            }
+          }
+        } finally {
+          Metrics.FILES_WALKED.add(visited);
+          // The subtasks open their directories relative to this one, which must stay open. They
+          // run even if the listing failed, so that every subtask queued is forked before joined.
+          invokeAll(subtasks);
+        }
+      } catch (IOException e) {
+        tally.fail(dir, e);
+        return false;
+      } catch (DirectoryIteratorException e) {
+        tally.fail(dir, e.getCause());
+        empty = false;
+      }
+
+      for (DeleteTask subtask : subtasks) {
+        empty &= subtask.join();
+      }
+      if (!empty) {
+        return false;
+      }
+      try {
+        if (!dryRun) {
+          deleteDirectory();
+        }
+        tally.dirs.increment();
+        return true;
+      } catch (IOException e) {
+        tally.fail(dir, e);
+        return false;
+      }
+    }
+
+    /**
+     * Opens the directory, relative to its open parent without following links if the parent
+     * supports it.
+     *
+     * @return the open directory
+     * @throws IOException if the directory cannot be opened
+     */
+    private DirectoryStream<Path> open() throws IOException {
+      if (parent instanceof SecureDirectoryStream<Path> secure) {
+        return secure.newDirectoryStream(dir.getFileName(), LinkOption.NOFOLLOW_LINKS);
+      }
+      return Files.newDirectoryStream(dir);
+    }
+
+    /**
+     * Reads the attributes of the given entry of the open directory, without following links.
+     *
+     * @param stream the open directory
+     * @param entry the entry
+     * @return the attributes of the entry
+     * @throws IOException if the attributes cannot be read
+     */
+    private static BasicFileAttributes attributes(DirectoryStream<Path> stream, Path entry)
+        throws IOException {
+      if (stream instanceof SecureDirectoryStream<Path> secure) {
+        return secure
+            .getFileAttributeView(
+                entry.getFileName(), BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS)
+            .readAttributes();
+      }
+      return Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    /**
+     * Deletes the given entry of the open directory, which is not a directory.
+     *
+     * @param stream the open directory
+     * @param entry the entry
+     * @throws IOException if the entry cannot be deleted
+     */
+    private static void deleteFile(DirectoryStream<Path> stream, Path entry) throws IOException {
+      if (stream instanceof SecureDirectoryStream<Path> secure) {
+        secure.deleteFile(entry.getFileName());
+      } else {
+        Files.delete(entry);
+      }
+    }
+
+    /**
+     * Deletes the directory, which is empty, relative to its open parent if the parent supports it.
+     *
+     * @throws IOException if the directory cannot be deleted
+     */
+    private void deleteDirectory() throws IOException {
+      if (parent instanceof SecureDirectoryStream<Path> secure) {
+        secure.deleteDirectory(dir.getFileName());
+      } else {
+        Files.delete(dir);
+      }
+    }
+  }
+}
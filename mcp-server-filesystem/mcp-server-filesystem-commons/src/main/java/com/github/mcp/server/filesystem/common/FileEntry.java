@@ -0,0 +1,82 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+
+/**
+ * A file or directory returned by a tool, together with its type, size and modification time.
+ * Entries are returned to the clients as structured content, so that they do not have to parse them
+ * out of text.
+ *
+ * @param path the absolute path of the entry
+ * @param type the type of the entry, one of {@code file}, {@code directory}, {@code symlink},
+ *     {@code other}, or {@code unknown} if its attributes cannot be read
+ * @param size the size of the entry in bytes, {@code 0} if unknown
+ * @param lastModified the time the entry was last modified, in milliseconds since the epoch, {@code
+ *     0} if unknown
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record FileEntry(String path, String type, long size, long lastModified) {
+
+  /**
+   * Returns the entry of the given path, reading its attributes without following symbolic links.
+   * An entry whose attributes cannot be read, for example because it was deleted in the meantime,
+   * is returned with the {@code unknown} type.
+   *
+   * @param path the path of the entry
+   * @return the entry
+   */
+  public static FileEntry of(Path path) {
+    try {
+      BasicFileAttributes attributes =
+          Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+      return of(path, attributes);
+    } catch (IOException e) {
+      return new FileEntry(path.toString(), "unknown", 0, 0);
+    }
+  }
+
+  /**
+   * Returns the entry of the given path with the given attributes.
+   *
+   * @param path the path of the entry
+   * @param attributes the attributes of the entry
+   * @return the entry
+   */
+  public static FileEntry of(Path path, BasicFileAttributes attributes) {
+    final String type;
+    if (attributes.isRegularFile()) {
+      type = "file";
+    } else if (attributes.isDirectory()) {
+      type = "directory";
+    } else if (attributes.isSymbolicLink()) {
+      type = "symlink";
+    } else {
+      type = "other";
+    }
+    return new FileEntry(
+        path.toString(), type, attributes.size(), attributes.lastModifiedTime().toMillis());
+  }
+
+  /**
+   * Appends this entry to the given text as a single {@code path (type, size bytes, modified time)}
+   * line, without its line break.
+   *
+   * @param text the text to append to
+   * @return the given text
+   */
+  public StringBuilder appendTo(StringBuilder text) {
+    return text.append(path)
+        .append(" (")
+        .append(type)
+        .append(", ")
+        .append(size)
+        .append(" bytes, modified ")
+        .append(Instant.ofEpochMilli(lastModified))
+        .append(')');
+  }
+}
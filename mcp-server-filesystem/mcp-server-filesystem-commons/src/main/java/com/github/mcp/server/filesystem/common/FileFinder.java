@@ -0,0 +1,174 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Searches a file tree for the files and directories whose name matches, and streams the matching
+ * paths back while the search runs. The tree is walked in parallel by {@link FileWalker} and the
+ * paths found so far are handed over in batches on the calling thread, every {@code
+ * find.flush-interval} milliseconds, so that a client can be notified of the first results long
+ * before a deep tree is fully walked. The walk stops as soon as the maximum number of results is
+ * reached, the search is cancelled, or a batch cannot be delivered.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class FileFinder {
+  /** The default maximum number of paths returned by a single search. */
+  private static final int DEFAULT_MAX_RESULTS = 10_000;
+
+  /** The default interval between two batches of paths, in milliseconds. */
+  private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 50;
+
+  private FileFinder() {}
+
+  /**
+   * Searches the file tree rooted at the given start path for the entries whose name matches the
+   * given matcher, and hands over every new batch of matching paths to the listener on the calling
+   * thread. If the start path is covered by a ready {@link FileIndex}, the search is answered from
+   * the index in a single batch.
+   *
+   * @param start the starting path of the search
+   * @param matcher the matcher to test entry names with
+   * @param maxResults the maximum number of paths to find
+   * @param cancelled the condition telling whether the search is cancelled, checked concurrently
+   * @param listener the listener to receive the batches of absolute paths, in the order they were
+   *     found, an exception thrown by the listener stops the search and is rethrown
+   * @return a sorted list of the absolute paths found, at most {@code maxResults} of them
+   * @throws IOException if the start path does not exist or cannot be read, or if the calling
+   *     thread is interrupted, in which case the walk is stopped
+   * @throws IllegalArgumentException if the maximum is not positive
+   */
+  public static List<String> find(
+      Path start,
+      NameMatcher matcher,
+      int maxResults,
+      BooleanSupplier cancelled,
+      Consumer<List<String>> listener)
+      throws IOException {
+    if (maxResults <= 0) {
+      throw new IllegalArgumentException("Max results must be positive: " + maxResults);
+    }
+
+    // Step 1: Answer from the index if there is one, there is nothing to stream then.
+    Optional<List<String>> indexed = FileIndex.search(start, matcher);
+    if (indexed.isPresent()) {
+      List<String> paths = indexed.get();
+      paths = paths.subList(0, Math.min(paths.size(), maxResults));
+      if (!paths.isEmpty()) {
+        listener.accept(paths);
+      }
+      return paths;
+    }
+
+    // Step 2: Walk the tree on the worker threads, until enough paths are found.
+    final ResultStream<String> stream = new ResultStream<>(flushIntervalMillis(), listener);
+    final AtomicInteger found = new AtomicInteger();
+    final BooleanSupplier stopped =
+        () -> stream.isAborted() || found.get() >= maxResults || cancelled.getAsBoolean();
+    CompletableFuture<Void> walk =
+        FileWalker.walkAsync(
+            start,
+            matcher,
+            stopped,
+            path -> {
+              if (found.getAndIncrement() < maxResults) {
+                stream.add(path.toString());
+              }
+            });
+
+    // Step 3: Hand over the paths found so far on this thread, until the walk is done.
+    List<String> paths = stream.drain(start, walk);
+    paths.sort(null);
+    return paths;
+  }
+
+  /**
+   * Searches the file tree rooted at the given start path for the entries whose name matches the
+   * given matcher, and collects them without streaming.
+   *
+   * @param start the starting path of the search
+   * @param matcher the matcher to test entry names with
+   * @param maxResults the maximum number of paths to find
+   * @return a sorted list of the absolute paths found, at most {@code maxResults} of them
+   * @throws IOException if the start path does not exist or cannot be read
+   * @throws IllegalArgumentException if the maximum is not positive
+   */
+  public static List<String> find(Path start, NameMatcher matcher, int maxResults)
+      throws IOException {
+    return find(start, matcher, maxResults, () -> false, paths -> {});
+  }
+
+  /**
+   * Returns the default maximum number of paths of a search, which is the {@code find.max-results}
+   * setting, see {@link ServerConfig}.
+   *
+   * @return the default maximum number of paths
+   */
+  public static int defaultMaxResults() {
+    return ServerConfig.getInt("find.max-results", DEFAULT_MAX_RESULTS);
+  }
+
+  /**
+   * Returns the listing of the given paths found by a search, with the type, size and modification
+   * time of each of them.
+   *
+   * @param start the starting path of the search
+   * @param paths the paths found by the search
+   * @param maxResults the maximum number of paths of the search
+   * @return the listing, truncated if the search stopped at the maximum number of paths
+   */
+  public static FileListing toListing(Path start, List<String> paths, int maxResults) {
+    List<FileEntry> entries = new ArrayList<>(paths.size());
+    for (String path : paths) {
+      entries.add(FileEntry.of(Path.of(path)));
+    }
+    final boolean truncated = paths.size() >= maxResults;
+    return new FileListing(start.toAbsolutePath().toString(), entries, truncated, null);
+  }
+
+  /**
+   * Returns the given listing as text, followed by a hint if the search stopped at the maximum
+   * number of paths.
+   *
+   * @param name the name that was searched for
+   * @param listing the listing of the paths found by the search
+   * @param withEntries whether to include the entries, or only a summary
+   * @return the text to return to the client
+   */
+  public static String toText(String name, FileListing listing, boolean withEntries) {
+    final int found = listing.entries().size();
+    if (found == 0) {
+      return String.format("No file/dir found with name '%s'", name);
+    }
+    final String text =
+        listing.toText(
+            String.format("Found %d files/dirs with name '%s':", found, name), withEntries);
+    if (!listing.truncated()) {
+      return text;
+    }
+    return text
+        + System.lineSeparator()
+        + System.lineSeparator()
+        + String.format(
+            "[Stopped after %d files/dirs. Narrow the search or raise maxResults to see more.]",
+            found);
+  }
+
+  /**
+   * Returns the interval between two batches of paths, which is the {@code find.flush-interval}
+   * setting in milliseconds, see {@link ServerConfig}.
+   *
+   * @return the interval in milliseconds
+   */
+  private static long flushIntervalMillis() {
+    return ServerConfig.getLong("find.flush-interval", DEFAULT_FLUSH_INTERVAL_MILLIS);
+  }
+}
@@ -6,12 +6,22 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A utility class that provides common file operations.
@@ -19,6 +29,18 @@ import java.util.stream.Stream;
  * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
  */
 public final class FileHelper {
+  /** Logger instance for logging file operation errors. */
+  private static final Logger log = LoggerFactory.getLogger(FileHelper.class);
+
+  /** The default maximum number of bytes returned by a single paged read, 1 MiB. */
+  private static final long DEFAULT_MAX_CHUNK_SIZE = 1024 * 1024;
+
+  /** The default minimum size of files read from a memory mapping, 16 MiB. */
+  private static final long DEFAULT_MMAP_THRESHOLD = 16 * 1024 * 1024;
+
+  /** The largest chunk size that fits into a single array. */
+  private static final long MAX_ARRAY = Integer.MAX_VALUE - 8;
+
   /**
    * Reads a resource file as a string.
    *
@@ -40,43 +62,244 @@ public final class FileHelper {
   }
 
   /**
-   * Reads a file as a string.
+   * Reads a file as a UTF-8 string. Files up to the {@code cache.max-entry-size} setting are served
+   * from {@link FileCache} as long as they have not changed since they were last read.
    *
    * @param filepath the path of the file to read
    * @return the content of the file as a string
    * @throws IOException if an I/O error occurs while reading the file
    */
   public static String readAsString(Path filepath) throws IOException {
-    return String.join(System.lineSeparator(), Files.readAllLines(filepath));
+    BasicFileAttributes attributes = Files.readAttributes(filepath, BasicFileAttributes.class);
+    if (!FileCache.isCacheable(attributes.size())) {
+      Metrics.BYTES_READ.add(attributes.size());
+      return Files.readString(filepath);
+    }
+    final Path realPath = filepath.toRealPath();
+    byte[] content = FileCache.content(realPath, attributes, () -> Files.readAllBytes(realPath));
+    Metrics.BYTES_READ.add(content.length);
+    return new String(content, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads a window of a file as a string, starting at the given offset and bounded by the given
+   * limit as well as by the {@code read.max-chunk-size} setting, see {@link ServerConfig}. Files at
+   * least as large as the {@code read.mmap-threshold} setting are served from a cached memory
+   * mapping and the window is decoded straight from it. Files up to the {@code
+   * cache.max-entry-size} setting are served from {@link FileCache}. Other files are read through a
+   * {@link FileChannel}. Either way, the memory used does not depend on the file size.
+   *
+   * @param filepath the path of the file to read
+   * @param offset the number of bytes or lines to skip, must not be negative
+   * @param limit the maximum number of bytes or lines to read, must be positive
+   * @param unit the unit of the offset and limit
+   * @return the chunk read, with the offset to continue reading from
+   * @throws IOException if an I/O error occurs while reading the file
+   * @throws IllegalArgumentException if the offset is negative or the limit is not positive
+   */
+  public static FileChunk readChunk(Path filepath, long offset, long limit, FileChunk.Unit unit)
+      throws IOException {
+    return readChunk(filepath, offset, -1, limit, unit);
+  }
+
+  /**
+   * Reads a window of a file like {@link #readChunk(Path, long, long, FileChunk.Unit)}. A window
+   * counted in lines starts right at the given byte position, as returned by the previous read in
+   * {@link FileChunk#nextPosition()}, instead of counting the lines to skip from the start of the
+   * file, as long as the position follows a line break.
+   *
+   * @param filepath the path of the file to read
+   * @param offset the number of bytes or lines to skip, must not be negative
+   * @param position the byte position of the line at {@code offset}, or {@code -1} if not known
+   * @param limit the maximum number of bytes or lines to read, must be positive
+   * @param unit the unit of the offset and limit
+   * @return the chunk read, with the offset and position to continue reading from
+   * @throws IOException if an I/O error occurs while reading the file
+   * @throws IllegalArgumentException if the offset is negative or the limit is not positive
+   */
+  public static FileChunk readChunk(
+      Path filepath, long offset, long position, long limit, FileChunk.Unit unit)
+      throws IOException {
+    checkWindow(offset, limit);
+    final long maxChunkSize = maxChunkSize();
+
+    BasicFileAttributes attributes = Files.readAttributes(filepath, BasicFileAttributes.class);
+    final long size = attributes.size();
+    if (isMapped(size)) {
+      try (FileMappings.Mapping mapping = FileMappings.acquire(filepath.toRealPath(), attributes)) {
+        if (unit == FileChunk.Unit.LINES) {
+          return ChunkReader.readLines(mapping.buffer(), offset, position, limit, maxChunkSize);
+        }
+        return ChunkReader.readBytes(mapping.buffer(), offset, Math.min(limit, maxChunkSize));
+      }
+    }
+
+    if (FileCache.isCacheable(size)) {
+      final Path realPath = filepath.toRealPath();
+      byte[] content = FileCache.content(realPath, attributes, () -> Files.readAllBytes(realPath));
+      ByteBuffer buffer = ByteBuffer.wrap(content);
+      if (unit == FileChunk.Unit.LINES) {
+        return ChunkReader.readLines(buffer, offset, position, limit, maxChunkSize);
+      }
+      return ChunkReader.readBytes(buffer, offset, Math.min(limit, maxChunkSize));
+    }
+
+    try (FileChannel channel = FileChannel.open(filepath, StandardOpenOption.READ)) {
+      if (unit == FileChunk.Unit.LINES) {
+        return ChunkReader.readLines(channel, offset, position, limit, maxChunkSize);
+      }
+      return ChunkReader.readBytes(channel, offset, Math.min(limit, maxChunkSize));
+    }
+  }
+
+  /**
+   * Reads a window of a file like {@link #readChunk(Path, long, long, long, FileChunk.Unit)},
+   * without blocking the calling thread on the read itself. Windows counted in bytes of files that
+   * are neither memory-mapped nor cacheable are read through an {@link AsynchronousFileChannel}.
+   * Other reads are either served from memory or need to scan the file for line breaks, so they run
+   * on the given executor instead.
+   *
+   * @param filepath the path of the file to read
+   * @param offset the number of bytes or lines to skip, must not be negative
+   * @param position the byte position of the line at {@code offset}, or {@code -1} if not known
+   * @param limit the maximum number of bytes or lines to read, must be positive
+   * @param unit the unit of the offset and limit
+   * @param executor the executor to run blocking reads on
+   * @return the future of the chunk read, completed exceptionally if an I/O error occurs
+   * @throws IOException if the attributes of the file cannot be read or the file cannot be opened
+   * @throws IllegalArgumentException if the offset is negative or the limit is not positive
+   */
+  public static CompletableFuture<FileChunk> readChunkAsync(
+      Path filepath, long offset, long position, long limit, FileChunk.Unit unit, Executor executor)
+      throws IOException {
+    checkWindow(offset, limit);
+
+    BasicFileAttributes attributes = Files.readAttributes(filepath, BasicFileAttributes.class);
+    final long size = attributes.size();
+    if (unit == FileChunk.Unit.LINES || isMapped(size) || FileCache.isCacheable(size)) {
+      CompletableFuture<FileChunk> future = new CompletableFuture<>();
+      executor.execute(
+          () -> {
+            try {
+              future.complete(readChunk(filepath, offset, position, limit, unit));
+            } catch (IOException | RuntimeException e) {
+              future.completeExceptionally(e);
+            }
+          });
+      return future;
+    }
+
+    AsynchronousFileChannel channel =
+        AsynchronousFileChannel.open(filepath, StandardOpenOption.READ);
+    try {
+      return ChunkReader.readBytes(channel, offset, Math.min(limit, maxChunkSize()))
+          .whenComplete((chunk, e) -> close(channel));
+    } catch (IOException | RuntimeException e) {
+      close(channel);
+      throw e;
+    }
   }
 
   /**
-   * Performs a fuzzy search for files with the given name starting from the specified directory. On
-   * Windows, it uses 'dir' command with 'findstr'. On Linux/MacOS, it uses the 'find' command.
+   * Performs a fuzzy search for files or directories with the given name starting from the
+   * specified directory. If the directory is covered by a ready {@link FileIndex}, the search is
+   * answered from the index. Otherwise, the file tree is walked in parallel by {@link FileWalker}.
+   * Either way, names are matched in-process by {@link NameMatcher} and no child process is
+   * spawned.
    *
    * @param start the starting directory for the search
-   * @param filename the name of the file to search for (case-sensitive)
-   * @return a list of file paths matching the search criteria
-   * @throws IOException if an I/O error occurs while executing the search command
+   * @param filename the name of the file to search for (case-sensitive), a plain name matches
+   *     entries containing it, {@code glob:} and {@code regex:} prefixes are also supported
+   * @return a sorted list of file paths matching the search criteria
+   * @throws IOException if an I/O error occurs while reading the starting directory
    */
   public static List<String> fuzzySearch(String start, String filename) throws IOException {
-    final boolean isWindows = System.getProperty("os.name").toLowerCase().contains("win");
-    if (isWindows) {
-      return ShellHelper.exec("cmd.exe", "/c", "dir", start, "/s", "/b", "|", "findstr", filename);
+    final Path startPath = Path.of(start);
+    final NameMatcher matcher = NameMatcher.of(filename);
+    Optional<List<String>> indexed = FileIndex.search(startPath, matcher);
+    if (indexed.isPresent()) {
+      return indexed.get();
     }
-    return ShellHelper.exec("sh", "-c", "find", start, "-name", filename);
+    return FileWalker.search(startPath, matcher);
   }
 
   /**
-   * Lists all files and directories in the specified directory.
+   * Lists all files and directories in the specified directory. Listings are served from {@link
+   * FileCache} as long as the directory has not changed since it was last listed.
    *
    * @param dir the directory to list
    * @return a list of absolute paths of all items in the directory
    * @throws IOException if an I/O error occurs while accessing the directory
    */
   public static List<String> listDirectory(String dir) throws IOException {
-    try (Stream<Path> stream = Files.list(Path.of(dir))) {
-      return stream.map(Path::toAbsolutePath).map(Path::toString).toList();
+    final Path dirPath = Path.of(dir).toAbsolutePath();
+    BasicFileAttributes attributes = Files.readAttributes(dirPath, BasicFileAttributes.class);
+    final Path realPath = dirPath.toRealPath();
+    List<String> names = FileCache.listing(realPath, attributes, () -> listNames(realPath));
+    return names.stream().map(dirPath::resolve).map(Path::toString).toList();
+  }
+
+  /**
+   * Lists the names of all files and directories in the specified directory.
+   *
+   * @param dir the directory to list
+   * @return a list of the names of all items in the directory
+   * @throws IOException if an I/O error occurs while accessing the directory
+   */
+  private static List<String> listNames(Path dir) throws IOException {
+    try (Stream<Path> stream = Files.list(dir)) {
+      return stream.map(Path::getFileName).map(Path::toString).toList();
+    }
+  }
+
+  /**
+   * Checks the window of a paged read.
+   *
+   * @param offset the number of bytes or lines to skip
+   * @param limit the maximum number of bytes or lines to read
+   * @throws IllegalArgumentException if the offset is negative or the limit is not positive
+   */
+  private static void checkWindow(long offset, long limit) {
+    if (offset < 0) {
+      throw new IllegalArgumentException("Offset must not be negative: " + offset);
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive: " + limit);
+    }
+  }
+
+  /**
+   * Returns the maximum number of bytes returned by a single paged read, see the {@code
+   * read.max-chunk-size} setting.
+   *
+   * @return the maximum chunk size in bytes
+   */
+  static long maxChunkSize() {
+    return Math.min(ServerConfig.getLong("read.max-chunk-size", DEFAULT_MAX_CHUNK_SIZE), MAX_ARRAY);
+  }
+
+  /**
+   * Returns whether paged reads of a file of the given size are served from a memory mapping, see
+   * the {@code read.mmap-threshold} setting.
+   *
+   * @param size the size of the file in bytes
+   * @return {@code true} if the file is read from a memory mapping
+   */
+  private static boolean isMapped(long size) {
+    final long mmapThreshold = ServerConfig.getLong("read.mmap-threshold", DEFAULT_MMAP_THRESHOLD);
+    return mmapThreshold >= 0 && size >= mmapThreshold && size <= MAX_ARRAY;
+  }
+
+  /**
+   * Closes the given channel, logging rather than throwing any error.
+   *
+   * @param channel the channel to close
+   */
+  private static void close(AsynchronousFileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.warn("Error closing file channel", e);
     }
   }
 }
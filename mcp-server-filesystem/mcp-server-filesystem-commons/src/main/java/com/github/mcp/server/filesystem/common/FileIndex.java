@@ -0,0 +1,535 @@
+package com.github.mcp.server.filesystem.common;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An optional in-memory filename index over a configured root directory, used to answer {@code
+ * find} queries without walking the file tree again. The index maps each file name to the
+ * directories containing an entry with that name, so a query only tests every distinct name once.
+ *
+ * <p>Each index is built in the background when this class is first used, kept current by a {@link
+ * WatchService} listener, and saved to disk as a snapshot so that a restart only has to re-list the
+ * directories whose modification time changed in the meantime. Roots are configured by the {@code
+ * index.roots} setting and snapshots are saved under the {@code index.dir} setting, see {@link
+ * ServerConfig}.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class FileIndex {
+  /** Logger instance for logging indexing events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(FileIndex.class);
+
+  /** The magic number at the start of every snapshot file. */
+  private static final int SNAPSHOT_MAGIC = 0x4D435046;
+
+  /** The format version of snapshot files. */
+  private static final int SNAPSHOT_VERSION = 1;
+
+  /** The number of queries answered from an index. */
+  private static final LongAdder hits = new LongAdder();
+
+  /** The number of queries not covered by any ready index. */
+  private static final LongAdder misses = new LongAdder();
+
+  /** The number of queries answered from an index that may miss recent changes. */
+  private static final LongAdder staleHits = new LongAdder();
+
+  /** The number of times a watch service dropped events and forced a reconciliation. */
+  private static final LongAdder overflows = new LongAdder();
+
+  /** All configured indexes, created and started when this class is initialized. */
+  private static final List<FileIndex> INDEXES = createIndexes();
+
+  /** The root directory of this index. */
+  private final Path root;
+
+  /** The snapshot file of this index. */
+  private final Path snapshot;
+
+  /** All indexed directories, keyed by absolute path. */
+  private final Map<Path, Directory> directories = new ConcurrentHashMap<>();
+
+  /** The parent directories of all indexed entries, keyed by file name. */
+  private final Map<Path, Set<Path>> names = new ConcurrentHashMap<>();
+
+  /** The watched directories, keyed by their watch keys. */
+  private final Map<WatchKey, Path> watchKeys = new ConcurrentHashMap<>();
+
+  /** Whether the index has been built or loaded and can answer queries. */
+  private volatile boolean ready;
+
+  /** Whether the index may miss changes, while reconciling with the filesystem. */
+  private volatile boolean stale = true;
+
+  /** The watch service notifying this index of created and deleted entries. */
+  private WatchService watchService;
+
+  private FileIndex(Path root, Path snapshot) {
+    this.root = root;
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Searches the index covering the given start path for all entries whose name matches the given
+   * matcher. Only indexes that have finished their initial build are used.
+   *
+   * @param start the starting path of the search
+   * @param matcher the matcher to test entry names with
+   * @return a sorted list of the absolute paths of all matching entries, or an empty optional if no
+   *     ready index covers the start path and the file tree has to be walked instead
+   */
+  public static Optional<List<String>> search(Path start, NameMatcher matcher) {
+    final Path path = start.toAbsolutePath().normalize();
+    for (FileIndex index : INDEXES) {
+      if (index.ready && path.startsWith(index.root)) {
+        hits.increment();
+        if (index.stale) {
+          staleHits.increment();
+        }
+        return Optional.of(index.query(path, matcher));
+      }
+    }
+    misses.increment();
+    return Optional.empty();
+  }
+
+  /**
+   * Returns a snapshot of the counters of all indexes.
+   *
+   * @return the index statistics
+   */
+  public static Stats stats() {
+    final int staleIndexes = (int) INDEXES.stream().filter(index -> index.stale).count();
+    return new Stats(hits.sum(), misses.sum(), staleHits.sum(), overflows.sum(), staleIndexes);
+  }
+
+  /**
+   * Creates and starts an index for each configured root.
+   *
+   * @return the configured indexes
+   */
+  private static List<FileIndex> createIndexes() {
+    final String home = System.getProperty("user.home");
+    Path dir = Path.of(ServerConfig.getString("index.dir", home + "/.mcp-server-filesystem/index"));
+    List<FileIndex> indexes = new ArrayList<>();
+    for (String root : ServerConfig.getList("index.roots")) {
+      Path rootPath = Path.of(root).toAbsolutePath().normalize();
+      String filename = Integer.toHexString(rootPath.toString().hashCode()) + ".idx";
+      FileIndex index = new FileIndex(rootPath, dir.resolve(filename));
+      index.start();
+      indexes.add(index);
+    }
+    return List.copyOf(indexes);
+  }
+
+  /** Starts the background thread that builds this index and applies watch events to it. */
+  private void start() {
+    Thread thread = new Thread(this::run, "file-index-" + root);
+    thread.setDaemon(true);
+    thread.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(this::save));
+  }
+
+  /**
+   * Builds or loads this index, then applies watch events until the JVM exits. If the index stops
+   * being kept current, it stops answering queries, which then walk the file tree instead.
+   */
+  private void run() {
+    try {
+      watchService = root.getFileSystem().newWatchService();
+      if (load()) {
+        ready = true;
+        reconcile();
+      } else {
+        scan(root);
+      }
+      ready = true;
+      stale = false;
+      save();
+      log.info("Indexed {} directories under {}", directories.size(), root);
+      processEvents();
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      log.info("Stopped watching {}", root);
+    } catch (IOException | RuntimeException e) {
+      log.error("Error indexing {}, falling back to walking the file tree", root, e);
+    } finally {
+      // No more events are applied, so the index would silently miss every later change.
+      ready = false;
+      stale = true;
+    }
+  }
+
+  /**
+   * Queries this index for all entries under the given start path whose name matches the matcher.
+   *
+   * @param start the normalized absolute starting path
+   * @param matcher the matcher to test entry names with
+   * @return a sorted list of the absolute paths of all matching entries
+   */
+  private List<String> query(Path start, NameMatcher matcher) {
+    List<String> paths = new ArrayList<>();
+    if (matcher.matches(start)) {
+      paths.add(start.toString());
+    }
+    names.forEach(
+        (name, parents) -> {
+          if (matcher.matches(name)) {
+            for (Path parent : parents) {
+              if (parent.startsWith(start)) {
+                paths.add(parent.resolve(name).toString());
+              }
+            }
+          }
+        });
+    paths.sort(null);
+    return paths;
+  }
+
+  /**
+   * Scans the file tree rooted at the given directory into this index and watches every directory.
+   *
+   * @param dir the directory to scan
+   * @throws IOException if an I/O error occurs while scanning
+   */
+  private void scan(Path dir) throws IOException {
+    Files.walkFileTree(
+        dir,
+        new SimpleFileVisitor<>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attributes) {
+            Metrics.FILES_WALKED.increment();
+            watch(path);
+            directories.put(path, new Directory(attributes.lastModifiedTime().toMillis()));
+            addEntry(path);
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) {
+            Metrics.FILES_WALKED.increment();
+            addEntry(path);
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFileFailed(Path path, IOException e) {
+            log.debug("Skipping unreadable path: {}", path, e);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+  }
+
+  /**
+   * Reconciles this index with the filesystem by re-listing every directory whose modification time
+   * changed since it was last listed, and removing every directory that no longer exists.
+   */
+  private void reconcile() {
+    for (Path dir : new ArrayList<>(directories.keySet())) {
+      Directory directory = directories.get(dir);
+      if (directory == null) {
+        continue;
+      }
+      try {
+        BasicFileAttributes attributes =
+            Files.readAttributes(dir, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (!attributes.isDirectory()) {
+          removeEntry(dir);
+          addEntry(dir);
+          continue;
+        }
+        watch(dir);
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        if (lastModified != directory.lastModified) {
+          relist(dir, directory, lastModified);
+        }
+      } catch (NoSuchFileException e) {
+        removeEntry(dir);
+      } catch (IOException | DirectoryIteratorException e) {
+        log.debug("Skipping unreadable directory: {}", dir, e);
+      }
+    }
+  }
+
+  /**
+   * Lists the given directory again and applies the added and removed entries to this index.
+   *
+   * @param dir the directory to list
+   * @param directory the indexed state of the directory
+   * @param lastModified the modification time of the directory before listing it
+   * @throws IOException if an I/O error occurs while listing the directory
+   */
+  private void relist(Path dir, Directory directory, long lastModified) throws IOException {
+    Set<Path> seen = new HashSet<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+      for (Path entry : stream) {
+        Metrics.FILES_WALKED.increment();
+        Path name = entry.getFileName();
+        seen.add(name);
+        if (directory.children.contains(name)) {
+          continue;
+        }
+        if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+          scan(entry);
+        } else {
+          addEntry(entry);
+        }
+      }
+    }
+    for (Path name : directory.children) {
+      if (!seen.contains(name)) {
+        removeEntry(dir.resolve(name));
+      }
+    }
+    directory.lastModified = lastModified;
+  }
+
+  /**
+   * Applies watch events to this index until the watch service is closed.
+   *
+   * @throws InterruptedException if the thread is interrupted while waiting for events
+   */
+  private void processEvents() throws InterruptedException {
+    while (true) {
+      WatchKey key = watchService.take();
+      Path dir = watchKeys.get(key);
+      boolean overflowed = false;
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == OVERFLOW) {
+          overflowed = true;
+        } else if (dir != null) {
+          apply(event, dir.resolve((Path) event.context()));
+        }
+      }
+      if (!key.reset()) {
+        watchKeys.remove(key);
+      }
+      if (overflowed) {
+        log.warn("Watch events dropped under {}, reconciling the index", root);
+        overflows.increment();
+        stale = true;
+        reconcile();
+        stale = false;
+      }
+    }
+  }
+
+  /**
+   * Applies a single watch event to this index, and drops the cached content of the changed entry
+   * and the cached listing of its parent directory from {@link FileCache}.
+   *
+   * @param event the watch event
+   * @param path the path of the created, deleted or modified entry
+   */
+  private void apply(WatchEvent<?> event, Path path) {
+    FileCache.invalidate(path);
+    if (event.kind() == ENTRY_MODIFY) {
+      return;
+    }
+    FileCache.invalidate(path.getParent());
+    if (event.kind() == ENTRY_DELETE) {
+      removeEntry(path);
+      return;
+    }
+    if (event.kind() == ENTRY_CREATE) {
+      try {
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+          scan(path);
+        } else {
+          addEntry(path);
+        }
+      } catch (IOException e) {
+        log.debug("Skipping unreadable path: {}", path, e);
+      }
+    }
+  }
+
+  /**
+   * Registers the given directory with the watch service of this index.
+   *
+   * @param dir the directory to watch
+   */
+  private void watch(Path dir) {
+    try {
+      watchKeys.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+    } catch (IOException e) {
+      log.warn("Unable to watch {}, changes under it will not be indexed: {}", dir, e.toString());
+    }
+  }
+
+  /**
+   * Adds the given entry to the children of its parent directory, if the parent is indexed.
+   *
+   * @param path the absolute path of the entry to add
+   */
+  private void addEntry(Path path) {
+    Path parent = path.getParent();
+    Directory directory = parent == null ? null : directories.get(parent);
+    if (directory == null) {
+      return;
+    }
+    Path name = path.getFileName();
+    directory.children.add(name);
+    names.compute(
+        name,
+        (key, parents) -> {
+          Set<Path> result = parents == null ? ConcurrentHashMap.newKeySet() : parents;
+          result.add(parent);
+          return result;
+        });
+  }
+
+  /**
+   * Removes the given entry from this index, including all its descendants if it is a directory.
+   *
+   * @param path the absolute path of the entry to remove
+   */
+  private void removeEntry(Path path) {
+    Directory removed = directories.remove(path);
+    if (removed != null) {
+      for (Path child : removed.children) {
+        removeEntry(path.resolve(child));
+      }
+    }
+    Path parent = path.getParent();
+    Directory directory = parent == null ? null : directories.get(parent);
+    if (directory == null) {
+      return;
+    }
+    Path name = path.getFileName();
+    directory.children.remove(name);
+    names.computeIfPresent(
+        name,
+        (key, parents) -> {
+          parents.remove(parent);
+          return parents.isEmpty() ? null : parents;
+        });
+  }
+
+  /**
+   * Loads the snapshot of this index from disk, if there is one for the same root.
+   *
+   * @return {@code true} if the snapshot was loaded, otherwise {@code false}
+   */
+  private boolean load() {
+    if (Files.notExists(snapshot)) {
+      return false;
+    }
+    try (DataInputStream input =
+        new DataInputStream(
+            new GZIPInputStream(new BufferedInputStream(Files.newInputStream(snapshot))))) {
+      if (input.readInt() != SNAPSHOT_MAGIC
+          || input.readInt() != SNAPSHOT_VERSION
+          || !input.readUTF().equals(root.toString())) {
+        return false;
+      }
+      final int directoryCount = input.readInt();
+      for (int i = 0; i < directoryCount; i++) {
+        Path dir = Path.of(input.readUTF());
+        Directory directory = new Directory(input.readLong());
+        directories.put(dir, directory);
+        final int childCount = input.readInt();
+        for (int j = 0; j < childCount; j++) {
+          addEntry(dir.resolve(input.readUTF()));
+        }
+      }
+      log.info("Loaded index snapshot of {} from {}", root, snapshot);
+      return true;
+    } catch (IOException e) {
+      log.warn("Error loading index snapshot {}, rebuilding the index", snapshot, e);
+      directories.clear();
+      names.clear();
+      return false;
+    }
+  }
+
+  /** Saves a snapshot of this index to disk, replacing the previous snapshot atomically. */
+  private void save() {
+    if (!ready) {
+      return;
+    }
+    try {
+      Files.createDirectories(snapshot.getParent());
+      Path temp = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), "");
+      try (DataOutputStream output =
+          new DataOutputStream(
+              new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))) {
+        output.writeInt(SNAPSHOT_MAGIC);
+        output.writeInt(SNAPSHOT_VERSION);
+        output.writeUTF(root.toString());
+        List<Map.Entry<Path, Directory>> entries = new ArrayList<>(directories.entrySet());
+        output.writeInt(entries.size());
+        for (Map.Entry<Path, Directory> entry : entries) {
+          Path[] children = entry.getValue().children.toArray(new Path[0]);
+          output.writeUTF(entry.getKey().toString());
+          output.writeLong(entry.getValue().lastModified);
+          output.writeInt(children.length);
+          for (Path child : children) {
+            output.writeUTF(child.toString());
+          }
+        }
+      }
+      Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("Error saving index snapshot {}", snapshot, e);
+    }
+  }
+
+  /**
+   * A snapshot of the counters of all indexes.
+   *
+   * @param hits the number of queries answered from an index
+   * @param misses the number of queries not covered by any ready index
+   * @param staleHits the number of queries answered while the index was reconciling
+   * @param overflows the number of times watch events were dropped
+   * @param staleIndexes the number of indexes currently building, reconciling or no longer watched
+   */
+  public record Stats(long hits, long misses, long staleHits, long overflows, int staleIndexes) {}
+
+  /** The indexed state of a single directory. */
+  private static final class Directory {
+    /** The names of the entries directly under the directory. */
+    final Set<Path> children = ConcurrentHashMap.newKeySet();
+
+    /** The modification time of the directory when it was last listed, in milliseconds. */
+    volatile long lastModified;
+
+    Directory(long lastModified) {
+      this.lastModified = lastModified;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.util.List;
+
+/**
+ * The entries returned by a tool listing files and directories, such as the {@code find} tool or
+ * the {@code read} tool on a directory. The listing is meant to be returned as structured content
+ * and serialized by the MCP SDK straight from this record where the SDK supports it. Its text form
+ * is then only a summary by default, so that a large listing is neither built as a huge string nor
+ * sent twice, unless the {@code tools.text-fallback} setting asks for the entries as well, for the
+ * clients that ignore structured content, see {@link ServerConfig}. Where the SDK has no structured
+ * output, the text form always lists the entries.
+ *
+ * @param path the path the listing was made from, the start path of a search or a directory
+ * @param entries the entries of the listing
+ * @param truncated whether entries were left out because the listing reached its maximum size
+ * @param nextCursor the cursor to list the next entries with, {@code null} if the listing cannot be
+ *     continued
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record FileListing(
+    String path, List<FileEntry> entries, boolean truncated, String nextCursor) {
+
+  /**
+   * Returns whether the text forms of listings returned along with structured content include their
+   * entries, which is the {@code tools.text-fallback} setting, {@code false} by default.
+   *
+   * @return {@code true} to include the entries, {@code false} to only include a summary
+   */
+  public static boolean textFallback() {
+    return ServerConfig.getBoolean("tools.text-fallback", false);
+  }
+
+  /**
+   * Returns this listing as text, made of the given summary followed by one line per entry, see
+   * {@link FileEntry#appendTo(StringBuilder)}.
+   *
+   * @param summary the first line of the text
+   * @param withEntries whether to include the entries, or only the summary
+   * @return the text to return to the client
+   */
+  public String toText(String summary, boolean withEntries) {
+    if (!withEntries || entries.isEmpty()) {
+      return summary;
+    }
+    StringBuilder text = new StringBuilder(summary.length() + entries.size() * 128);
+    text.append(summary);
+    for (FileEntry entry : entries) {
+      entry.appendTo(text.append(System.lineSeparator()));
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,220 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of read-only memory mappings of large files, so that repeated reads of the same file are
+ * served from the page cache without reading the file into the heap again. Mappings are evicted in
+ * least recently used order once the total mapped size exceeds the {@code read.mmap-cache-size}
+ * setting, see {@link ServerConfig}.
+ *
+ * <p>Every mapping is reference counted: the cache holds one reference and every reader holds one
+ * while decoding. A mapping is unmapped as soon as it has been evicted or invalidated and the last
+ * reader has released it, so no reader can ever access an unmapped region.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+final class FileMappings {
+  /** Logger instance for logging mapping events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(FileMappings.class);
+
+  /** The default maximum total size of all cached mappings, 4 GiB. */
+  private static final long DEFAULT_CACHE_SIZE = 4L * 1024 * 1024 * 1024;
+
+  /** The function releasing a mapping eagerly, or a no-op leaving it to the garbage collector. */
+  private static final Consumer<ByteBuffer> UNMAPPER = createUnmapper();
+
+  /** The cached mappings in access order, keyed by real path. */
+  private static final Map<Path, Mapping> mappings = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** The total size of all cached mappings. */
+  private static long mappedBytes;
+
+  private FileMappings() {}
+
+  /**
+   * Acquires a mapping of the whole given file, reusing the cached mapping if the file has not
+   * changed since it was mapped. The caller must close the returned mapping when done with it.
+   *
+   * @param realPath the real path of the file to map
+   * @param attributes the current attributes of the file
+   * @return the mapping of the file
+   * @throws IOException if an I/O error occurs while mapping the file
+   */
+  static Mapping acquire(Path realPath, BasicFileAttributes attributes) throws IOException {
+    final long maxCacheSize = ServerConfig.getLong("read.mmap-cache-size", DEFAULT_CACHE_SIZE);
+    synchronized (mappings) {
+      Mapping cached = mappings.get(realPath);
+      if (cached != null && cached.matches(attributes) && cached.retain()) {
+        return cached;
+      }
+      if (cached != null) {
+        evict(realPath);
+      }
+
+      Mapping mapping = map(realPath, attributes);
+      mappings.put(realPath, mapping);
+      mappedBytes += mapping.size;
+
+      Iterator<Map.Entry<Path, Mapping>> iterator = mappings.entrySet().iterator();
+      while (mappedBytes > maxCacheSize && iterator.hasNext()) {
+        Mapping eldest = iterator.next().getValue();
+        if (eldest != mapping) {
+          iterator.remove();
+          mappedBytes -= eldest.size;
+          eldest.close();
+        }
+      }
+
+      mapping.retain();
+      return mapping;
+    }
+  }
+
+  /**
+   * Evicts the mapping of the given file from the cache, if there is one. The mapping is unmapped
+   * once every reader has released it.
+   *
+   * @param realPath the real path of the file
+   */
+  static void evict(Path realPath) {
+    synchronized (mappings) {
+      Mapping mapping = mappings.remove(realPath);
+      if (mapping != null) {
+        mappedBytes -= mapping.size;
+        mapping.close();
+      }
+    }
+  }
+
+  /**
+   * Maps the whole given file read-only.
+   *
+   * @param realPath the real path of the file to map
+   * @param attributes the current attributes of the file
+   * @return the mapping of the file, holding the reference of the cache
+   * @throws IOException if an I/O error occurs while mapping the file
+   */
+  private static Mapping map(Path realPath, BasicFileAttributes attributes) throws IOException {
+    try (FileChannel channel = FileChannel.open(realPath, StandardOpenOption.READ)) {
+      final long size = Math.min(channel.size(), attributes.size());
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      return new Mapping(buffer, size, attributes.lastModifiedTime(), attributes.fileKey());
+    }
+  }
+
+  /**
+   * Creates the function that unmaps a mapped buffer eagerly through {@code
+   * sun.misc.Unsafe#invokeCleaner}. If it is not accessible, mappings are released by the garbage
+   * collector instead.
+   *
+   * @return the unmapping function
+   */
+  private static Consumer<ByteBuffer> createUnmapper() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      final Object unsafe = field.get(null);
+      final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      return buffer -> {
+        try {
+          invokeCleaner.invoke(unsafe, buffer);
+        } catch (ReflectiveOperationException e) {
+          log.debug("Unable to unmap buffer, leaving it to the garbage collector", e);
+        }
+      };
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      log.debug("Eager unmapping is unavailable, leaving it to the garbage collector", e);
+      return buffer -> {};
+    }
+  }
+
+  /** A reference counted, read-only mapping of a whole file. */
+  static final class Mapping implements AutoCloseable {
+    /** The mapped buffer, never handed out directly so that its position is never shared. */
+    private final MappedByteBuffer buffer;
+
+    /** The mapped size of the file. */
+    private final long size;
+
+    /** The modification time of the file when it was mapped. */
+    private final FileTime lastModifiedTime;
+
+    /** The key of the file when it was mapped, may be {@code null}. */
+    private final Object fileKey;
+
+    /** The number of references to this mapping, including the one of the cache. */
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private Mapping(MappedByteBuffer buffer, long size, FileTime lastModifiedTime, Object fileKey) {
+      this.buffer = buffer;
+      this.size = size;
+      this.lastModifiedTime = lastModifiedTime;
+      this.fileKey = fileKey;
+    }
+
+    /**
+     * Returns a read-only view of the mapping with its own position and limit.
+     *
+     * @return the view of the mapping
+     */
+    ByteBuffer buffer() {
+      return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Tests whether this mapping still reflects the file with the given attributes.
+     *
+     * @param attributes the current attributes of the file
+     * @return {@code true} if the file has not changed since it was mapped
+     */
+    private boolean matches(BasicFileAttributes attributes) {
+      return size == attributes.size()
+          && lastModifiedTime.equals(attributes.lastModifiedTime())
+          && Objects.equals(fileKey, attributes.fileKey());
+    }
+
+    /**
+     * Adds a reference to this mapping, unless it has already been unmapped.
+     *
+     * @return {@code true} if the reference was added
+     */
+    private boolean retain() {
+      while (true) {
+        final int count = references.get();
+        if (count == 0) {
+          return false;
+        }
+        if (references.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /** Releases a reference to this mapping, and unmaps it if it was the last one. */
+    @Override
+    public void close() {
+      if (references.decrementAndGet() == 0) {
+        UNMAPPER.accept(buffer);
+      }
+    }
+  }
+}
@@ -0,0 +1,363 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.RecursiveTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An overview of a file tree, down to a given depth and cut off at a given number of nodes, with
+ * the number of files and directories and the total size of every directory. The tree is scanned in
+ * parallel by one fork/join task per directory on the pool of {@link FileWalker}, and each task
+ * sums the counts and sizes of its subdirectories as they complete. The whole subtree is scanned to
+ * compute the totals, but only the entries above the depth limit are kept in memory, and at most as
+ * many entries per directory as the node budget, since no more of them can be shown.
+ *
+ * <p>The node budget is spent breadth first, so that a tree cut off by the budget shows every level
+ * down to where it was cut instead of a single deep branch. Symbolic links are not followed.
+ *
+ * @param root the root of the tree
+ * @param nodes the number of nodes of the tree, the root excluded
+ * @param truncated whether entries above the depth limit were left out because of the node budget
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record FileTree(TreeNode root, int nodes, boolean truncated) {
+  /** Logger instance for logging scanning events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(FileTree.class);
+
+  /** The default depth of a tree. */
+  public static final int DEFAULT_DEPTH = 3;
+
+  /** The default maximum number of nodes of a tree. */
+  private static final int DEFAULT_MAX_NODES = 1000;
+
+  /** The order of the entries of a directory: directories first, then by name. */
+  private static final Comparator<Node> ORDER =
+      Comparator.comparing((Node node) -> !node.type.equals("directory"))
+          .thenComparing(node -> node.name);
+
+  /**
+   * Scans the file tree rooted at the given path.
+   *
+   * @param start the root of the tree
+   * @param depth the number of levels below the root to include, {@code 0} for the root only
+   * @param maxNodes the maximum number of nodes of the tree, the root excluded
+   * @return the tree
+   * @throws IOException if the root does not exist or cannot be read
+   * @throws IllegalArgumentException if the depth is negative or the maximum is not positive
+   */
+  public static FileTree build(Path start, int depth, int maxNodes) throws IOException {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Depth must not be negative: " + depth);
+    }
+    if (maxNodes <= 0) {
+      throw new IllegalArgumentException("Max nodes must be positive: " + maxNodes);
+    }
+
+    // Step 1: Scan the tree in parallel, summing up the subtrees on the way back.
+    final Path root = start.toAbsolutePath();
+    BasicFileAttributes attributes =
+        Files.readAttributes(root, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    final Node top;
+    if (attributes.isDirectory()) {
+      try {
+        top = FileWalker.POOL.invoke(new ScanTask(root, root.toString(), 0, depth, maxNodes));
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    } else {
+      top = Node.leaf(root.toString(), attributes);
+    }
+
+    // Step 2: Spend the node budget breadth first.
+    int budget = maxNodes;
+    boolean truncated = false;
+    Queue<Node> queue = new ArrayDeque<>();
+    queue.add(top);
+    while (!queue.isEmpty()) {
+      Node node = queue.poll();
+      if (node.children == null) {
+        continue;
+      }
+      node.shown = Math.min(node.children.size(), budget);
+      budget -= node.shown;
+      truncated |= node.shown < node.children.size();
+      queue.addAll(node.children.subList(0, node.shown));
+    }
+    return new FileTree(top.toTreeNode(), maxNodes - budget, truncated);
+  }
+
+  /**
+   * Returns the default maximum number of nodes of a tree, which is the {@code tree.max-nodes}
+   * setting, see {@link ServerConfig}.
+   *
+   * @return the default maximum number of nodes
+   */
+  public static int defaultMaxNodes() {
+    return ServerConfig.getInt("tree.max-nodes", DEFAULT_MAX_NODES);
+  }
+
+  /**
+   * Returns this tree as text, one indented line per node, followed by a hint if the tree was cut
+   * off by the node budget.
+   *
+   * @param withNodes whether to include the nodes below the root, or only the root
+   * @return the text to return to the client
+   */
+  public String toText(boolean withNodes) {
+    StringBuilder text = new StringBuilder(withNodes ? 64 + nodes * 48 : 64);
+    appendTo(text, root, "");
+    if (withNodes) {
+      for (TreeNode child : root.children()) {
+        appendTree(text, child, "  ");
+      }
+    }
+    if (truncated) {
+      text.append(System.lineSeparator())
+          .append(System.lineSeparator())
+          .append(
+              String.format(
+                  "[Stopped after %d files/dirs. Lower the depth, raise maxNodes, or call the tool"
+                      + " 'tree' on a subdirectory to see more.]",
+                  nodes));
+    }
+    return text.toString();
+  }
+
+  /**
+   * Appends the given node and its children to the given text, each on its own line.
+   *
+   * @param text the text to append to
+   * @param node the node to append
+   * @param indent the indentation of the node
+   */
+  private static void appendTree(StringBuilder text, TreeNode node, String indent) {
+    appendTo(text.append(System.lineSeparator()), node, indent);
+    final String childIndent = indent + "  ";
+    for (TreeNode child : node.children()) {
+      appendTree(text, child, childIndent);
+    }
+    if (!node.children().isEmpty() && node.omitted() > 0) {
+      text.append(System.lineSeparator())
+          .append(childIndent)
+          .append('[')
+          .append(node.omitted())
+          .append(" more entries]");
+    }
+  }
+
+  /**
+   * Appends the given node to the given text as a single line, without its line break.
+   *
+   * @param text the text to append to
+   * @param node the node to append
+   * @param indent the indentation of the node
+   */
+  private static void appendTo(StringBuilder text, TreeNode node, String indent) {
+    text.append(indent).append(node.name());
+    switch (node.type()) {
+      case "directory" ->
+          text.append("/ (")
+              .append(node.files())
+              .append(" files, ")
+              .append(node.dirs())
+              .append(" dirs, ")
+              .append(node.size())
+              .append(" bytes)");
+      case "file" -> text.append(" (").append(node.size()).append(" bytes)");
+      default -> text.append(" (").append(node.type()).append(')');
+    }
+  }
+
+  /** A scanned entry, mutable while its directory is being summed up. */
+  private static final class Node {
+    /** The name of the entry. */
+    final String name;
+
+    /** The type of the entry. */
+    final String type;
+
+    /** The size of the entry, or the total size of the files beneath a directory. */
+    long size;
+
+    /** The number of files beneath a directory. */
+    long files;
+
+    /** The number of directories beneath a directory. */
+    long dirs;
+
+    /** The number of direct children of a directory. */
+    int entries;
+
+    /** The kept children of a directory above the depth limit, {@code null} otherwise. */
+    List<Node> children;
+
+    /** The number of children shown within the node budget. */
+    int shown;
+
+    Node(String name, String type, long size) {
+      this.name = name;
+      this.type = type;
+      this.size = size;
+    }
+
+    /**
+     * Returns the node of a file, a symbolic link, or any other entry that is not a directory.
+     *
+     * @param name the name of the entry
+     * @param attributes the attributes of the entry
+     * @return the node
+     */
+    static Node leaf(String name, BasicFileAttributes attributes) {
+      final String type;
+      if (attributes.isRegularFile()) {
+        type = "file";
+      } else if (attributes.isSymbolicLink()) {
+        type = "symlink";
+      } else {
+        type = "other";
+      }
+      return new Node(name, type, attributes.size());
+    }
+
+    /**
+     * Returns the immutable form of this node, with the children shown within the node budget.
+     *
+     * @return the tree node
+     */
+    TreeNode toTreeNode() {
+      List<TreeNode> kept = new ArrayList<>(shown);
+      for (int i = 0; i < shown; i++) {
+        kept.add(children.get(i).toTreeNode());
+      }
+      return new TreeNode(name, type, size, files, dirs, entries - shown, kept);
+    }
+  }
+
+  /** A fork/join task that lists a single directory and forks a subtask per subdirectory. */
+  private static final class ScanTask extends RecursiveTask<Node> {
+    /** The directory to list. */
+    private final transient Path dir;
+
+    /** The name of the directory. */
+    private final String name;
+
+    /** The level of the directory below the root. */
+    private final int level;
+
+    /** The number of levels below the root to keep. */
+    private final int depth;
+
+    /** The maximum number of nodes of the tree. */
+    private final int maxNodes;
+
+    ScanTask(Path dir, String name, int level, int depth, int maxNodes) {
+      this.dir = dir;
+      this.name = name;
+      this.level = level;
+      this.depth = depth;
+      this.maxNodes = maxNodes;
+    }
+
+    @Override
+    protected Node compute() {
+      Node node = new Node(name, "directory", 0);
+      final boolean keep = level < depth;
+      List<Path> subdirs = new ArrayList<>();
+      PriorityQueue<Node> leaves = new PriorityQueue<>(ORDER.reversed());
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+        for (Path entry : stream) {
+          node.entries++;
+          final String entryName = entry.getFileName().toString();
+          Node leaf;
+          try {
+            BasicFileAttributes attributes =
+                Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (attributes.isDirectory()) {
+              node.dirs++;
+              subdirs.add(entry);
+              continue;
+            }
+            leaf = Node.leaf(entryName, attributes);
+          } catch (IOException e) {
+            log.debug("Cannot read the attributes of: {}", entry, e);
+            leaf = new Node(entryName, "unknown", 0);
+          }
+          node.files++;
+          node.size += leaf.size;
+          if (keep) {
+            leaves.add(leaf);
+            if (leaves.size() > maxNodes) {
+              leaves.poll();
+            }
+          }
+        }
+      } catch (IOException e) {
+        skipOrPropagate(e);
+      } catch (DirectoryIteratorException e) {
+        skipOrPropagate(e.getCause());
+      } finally {
+        Metrics.FILES_WALKED.add(node.entries);
+      }
+
+      // Every subdirectory is scanned for its totals, but only the first ones in order can be shown
+      // within the node budget, so the others are scanned as if they were below the depth limit.
+      if (keep && subdirs.size() > maxNodes) {
+        subdirs.sort(Comparator.comparing(subdir -> subdir.getFileName().toString()));
+      }
+      List<ScanTask> subtasks = new ArrayList<>(subdirs.size());
+      for (int i = 0; i < subdirs.size(); i++) {
+        final Path subdir = subdirs.get(i);
+        final int subdepth = keep && i < maxNodes ? depth : level + 1;
+        subtasks.add(
+            new ScanTask(subdir, subdir.getFileName().toString(), level + 1, subdepth, maxNodes));
+      }
+      invokeAll(subtasks);
+
+      final int kept = keep ? Math.min(subtasks.size(), maxNodes) : 0;
+      List<Node> children = keep ? new ArrayList<>(kept + leaves.size()) : null;
+      for (int i = 0; i < subtasks.size(); i++) {
+        Node child = subtasks.get(i).join();
+        node.size += child.size;
+        node.files += child.files;
+        node.dirs += child.dirs;
+        if (i < kept) {
+          children.add(child);
+        }
+      }
+      if (keep) {
+        // Directories come first, so the leaves only fill the node budget they leave.
+        children.sort(ORDER);
+        children.addAll(leaves.stream().sorted(ORDER).limit(maxNodes - kept).toList());
+        node.children = children;
+      }
+      return node;
+    }
+
+    /**
+     * Propagates the given exception if this task lists the root directory, otherwise logs it and
+     * counts the directory as empty.
+     *
+     * @param e the exception raised while listing the directory
+     */
+    private void skipOrPropagate(IOException e) {
+      if (level == 0) {
+        throw new UncheckedIOException(e);
+      }
+      log.debug("Skipping unreadable directory: {}", dir, e);
+    }
+  }
+}
@@ -0,0 +1,392 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes, appends to and patches files atomically. The new content is written through a {@link
+ * FileChannel} to a temporary file next to the file, forced to disk as the {@code write.durability}
+ * setting tells, see {@link ServerConfig}, then moved over the file with {@link
+ * StandardCopyOption#ATOMIC_MOVE}, so that readers see either the previous content or the new one,
+ * never a partial write, and a failed update leaves the file as it was.
+ *
+ * <p>The content kept from the previous file, the whole file for an append and the regions between
+ * the hunks for a patch, is copied with {@link FileChannel#transferTo}, which the operating system
+ * carries out without copying the bytes through the JVM. Only the new content and the lines of the
+ * hunks go through memory, whatever the size of the file, see {@link Patch}.
+ *
+ * <p>The durability is one of:
+ *
+ * <ul>
+ *   <li>{@code none}: nothing is forced, the update survives a crash of the server but may not
+ *       survive a crash of the operating system.
+ *   <li>{@code data}, the default: the content of the temporary file is forced before the move.
+ *   <li>{@code full}: the temporary file is forced with its metadata, and the directory is forced
+ *       after the move, so that the update itself survives a power loss.
+ * </ul>
+ *
+ * <p>Each path must be under the allowed roots of {@link PathSandbox}. A symbolic link is updated
+ * through, its target is replaced and the link kept. The POSIX permissions of a replaced file are
+ * kept, but not its owner, hard links or extended attributes. Updates of the same file are
+ * serialized within the server, whichever path names it, and whether the file exists is decided
+ * under the lock, so that concurrent appends or patches do not lose each other.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class FileUpdater {
+  /** Logger instance for logging update events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(FileUpdater.class);
+
+  /** The default durability of updates. */
+  private static final String DEFAULT_DURABILITY = "data";
+
+  /** The locks serializing the updates of the same file, picked by the hash of its real path. */
+  private static final Object[] LOCKS = new Object[64];
+
+  static {
+    for (int i = 0; i < LOCKS.length; i++) {
+      LOCKS[i] = new Object();
+    }
+  }
+
+  private FileUpdater() {}
+
+  /**
+   * Creates the given file, or replaces its content, creating its parent directories as needed.
+   *
+   * @param path the path of the file
+   * @param content the new content, written in UTF-8
+   * @return the outcome of the write
+   * @throws IOException if the path is not allowed, is a directory, or cannot be written
+   */
+  public static WriteResult write(String path, String content) throws IOException {
+    final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    return update(path, true, (source, target) -> new Counts(write(target, bytes), 0, 0));
+  }
+
+  /**
+   * Appends the given content to the given file, creating it and its parent directories as needed.
+   *
+   * @param path the path of the file
+   * @param content the content to append, written in UTF-8
+   * @return the outcome of the append
+   * @throws IOException if the path is not allowed, is a directory, or cannot be written
+   */
+  public static WriteResult append(String path, String content) throws IOException {
+    final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    return update(
+        path,
+        true,
+        (source, target) -> {
+          final long copied = source == null ? 0 : transfer(source, 0, source.size(), target);
+          return new Counts(write(target, bytes), copied, 0);
+        });
+  }
+
+  /**
+   * Applies the given patch to the given file, which must exist. Either all hunks apply, or the
+   * file is left as it was.
+   *
+   * @param path the path of the file
+   * @param patch the patch of the file in the unified diff format, see {@link Patch}
+   * @return the outcome of the patch
+   * @throws IOException if the path is not allowed, is not a file, or cannot be written
+   * @throws IllegalArgumentException if the patch is malformed or does not match the file
+   */
+  public static WriteResult patch(String path, String patch) throws IOException {
+    final List<Patch.Hunk> hunks = Patch.parse(patch);
+    return update(
+        path,
+        false,
+        (source, target) -> {
+          // Copy the regions between the hunks as they are, and write the lines of the hunks.
+          final long size = source.size();
+          final String separator = Patch.separator(source);
+          long position = 0;
+          long written = 0;
+          long copied = 0;
+          for (Patch.Region region : Patch.locate(source, hunks)) {
+            copied += transfer(source, position, region.start() - position, target);
+            final String replacement = region.replacement(separator);
+            written += write(target, replacement.getBytes(StandardCharsets.UTF_8));
+            position = region.end();
+          }
+          copied += transfer(source, position, size - position, target);
+          return new Counts(written, copied, hunks.size());
+        });
+  }
+
+  /**
+   * Updates the given file through a temporary file moved over it.
+   *
+   * @param path the path of the file
+   * @param create whether the file is created if it does not exist
+   * @param body the writer of the new content, given the previous file if it exists
+   * @return the outcome of the update
+   * @throws IOException if the path is not allowed or the file cannot be updated
+   */
+  private static WriteResult update(String path, boolean create, Body body) throws IOException {
+    final Durability durability = durability();
+
+    // Step 1: Resolve the file within the allowed roots.
+    final ResolvedPath resolved = PathSandbox.resolve(path);
+    if (resolved.exists() && !resolved.isRegularFile()) {
+      final String reason = resolved.isDirectory() ? "Is a directory" : "Not a regular file";
+      throw new FileSystemException(path, null, reason);
+    }
+    if (!resolved.exists() && !create) {
+      throw new NoSuchFileException(path);
+    }
+    if (!resolved.exists() && isSymbolicLink(path)) {
+      // The link itself would be replaced, wherever it is, rather than its missing target.
+      throw new FileSystemException(path, null, "Is a dangling symbolic link");
+    }
+    // The file is named by the real path of its directory, so that every path of the same file
+    // takes the same lock. The directory of a new file is resolved as given rather than
+    // normalized, so that a .. following a link is resolved by the operating system the same way
+    // as by the sandbox.
+    final Path given = resolved.exists() ? resolved.path().toRealPath() : resolved.path();
+    final Path parent = given.getParent();
+    final String name = String.valueOf(given.getFileName());
+    if (parent == null || name.equals(".") || name.equals("..")) {
+      throw new FileSystemException(path, null, "Not a regular file");
+    }
+    if (!resolved.exists()) {
+      Files.createDirectories(parent);
+    }
+    final Path dir = parent.toRealPath();
+    final Path file = dir.resolve(name);
+
+    synchronized (LOCKS[Math.floorMod(file.hashCode(), LOCKS.length)]) {
+      // Step 2: Check the file again under the lock, since it may have been created or replaced
+      // since it was resolved.
+      BasicFileAttributes attributes;
+      try {
+        attributes =
+            Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+      } catch (NoSuchFileException e) {
+        attributes = null;
+      }
+      final boolean created = attributes == null;
+      if (created && !create) {
+        throw new NoSuchFileException(path);
+      }
+      if (!created && !attributes.isRegularFile()) {
+        final String reason = attributes.isDirectory() ? "Is a directory" : "Not a regular file";
+        throw new FileSystemException(path, null, reason);
+      }
+
+      // Step 3: Write the new content to a temporary file in the same directory.
+      final Path temp = dir.resolve("." + name + "." + Long.toHexString(random()) + ".tmp");
+      final Counts counts;
+      final long size;
+      try {
+        try (FileChannel target =
+                FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            FileChannel source =
+                created ? null : FileChannel.open(file, LinkOption.NOFOLLOW_LINKS)) {
+          counts = body.write(source, target);
+          size = target.size();
+          if (durability != Durability.NONE) {
+            target.force(durability == Durability.FULL);
+          }
+        }
+        if (!created) {
+          copyPermissions(file, temp);
+        }
+
+        // Step 4: Move the temporary file over the file.
+        move(temp, file);
+      } catch (IOException | RuntimeException e) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException suppressed) {
+          e.addSuppressed(suppressed);
+        }
+        throw e;
+      }
+      if (durability == Durability.FULL) {
+        forceDirectory(dir);
+      }
+
+      // Step 5: Drop the cached content of the file and the cached listing of its directory.
+      FileCache.invalidate(file);
+      FileCache.invalidate(dir);
+      Metrics.BYTES_WRITTEN.add(size);
+      return new WriteResult(
+          file.toString(), created, counts.written(), counts.copied(), size, counts.hunks());
+    }
+  }
+
+  /**
+   * Tells whether the given path is a symbolic link, without following it.
+   *
+   * @param path the path
+   * @return {@code true} if the path is a symbolic link
+   * @throws IOException if the path is not allowed
+   */
+  private static boolean isSymbolicLink(String path) throws IOException {
+    final BasicFileAttributes attributes =
+        PathSandbox.resolve(path, LinkOption.NOFOLLOW_LINKS).attributes();
+    return attributes != null && attributes.isSymbolicLink();
+  }
+
+  /**
+   * Reads the {@code write.durability} setting.
+   *
+   * @return the durability of updates
+   * @throws IllegalArgumentException if the setting is not {@code none}, {@code data} or {@code
+   *     full}
+   */
+  private static Durability durability() {
+    final String durability = ServerConfig.getString("write.durability", DEFAULT_DURABILITY);
+    try {
+      return Durability.valueOf(durability.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Unsupported write durability: " + durability + ", expected none, data or full");
+    }
+  }
+
+  /**
+   * Writes all the given bytes to the given channel.
+   *
+   * @param target the channel
+   * @param bytes the bytes to write
+   * @return the number of bytes written
+   * @throws IOException if the bytes cannot be written
+   */
+  private static long write(FileChannel target, byte[] bytes) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      target.write(buffer);
+    }
+    return bytes.length;
+  }
+
+  /**
+   * Copies a region of the given source file to the current position of the given target file.
+   *
+   * @param source the source file
+   * @param position the offset of the region in the source file
+   * @param count the number of bytes of the region
+   * @param target the target file
+   * @return the number of bytes copied
+   * @throws IOException if the region cannot be copied, or the source file has been truncated
+   */
+  private static long transfer(FileChannel source, long position, long count, FileChannel target)
+      throws IOException {
+    final long end = position + count;
+    for (long from = position; from < end; ) {
+      final long transferred = source.transferTo(from, end - from, target);
+      if (transferred <= 0) {
+        throw new IOException("File truncated while it was being updated");
+      }
+      from += transferred;
+    }
+    return count;
+  }
+
+  /**
+   * Moves the given temporary file over the given file, atomically if the filesystem supports it. A
+   * symbolic link at the place of the file is replaced, not followed.
+   *
+   * @param temp the temporary file
+   * @param file the file
+   * @throws IOException if the temporary file cannot be moved
+   */
+  static void move(Path temp, Path file) throws IOException {
+    try {
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      log.warn("Atomic move not supported, replacing {} non-atomically", file);
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Copies the POSIX permissions of the given source file or directory to the given target, if the
+   * filesystem has POSIX permissions.
+   *
+   * @param source the file or directory to copy the permissions of
+   * @param target the file or directory to copy the permissions to
+   * @throws IOException if the permissions cannot be copied
+   */
+  static void copyPermissions(Path source, Path target) throws IOException {
+    try {
+      Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+    } catch (UnsupportedOperationException e) {
+      // Not a POSIX filesystem, the target keeps the default permissions.
+    }
+  }
+
+  /**
+   * Forces the given directory to disk, so that the entries moved into it are durable. Not every
+   * platform can open a directory, in which case nothing is forced.
+   *
+   * @param dir the directory
+   */
+  private static void forceDirectory(Path dir) {
+    try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      log.debug("Directory cannot be forced to disk: {}, {}", dir, e.toString());
+    }
+  }
+
+  /**
+   * Returns a random number naming a temporary file.
+   *
+   * @return the random number
+   */
+  private static long random() {
+    return ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+  }
+
+  /** The durability of updates, see {@link FileUpdater}. */
+  private enum Durability {
+    NONE,
+    DATA,
+    FULL
+  }
+
+  /** Writes the new content of a file. */
+  @FunctionalInterface
+  private interface Body {
+
+    /**
+     * Writes the new content of a file to the given temporary file.
+     *
+     * @param source the previous file, {@code null} if the file is created
+     * @param target the temporary file
+     * @return the number of bytes written and copied, and of hunks applied
+     * @throws IOException if the content cannot be written
+     */
+    Counts write(FileChannel source, FileChannel target) throws IOException;
+  }
+
+  /**
+   * The work done by a {@link Body}.
+   *
+   * @param written the number of bytes of new content written
+   * @param copied the number of bytes copied from the previous file
+   * @param hunks the number of hunks applied
+   */
+  private record Counts(long written, long copied, int hunks) {}
+}
@@ -0,0 +1,259 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pure-Java directory walker that traverses a file tree in parallel. Each directory is listed by
+ * its own fork/join task, so independent subtrees are walked concurrently across all available
+ * cores, and names are matched in-process without spawning any child process.
+ *
+ * <p>Symbolic links are not followed while walking, which mirrors the default behavior of the
+ * {@code find} command.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class FileWalker {
+  /** Logger instance for logging walking events and errors. */
+  private static final Logger log = LoggerFactory.getLogger(FileWalker.class);
+
+  /**
+   * The fork/join pool shared by all walks, and by the scans of {@link FileTree}, sized to the
+   * number of available processors.
+   */
+  static final ForkJoinPool POOL =
+      new ForkJoinPool(
+          Runtime.getRuntime().availableProcessors(), FileWalker::newWorkerThread, null, false);
+
+  /** The matcher accepting every name, used to walk a whole tree. */
+  private static final NameMatcher ANY_NAME = NameMatcher.of("glob:*");
+
+  /**
+   * Walks the file tree rooted at the given start path and streams every entry whose name matches
+   * the given matcher to the consumer, including the start path itself. The consumer is called
+   * concurrently from multiple worker threads, in no particular order, so it must be thread-safe.
+   * Subdirectories that cannot be read are skipped.
+   *
+   * @param start the starting path of the walk
+   * @param matcher the matcher to test entry names with
+   * @param consumer the consumer to receive the absolute paths of matching entries
+   * @throws IOException if the start path does not exist or cannot be read
+   */
+  public static void walk(Path start, NameMatcher matcher, Consumer<Path> consumer)
+      throws IOException {
+    walk(start, matcher, () -> false, consumer);
+  }
+
+  /**
+   * Walks the file tree rooted at the given start path like {@link #walk(Path, NameMatcher,
+   * Consumer)}, and stops early once the given condition holds. The condition is checked before
+   * each directory is listed and after each entry is matched, so that the walk winds down within a
+   * single directory listing once it holds.
+   *
+   * @param start the starting path of the walk
+   * @param matcher the matcher to test entry names with
+   * @param stopped the condition telling whether the walk must stop, checked concurrently
+   * @param consumer the consumer to receive the absolute paths of matching entries
+   * @throws IOException if the start path does not exist or cannot be read
+   */
+  public static void walk(
+      Path start, NameMatcher matcher, BooleanSupplier stopped, Consumer<Path> consumer)
+      throws IOException {
+    final Path root = start.toAbsolutePath();
+    BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+
+    if (matcher.matches(root)) {
+      consumer.accept(root);
+    }
+
+    if (!attributes.isDirectory() || stopped.getAsBoolean()) {
+      return;
+    }
+
+    try {
+      POOL.invoke(new WalkTask(root, matcher, stopped, consumer, true));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Walks the file tree rooted at the given start path like {@link #walk(Path, NameMatcher,
+   * BooleanSupplier, Consumer)}, on the worker threads only, so that the calling thread is free to
+   * consume the matching entries while the walk runs.
+   *
+   * @param start the starting path of the walk
+   * @param matcher the matcher to test entry names with
+   * @param stopped the condition telling whether the walk must stop, checked concurrently
+   * @param consumer the consumer to receive the absolute paths of matching entries
+   * @return a future completed once the walk is done, or completed exceptionally with an {@link
+   *     UncheckedIOException} if the start path does not exist or cannot be read
+   */
+  public static CompletableFuture<Void> walkAsync(
+      Path start, NameMatcher matcher, BooleanSupplier stopped, Consumer<Path> consumer) {
+    return CompletableFuture.runAsync(
+        () -> {
+          try {
+            walk(start, matcher, stopped, consumer);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        },
+        POOL);
+  }
+
+  /**
+   * Walks the file tree rooted at the given start path and collects the absolute paths of all
+   * entries whose name matches the given matcher, sorted in lexicographic order.
+   *
+   * @param start the starting path of the walk
+   * @param matcher the matcher to test entry names with
+   * @return a sorted list of the absolute paths of all matching entries
+   * @throws IOException if the start path does not exist or cannot be read
+   */
+  public static List<String> search(Path start, NameMatcher matcher) throws IOException {
+    Queue<String> paths = new ConcurrentLinkedQueue<>();
+    walk(start, matcher, path -> paths.add(path.toString()));
+    return paths.stream().sorted().toList();
+  }
+
+  /**
+   * Walks the file tree rooted at the given start path and collects the absolute paths of the
+   * entries matching the given glob pattern and the given filter, sorted in lexicographic order. A
+   * pattern containing {@code /} is matched against the path relative to the start path, such as
+   * {@code src/**}{@code /*.java}. Any other pattern is matched against entry names, such as {@code
+   * *.java}.
+   *
+   * @param start the starting path of the walk
+   * @param glob the glob pattern
+   * @param filter the filter the matching entries must pass, called concurrently
+   * @return a sorted list of the absolute paths of the matching entries
+   * @throws IOException if the start path does not exist or cannot be read
+   * @throws IllegalArgumentException if the glob syntax is invalid
+   */
+  static List<String> glob(Path start, String glob, Predicate<Path> filter) throws IOException {
+    final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    final boolean byName = glob.indexOf('/') < 0;
+    final Path root = start.toAbsolutePath();
+    Queue<String> paths = new ConcurrentLinkedQueue<>();
+    walk(
+        root,
+        ANY_NAME,
+        path -> {
+          final Path candidate = byName ? path.getFileName() : root.relativize(path);
+          if (candidate != null && matcher.matches(candidate) && filter.test(path)) {
+            paths.add(path.toString());
+          }
+        });
+    return paths.stream().sorted().toList();
+  }
+
+  /**
+   * Creates a named worker thread for the shared fork/join pool.
+   *
+   * @param pool the pool the thread belongs to
+   * @return the worker thread
+   */
+  private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName("file-walker-" + thread.getPoolIndex());
+    return thread;
+  }
+
+  /** A fork/join task that lists a single directory and forks a subtask per subdirectory. */
+  private static final class WalkTask extends RecursiveAction {
+    /** The directory to list. */
+    private final transient Path dir;
+
+    /** The matcher to test entry names with. */
+    private final transient NameMatcher matcher;
+
+    /** The condition telling whether the walk must stop. */
+    private final transient BooleanSupplier stopped;
+
+    /** The consumer to receive matching entries. */
+    private final transient Consumer<Path> consumer;
+
+    /** Whether this task lists the root directory, whose failures are propagated. */
+    private final boolean root;
+
+    WalkTask(
+        Path dir,
+        NameMatcher matcher,
+        BooleanSupplier stopped,
+        Consumer<Path> consumer,
+        boolean root) {
+      this.dir = dir;
+      this.matcher = matcher;
+      this.stopped = stopped;
+      this.consumer = consumer;
+      this.root = root;
+    }
+
+    @Override
+    protected void compute() {
+      if (stopped.getAsBoolean()) {
+        return;
+      }
+      List<WalkTask> subtasks = new ArrayList<>();
+      int visited = 0;
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+        for (Path entry : stream) {
+          visited++;
+          if (matcher.matches(entry)) {
+            consumer.accept(entry);
+            if (stopped.getAsBoolean()) {
+              return;
+            }
+          }
+          if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+            subtasks.add(new WalkTask(entry, matcher, stopped, consumer, false));
+          }
+        }
+      } catch (IOException e) {
+        skipOrPropagate(e);
+        return;
+      } catch (DirectoryIteratorException e) {
+        skipOrPropagate(e.getCause());
+        return;
+      } finally {
+        Metrics.FILES_WALKED.add(visited);
+      }
+      invokeAll(subtasks);
+    }
+
+    /**
+     * Propagates the given exception if this task lists the root directory, otherwise logs it and
+     * skips the directory.
+     *
+     * @param e the exception raised while listing the directory
+     */
+    private void skipOrPropagate(IOException e) {
+      if (root) {
+        throw new UncheckedIOException(e);
+      }
+      log.debug("Skipping unreadable directory: {}", dir, e);
+    }
+  }
+}
@@ -1,16 +1,26 @@
 package com.github.mcp.server.filesystem.common;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServlet;
 import java.time.Duration;
+import java.util.EnumSet;
+import org.eclipse.jetty.ee10.servlet.FilterHolder;
+import org.eclipse.jetty.ee10.servlet.FilterMapping;
 import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
 import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A simple HTTP server implementation based on Jetty. This class provides methods to configure and
- * start an HTTP server that can host a servlet.
+ * start an HTTP server that can host a servlet. The metrics of the server are exposed next to the
+ * servlet at {@link ServerInfo#METRICS_ENDPOINT}, see {@link Metrics}.
  *
  * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
  */
@@ -24,11 +34,17 @@ public class HttpServer {
   /** Default path mapping for the servlet. */
   private static final String DEFAULT_SERVLET_PATH = "/*";
 
+  /** The name of the hosted servlet, which the concurrency limit applies to. */
+  private static final String MCP_SERVLET_NAME = "mcp";
+
+  /** The name of the filter bounding the number of concurrent MCP requests. */
+  private static final String CONCURRENCY_LIMIT_FILTER_NAME = "concurrency-limit";
+
   /** The servlet to be hosted by this HTTP server. */
   private HttpServlet servlet;
 
-  /** The port on which the HTTP server will listen. */
-  private int port;
+  /** The tuning of the thread pool and connector, defaults to the {@code http.*} settings. */
+  private HttpServerConfig config = HttpServerConfig.fromSystemProperties();
 
   /**
    * Sets the servlet to be hosted by this HTTP server.
@@ -48,7 +64,33 @@ public class HttpServer {
    * @return this HttpServer instance for method chaining
    */
   public HttpServer bind(int port) {
-    this.port = port;
+    this.config = config.toBuilder().port(port).build();
+    return this;
+  }
+
+  /**
+   * Sets the tuning of the thread pool and connector of this HTTP server, including its port.
+   * Defaults to {@link HttpServerConfig#fromSystemProperties()}.
+   *
+   * @param config the configuration
+   * @return this HttpServer instance for method chaining
+   */
+  public HttpServer configure(HttpServerConfig config) {
+    this.config = config;
+    return this;
+  }
+
+  /**
+   * Sets whether requests are handled on virtual threads, so that blocking tool calls do not
+   * exhaust the thread pool. If the JVM does not support virtual threads, requests are handled on
+   * platform threads anyway. Defaults to the {@code http.virtual-threads} setting, see {@link
+   * ServerConfig}.
+   *
+   * @param virtualThreads whether to handle requests on virtual threads
+   * @return this HttpServer instance for method chaining
+   */
+  public HttpServer virtualThreads(boolean virtualThreads) {
+    this.config = config.toBuilder().virtualThreads(virtualThreads).build();
     return this;
   }
 
@@ -62,9 +104,26 @@ public class HttpServer {
     handler.setContextPath(DEFAULT_SERVLET_CONTEXT_PATH);
 
     ServletHolder servletHolder = new ServletHolder(servlet);
+    servletHolder.setName(MCP_SERVLET_NAME);
     handler.addServlet(servletHolder, DEFAULT_SERVLET_PATH);
+    handler.addServlet(new ServletHolder(new MetricsServlet()), ServerInfo.METRICS_ENDPOINT);
 
-    Server httpserver = new Server(port);
+    // Only MCP requests are limited, so that metrics can still be scraped under overload.
+    if (config.maxConcurrentRequests() > 0) {
+      ConcurrencyLimitFilter filter =
+          new ConcurrencyLimitFilter(
+              config.maxConcurrentRequests(), config.maxQueuedRequests(), config.queueTimeout());
+      FilterHolder filterHolder = new FilterHolder(filter);
+      filterHolder.setName(CONCURRENCY_LIMIT_FILTER_NAME);
+      FilterMapping filterMapping = new FilterMapping();
+      filterMapping.setFilterName(CONCURRENCY_LIMIT_FILTER_NAME);
+      filterMapping.setServletName(MCP_SERVLET_NAME);
+      filterMapping.setDispatcherTypes(EnumSet.of(DispatcherType.REQUEST));
+      handler.getServletHandler().addFilter(filterHolder, filterMapping);
+    }
+
+    Server httpserver = new Server(createThreadPool());
+    httpserver.addConnector(createConnector(httpserver));
     httpserver.setHandler(handler);
     httpserver.setStopAtShutdown(true);
     httpserver.setStopTimeout(Duration.ofSeconds(5).getSeconds());
@@ -72,9 +131,11 @@ public class HttpServer {
     try {
       httpserver.start();
       addShutdownHook(httpserver);
-      log.info("Jetty-based HTTP server started on http://127.0.0.1:{}", port);
+      log.info("Jetty-based HTTP server started on http://127.0.0.1:{}", config.port());
+      log.info(
+          "Metrics exposed on http://127.0.0.1:{}{}", config.port(), ServerInfo.METRICS_ENDPOINT);
     } catch (Exception e) {
-      log.error("Error starting HTTP server on http://127.0.0.1:{}", port, e);
+      log.error("Error starting HTTP server on http://127.0.0.1:{}", config.port(), e);
     }
 
     try {
@@ -84,6 +145,50 @@ public class HttpServer {
     }
   }
 
+  /**
+   * Creates the thread pool of the server, which hands requests over to virtual threads if they are
+   * enabled and supported by the JVM.
+   *
+   * @return the thread pool
+   */
+  private QueuedThreadPool createThreadPool() {
+    QueuedThreadPool threadPool = new QueuedThreadPool(config.maxThreads(), config.minThreads());
+    threadPool.setName("http-server");
+    if (!config.virtualThreads()) {
+      return threadPool;
+    }
+    if (VirtualThreads.areSupported()) {
+      threadPool.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+      log.info("Handling HTTP requests on virtual threads");
+    } else {
+      log.warn("Virtual threads are not supported by this JVM, using platform threads instead");
+    }
+    return threadPool;
+  }
+
+  /**
+   * Creates the HTTP connector of the server, tuned by the configuration.
+   *
+   * @param httpserver the server the connector belongs to
+   * @return the connector
+   */
+  private ServerConnector createConnector(Server httpserver) {
+    HttpConfiguration httpConfiguration = new HttpConfiguration();
+    httpConfiguration.setOutputBufferSize(config.outputBufferSize());
+    httpConfiguration.setRequestHeaderSize(config.requestHeaderSize());
+
+    ServerConnector connector =
+        new ServerConnector(
+            httpserver,
+            config.acceptors(),
+            config.selectors(),
+            new HttpConnectionFactory(httpConfiguration));
+    connector.setPort(config.port());
+    connector.setAcceptQueueSize(config.acceptQueueSize());
+    connector.setIdleTimeout(config.idleTimeout().toMillis());
+    return connector;
+  }
+
   /**
    * Adds a shutdown hook to gracefully stop the server when the JVM shuts down.
    *
@@ -0,0 +1,333 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.time.Duration;
+
+/**
+ * The tuning of the Jetty-based {@link HttpServer}: thread pool, connector and load shedding. The
+ * defaults match the Jetty defaults, and every value can be overridden by an {@code http.*}
+ * setting, see {@link #fromSystemProperties()}.
+ *
+ * @param port the port on which the server listens
+ * @param minThreads the minimum number of threads of the thread pool
+ * @param maxThreads the maximum number of threads of the thread pool
+ * @param virtualThreads whether requests are handled on virtual threads, if the JVM supports them
+ * @param acceptors the number of acceptor threads, {@code -1} to let Jetty decide
+ * @param selectors the number of selector threads, {@code -1} to let Jetty decide
+ * @param acceptQueueSize the size of the backlog of pending connections, {@code 0} for the
+ *     operating system default
+ * @param idleTimeout the time a connection may stay idle before it is closed
+ * @param outputBufferSize the size of the response buffer in bytes
+ * @param requestHeaderSize the maximum size of the request headers in bytes
+ * @param maxConcurrentRequests the maximum number of requests handled at the same time, {@code 0}
+ *     for no limit
+ * @param maxQueuedRequests the maximum number of requests waiting for a slot once the concurrency
+ *     limit is reached, further requests are rejected with status 503
+ * @param queueTimeout the maximum time a request waits for a slot before it is rejected with status
+ *     503
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record HttpServerConfig(
+    int port,
+    int minThreads,
+    int maxThreads,
+    boolean virtualThreads,
+    int acceptors,
+    int selectors,
+    int acceptQueueSize,
+    Duration idleTimeout,
+    int outputBufferSize,
+    int requestHeaderSize,
+    int maxConcurrentRequests,
+    int maxQueuedRequests,
+    Duration queueTimeout) {
+
+  /**
+   * Creates a builder initialized with the default configuration.
+   *
+   * @return the builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the default configuration overridden by the {@code http.*} settings, see {@link
+   * ServerConfig}. Durations are given in milliseconds.
+   *
+   * @return the configuration
+   */
+  public static HttpServerConfig fromSystemProperties() {
+    HttpServerConfig defaults = builder().build();
+    return builder()
+        .port(ServerConfig.getInt("http.port", defaults.port))
+        .minThreads(ServerConfig.getInt("http.min-threads", defaults.minThreads))
+        .maxThreads(ServerConfig.getInt("http.max-threads", defaults.maxThreads))
+        .virtualThreads(ServerConfig.getBoolean("http.virtual-threads", defaults.virtualThreads))
+        .acceptors(ServerConfig.getInt("http.acceptors", defaults.acceptors))
+        .selectors(ServerConfig.getInt("http.selectors", defaults.selectors))
+        .acceptQueueSize(ServerConfig.getInt("http.accept-queue-size", defaults.acceptQueueSize))
+        .idleTimeout(millis("http.idle-timeout", defaults.idleTimeout))
+        .outputBufferSize(ServerConfig.getInt("http.output-buffer-size", defaults.outputBufferSize))
+        .requestHeaderSize(
+            ServerConfig.getInt("http.request-header-size", defaults.requestHeaderSize))
+        .maxConcurrentRequests(
+            ServerConfig.getInt("http.max-concurrent-requests", defaults.maxConcurrentRequests))
+        .maxQueuedRequests(
+            ServerConfig.getInt("http.max-queued-requests", defaults.maxQueuedRequests))
+        .queueTimeout(millis("http.queue-timeout", defaults.queueTimeout))
+        .build();
+  }
+
+  /**
+   * Creates a builder initialized with this configuration.
+   *
+   * @return the builder
+   */
+  public Builder toBuilder() {
+    return new Builder()
+        .port(port)
+        .minThreads(minThreads)
+        .maxThreads(maxThreads)
+        .virtualThreads(virtualThreads)
+        .acceptors(acceptors)
+        .selectors(selectors)
+        .acceptQueueSize(acceptQueueSize)
+        .idleTimeout(idleTimeout)
+        .outputBufferSize(outputBufferSize)
+        .requestHeaderSize(requestHeaderSize)
+        .maxConcurrentRequests(maxConcurrentRequests)
+        .maxQueuedRequests(maxQueuedRequests)
+        .queueTimeout(queueTimeout);
+  }
+
+  /**
+   * Returns the duration setting with the given key, given in milliseconds.
+   *
+   * @param key the key of the setting, without the common prefix
+   * @param defaultValue the value returned if the setting is absent
+   * @return the duration
+   */
+  private static Duration millis(String key, Duration defaultValue) {
+    return Duration.ofMillis(ServerConfig.getLong(key, defaultValue.toMillis()));
+  }
+
+  /** A builder of {@link HttpServerConfig}, initialized with the Jetty defaults. */
+  public static final class Builder {
+    /** The port on which the server listens. */
+    private int port = 8080;
+
+    /** The minimum number of threads of the thread pool. */
+    private int minThreads = 8;
+
+    /** The maximum number of threads of the thread pool. */
+    private int maxThreads = 200;
+
+    /** Whether requests are handled on virtual threads. */
+    private boolean virtualThreads = false;
+
+    /** The number of acceptor threads. */
+    private int acceptors = -1;
+
+    /** The number of selector threads. */
+    private int selectors = -1;
+
+    /** The size of the backlog of pending connections. */
+    private int acceptQueueSize = 0;
+
+    /** The time a connection may stay idle before it is closed. */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /** The size of the response buffer in bytes. */
+    private int outputBufferSize = 32 * 1024;
+
+    /** The maximum size of the request headers in bytes. */
+    private int requestHeaderSize = 8 * 1024;
+
+    /** The maximum number of requests handled at the same time. */
+    private int maxConcurrentRequests = 0;
+
+    /** The maximum number of requests waiting for a slot. */
+    private int maxQueuedRequests = 0;
+
+    /** The maximum time a request waits for a slot. */
+    private Duration queueTimeout = Duration.ofSeconds(1);
+
+    private Builder() {}
+
+    /**
+     * Sets the port on which the server listens.
+     *
+     * @param port the port, {@code 0} for an ephemeral port
+     * @return this builder
+     */
+    public Builder port(int port) {
+      this.port = port;
+      return this;
+    }
+
+    /**
+     * Sets the minimum number of threads of the thread pool.
+     *
+     * @param minThreads the minimum number of threads
+     * @return this builder
+     */
+    public Builder minThreads(int minThreads) {
+      this.minThreads = minThreads;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of threads of the thread pool.
+     *
+     * @param maxThreads the maximum number of threads
+     * @return this builder
+     */
+    public Builder maxThreads(int maxThreads) {
+      this.maxThreads = maxThreads;
+      return this;
+    }
+
+    /**
+     * Sets whether requests are handled on virtual threads, if the JVM supports them.
+     *
+     * @param virtualThreads whether to handle requests on virtual threads
+     * @return this builder
+     */
+    public Builder virtualThreads(boolean virtualThreads) {
+      this.virtualThreads = virtualThreads;
+      return this;
+    }
+
+    /**
+     * Sets the number of acceptor threads.
+     *
+     * @param acceptors the number of acceptors, {@code -1} to let Jetty decide
+     * @return this builder
+     */
+    public Builder acceptors(int acceptors) {
+      this.acceptors = acceptors;
+      return this;
+    }
+
+    /**
+     * Sets the number of selector threads.
+     *
+     * @param selectors the number of selectors, {@code -1} to let Jetty decide
+     * @return this builder
+     */
+    public Builder selectors(int selectors) {
+      this.selectors = selectors;
+      return this;
+    }
+
+    /**
+     * Sets the size of the backlog of pending connections.
+     *
+     * @param acceptQueueSize the backlog size, {@code 0} for the operating system default
+     * @return this builder
+     */
+    public Builder acceptQueueSize(int acceptQueueSize) {
+      this.acceptQueueSize = acceptQueueSize;
+      return this;
+    }
+
+    /**
+     * Sets the time a connection may stay idle before it is closed.
+     *
+     * @param idleTimeout the idle timeout
+     * @return this builder
+     */
+    public Builder idleTimeout(Duration idleTimeout) {
+      this.idleTimeout = idleTimeout;
+      return this;
+    }
+
+    /**
+     * Sets the size of the response buffer.
+     *
+     * @param outputBufferSize the buffer size in bytes
+     * @return this builder
+     */
+    public Builder outputBufferSize(int outputBufferSize) {
+      this.outputBufferSize = outputBufferSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum size of the request headers.
+     *
+     * @param requestHeaderSize the maximum size in bytes
+     * @return this builder
+     */
+    public Builder requestHeaderSize(int requestHeaderSize) {
+      this.requestHeaderSize = requestHeaderSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of requests handled at the same time.
+     *
+     * @param maxConcurrentRequests the maximum number of requests, {@code 0} for no limit
+     * @return this builder
+     */
+    public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+      this.maxConcurrentRequests = maxConcurrentRequests;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of requests waiting for a slot once the concurrency limit is reached.
+     *
+     * @param maxQueuedRequests the maximum number of waiting requests
+     * @return this builder
+     */
+    public Builder maxQueuedRequests(int maxQueuedRequests) {
+      this.maxQueuedRequests = maxQueuedRequests;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time a request waits for a slot before it is rejected.
+     *
+     * @param queueTimeout the queue timeout
+     * @return this builder
+     */
+    public Builder queueTimeout(Duration queueTimeout) {
+      this.queueTimeout = queueTimeout;
+      return this;
+    }
+
+    /**
+     * Builds the configuration.
+     *
+     * @return the configuration
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public HttpServerConfig build() {
+      if (port < 0 || port > 65535) {
+        throw new IllegalArgumentException("Invalid port: " + port);
+      }
+      if (minThreads <= 0 || maxThreads < minThreads) {
+        throw new IllegalArgumentException(
+            String.format("Invalid thread pool size: min %d, max %d", minThreads, maxThreads));
+      }
+      if (maxConcurrentRequests < 0 || maxQueuedRequests < 0) {
+        throw new IllegalArgumentException("Request limits must not be negative");
+      }
+      return new HttpServerConfig(
+          port,
+          minThreads,
+          maxThreads,
+          virtualThreads,
+          acceptors,
+          selectors,
+          acceptQueueSize,
+          idleTimeout,
+          outputBufferSize,
+          requestHeaderSize,
+          maxConcurrentRequests,
+          maxQueuedRequests,
+          queueTimeout);
+    }
+  }
+}
@@ -0,0 +1,306 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of the server, recorded on the hot paths without locking and exposed in the
+ * Prometheus text format, see {@link #scrape()}. Counters are {@link LongAdder}s, so that threads
+ * recording concurrently do not contend on a single memory location. Handlers are timed by
+ * histograms with fixed buckets, each bucket being a {@link LongAdder} as well, so that recording a
+ * call costs a few additions and never allocates.
+ *
+ * <p>Timers are looked up by the kind and name of a handler once, when the handler is registered,
+ * and the hot path only records into the timer it holds.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class Metrics {
+  /** The prefix of the names of all metrics. */
+  private static final String PREFIX = "mcp_filesystem_";
+
+  /** The upper bounds of the buckets of the handler histograms, in seconds. */
+  private static final double[] BUCKETS = {
+    0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+  };
+
+  /** The upper bounds of the buckets of the handler histograms, in nanoseconds. */
+  private static final long[] BUCKET_NANOS = toNanos(BUCKETS);
+
+  /** The {@code le} labels of the buckets of the handler histograms, the unbounded one included. */
+  private static final String[] BUCKET_LABELS = toLabels(BUCKETS);
+
+  /** The number of bytes read from files, from disk, a memory mapping or {@link FileCache}. */
+  public static final Counter BYTES_READ =
+      new Counter("file_read_bytes_total", "Bytes read from files.");
+
+  /** The number of bytes written to files, whether new or copied from their previous content. */
+  public static final Counter BYTES_WRITTEN =
+      new Counter("file_written_bytes_total", "Bytes written to files.");
+
+  /** The number of entries visited by the walks of file trees. */
+  public static final Counter FILES_WALKED =
+      new Counter("files_walked_total", "Files and directories visited by file tree walks.");
+
+  /** The timers of the handlers, keyed and sorted by kind and name. */
+  private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+
+  private Metrics() {}
+
+  /**
+   * Returns the timer of the given handler, creating it on first use.
+   *
+   * @param kind the kind of the handler, such as {@code tool}, {@code prompt} or {@code resource}
+   * @param name the name of the handler
+   * @return the timer
+   */
+  public static Timer timer(String kind, String name) {
+    return TIMERS.computeIfAbsent(kind + '\u0000' + name, key -> new Timer(kind, name));
+  }
+
+  /**
+   * Returns all metrics in the Prometheus text exposition format, version 0.0.4.
+   *
+   * @return the metrics
+   */
+  public static String scrape() {
+    StringBuilder text = new StringBuilder(4096);
+
+    // Step 1: Append the counters recorded on the hot paths.
+    final Counter[] counters = {BYTES_READ, BYTES_WRITTEN, FILES_WALKED};
+    for (Counter counter : counters) {
+      appendHeader(text, counter.name, counter.help, "counter");
+      appendSample(text, counter.name, "", counter.count());
+    }
+
+    // Step 2: Append the counters of the file cache, which it already keeps under its own lock.
+    FileCache.Stats stats = FileCache.stats();
+    appendHeader(text, "cache_hits_total", "Reads served from the file cache.", "counter");
+    appendSample(text, "cache_hits_total", "", stats.hits());
+    appendHeader(text, "cache_misses_total", "Reads not served from the file cache.", "counter");
+    appendSample(text, "cache_misses_total", "", stats.misses());
+    appendHeader(text, "cache_evictions_total", "Entries evicted from the file cache.", "counter");
+    appendSample(text, "cache_evictions_total", "", stats.evictions());
+    final String rejectionsHelp = "Entries the file cache refused to admit.";
+    appendHeader(text, "cache_rejections_total", rejectionsHelp, "counter");
+    appendSample(text, "cache_rejections_total", "", stats.rejections());
+    appendHeader(text, "cache_entries", "Entries in the file cache.", "gauge");
+    appendSample(text, "cache_entries", "", stats.entries());
+    appendHeader(text, "cache_bytes", "Estimated size of the file cache in bytes.", "gauge");
+    appendSample(text, "cache_bytes", "", stats.weight());
+
+    // Step 3: Append the counters of the filename indexes.
+    FileIndex.Stats index = FileIndex.stats();
+    appendHeader(text, "index_hits_total", "Searches answered from a filename index.", "counter");
+    appendSample(text, "index_hits_total", "", index.hits());
+    appendHeader(text, "index_misses_total", "Searches not covered by any index.", "counter");
+    appendSample(text, "index_misses_total", "", index.misses());
+    final String staleHitsHelp = "Searches answered from an index while it was reconciling.";
+    appendHeader(text, "index_stale_hits_total", staleHitsHelp, "counter");
+    appendSample(text, "index_stale_hits_total", "", index.staleHits());
+    final String overflowsHelp = "Times watch events were dropped and an index reconciled.";
+    appendHeader(text, "index_overflows_total", overflowsHelp, "counter");
+    appendSample(text, "index_overflows_total", "", index.overflows());
+    final String staleHelp = "Indexes building, reconciling or no longer watched.";
+    appendHeader(text, "index_stale", staleHelp, "gauge");
+    appendSample(text, "index_stale", "", index.staleIndexes());
+
+    // Step 4: Append the histograms and error counts of the handlers.
+    final String duration = "handler_duration_seconds";
+    final String errors = "handler_errors_total";
+    final String durationHelp = "Time spent handling tool, prompt and resource calls.";
+    appendHeader(text, duration, durationHelp, "histogram");
+    for (Timer timer : TIMERS.values()) {
+      timer.appendHistogram(text, duration);
+    }
+    appendHeader(text, errors, "Tool, prompt and resource calls that failed.", "counter");
+    for (Timer timer : TIMERS.values()) {
+      appendSample(text, errors, timer.labels, timer.errors.sum());
+    }
+    return text.toString();
+  }
+
+  /**
+   * Appends the help and type lines of a metric.
+   *
+   * @param text the text to append to
+   * @param name the name of the metric, without the prefix
+   * @param help the description of the metric
+   * @param type the Prometheus type of the metric
+   */
+  private static void appendHeader(StringBuilder text, String name, String help, String type) {
+    text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    text.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+  }
+
+  /**
+   * Appends a single sample line of a metric.
+   *
+   * @param text the text to append to
+   * @param name the name of the metric, without the prefix
+   * @param labels the labels of the sample, such as {@code {kind="tool"}}, or an empty string
+   * @param value the value of the sample
+   */
+  private static void appendSample(StringBuilder text, String name, String labels, Object value) {
+    text.append(PREFIX).append(name).append(labels).append(' ').append(value).append('\n');
+  }
+
+  /**
+   * Converts the given bucket bounds from seconds to nanoseconds.
+   *
+   * @param seconds the bounds in seconds
+   * @return the bounds in nanoseconds
+   */
+  private static long[] toNanos(double[] seconds) {
+    long[] nanos = new long[seconds.length];
+    for (int i = 0; i < seconds.length; i++) {
+      nanos[i] = (long) (seconds[i] * TimeUnit.SECONDS.toNanos(1));
+    }
+    return nanos;
+  }
+
+  /**
+   * Formats the given bucket bounds as {@code le} labels, in plain notation, followed by the label
+   * of the unbounded bucket.
+   *
+   * @param seconds the bounds in seconds
+   * @return the labels
+   */
+  private static String[] toLabels(double[] seconds) {
+    String[] labels = new String[seconds.length + 1];
+    for (int i = 0; i < seconds.length; i++) {
+      labels[i] = BigDecimal.valueOf(seconds[i]).stripTrailingZeros().toPlainString();
+    }
+    labels[seconds.length] = "+Inf";
+    return labels;
+  }
+
+  /**
+   * Escapes the given label value for the Prometheus text format.
+   *
+   * @param value the label value
+   * @return the escaped value
+   */
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  /** A monotonically increasing count of events. */
+  public static final class Counter {
+    /** The name of the counter, without the prefix. */
+    private final String name;
+
+    /** The description of the counter. */
+    private final String help;
+
+    /** The count. */
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name, String help) {
+      this.name = name;
+      this.help = help;
+    }
+
+    /** Counts a single event. */
+    public void increment() {
+      count.increment();
+    }
+
+    /**
+     * Counts the given number of events.
+     *
+     * @param n the number of events, ignored if not positive
+     */
+    public void add(long n) {
+      if (n > 0) {
+        count.add(n);
+      }
+    }
+
+    /**
+     * Returns the number of events counted so far.
+     *
+     * @return the count
+     */
+    public long count() {
+      return count.sum();
+    }
+  }
+
+  /** The histogram of the durations of the calls to a single handler, with its error count. */
+  public static final class Timer {
+    /** The labels of the samples of this timer. */
+    private final String labels;
+
+    /** The number of calls per bucket, not cumulative, the last bucket being unbounded. */
+    private final LongAdder[] buckets = new LongAdder[BUCKET_NANOS.length + 1];
+
+    /** The total duration of all calls, in nanoseconds. */
+    private final LongAdder sum = new LongAdder();
+
+    /** The number of calls that failed. */
+    private final LongAdder errors = new LongAdder();
+
+    Timer(String kind, String name) {
+      this.labels = String.format("{kind=\"%s\",name=\"%s\"}", escape(kind), escape(name));
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    /**
+     * Records a call that started at the given time, as returned by {@link System#nanoTime()}.
+     *
+     * @param startNanos the start time of the call
+     * @param failed whether the call failed
+     */
+    public void record(long startNanos, boolean failed) {
+      final long nanos = Math.max(0, System.nanoTime() - startNanos);
+      int bucket = 0;
+      while (bucket < BUCKET_NANOS.length && nanos > BUCKET_NANOS[bucket]) {
+        bucket++;
+      }
+      buckets[bucket].increment();
+      sum.add(nanos);
+      if (failed) {
+        errors.increment();
+      }
+    }
+
+    /**
+     * Returns the number of calls recorded so far.
+     *
+     * @return the count
+     */
+    public long count() {
+      long count = 0;
+      for (LongAdder bucket : buckets) {
+        count += bucket.sum();
+      }
+      return count;
+    }
+
+    /**
+     * Appends the bucket, sum and count samples of this timer. The count is the sum of the buckets,
+     * so that it always equals the unbounded bucket even while calls are recorded concurrently.
+     *
+     * @param text the text to append to
+     * @param name the name of the histogram, without the prefix
+     */
+    private void appendHistogram(StringBuilder text, String name) {
+      final String prefix = labels.substring(0, labels.length() - 1) + ",le=\"";
+      long cumulative = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        cumulative += buckets[i].sum();
+        appendSample(text, name + "_bucket", prefix + BUCKET_LABELS[i] + "\"}", cumulative);
+      }
+      final double seconds = (double) sum.sum() / TimeUnit.SECONDS.toNanos(1);
+      appendSample(text, name + "_sum", labels, String.format(Locale.ROOT, "%.9f", seconds));
+      appendSample(text, name + "_count", labels, cumulative);
+    }
+  }
+}
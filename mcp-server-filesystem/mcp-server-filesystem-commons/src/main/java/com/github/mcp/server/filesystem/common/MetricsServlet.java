@@ -0,0 +1,30 @@
+package com.github.mcp.server.filesystem.common;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A servlet exposing the metrics of the server in the Prometheus text format, so that they can be
+ * scraped from {@link ServerInfo#METRICS_ENDPOINT} alongside the MCP endpoints, see {@link
+ * Metrics}.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+final class MetricsServlet extends HttpServlet {
+  /** The content type of the Prometheus text exposition format. */
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  @Override
+  protected void doGet(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    final byte[] body = Metrics.scrape().getBytes(StandardCharsets.UTF_8);
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(CONTENT_TYPE);
+    response.setHeader("Cache-Control", "no-store");
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A matcher for file or directory names. The matching syntax is chosen by the pattern prefix,
+ * following the convention of {@link java.nio.file.FileSystem#getPathMatcher(String)}:
+ *
+ * <ul>
+ *   <li>{@code glob:*.java} matches names against a glob pattern
+ *   <li>{@code regex:.*Test\d*\.java} finds a regular expression within names
+ *   <li>any other pattern containing {@code *} or {@code ?} is treated as a glob pattern
+ *   <li>any other pattern matches names that contain it (case-sensitive)
+ * </ul>
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class NameMatcher {
+  /** The prefix of glob patterns. */
+  private static final String GLOB_PREFIX = "glob:";
+
+  /** The prefix of regular expression patterns. */
+  private static final String REGEX_PREFIX = "regex:";
+
+  /** The original pattern this matcher was created from. */
+  private final String pattern;
+
+  /** The predicate applied to each file name. */
+  private final Predicate<Path> predicate;
+
+  private NameMatcher(String pattern, Predicate<Path> predicate) {
+    this.pattern = pattern;
+    this.predicate = predicate;
+  }
+
+  /**
+   * Creates a name matcher for the given pattern.
+   *
+   * @param pattern the pattern to match names with, see the class description for the syntax
+   * @return the name matcher
+   * @throws IllegalArgumentException if the glob or regular expression syntax is invalid
+   */
+  public static NameMatcher of(String pattern) {
+    if (pattern.startsWith(GLOB_PREFIX)) {
+      return glob(pattern, pattern.substring(GLOB_PREFIX.length()));
+    }
+    if (pattern.startsWith(REGEX_PREFIX)) {
+      Pattern regex = Pattern.compile(pattern.substring(REGEX_PREFIX.length()));
+      return new NameMatcher(pattern, name -> regex.matcher(name.toString()).find());
+    }
+    if (pattern.indexOf('*') >= 0 || pattern.indexOf('?') >= 0) {
+      return glob(pattern, pattern);
+    }
+    return new NameMatcher(pattern, name -> name.toString().contains(pattern));
+  }
+
+  /**
+   * Creates a name matcher for the given glob pattern.
+   *
+   * @param pattern the original pattern
+   * @param glob the glob pattern without prefix
+   * @return the name matcher
+   */
+  private static NameMatcher glob(String pattern, String glob) {
+    PathMatcher matcher = FileSystems.getDefault().getPathMatcher(GLOB_PREFIX + glob);
+    return new NameMatcher(pattern, matcher::matches);
+  }
+
+  /**
+   * Tests whether the name of the given path matches this matcher.
+   *
+   * @param path the path whose last element is tested
+   * @return {@code true} if the name matches, otherwise {@code false}
+   */
+  public boolean matches(Path path) {
+    Path name = path.getFileName();
+    return name != null && predicate.test(name);
+  }
+
+  @Override
+  public String toString() {
+    return pattern;
+  }
+}
@@ -0,0 +1,512 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The hunks of a patch of a single file in the unified diff format, as applied by {@link
+ * FileUpdater}. Only the hunks are read: the file headers, such as {@code ---}, {@code +++} and
+ * {@code diff --git}, are skipped, and the line counts of the hunk headers are ignored, so that
+ * hand-written patches with wrong counts still apply. A bare {@code @@} header, without line
+ * numbers, starts a hunk located by its lines alone. An empty line within a hunk is taken as an
+ * empty context line, and a line with any other prefix than a space, {@code -}, {@code +} or {@code
+ * \} ends the hunk.
+ *
+ * <p>Each hunk is located in the file by its context and removed lines, searched forward from the
+ * end of the previous hunk. If they occur more than once, the occurrence closest to the line number
+ * of the hunk header wins. The file is scanned through a fixed buffer, and a line is only kept as
+ * long as it could still match, so that locating the hunks takes bounded memory whatever the size
+ * of the file and of its lines. The unchanged regions between the hunks are never read into memory,
+ * {@link FileUpdater} copies them from file to file.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+final class Patch {
+  /** The header of a hunk, such as {@code @@ -12,7 +12,8 @@}, or a bare {@code @@}. */
+  private static final Pattern HUNK_HEADER =
+      Pattern.compile("^@@(?: -(\\d+)(?:,\\d+)? \\+\\d+(?:,\\d+)? @@)?.*");
+
+  /** The size of the buffer the file is scanned through. */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private Patch() {}
+
+  /**
+   * Parses the hunks of the given patch.
+   *
+   * @param text the patch in the unified diff format
+   * @return the hunks, in the order of the patch
+   * @throws IllegalArgumentException if the patch has no hunk, an empty hunk, hunks out of order,
+   *     or changes more than one file
+   */
+  static List<Hunk> parse(String text) {
+    List<String> lines = new ArrayList<>(Arrays.asList(text.split("\n", -1)));
+    if (lines.get(lines.size() - 1).isEmpty()) {
+      // The text ends with a line break, which does not start another line.
+      lines.remove(lines.size() - 1);
+    }
+
+    List<Hunk> hunks = new ArrayList<>();
+    HunkBuilder hunk = null;
+    int files = 0;
+    for (int i = 0; i < lines.size(); i++) {
+      final String line = stripCarriageReturn(lines.get(i));
+      final Matcher header = HUNK_HEADER.matcher(line);
+      if (header.matches()) {
+        addHunk(hunks, hunk);
+        final long oldStart = header.group(1) == null ? 0 : Long.parseLong(header.group(1));
+        hunk = new HunkBuilder(hunks.size() + 1, line, oldStart);
+      } else if (line.startsWith("--- ")
+          && i + 1 < lines.size()
+          && lines.get(i + 1).startsWith("+++ ")) {
+        addHunk(hunks, hunk);
+        hunk = null;
+        if (++files > 1) {
+          throw new IllegalArgumentException("The patch changes more than one file");
+        }
+        i++;
+      } else if (hunk != null && !hunk.add(line)) {
+        addHunk(hunks, hunk);
+        hunk = null;
+      }
+    }
+    addHunk(hunks, hunk);
+    if (hunks.isEmpty()) {
+      throw new IllegalArgumentException(
+          "The patch has no hunk, expected unified diff hunks starting with @@ -line +line @@");
+    }
+    return hunks;
+  }
+
+  /**
+   * Tells the line separator of the given file from its first line, {@code \n} if it has none.
+   *
+   * @param channel the file
+   * @return the line separator, {@code \r\n} or {@code \n}
+   * @throws IOException if the file cannot be read
+   */
+  static String separator(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    final int count = Math.max(channel.read(buffer, 0), 0);
+    Metrics.BYTES_READ.add(count);
+    final byte[] bytes = buffer.array();
+    for (int i = 0; i < count; i++) {
+      if (bytes[i] == '\n') {
+        return i > 0 && bytes[i - 1] == '\r' ? "\r\n" : "\n";
+      }
+    }
+    return "\n";
+  }
+
+  /**
+   * Locates the given hunks in the given file.
+   *
+   * @param channel the file
+   * @param hunks the hunks, in the order of the patch
+   * @return the region of the file replaced by each hunk, in the same order, not overlapping
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if a hunk is not found in the file
+   */
+  static List<Region> locate(FileChannel channel, List<Hunk> hunks) throws IOException {
+    LineReader reader = new LineReader(channel);
+    List<Region> regions = new ArrayList<>(hunks.size());
+    long offset = 0;
+    long line = 0;
+    for (Hunk hunk : hunks) {
+      final Region region =
+          hunk.oldLines().isEmpty()
+              ? insertion(reader, hunk, offset, line)
+              : find(reader, hunk, offset, line);
+      regions.add(region);
+      offset = region.end();
+      line = region.endLine();
+    }
+    return regions;
+  }
+
+  /**
+   * Finds the context and removed lines of the given hunk, from the given line on. The occurrence
+   * closest to the line number of the hunk header wins, the later one on a tie.
+   *
+   * @param reader the reader of the file
+   * @param hunk the hunk, with at least one context or removed line
+   * @param offset the offset to search from, the start of a line
+   * @param line the index of the line to search from, starting at 0
+   * @return the region of the file replaced by the hunk
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the hunk is not found
+   */
+  private static Region find(LineReader reader, Hunk hunk, long offset, long line)
+      throws IOException {
+    final byte[][] expected = new byte[hunk.oldLines().size()][];
+    int maxLength = 0;
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = hunk.oldLines().get(i).getBytes(StandardCharsets.UTF_8);
+      maxLength = Math.max(maxLength, expected[i].length);
+    }
+
+    final long hint = Math.max(hunk.oldStart() - 1, 0);
+    Region before = null;
+    reader.seek(offset, line);
+    while (reader.next(maxLength)) {
+      if (!reader.matches(expected[0])) {
+        continue;
+      }
+      final long start = reader.start;
+      final long startLine = reader.number - 1;
+      final long resumeOffset = reader.end;
+      final long resumeLine = reader.number;
+      int matched = 1;
+      while (matched < expected.length
+          && reader.next(maxLength)
+          && reader.matches(expected[matched])) {
+        matched++;
+      }
+      if (matched == expected.length) {
+        Region region =
+            new Region(hunk, start, reader.end, startLine, reader.number, !reader.terminated);
+        if (startLine >= hint) {
+          return before != null && hint - before.startLine() < startLine - hint ? before : region;
+        }
+        before = region;
+      }
+      reader.seek(resumeOffset, resumeLine);
+    }
+    if (before != null) {
+      return before;
+    }
+    throw new IllegalArgumentException(
+        String.format(
+            "Hunk %d does not match the file, its context and removed lines were not found after"
+                + " line %d: %s",
+            hunk.number(), line, hunk.header()));
+  }
+
+  /**
+   * Locates the position of the given hunk without context nor removed lines, right after the line
+   * given by the hunk header, or at the end of the file if it has fewer lines.
+   *
+   * @param reader the reader of the file
+   * @param hunk the hunk, with added lines only
+   * @param offset the offset the hunk cannot precede, the start of a line
+   * @param line the index of the line the hunk cannot precede, starting at 0
+   * @return the empty region of the file the hunk is inserted at
+   * @throws IOException if the file cannot be read
+   */
+  private static Region insertion(LineReader reader, Hunk hunk, long offset, long line)
+      throws IOException {
+    long position = offset;
+    boolean terminated = true;
+    reader.seek(offset, line);
+    while (reader.number < hunk.oldStart() && reader.next(0)) {
+      position = reader.end;
+      terminated = reader.terminated;
+    }
+    return new Region(hunk, position, position, reader.number, reader.number, !terminated);
+  }
+
+  /**
+   * Adds the given hunk to the given hunks, if there is one.
+   *
+   * @param hunks the hunks parsed so far
+   * @param hunk the hunk being parsed, may be {@code null}
+   * @throws IllegalArgumentException if the hunk is empty, or precedes the previous hunk
+   */
+  private static void addHunk(List<Hunk> hunks, HunkBuilder hunk) {
+    if (hunk == null) {
+      return;
+    }
+    Hunk built = hunk.build();
+    if (!hunks.isEmpty() && built.oldStart() < hunks.get(hunks.size() - 1).oldStart()) {
+      throw new IllegalArgumentException(
+          "Hunk " + built.number() + " precedes the previous hunk: " + built.header());
+    }
+    hunks.add(built);
+  }
+
+  /**
+   * Strips the carriage return ending the given line, if any.
+   *
+   * @param line the line
+   * @return the line without a trailing carriage return
+   */
+  private static String stripCarriageReturn(String line) {
+    return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+  }
+
+  /**
+   * A hunk of a patch.
+   *
+   * @param number the number of the hunk in the patch, starting at 1
+   * @param header the header of the hunk, such as {@code @@ -12,7 +12,8 @@}
+   * @param oldStart the line number of the first context or removed line, starting at 1, or the
+   *     line the added lines follow if there is no such line
+   * @param oldLines the context and removed lines, in order
+   * @param newLines the context and added lines, in order
+   * @param oldNoNewline whether the last of the old lines is marked as not ending with a line break
+   * @param newNoNewline whether the last of the new lines is marked as not ending with a line break
+   */
+  record Hunk(
+      int number,
+      String header,
+      long oldStart,
+      List<String> oldLines,
+      List<String> newLines,
+      boolean oldNoNewline,
+      boolean newNoNewline) {}
+
+  /**
+   * The region of a file replaced by a hunk.
+   *
+   * @param hunk the hunk
+   * @param start the offset of the first byte replaced
+   * @param end the offset following the last byte replaced, the start of the next line
+   * @param startLine the index of the first line replaced, starting at 0
+   * @param endLine the index of the line following the region
+   * @param unterminated whether the region ends at the end of the file without a line break
+   */
+  record Region(
+      Hunk hunk, long start, long end, long startLine, long endLine, boolean unterminated) {
+
+    /**
+     * Returns the text replacing this region. The last line ends without a line break if the hunk
+     * tells so, or if the region did and the hunk does not tell otherwise.
+     *
+     * @param separator the line separator of the file
+     * @return the replacement text
+     */
+    String replacement(String separator) {
+      StringBuilder text = new StringBuilder();
+      final boolean insertion = hunk.oldLines().isEmpty();
+      if (insertion && unterminated && !hunk.newLines().isEmpty()) {
+        text.append(separator);
+      }
+      final boolean noNewline =
+          hunk.newNoNewline() || (unterminated && (insertion || !hunk.oldNoNewline()));
+      final List<String> lines = hunk.newLines();
+      for (int i = 0; i < lines.size(); i++) {
+        text.append(lines.get(i));
+        if (i < lines.size() - 1 || !noNewline) {
+          text.append(separator);
+        }
+      }
+      return text.toString();
+    }
+  }
+
+  /** Collects the lines of a hunk while it is being parsed. */
+  private static final class HunkBuilder {
+    private final int number;
+    private final String header;
+    private final long oldStart;
+    private final List<String> oldLines = new ArrayList<>();
+    private final List<String> newLines = new ArrayList<>();
+    private int trailingEmptyLines;
+    private char lastKind;
+    private boolean oldNoNewline;
+    private boolean newNoNewline;
+
+    private HunkBuilder(int number, String header, long oldStart) {
+      this.number = number;
+      this.header = header;
+      this.oldStart = oldStart;
+    }
+
+    /**
+     * Adds a line of the hunk.
+     *
+     * @param line the line, without its line break
+     * @return {@code false} if the line does not belong to a hunk, which ends the hunk
+     */
+    private boolean add(String line) {
+      if (line.isEmpty()) {
+        oldLines.add(line);
+        newLines.add(line);
+        trailingEmptyLines++;
+        lastKind = ' ';
+        return true;
+      }
+      final char kind = line.charAt(0);
+      switch (kind) {
+        case ' ' -> {
+          oldLines.add(line.substring(1));
+          newLines.add(line.substring(1));
+        }
+        case '-' -> oldLines.add(line.substring(1));
+        case '+' -> newLines.add(line.substring(1));
+        case '\\' -> {
+          // \ No newline at end of file, about the previous line.
+          oldNoNewline |= lastKind == ' ' || lastKind == '-';
+          newNoNewline |= lastKind == ' ' || lastKind == '+';
+          return true;
+        }
+        default -> {
+          return false;
+        }
+      }
+      trailingEmptyLines = 0;
+      lastKind = kind;
+      return true;
+    }
+
+    /**
+     * Builds the hunk. Empty lines without a prefix ending the hunk are dropped, as they are more
+     * likely to separate the hunk from what follows than to be context.
+     *
+     * @return the hunk
+     * @throws IllegalArgumentException if the hunk has no line
+     */
+    private Hunk build() {
+      for (; trailingEmptyLines > 0; trailingEmptyLines--) {
+        oldLines.remove(oldLines.size() - 1);
+        newLines.remove(newLines.size() - 1);
+      }
+      if (oldLines.isEmpty() && newLines.isEmpty()) {
+        throw new IllegalArgumentException("Hunk " + number + " has no line: " + header);
+      }
+      return new Hunk(
+          number,
+          header,
+          oldStart,
+          List.copyOf(oldLines),
+          List.copyOf(newLines),
+          oldNoNewline,
+          newNoNewline);
+    }
+  }
+
+  /**
+   * Reads the lines of a file through a fixed buffer with positional reads. Each line is kept up to
+   * a given length, beyond which it cannot match any expected line and is only skipped.
+   */
+  private static final class LineReader {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private byte[] line = new byte[256];
+    private int length;
+    private boolean overflow;
+
+    /** The offset of the first byte of the buffer in the file. */
+    private long bufferStart;
+
+    /** The offset of the current line. */
+    private long start;
+
+    /** The offset following the current line and its line break. */
+    private long end;
+
+    /** The number of lines read, which is the index of the next line. */
+    private long number;
+
+    /** Whether the current line ends with a line break. */
+    private boolean terminated;
+
+    private LineReader(FileChannel channel) {
+      this.channel = channel;
+      this.buffer.flip();
+    }
+
+    /**
+     * Moves to the given offset, reusing the buffer if it holds the offset.
+     *
+     * @param offset the offset, the start of a line
+     * @param lineNumber the index of the line starting at the offset
+     */
+    private void seek(long offset, long lineNumber) {
+      if (offset >= bufferStart && offset <= bufferStart + buffer.limit()) {
+        buffer.position((int) (offset - bufferStart));
+      } else {
+        bufferStart = offset;
+        buffer.clear().flip();
+      }
+      number = lineNumber;
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @param maxLength the length of the longest expected line, in bytes
+     * @return {@code false} at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    private boolean next(int maxLength) throws IOException {
+      start = bufferStart + buffer.position();
+      length = 0;
+      overflow = false;
+      while (true) {
+        if (!buffer.hasRemaining()) {
+          bufferStart += buffer.limit();
+          buffer.clear();
+          final int count = channel.read(buffer, bufferStart);
+          buffer.flip();
+          if (count <= 0) {
+            end = bufferStart;
+            terminated = false;
+            if (end == start) {
+              return false;
+            }
+            number++;
+            return true;
+          }
+          Metrics.BYTES_READ.add(count);
+        }
+
+        final byte[] bytes = buffer.array();
+        final int from = buffer.position();
+        final int to = buffer.limit();
+        int i = from;
+        while (i < to && bytes[i] != '\n') {
+          i++;
+        }
+        append(bytes, from, i - from, maxLength);
+        if (i < to) {
+          buffer.position(i + 1);
+          end = bufferStart + i + 1;
+          terminated = true;
+          if (!overflow && length > 0 && line[length - 1] == '\r') {
+            length--;
+          }
+          number++;
+          return true;
+        }
+        buffer.position(to);
+      }
+    }
+
+    /**
+     * Appends bytes to the current line, as long as it may still match a line of the given length
+     * followed by a carriage return.
+     */
+    private void append(byte[] bytes, int from, int count, int maxLength) {
+      if (overflow || count == 0) {
+        return;
+      }
+      if (length + count > maxLength + 1) {
+        overflow = true;
+        return;
+      }
+      if (length + count > line.length) {
+        line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+      }
+      System.arraycopy(bytes, from, line, length, count);
+      length += count;
+    }
+
+    /**
+     * Tells whether the current line, without its line break, is the given line.
+     *
+     * @param expected the expected line, encoded in UTF-8
+     * @return {@code true} if the current line matches
+     */
+    private boolean matches(byte[] expected) {
+      return !overflow && Arrays.equals(line, 0, length, expected, 0, expected.length);
+    }
+  }
+}
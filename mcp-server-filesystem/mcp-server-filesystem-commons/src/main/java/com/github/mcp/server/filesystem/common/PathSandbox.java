@@ -0,0 +1,250 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Confines the paths given to the tools to the allowed roots, set by the {@code roots} setting as a
+ * list of directories, see {@link ServerConfig#getList}. A path is allowed if its real path, with
+ * all symbolic links resolved, is under the real path of one of the roots, so that a link under a
+ * root cannot lead outside of it. Relative paths are resolved against the first root. If no root is
+ * set, every path is allowed, as before.
+ *
+ * <p>Resolving a real path with {@link Path#toRealPath} costs a system call per path component, so
+ * the real paths of parent directories are cached, keyed by the directory as given. A cached real
+ * path is only used while the directory still has the same file key, which a single {@code stat} of
+ * the directory tells, so that a directory replaced by a link to elsewhere is resolved again. The
+ * last path component is read with a single {@code lstat}, whose attributes are returned to the
+ * tools along with the path, so that they do not probe the filesystem again to tell whether the
+ * path exists and what it is.
+ *
+ * <p>The cache holds at most {@code roots.cache-size} directories, 4096 by default, and is cleared
+ * when it is full. A file key is not available on every platform, in which case nothing is cached.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class PathSandbox {
+  /** Logger instance for logging sandbox configuration events. */
+  private static final Logger log = LoggerFactory.getLogger(PathSandbox.class);
+
+  /** The default maximum number of cached directories. */
+  private static final int DEFAULT_CACHE_SIZE = 4096;
+
+  /** The maximum number of symbolic links followed to resolve a single path, as on Linux. */
+  private static final int MAX_LINKS = 40;
+
+  /** The real paths of the allowed roots, empty if every path is allowed. */
+  private static volatile List<Path> roots = realRoots(ServerConfig.getList("roots"));
+
+  /** The maximum number of cached directories. */
+  private static final int CACHE_SIZE = ServerConfig.getInt("roots.cache-size", DEFAULT_CACHE_SIZE);
+
+  /** The real paths of directories, keyed by the directory as given. */
+  private static final Map<Path, RealDirectory> DIRECTORIES = new ConcurrentHashMap<>();
+
+  private PathSandbox() {}
+
+  /**
+   * Returns the real paths of the allowed roots.
+   *
+   * @return the allowed roots, empty if every path is allowed
+   */
+  public static List<Path> roots() {
+    return roots;
+  }
+
+  /**
+   * Replaces the allowed roots, which are otherwise set once from the {@code roots} setting, and
+   * clears the cache of real paths. Only meant for tests, which cannot set the roots before this
+   * class is initialized.
+   *
+   * @param newRoots the allowed roots, empty to allow every path
+   */
+  static void setRoots(List<String> newRoots) {
+    roots = realRoots(newRoots);
+    DIRECTORIES.clear();
+  }
+
+  /**
+   * Resolves the given path and checks that it is under one of the allowed roots. The last path
+   * component is followed if it is a symbolic link, unless {@link LinkOption#NOFOLLOW_LINKS} is
+   * given, in which case the link itself must be under an allowed root, and its attributes are
+   * returned rather than the ones of its target.
+   *
+   * @param path the path given to a tool, absolute or relative
+   * @param options the options telling how symbolic links are handled
+   * @return the resolved path and its attributes
+   * @throws AccessDeniedException if the path is not under any allowed root
+   * @throws IOException if the path cannot be resolved
+   * @throws java.nio.file.InvalidPathException if the path string is not a valid path
+   */
+  public static ResolvedPath resolve(String path, LinkOption... options) throws IOException {
+    final List<Path> allowed = roots;
+    final Path absolute = absolute(Path.of(path));
+    if (allowed.isEmpty()) {
+      return new ResolvedPath(absolute, attributes(absolute, options));
+    }
+
+    final boolean follow = !Arrays.asList(options).contains(LinkOption.NOFOLLOW_LINKS);
+    RealPath real = realPath(absolute, follow, 0);
+    for (Path root : allowed) {
+      if (real.path().startsWith(root)) {
+        return new ResolvedPath(absolute, real.attributes());
+      }
+    }
+    throw new AccessDeniedException(path, null, "outside of the allowed roots " + allowed);
+  }
+
+  /**
+   * Returns the given path as an absolute path, resolved against the first allowed root if it is
+   * relative, or against the working directory if no root is set.
+   *
+   * @param path the path
+   * @return the absolute path
+   */
+  static Path absolute(Path path) {
+    if (path.isAbsolute()) {
+      return path;
+    }
+    final List<Path> allowed = roots;
+    return allowed.isEmpty() ? path.toAbsolutePath() : allowed.get(0).resolve(path);
+  }
+
+  /**
+   * Resolves the real path of the given absolute path, which may not exist. Its parent directory is
+   * resolved through the cache, and its last component is read with a single {@code lstat}.
+   *
+   * @param path the absolute path
+   * @param follow whether to follow the last component if it is a symbolic link
+   * @param links the number of symbolic links followed so far
+   * @return the real path, and its attributes or {@code null} if it does not exist
+   * @throws IOException if the path cannot be resolved
+   */
+  private static RealPath realPath(Path path, boolean follow, int links) throws IOException {
+    final Path parent = path.getParent();
+    final Path name = path.getFileName();
+    if (parent == null || name == null) {
+      // A root of the filesystem, such as / on Linux/MacOS or C:\ on Windows.
+      return new RealPath(path, attributes(path));
+    }
+
+    final Path realParent = realDirectory(parent, links);
+    final Path candidate =
+        switch (name.toString()) {
+          case "." -> realParent;
+          case ".." -> realParent.getParent() == null ? realParent : realParent.getParent();
+          default -> realParent.resolve(name);
+        };
+    BasicFileAttributes attributes = attributes(candidate, LinkOption.NOFOLLOW_LINKS);
+    if (follow && attributes != null && attributes.isSymbolicLink()) {
+      if (links >= MAX_LINKS) {
+        throw new FileSystemException(path.toString(), null, "Too many levels of symbolic links");
+      }
+      final Path target = candidate.resolveSibling(Files.readSymbolicLink(candidate));
+      return realPath(target, true, links + 1);
+    }
+    return new RealPath(candidate, attributes);
+  }
+
+  /**
+   * Resolves the real path of the given absolute directory, from the cache if the directory still
+   * has the file key it had when it was cached. A missing directory is resolved component by
+   * component instead, and not cached.
+   *
+   * @param dir the absolute directory
+   * @param links the number of symbolic links followed so far
+   * @return the real path of the directory
+   * @throws IOException if the directory cannot be resolved
+   */
+  private static Path realDirectory(Path dir, int links) throws IOException {
+    final BasicFileAttributes attributes = attributes(dir);
+    if (attributes == null) {
+      return realPath(dir, true, links).path();
+    }
+
+    final Object fileKey = attributes.fileKey();
+    final RealDirectory cached = DIRECTORIES.get(dir);
+    if (cached != null && fileKey != null && fileKey.equals(cached.fileKey())) {
+      return cached.path();
+    }
+    final Path real = dir.toRealPath();
+    if (fileKey != null) {
+      if (DIRECTORIES.size() >= CACHE_SIZE) {
+        DIRECTORIES.clear();
+      }
+      DIRECTORIES.put(dir, new RealDirectory(real, fileKey));
+    }
+    return real;
+  }
+
+  /**
+   * Reads the attributes of the given path with a single system call.
+   *
+   * @param path the path
+   * @param options the options telling how symbolic links are handled
+   * @return the attributes, or {@code null} if the path does not exist
+   * @throws IOException if the attributes cannot be read for another reason
+   */
+  private static BasicFileAttributes attributes(Path path, LinkOption... options)
+      throws IOException {
+    try {
+      return Files.readAttributes(path, BasicFileAttributes.class, options);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Resolves the real paths of the given roots. A root that cannot be resolved, for example because
+   * it does not exist yet, is kept as its normalized absolute path, so that it still confines the
+   * paths rather than being dropped.
+   *
+   * @param roots the roots as set
+   * @return the real paths of the roots
+   */
+  private static List<Path> realRoots(List<String> roots) {
+    List<Path> realRoots = new ArrayList<>(roots.size());
+    for (String root : roots) {
+      final Path path = Path.of(root).toAbsolutePath().normalize();
+      try {
+        realRoots.add(path.toRealPath());
+      } catch (IOException e) {
+        log.warn("Allowed root cannot be resolved, kept as is: {}, {}", path, e.toString());
+        realRoots.add(path);
+      }
+    }
+    if (!realRoots.isEmpty()) {
+      log.info("Paths given to the tools are confined to the roots {}", realRoots);
+    }
+    return List.copyOf(realRoots);
+  }
+
+  /**
+   * The real path of a path given to a tool, with its attributes.
+   *
+   * @param path the real path
+   * @param attributes the attributes, {@code null} if the path does not exist
+   */
+  private record RealPath(Path path, BasicFileAttributes attributes) {}
+
+  /**
+   * The real path of a directory, with the file key the directory had when it was resolved.
+   *
+   * @param path the real path of the directory
+   * @param fileKey the file key of the directory
+   */
+  private record RealDirectory(Path path, Object fileKey) {}
+}
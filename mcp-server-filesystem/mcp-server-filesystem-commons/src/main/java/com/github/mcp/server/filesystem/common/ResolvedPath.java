@@ -0,0 +1,50 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A path given to a tool, resolved and checked against the allowed roots by {@link PathSandbox},
+ * together with the attributes read while resolving it. The tools tell from these attributes
+ * whether the path exists and whether it is a file or a directory, without probing the filesystem
+ * again.
+ *
+ * @param path the absolute path, as given, made absolute against the first allowed root or the
+ *     working directory if it was relative
+ * @param attributes the attributes of the file or directory, {@code null} if it does not exist
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record ResolvedPath(Path path, BasicFileAttributes attributes) {
+
+  /**
+   * Returns whether the file or directory exists.
+   *
+   * @return {@code true} if the file or directory exists
+   */
+  public boolean exists() {
+    return attributes != null;
+  }
+
+  /**
+   * Returns whether the path is an existing directory.
+   *
+   * @return {@code true} if the path is an existing directory
+   */
+  public boolean isDirectory() {
+    return attributes != null && attributes.isDirectory();
+  }
+
+  /**
+   * Returns whether the path is an existing regular file.
+   *
+   * @return {@code true} if the path is an existing regular file
+   */
+  public boolean isRegularFile() {
+    return attributes != null && attributes.isRegularFile();
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+}
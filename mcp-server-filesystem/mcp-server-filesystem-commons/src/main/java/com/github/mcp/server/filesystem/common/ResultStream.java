@@ -0,0 +1,128 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Streams the results of a walk running on the worker threads of {@link FileWalker} back to the
+ * calling thread. The results are added concurrently by the workers, and handed over to a listener
+ * in batches on the calling thread, every flush interval, so that a client can be notified of the
+ * first results long before a deep tree is fully walked.
+ *
+ * @param <T> the type of the results
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+final class ResultStream<T> {
+  /** The results added since the last batch. */
+  private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+
+  /** Whether the stream was aborted because the calling thread stopped handing over batches. */
+  private final AtomicBoolean aborted = new AtomicBoolean();
+
+  /** The interval between two batches, in milliseconds. */
+  private final long flushInterval;
+
+  /** The listener to receive the batches. */
+  private final Consumer<List<T>> listener;
+
+  /**
+   * Creates a stream handing over batches to the given listener.
+   *
+   * @param flushInterval the interval between two batches, in milliseconds
+   * @param listener the listener to receive the batches, an exception thrown by the listener aborts
+   *     the stream and is rethrown
+   */
+  ResultStream(long flushInterval, Consumer<List<T>> listener) {
+    this.flushInterval = Math.max(1, flushInterval);
+    this.listener = listener;
+  }
+
+  /**
+   * Adds a result to the next batch. Called concurrently by the worker threads.
+   *
+   * @param result the result to add
+   */
+  void add(T result) {
+    pending.add(result);
+  }
+
+  /**
+   * Tests whether the stream was aborted, in which case the walk must stop.
+   *
+   * @return {@code true} if the stream was aborted
+   */
+  boolean isAborted() {
+    return aborted.get();
+  }
+
+  /**
+   * Hands over the results added so far to the listener on the calling thread, every flush
+   * interval, until the given walk is done.
+   *
+   * @param start the starting path of the walk, as reported in errors
+   * @param walk the walk adding the results
+   * @return all results handed over, in the order they were added
+   * @throws IOException if the walk failed, or if the calling thread is interrupted, in which case
+   *     the stream is aborted
+   */
+  List<T> drain(Path start, CompletableFuture<Void> walk) throws IOException {
+    List<T> results = new ArrayList<>();
+    try {
+      while (true) {
+        try {
+          walk.get(flushInterval, TimeUnit.MILLISECONDS);
+          flush(results);
+          return results;
+        } catch (TimeoutException e) {
+          flush(results);
+        }
+      }
+    } catch (InterruptedException e) {
+      aborted.set(true);
+      Thread.currentThread().interrupt();
+      InterruptedIOException exception =
+          new InterruptedIOException("Interrupted while searching: " + start);
+      exception.initCause(e);
+      throw exception;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof UncheckedIOException cause) {
+        throw cause.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IOException("Error searching: " + start, e.getCause());
+    } catch (RuntimeException e) {
+      aborted.set(true);
+      throw e;
+    }
+  }
+
+  /**
+   * Hands over the pending results to the listener as a single batch, if there are any.
+   *
+   * @param results the list collecting all results handed over so far
+   */
+  private void flush(List<T> results) {
+    List<T> batch = new ArrayList<>();
+    for (T result = pending.poll(); result != null; result = pending.poll()) {
+      batch.add(result);
+    }
+    if (!batch.isEmpty()) {
+      results.addAll(batch);
+      listener.accept(batch);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A utility class that provides access to the optional server settings. All settings are read from
+ * system properties prefixed with {@code mcp.server.filesystem.}, for example {@code
+ * -Dmcp.server.filesystem.index.roots=/home/user/projects}.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class ServerConfig {
+  /** The prefix of all system properties read by the server. */
+  private static final String PREFIX = "mcp.server.filesystem.";
+
+  /**
+   * Returns the string value of the given setting.
+   *
+   * @param key the setting key without prefix
+   * @param defaultValue the value returned if the setting is absent or blank
+   * @return the string value of the setting
+   */
+  public static String getString(String key, String defaultValue) {
+    final String value = System.getProperty(PREFIX + key);
+    return value == null || value.isBlank() ? defaultValue : value.trim();
+  }
+
+  /**
+   * Returns the long value of the given setting.
+   *
+   * @param key the setting key without prefix
+   * @param defaultValue the value returned if the setting is absent or blank
+   * @return the long value of the setting
+   * @throws NumberFormatException if the setting is not a valid long value
+   */
+  public static long getLong(String key, long defaultValue) {
+    final String value = getString(key, null);
+    return value == null ? defaultValue : Long.parseLong(value);
+  }
+
+  /**
+   * Returns the int value of the given setting.
+   *
+   * @param key the setting key without prefix
+   * @param defaultValue the value returned if the setting is absent or blank
+   * @return the int value of the setting
+   * @throws NumberFormatException if the setting is not a valid int value
+   */
+  public static int getInt(String key, int defaultValue) {
+    final String value = getString(key, null);
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+
+  /**
+   * Returns the boolean value of the given setting.
+   *
+   * @param key the setting key without prefix
+   * @param defaultValue the value returned if the setting is absent or blank
+   * @return the boolean value of the setting
+   */
+  public static boolean getBoolean(String key, boolean defaultValue) {
+    final String value = getString(key, null);
+    return value == null ? defaultValue : Boolean.parseBoolean(value);
+  }
+
+  /**
+   * Returns the list value of the given setting. Like a class path, list items are separated by
+   * {@link File#pathSeparator}, which is {@code :} on Linux/MacOS and {@code ;} on Windows.
+   *
+   * @param key the setting key without prefix
+   * @return the non-blank items of the setting, or an empty list if the setting is absent
+   */
+  public static List<String> getList(String key) {
+    final String value = getString(key, null);
+    if (value == null) {
+      return List.of();
+    }
+    return Arrays.stream(value.split(File.pathSeparator))
+        .map(String::trim)
+        .filter(item -> !item.isEmpty())
+        .toList();
+  }
+}
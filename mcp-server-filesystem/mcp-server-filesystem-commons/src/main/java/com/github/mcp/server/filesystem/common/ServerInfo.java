@@ -29,4 +29,7 @@ public interface ServerInfo {
 
   /** The endpoint path for Server-Sent Events (SSE). */
   String SSE_ENDPOINT = "/sse";
+
+  /** The endpoint path for scraping the metrics of the server, see {@link Metrics}. */
+  String METRICS_ENDPOINT = "/metrics";
 }
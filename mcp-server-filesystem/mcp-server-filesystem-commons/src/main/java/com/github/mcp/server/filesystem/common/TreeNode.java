@@ -0,0 +1,28 @@
+package com.github.mcp.server.filesystem.common;
+
+import java.util.List;
+
+/**
+ * A file or directory of a {@link FileTree}. The counts and size of a directory cover its whole
+ * subtree, including the entries that are left out of the tree because of its depth or node budget.
+ *
+ * @param name the name of the entry, or the absolute path of the root of the tree
+ * @param type the type of the entry, one of {@code file}, {@code directory}, {@code symlink},
+ *     {@code other}, or {@code unknown} if its attributes cannot be read
+ * @param size the size of the entry in bytes, the total size of the files beneath a directory
+ * @param files the number of files beneath a directory, symbolic links and other entries that are
+ *     not directories included, {@code 0} for other entries
+ * @param dirs the number of directories beneath a directory, {@code 0} for other entries
+ * @param omitted the number of direct children of a directory left out of the tree
+ * @param children the direct children of a directory that are part of the tree, directories first,
+ *     then other entries, each sorted by name
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record TreeNode(
+    String name,
+    String type,
+    long size,
+    long files,
+    long dirs,
+    int omitted,
+    List<TreeNode> children) {}
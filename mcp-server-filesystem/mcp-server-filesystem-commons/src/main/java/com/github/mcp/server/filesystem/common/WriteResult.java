@@ -0,0 +1,30 @@
+package com.github.mcp.server.filesystem.common;
+
+/**
+ * The outcome of a write, append or patch of a file by {@link FileUpdater}.
+ *
+ * @param path the real path of the file
+ * @param created whether the file did not exist before
+ * @param written the number of bytes of new content written
+ * @param copied the number of bytes of the previous content kept, copied unchanged
+ * @param size the size of the file after the update, in bytes
+ * @param hunks the number of hunks applied, {@code 0} unless the file was patched
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public record WriteResult(
+    String path, boolean created, long written, long copied, long size, int hunks) {
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder();
+    text.append(created ? "Created " : "Updated ").append(path).append(": ");
+    if (hunks > 0) {
+      text.append(hunks).append(hunks == 1 ? " hunk" : " hunks").append(" applied, ");
+    }
+    text.append(written).append(" bytes written, ");
+    if (copied > 0) {
+      text.append(copied).append(" bytes kept unchanged, ");
+    }
+    return text.append(size).append(" bytes in total").toString();
+  }
+}
@@ -0,0 +1,102 @@
+package com.github.mcp.server.filesystem.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link FileCopier}.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+class FileCopierTest {
+  /** A size larger than a single transfer, so that a copy can be cancelled halfway through. */
+  private static final long LARGE_SIZE = 64L * 1024 * 1024 + 4096;
+
+  @TempDir Path dir;
+
+  @Test
+  void copiesAndReplacesFiles() throws IOException {
+    Path source = Files.writeString(dir.resolve("source.txt"), "new");
+    Path target = Files.writeString(dir.resolve("target.txt"), "old content");
+    CopyResult result =
+        FileCopier.copy(source.toString(), target.toString(), true, () -> false, ignored -> {});
+    assertTrue(result.isSuccess());
+    assertEquals(1, result.files());
+    assertEquals("new", Files.readString(target));
+    assertEquals(List.of("source.txt", "target.txt"), names());
+  }
+
+  @Test
+  void cancellingACopyOverAnExistingTargetLeavesItUntouched() throws IOException {
+    Path source = largeFile(dir.resolve("source.bin"));
+    Path target = Files.writeString(dir.resolve("target.txt"), "original");
+    CopyResult result =
+        FileCopier.copy(
+            source.toString(), target.toString(), true, cancelledAfterFirstCheck(), ignored -> {});
+    assertFalse(result.isSuccess());
+    assertEquals(0, result.files());
+    assertEquals("original", Files.readString(target));
+    assertEquals(List.of("source.bin", "target.txt"), names());
+  }
+
+  @Test
+  void cancellingACopyToANewTargetLeavesNoPartialFile() throws IOException {
+    Path source = largeFile(dir.resolve("source.bin"));
+    Path target = dir.resolve("target.bin");
+    CopyResult result =
+        FileCopier.copy(
+            source.toString(), target.toString(), false, cancelledAfterFirstCheck(), ignored -> {});
+    assertFalse(result.isSuccess());
+    assertEquals(0, result.files());
+    assertEquals(List.of("source.bin"), names());
+  }
+
+  /**
+   * Returns a cancellation condition that holds from its second check on, so that the first
+   * transfer of a copy happens and the next ones do not.
+   *
+   * @return the condition
+   */
+  private static BooleanSupplier cancelledAfterFirstCheck() {
+    AtomicInteger checks = new AtomicInteger();
+    return () -> checks.incrementAndGet() > 1;
+  }
+
+  /**
+   * Creates a sparse file larger than a single transfer.
+   *
+   * @param path the path of the file
+   * @return the path of the file
+   * @throws IOException if the file cannot be created
+   */
+  private static Path largeFile(Path path) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.setLength(LARGE_SIZE);
+    }
+    return path;
+  }
+
+  /**
+   * Returns the sorted names of the entries of the temporary directory.
+   *
+   * @return the names
+   * @throws IOException if the directory cannot be listed
+   */
+  private List<String> names() throws IOException {
+    try (Stream<Path> entries = Files.list(dir)) {
+      return entries.map(path -> path.getFileName().toString()).sorted().toList();
+    }
+  }
+}
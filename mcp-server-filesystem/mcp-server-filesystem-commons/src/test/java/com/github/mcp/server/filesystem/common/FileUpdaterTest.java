@@ -0,0 +1,102 @@
+package com.github.mcp.server.filesystem.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link FileUpdater}.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+class FileUpdaterTest {
+  @TempDir Path dir;
+
+  @Test
+  void writesNewFilesWithTheirParentDirectories() throws IOException {
+    Path file = dir.resolve("a/b/c.txt");
+    WriteResult result = FileUpdater.write(file.toString(), "hello");
+    assertTrue(result.created());
+    assertEquals(5, result.size());
+    assertEquals("hello", Files.readString(file));
+  }
+
+  @Test
+  void replacesAndAppendsToExistingFiles() throws IOException {
+    Path file = Files.writeString(dir.resolve("f.txt"), "old");
+    assertFalse(FileUpdater.write(file.toString(), "new").created());
+    WriteResult result = FileUpdater.append(file.toString(), " and more");
+    assertEquals(3, result.copied());
+    assertEquals("new and more", Files.readString(file));
+  }
+
+  @Test
+  void writesThroughSymbolicLinks() throws IOException {
+    Path file = Files.writeString(dir.resolve("target.txt"), "old");
+    Path link = Files.createSymbolicLink(dir.resolve("link.txt"), file.getFileName());
+    FileUpdater.write(link.toString(), "new");
+    assertTrue(Files.isSymbolicLink(link));
+    assertEquals("new", Files.readString(file));
+  }
+
+  @Test
+  void keepsThePermissionsOfReplacedFiles() throws IOException {
+    Path file = Files.writeString(dir.resolve("f.sh"), "old");
+    Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-x---"));
+    FileUpdater.write(file.toString(), "new");
+    assertEquals("rwxr-x---", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+  }
+
+  @Test
+  void rejectsDirectoriesAndDanglingLinks() throws IOException {
+    Files.createSymbolicLink(dir.resolve("dangling"), dir.resolve("missing"));
+    assertThrows(FileSystemException.class, () -> FileUpdater.write(dir.toString(), "x"));
+    assertThrows(
+        FileSystemException.class,
+        () -> FileUpdater.write(dir.resolve("dangling").toString(), "x"));
+    assertFalse(Files.exists(dir.resolve("missing")));
+  }
+
+  @Test
+  void concurrentAppendsToANewFileDoNotLoseEachOther() throws Exception {
+    final int appends = 32;
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<WriteResult>> results = new ArrayList<>();
+      for (int i = 0; i < appends; i++) {
+        // Two spellings of the same path, which must take the same lock.
+        final String path = (i % 2 == 0 ? dir.resolve("sub/f") : dir.resolve("sub/./f")).toString();
+        final String line = "line " + i + "\n";
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return FileUpdater.append(path, line);
+                }));
+      }
+      start.countDown();
+      for (Future<WriteResult> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(appends, Files.readAllLines(dir.resolve("sub/f")).size());
+  }
+}
@@ -0,0 +1,204 @@
+package com.github.mcp.server.filesystem.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link Patch}, through {@link FileUpdater#patch} for the hunks applied to files.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+class PatchTest {
+  @TempDir Path dir;
+
+  @Test
+  void parsesHunksAndSkipsFileHeaders() {
+    List<Patch.Hunk> hunks =
+        Patch.parse(
+            "diff --git a/f b/f\n--- a/f\n+++ b/f\n@@ -1,2 +1,2 @@\n a\n-b\n+c\n@@ -9 +9 @@\n-x\n+y\n");
+    assertEquals(2, hunks.size());
+    assertEquals(1, hunks.get(0).oldStart());
+    assertEquals(List.of("a", "b"), hunks.get(0).oldLines());
+    assertEquals(List.of("a", "c"), hunks.get(0).newLines());
+    assertEquals(9, hunks.get(1).oldStart());
+  }
+
+  @Test
+  void rejectsPatchesOfSeveralFiles() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            Patch.parse("--- a/f\n+++ b/f\n@@ -1 +1 @@\n-a\n+b\n--- a/g\n+++ b/g\n@@ -1 +1 @@\n"));
+  }
+
+  @Test
+  void rejectsPatchesWithoutHunks() {
+    assertThrows(IllegalArgumentException.class, () -> Patch.parse("just some text\n"));
+  }
+
+  @Test
+  void appliesHunksWithWrongLineCounts() throws IOException {
+    Path file = write("a\nb\nc\n");
+    WriteResult result = FileUpdater.patch(file.toString(), "@@ -1,7 +1,9 @@\n a\n-b\n+B\n c\n");
+    assertEquals(1, result.hunks());
+    assertEquals("a\nB\nc\n", read(file));
+  }
+
+  @Test
+  void appliesBareHunkHeaders() throws IOException {
+    Path file = write("one\ntwo\nthree\n");
+    FileUpdater.patch(file.toString(), "@@\n two\n+two and a half\n three\n");
+    assertEquals("one\ntwo\ntwo and a half\nthree\n", read(file));
+  }
+
+  @Test
+  void takesEmptyLinesAsEmptyContextLines() throws IOException {
+    Path file = write("a\n\nb\n");
+    FileUpdater.patch(file.toString(), "@@ -1,3 +1,3 @@\n a\n\n-b\n+c\n");
+    assertEquals("a\n\nc\n", read(file));
+  }
+
+  @Test
+  void insertsHunksWithoutOldLines() throws IOException {
+    Path file = write("a\nb\n");
+    FileUpdater.patch(file.toString(), "@@ -1,0 +2 @@\n+inserted\n");
+    assertEquals("a\ninserted\nb\n", read(file));
+  }
+
+  @Test
+  void keepsTheCarriageReturnsOfTheFile() throws IOException {
+    Path file = write("a\r\nb\r\nc\r\n");
+    FileUpdater.patch(file.toString(), "@@ -1,3 +1,3 @@\n a\n-b\n+B\n c\n");
+    assertEquals("a\r\nB\r\nc\r\n", read(file));
+  }
+
+  @Test
+  void acceptsPatchesWithCarriageReturns() throws IOException {
+    Path file = write("a\nb\nc\n");
+    FileUpdater.patch(file.toString(), "@@ -1,3 +1,3 @@\r\n a\r\n-b\r\n+B\r\n c\r\n");
+    assertEquals("a\nB\nc\n", read(file));
+  }
+
+  @Test
+  void addsTheMissingLineBreakAtTheEnd() throws IOException {
+    Path file = write("a\nb");
+    FileUpdater.patch(
+        file.toString(), "@@ -1,2 +1,2 @@\n a\n-b\n\\ No newline at end of file\n+b\n");
+    assertEquals("a\nb\n", read(file));
+  }
+
+  @Test
+  void removesTheLineBreakAtTheEnd() throws IOException {
+    Path file = write("a\nb\n");
+    FileUpdater.patch(
+        file.toString(), "@@ -1,2 +1,2 @@\n a\n-b\n+c\n\\ No newline at end of file\n");
+    assertEquals("a\nc", read(file));
+  }
+
+  @Test
+  void changesTheLastLineWithoutLineBreak() throws IOException {
+    Path file = write("a\nb");
+    FileUpdater.patch(
+        file.toString(),
+        "@@ -1,2 +1,2 @@\n a\n-b\n\\ No newline at end of file\n+c\n\\ No newline at end of file\n");
+    assertEquals("a\nc", read(file));
+  }
+
+  @Test
+  void picksTheOccurrenceClosestToTheHeader() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 1; i <= 30; i++) {
+      text.append(i % 10 == 0 ? "same" : "line " + i).append('\n');
+    }
+    Path file = write(text.toString());
+    FileUpdater.patch(file.toString(), "@@ -19,1 +19,1 @@\n-same\n+changed\n");
+    List<String> lines = Files.readAllLines(file);
+    assertEquals("same", lines.get(9));
+    assertEquals("changed", lines.get(19));
+    assertEquals("same", lines.get(29));
+  }
+
+  @Test
+  void picksAnEarlierOccurrenceIfItIsCloser() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 1; i <= 30; i++) {
+      text.append(i == 10 || i == 30 ? "same" : "line " + i).append('\n');
+    }
+    Path file = write(text.toString());
+    FileUpdater.patch(file.toString(), "@@ -12,1 +12,1 @@\n-same\n+changed\n");
+    List<String> lines = Files.readAllLines(file);
+    assertEquals("changed", lines.get(9));
+    assertEquals("same", lines.get(29));
+  }
+
+  @Test
+  void searchesEachHunkAfterThePreviousOne() throws IOException {
+    Path file = write("x\ny\nx\ny\n");
+    FileUpdater.patch(file.toString(), "@@ -1 +1 @@\n-x\n+a\n@@ -1 +1 @@\n-x\n+b\n");
+    assertEquals("a\ny\nb\ny\n", read(file));
+  }
+
+  @Test
+  void matchesLinesAcrossBufferBoundaries() throws IOException {
+    // Lines of 100 bytes never line up with the 64 KiB buffer, so some are split between reads.
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      text.append(String.format("%-99d", i)).append('\n');
+    }
+    Path file = write(text.toString());
+    final String old = String.format("%-99d", 655);
+    FileUpdater.patch(file.toString(), "@@ -656 +656 @@\n-" + old + "\n+patched\n");
+    List<String> lines = Files.readAllLines(file);
+    assertEquals(5000, lines.size());
+    assertEquals("patched", lines.get(655));
+    assertEquals(String.format("%-99d", 656), lines.get(656));
+  }
+
+  @Test
+  void matchesLinesLongerThanTheBuffer() throws IOException {
+    final String longLine = "x".repeat(200_000);
+    final String otherLongLine = "x".repeat(199_999) + "y";
+    Path file = write("a\n" + otherLongLine + "\n" + longLine + "\nb\n");
+    FileUpdater.patch(file.toString(), "@@ -3,2 +3,2 @@\n-" + longLine + "\n b\n+c\n");
+    assertEquals("a\n" + otherLongLine + "\nb\nc\n", read(file));
+  }
+
+  @Test
+  void leavesTheFileUntouchedIfAHunkDoesNotMatch() throws IOException {
+    final String text = "a\nb\nc\n";
+    Path file = write(text);
+    final Object key = Files.readAttributes(file, "unix:ino").get("ino");
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            FileUpdater.patch(file.toString(), "@@ -1 +1 @@\n-a\n+A\n@@ -3 +3 @@\n-missing\n+C\n"));
+    assertEquals(text, read(file));
+    assertEquals(key, Files.readAttributes(file, "unix:ino").get("ino"));
+    try (var entries = Files.list(dir)) {
+      assertEquals(List.of(file), entries.toList());
+    }
+  }
+
+  @Test
+  void rejectsPatchesOfMissingFiles() {
+    assertThrows(
+        IOException.class,
+        () -> FileUpdater.patch(dir.resolve("missing").toString(), "@@\n-a\n+b\n"));
+  }
+
+  private Path write(String text) throws IOException {
+    return Files.writeString(dir.resolve("file.txt"), text, StandardCharsets.UTF_8);
+  }
+
+  private static String read(Path file) throws IOException {
+    return Files.readString(file, StandardCharsets.UTF_8);
+  }
+}
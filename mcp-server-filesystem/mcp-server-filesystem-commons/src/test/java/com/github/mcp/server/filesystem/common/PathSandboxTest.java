@@ -0,0 +1,150 @@
+package com.github.mcp.server.filesystem.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link PathSandbox}, with a temporary directory as the allowed root and another one
+ * outside of it.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+class PathSandboxTest {
+  /** The option not following the last path component if it is a symbolic link. */
+  private static final LinkOption NOFOLLOW = LinkOption.NOFOLLOW_LINKS;
+
+  @TempDir Path temp;
+
+  /** The allowed root. */
+  private Path root;
+
+  /** A directory outside of the allowed root. */
+  private Path outside;
+
+  @BeforeEach
+  void setRoots() throws IOException {
+    root = Files.createDirectory(temp.resolve("root")).toRealPath();
+    outside = Files.createDirectory(temp.resolve("outside")).toRealPath();
+    Files.writeString(outside.resolve("secret.txt"), "secret");
+    PathSandbox.setRoots(List.of(root.toString()));
+  }
+
+  @AfterEach
+  void clearRoots() {
+    PathSandbox.setRoots(List.of());
+  }
+
+  @Test
+  void allowsPathsUnderTheRoots() throws IOException {
+    Path file = Files.writeString(root.resolve("a.txt"), "a");
+    ResolvedPath resolved = PathSandbox.resolve(file.toString());
+    assertEquals(file, resolved.path());
+    assertTrue(resolved.attributes().isRegularFile());
+    assertNull(PathSandbox.resolve(root.resolve("missing/b.txt").toString()).attributes());
+    assertDenied(outside.resolve("secret.txt"));
+    assertDenied(root.resolve(".."));
+  }
+
+  @Test
+  void deniesEscapesThroughAnIntermediateLink() throws IOException {
+    Files.createDirectories(root.resolve("a"));
+    Files.createSymbolicLink(root.resolve("a/link"), outside);
+    assertDenied(root.resolve("a/link/secret.txt"));
+    assertDenied(root.resolve("a/link/missing.txt"));
+    assertThrows(
+        AccessDeniedException.class,
+        () -> PathSandbox.resolve(root.resolve("a/link/secret.txt").toString(), NOFOLLOW));
+  }
+
+  @Test
+  void deniesDanglingLinksToOutsideOfTheRoots() throws IOException {
+    Path link = Files.createSymbolicLink(root.resolve("dangling"), outside.resolve("missing.txt"));
+    assertDenied(link);
+
+    // The link itself is under the root, and may be removed or moved.
+    ResolvedPath resolved = PathSandbox.resolve(link.toString(), NOFOLLOW);
+    assertEquals(link, resolved.path());
+    assertTrue(resolved.attributes().isSymbolicLink());
+  }
+
+  @Test
+  void resolvesDotDotAfterALinkFromItsTarget() throws IOException {
+    Files.createDirectories(outside.resolve("sub"));
+    Files.createSymbolicLink(root.resolve("out"), outside.resolve("sub"));
+    assertDenied(root.resolve("out/../secret.txt"));
+
+    Files.createDirectories(root.resolve("a/b"));
+    Files.writeString(root.resolve("a/c.txt"), "c");
+    Files.createSymbolicLink(root.resolve("in"), root.resolve("a/b"));
+    ResolvedPath resolved = PathSandbox.resolve(root.resolve("in/../c.txt").toString());
+    assertTrue(resolved.attributes().isRegularFile());
+  }
+
+  @Test
+  void resolvesRelativePathsAgainstTheFirstRoot() throws IOException {
+    Path second = Files.createDirectory(temp.resolve("second")).toRealPath();
+    PathSandbox.setRoots(List.of(root.toString(), second.toString()));
+    Files.writeString(root.resolve("a.txt"), "a");
+    Files.writeString(second.resolve("b.txt"), "b");
+
+    ResolvedPath resolved = PathSandbox.resolve("a.txt");
+    assertEquals(root.resolve("a.txt"), resolved.path());
+    assertTrue(resolved.attributes().isRegularFile());
+    assertNull(PathSandbox.resolve("b.txt").attributes());
+    assertTrue(
+        PathSandbox.resolve(second.resolve("b.txt").toString()).attributes().isRegularFile());
+    assertThrows(AccessDeniedException.class, () -> PathSandbox.resolve("../outside/secret.txt"));
+  }
+
+  @Test
+  void revalidatesCachedDirectoriesReplacedByLinks() throws IOException {
+    Path dir = Files.createDirectory(root.resolve("dir"));
+    Files.writeString(dir.resolve("secret.txt"), "mine");
+    assertNotNull(PathSandbox.resolve(dir.resolve("secret.txt").toString()).attributes());
+
+    Files.delete(dir.resolve("secret.txt"));
+    Files.delete(dir);
+    Files.createSymbolicLink(dir, outside);
+    assertDenied(dir.resolve("secret.txt"));
+  }
+
+  @Test
+  void checksLinksThemselvesWithoutFollowingThem() throws IOException {
+    // As FileDeleter and FileCopier resolve their paths: a link under the root to outside of it
+    // may be deleted, copied or moved as a link, but not followed.
+    Path link = Files.createSymbolicLink(root.resolve("link"), outside.resolve("secret.txt"));
+    assertDenied(link);
+    ResolvedPath resolved = PathSandbox.resolve(link.toString(), NOFOLLOW);
+    assertEquals(link, resolved.path());
+    assertTrue(resolved.attributes().isSymbolicLink());
+
+    // A link outside of the root is denied as a link, even if it points under the root.
+    Path file = Files.writeString(root.resolve("a.txt"), "a");
+    Path back = Files.createSymbolicLink(outside.resolve("back"), file);
+    assertTrue(PathSandbox.resolve(back.toString()).attributes().isRegularFile());
+    assertThrows(AccessDeniedException.class, () -> PathSandbox.resolve(back.toString(), NOFOLLOW));
+  }
+
+  /**
+   * Asserts that the given path is denied when following symbolic links.
+   *
+   * @param path the path
+   */
+  private static void assertDenied(Path path) {
+    assertThrows(AccessDeniedException.class, () -> PathSandbox.resolve(path.toString()));
+  }
+}
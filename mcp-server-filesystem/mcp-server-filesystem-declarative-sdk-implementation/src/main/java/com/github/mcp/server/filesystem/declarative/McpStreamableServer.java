@@ -4,6 +4,7 @@ import com.github.codeboyzhou.mcp.declarative.McpServers;
 import com.github.codeboyzhou.mcp.declarative.annotation.McpI18nEnabled;
 import com.github.codeboyzhou.mcp.declarative.annotation.McpServerApplication;
 import com.github.codeboyzhou.mcp.declarative.server.McpStreamableServerInfo;
+import com.github.mcp.server.filesystem.common.ServerConfig;
 import com.github.mcp.server.filesystem.common.ServerInfo;
 
 /**
@@ -14,14 +15,19 @@ import com.github.mcp.server.filesystem.common.ServerInfo;
 @McpI18nEnabled
 @McpServerApplication
 public class McpStreamableServer {
+  /** The port on which the server listens unless the {@code http.port} setting is given. */
+  private static final int DEFAULT_PORT = 8080;
+
   /** Main entry for the Streamable HTTP MCP server. */
   public static void main(String[] args) {
+    final int port = ServerConfig.getInt("http.port", DEFAULT_PORT);
     McpStreamableServerInfo serverInfo =
         McpStreamableServerInfo.builder()
             .name(ServerInfo.NAME)
             .version(ServerInfo.VERSION)
             .instructions(ServerInfo.INSTRUCTIONS)
             .requestTimeout(ServerInfo.REQUEST_TIMEOUT)
+            .port(port)
             .build();
     McpServers.run(McpStreamableServer.class, args).startStreamableServer(serverInfo);
   }
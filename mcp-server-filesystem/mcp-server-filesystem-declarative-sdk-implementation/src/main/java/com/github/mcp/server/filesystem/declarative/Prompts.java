@@ -60,7 +60,8 @@ public final class Prompts {
    *
    * @param path The path to read, can be a file or directory, required.
    * @return The prompt message
-   * @see Tools#read(String)
+   * @see Tools#read(String, Long, Long, String, Long, String, String, Long, Long, String, String,
+   *     String, String)
    */
   @McpPrompt(
       title = "mcp.server.filesystem.prompt.read.title",
@@ -79,6 +80,94 @@ public final class Prompts {
     return "Call the MCP tool 'read' to read the file or dir: " + path;
   }
 
+  /**
+   * Create an MCP prompt to correspond with the {@code read_many} tool.
+   *
+   * @param paths The paths of the files to read, separated by commas, required.
+   * @return The prompt message
+   * @see Tools#readMany(String, String, String)
+   */
+  @McpPrompt(
+      name = "read_many",
+      title = "mcp.server.filesystem.prompt.read_many.title",
+      description = "mcp.server.filesystem.prompt.read_many.description")
+  public static String readMany(
+      @McpPromptParam(
+              name = "paths",
+              title = "mcp.server.filesystem.prompt.read_many.param.paths.title",
+              description = "mcp.server.filesystem.prompt.read_many.param.paths.description",
+              required = true)
+          String paths) {
+
+    if (paths == null || paths.isBlank()) {
+      return "Please provide valid paths to read.";
+    }
+    return "Call the MCP tool 'read_many' to read the files: " + paths;
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code tree} tool.
+   *
+   * @param path The root path of the tree, can be a file or dir, required.
+   * @return The prompt message
+   * @see Tools#tree(String, Integer, Integer)
+   */
+  @McpPrompt(
+      name = "tree",
+      title = "mcp.server.filesystem.prompt.tree.title",
+      description = "mcp.server.filesystem.prompt.tree.description")
+  public static String tree(
+      @McpPromptParam(
+              name = "path",
+              title = "mcp.server.filesystem.prompt.tree.param.path.title",
+              description = "mcp.server.filesystem.prompt.tree.param.path.description",
+              required = true)
+          String path) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to show the tree of.";
+    }
+    return "Call the MCP tool 'tree' to show the file tree under: " + path;
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code grep} tool.
+   *
+   * @param start The starting path to search, required.
+   * @param pattern The literal text to search for in file contents, required.
+   * @return The prompt message
+   * @see Tools#grep(String, String, String, Integer)
+   */
+  @McpPrompt(
+      title = "mcp.server.filesystem.prompt.grep.title",
+      description = "mcp.server.filesystem.prompt.grep.description")
+  public static String grep(
+      @McpPromptParam(
+              name = "start",
+              title = "mcp.server.filesystem.prompt.grep.param.start.title",
+              description = "mcp.server.filesystem.prompt.grep.param.start.description",
+              required = true)
+          String start,
+      @McpPromptParam(
+              name = "pattern",
+              title = "mcp.server.filesystem.prompt.grep.param.pattern.title",
+              description = "mcp.server.filesystem.prompt.grep.param.pattern.description",
+              required = true)
+          String pattern) {
+
+    if (start == null || start.isBlank()) {
+      return "Please provide a valid start path to search.";
+    }
+
+    if (pattern == null || pattern.isEmpty()) {
+      return "Please provide a valid text to search for.";
+    }
+
+    return String.format(
+        "Call the MCP tool 'grep' to search for files containing: '%s', starting from the specified start path: '%s'",
+        pattern, start);
+  }
+
   /**
    * Create an MCP prompt to correspond with the {@code delete} tool.
    *
@@ -102,4 +191,153 @@ public final class Prompts {
     }
     return "Call the MCP tool 'delete' to delete the file or dir: " + path;
   }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code write} tool.
+   *
+   * @param path The path of the file to write, required.
+   * @return The prompt message
+   * @see Tools#write(String, String)
+   */
+  @McpPrompt(
+      title = "mcp.server.filesystem.prompt.write.title",
+      description = "mcp.server.filesystem.prompt.write.description")
+  public static String write(
+      @McpPromptParam(
+              name = "path",
+              title = "mcp.server.filesystem.prompt.write.param.path.title",
+              description = "mcp.server.filesystem.prompt.write.param.path.description",
+              required = true)
+          String path) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to write.";
+    }
+    return "Call the MCP tool 'write' to write the file: " + path;
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code append} tool.
+   *
+   * @param path The path of the file to append to, required.
+   * @return The prompt message
+   * @see Tools#append(String, String)
+   */
+  @McpPrompt(
+      title = "mcp.server.filesystem.prompt.append.title",
+      description = "mcp.server.filesystem.prompt.append.description")
+  public static String append(
+      @McpPromptParam(
+              name = "path",
+              title = "mcp.server.filesystem.prompt.append.param.path.title",
+              description = "mcp.server.filesystem.prompt.append.param.path.description",
+              required = true)
+          String path) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to append to.";
+    }
+    return "Call the MCP tool 'append' to append to the file: " + path;
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code apply_patch} tool.
+   *
+   * @param path The path of the file to patch, required.
+   * @return The prompt message
+   * @see Tools#applyPatch(String, String)
+   */
+  @McpPrompt(
+      name = "apply_patch",
+      title = "mcp.server.filesystem.prompt.apply_patch.title",
+      description = "mcp.server.filesystem.prompt.apply_patch.description")
+  public static String applyPatch(
+      @McpPromptParam(
+              name = "path",
+              title = "mcp.server.filesystem.prompt.apply_patch.param.path.title",
+              description = "mcp.server.filesystem.prompt.apply_patch.param.path.description",
+              required = true)
+          String path) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to patch.";
+    }
+    return "Call the MCP tool 'apply_patch' to patch the file: " + path;
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code copy} tool.
+   *
+   * @param source The path of the file or directory to copy, required.
+   * @param target The path to copy the file or directory to, required.
+   * @return The prompt message
+   * @see Tools#copy(String, String, Boolean)
+   */
+  @McpPrompt(
+      title = "mcp.server.filesystem.prompt.copy.title",
+      description = "mcp.server.filesystem.prompt.copy.description")
+  public static String copy(
+      @McpPromptParam(
+              name = "source",
+              title = "mcp.server.filesystem.prompt.copy.param.source.title",
+              description = "mcp.server.filesystem.prompt.copy.param.source.description",
+              required = true)
+          String source,
+      @McpPromptParam(
+              name = "target",
+              title = "mcp.server.filesystem.prompt.copy.param.target.title",
+              description = "mcp.server.filesystem.prompt.copy.param.target.description",
+              required = true)
+          String target) {
+
+    if (source == null || source.isBlank()) {
+      return "Please provide a valid source path to copy.";
+    }
+
+    if (target == null || target.isBlank()) {
+      return "Please provide a valid target path to copy to.";
+    }
+
+    return String.format(
+        "Call the MCP tool 'copy' to copy the file or directory: '%s', to the path: '%s'",
+        source, target);
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code move} tool.
+   *
+   * @param source The path of the file or directory to move, required.
+   * @param target The path to move the file or directory to, required.
+   * @return The prompt message
+   * @see Tools#move(String, String, Boolean)
+   */
+  @McpPrompt(
+      title = "mcp.server.filesystem.prompt.move.title",
+      description = "mcp.server.filesystem.prompt.move.description")
+  public static String move(
+      @McpPromptParam(
+              name = "source",
+              title = "mcp.server.filesystem.prompt.move.param.source.title",
+              description = "mcp.server.filesystem.prompt.move.param.source.description",
+              required = true)
+          String source,
+      @McpPromptParam(
+              name = "target",
+              title = "mcp.server.filesystem.prompt.move.param.target.title",
+              description = "mcp.server.filesystem.prompt.move.param.target.description",
+              required = true)
+          String target) {
+
+    if (source == null || source.isBlank()) {
+      return "Please provide a valid source path to move.";
+    }
+
+    if (target == null || target.isBlank()) {
+      return "Please provide a valid target path to move to.";
+    }
+
+    return String.format(
+        "Call the MCP tool 'move' to move the file or directory: '%s', to the path: '%s'",
+        source, target);
+  }
 }
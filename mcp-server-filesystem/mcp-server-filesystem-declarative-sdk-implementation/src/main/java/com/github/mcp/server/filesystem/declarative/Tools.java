@@ -2,10 +2,29 @@ package com.github.mcp.server.filesystem.declarative;
 
 import com.github.codeboyzhou.mcp.declarative.annotation.McpTool;
 import com.github.codeboyzhou.mcp.declarative.annotation.McpToolParam;
+import com.github.mcp.server.filesystem.common.BatchReader;
+import com.github.mcp.server.filesystem.common.ContentMatch;
+import com.github.mcp.server.filesystem.common.ContentSearcher;
+import com.github.mcp.server.filesystem.common.DeleteResult;
+import com.github.mcp.server.filesystem.common.DirectoryLister;
+import com.github.mcp.server.filesystem.common.DirectoryQuery;
+import com.github.mcp.server.filesystem.common.FileChunk;
+import com.github.mcp.server.filesystem.common.FileCopier;
+import com.github.mcp.server.filesystem.common.FileDeleter;
+import com.github.mcp.server.filesystem.common.FileFinder;
 import com.github.mcp.server.filesystem.common.FileHelper;
+import com.github.mcp.server.filesystem.common.FileListing;
+import com.github.mcp.server.filesystem.common.FileTree;
+import com.github.mcp.server.filesystem.common.FileUpdater;
+import com.github.mcp.server.filesystem.common.NameMatcher;
+import com.github.mcp.server.filesystem.common.PathSandbox;
+import com.github.mcp.server.filesystem.common.ResolvedPath;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,8 +48,12 @@ public final class Tools {
    * from the specified start path. This method recursively traverses the directory structure
    * beginning at the provided {@code start} path, identifying all entries (both files and
    * directories) whose names contain the specified target {@code name}. The search is
-   * case-sensitive and matches partial names (e.g., "temp" would match "template.log").
+   * case-sensitive and matches partial names (e.g., "temp" would match "template.log"). The search
+   * stops after the optional {@code maxResults} entries.
    *
+   * @param start The starting path to search, required.
+   * @param name The name of the target file or dir to search, required.
+   * @param maxResults The maximum number of files/dirs to return, optional.
    * @return A list of absolute path strings for all matching entries found during the search.
    */
   @McpTool(
@@ -46,13 +69,23 @@ public final class Tools {
               name = "name",
               description = "mcp.server.filesystem.tool.find.param.name.description",
               required = true)
-          String name) {
+          String name,
+      @McpToolParam(
+              name = "maxResults",
+              description = "mcp.server.filesystem.tool.find.param.maxResults.description")
+          Integer maxResults) {
 
     if (start == null || start.isBlank()) {
       return "Please provide a valid start path to find.";
     }
 
-    if (Files.notExists(Path.of(start))) {
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(start);
+    } catch (IOException | InvalidPathException e) {
+      return e.getMessage() + ", stopped finding.";
+    }
+    if (!resolved.exists()) {
       return "Start path does not exist: " + start + ", stopped finding.";
     }
 
@@ -61,15 +94,14 @@ public final class Tools {
     }
 
     try {
-      List<String> paths = FileHelper.fuzzySearch(start, name);
-      if (paths.isEmpty()) {
-        return String.format("No file/dir found with name '%s'", name);
-      }
-      return String.format("Found files/dirs with name '%s': %s", name, paths);
-    } catch (IOException e) {
+      final int limit = maxResults == null ? FileFinder.defaultMaxResults() : maxResults;
+      List<String> paths = FileFinder.find(resolved.path(), NameMatcher.of(name), limit);
+      FileListing listing = FileFinder.toListing(resolved.path(), paths, limit);
+      return FileFinder.toText(name, listing, true);
+    } catch (IOException | IllegalArgumentException e) {
       final String result =
           String.format("Error finding file/dir: %s, %s: %s", name, e, e.getMessage());
-      log.error(result, e);
+      log.error("{}", result, e);
       return result;
     }
   }
@@ -77,16 +109,32 @@ public final class Tools {
   /**
    * Create an MCP tool to read and return the content of a file or the list of immediate
    * subdirectories and files within a directory from the filesystem. This method checks the type of
-   * the specified path: If the path points to a file, it reads the entire content of the file and
-   * returns it as a string. If the path points to a directory, it returns a list of strings
-   * representing the direct children (immediate subdirectories and files) directly under the
-   * specified directory (non-recursive).
+   * the specified path: If the path points to a file, it reads a window of the file starting at the
+   * given {@code offset} and bounded by the given {@code limit}, and returns it as a string with a
+   * hint on how to continue reading. If the path points to a directory, it returns the direct
+   * children (immediate subdirectories and files) directly under the specified directory
+   * (non-recursive), one page of at most {@code limit} entries at a time, filtered and sorted by
+   * the optional arguments. The cursor returned with a page lists the next one.
    *
    * @param path The path to read, both file and directory are acceptable, required.
+   * @param offset The number of bytes or lines to skip when reading a file, optional.
+   * @param limit The maximum number of bytes or lines to read from a file, or of entries to list
+   *     from a directory, optional.
+   * @param unit The unit of offset and limit, bytes or lines, optional.
+   * @param position The byte position of the line at offset, as returned by the previous read in
+   *     lines, optional.
+   * @param include The pattern the names of the listed dir entries must match, optional.
+   * @param type The type of the listed dir entries, optional.
+   * @param minSize The minimum size of the listed dir entries in bytes, optional.
+   * @param maxSize The maximum size of the listed dir entries in bytes, optional.
+   * @param modifiedSince The time the listed dir entries must have been modified at or after,
+   *     optional.
+   * @param sort The key to sort dir entries by, name, size or modified, optional.
+   * @param order The order to sort dir entries in, asc or desc, optional.
+   * @param cursor The cursor returned by the previous listing of the dir, optional.
    * @return If the path points to a file, it returns a string containing the file's content. If the
-   *     path points to a directory, it returns a list of strings representing the direct children
-   *     (immediate subdirectories and files) directly under the specified directory
-   *     (non-recursive).
+   *     path points to a directory, it returns a page of the direct children (immediate
+   *     subdirectories and files) directly under the specified directory (non-recursive).
    */
   @McpTool(
       title = "mcp.server.filesystem.tool.read.title",
@@ -96,44 +144,296 @@ public final class Tools {
               name = "path",
               description = "mcp.server.filesystem.tool.read.param.path.description",
               required = true)
-          String path) {
+          String path,
+      @McpToolParam(
+              name = "offset",
+              description = "mcp.server.filesystem.tool.read.param.offset.description")
+          Long offset,
+      @McpToolParam(
+              name = "limit",
+              description = "mcp.server.filesystem.tool.read.param.limit.description")
+          Long limit,
+      @McpToolParam(
+              name = "unit",
+              description = "mcp.server.filesystem.tool.read.param.unit.description")
+          String unit,
+      @McpToolParam(
+              name = "position",
+              description = "mcp.server.filesystem.tool.read.param.position.description")
+          Long position,
+      @McpToolParam(
+              name = "include",
+              description = "mcp.server.filesystem.tool.read.param.include.description")
+          String include,
+      @McpToolParam(
+              name = "type",
+              description = "mcp.server.filesystem.tool.read.param.type.description")
+          String type,
+      @McpToolParam(
+              name = "minSize",
+              description = "mcp.server.filesystem.tool.read.param.minSize.description")
+          Long minSize,
+      @McpToolParam(
+              name = "maxSize",
+              description = "mcp.server.filesystem.tool.read.param.maxSize.description")
+          Long maxSize,
+      @McpToolParam(
+              name = "modifiedSince",
+              description = "mcp.server.filesystem.tool.read.param.modifiedSince.description")
+          String modifiedSince,
+      @McpToolParam(
+              name = "sort",
+              description = "mcp.server.filesystem.tool.read.param.sort.description")
+          String sort,
+      @McpToolParam(
+              name = "order",
+              description = "mcp.server.filesystem.tool.read.param.order.description")
+          String order,
+      @McpToolParam(
+              name = "cursor",
+              description = "mcp.server.filesystem.tool.read.param.cursor.description")
+          String cursor) {
 
     if (path == null || path.isBlank()) {
       return "Please provide a valid path to read.";
     }
 
-    Path filepath = Path.of(path);
-    if (Files.notExists(filepath)) {
-      return "The path does not exist: " + filepath + ", stopped reading.";
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(path);
+    } catch (IOException | InvalidPathException e) {
+      return e.getMessage() + ", stopped reading.";
+    }
+    if (!resolved.exists()) {
+      return "The path does not exist: " + path + ", stopped reading.";
     }
 
-    if (Files.isDirectory(filepath)) {
+    final Path filepath = resolved.path();
+    if (resolved.isDirectory()) {
       try {
-        List<String> paths = FileHelper.listDirectory(path);
-        return String.format("The dir '%s' contains: %s", path, paths);
-      } catch (IOException e) {
+        DirectoryQuery query =
+            DirectoryQuery.of(
+                include, type, minSize, maxSize, modifiedSince, sort, order, cursor, limit);
+        return DirectoryLister.toText(path, DirectoryLister.list(filepath, query), true);
+      } catch (IOException | IllegalArgumentException e) {
         final String result =
             String.format("Error reading dir: %s, %s: %s", path, e, e.getMessage());
-        log.error(result, e);
+        log.error("{}", result, e);
         return result;
       }
     }
 
     try {
-      return FileHelper.readAsString(filepath);
-    } catch (IOException e) {
+      final long chunkOffset = offset == null ? 0 : offset;
+      final long chunkLimit = limit == null ? Long.MAX_VALUE : limit;
+      final long chunkPosition = position == null ? -1 : position;
+      FileChunk.Unit chunkUnit = FileChunk.Unit.of(unit);
+      return FileHelper.readChunk(filepath, chunkOffset, chunkPosition, chunkLimit, chunkUnit)
+          .toText();
+    } catch (IOException | IllegalArgumentException e) {
       final String result =
           String.format("Error reading file: %s, %s: %s", path, e, e.getMessage());
-      log.error(result, e);
+      log.error("{}", result, e);
       return result;
     }
   }
 
   /**
-   * Create an MCP tool to delete a file or directory from the filesystem.
+   * Create an MCP tool to read many files in one call. The files are given either as a list of
+   * {@code paths}, or as a {@code glob} pattern matched under the {@code start} directory. They are
+   * read in parallel, and their total size is bounded by a byte budget, see {@link BatchReader}.
    *
-   * @param path The path to delete, can be a file or directory, required.
-   * @return A message indicating whether the path was successfully deleted or not.
+   * @param paths The paths of the files to read, separated by commas or line breaks, required
+   *     unless glob is given.
+   * @param start The starting directory of the glob, required with glob.
+   * @param glob The glob pattern of the files to read under start, optional.
+   * @return The content or error of each file.
+   */
+  @McpTool(
+      name = "read_many",
+      title = "mcp.server.filesystem.tool.read_many.title",
+      description = "mcp.server.filesystem.tool.read_many.description")
+  public String readMany(
+      @McpToolParam(
+              name = "paths",
+              description = "mcp.server.filesystem.tool.read_many.param.paths.description")
+          String paths,
+      @McpToolParam(
+              name = "start",
+              description = "mcp.server.filesystem.tool.read_many.param.start.description")
+          String start,
+      @McpToolParam(
+              name = "glob",
+              description = "mcp.server.filesystem.tool.read_many.param.glob.description")
+          String glob) {
+
+    final List<String> pathList = splitPaths(paths);
+    if (pathList.isEmpty() && (glob == null || glob.isBlank())) {
+      return "Please provide valid paths or a glob to read.";
+    }
+
+    if (pathList.isEmpty() && (start == null || start.isBlank())) {
+      return "Please provide a valid start path for the glob.";
+    }
+
+    try {
+      List<String> files =
+          pathList.isEmpty() ? BatchReader.glob(PathSandbox.resolve(start).path(), glob) : pathList;
+      if (files.isEmpty()) {
+        return String.format("No file found matching '%s'", glob);
+      }
+      return BatchReader.toText(BatchReader.read(files));
+    } catch (IOException | IllegalArgumentException e) {
+      final String target = pathList.isEmpty() ? glob : pathList.toString();
+      final String result =
+          String.format("Error reading files: %s, %s: %s", target, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to return an overview of the file tree rooted at the specified path, down to
+   * the optional depth and cut off at the optional number of nodes, with the number of files and
+   * directories and the total size of every directory. The tree is scanned in parallel, see {@link
+   * FileTree}, so that a single call replaces many calls of the {@code read} tool on directories.
+   *
+   * @param path The root path of the tree, can be a file or dir, required.
+   * @param depth The number of levels below the root to show, optional.
+   * @param maxNodes The maximum number of files/dirs to show, optional.
+   * @return The tree, one indented line per file or dir.
+   */
+  @McpTool(
+      name = "tree",
+      title = "mcp.server.filesystem.tool.tree.title",
+      description = "mcp.server.filesystem.tool.tree.description")
+  public String tree(
+      @McpToolParam(
+              name = "path",
+              description = "mcp.server.filesystem.tool.tree.param.path.description",
+              required = true)
+          String path,
+      @McpToolParam(
+              name = "depth",
+              description = "mcp.server.filesystem.tool.tree.param.depth.description")
+          Integer depth,
+      @McpToolParam(
+              name = "maxNodes",
+              description = "mcp.server.filesystem.tool.tree.param.maxNodes.description")
+          Integer maxNodes) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to show the tree of.";
+    }
+
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(path, LinkOption.NOFOLLOW_LINKS);
+    } catch (IOException | InvalidPathException e) {
+      return e.getMessage() + ", stopped scanning.";
+    }
+    if (!resolved.exists()) {
+      return "The path does not exist: " + path + ", stopped scanning.";
+    }
+
+    try {
+      FileTree fileTree =
+          FileTree.build(
+              resolved.path(),
+              depth == null ? FileTree.DEFAULT_DEPTH : depth,
+              maxNodes == null ? FileTree.defaultMaxNodes() : maxNodes);
+      return fileTree.toText(true);
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error scanning tree: %s, %s: %s", path, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to search the contents of the files within the filesystem starting from the
+   * specified start path for the specified literal text. Files are scanned in parallel on their raw
+   * bytes, binary files are skipped, and only the files whose names match the optional {@code
+   * include} pattern are searched.
+   *
+   * @param start The starting path to search, can be a file or directory, required.
+   * @param pattern The literal text to search for, case-sensitive, required.
+   * @param include The pattern the names of the searched files must match, optional.
+   * @param maxResults The maximum number of matching lines to return, optional.
+   * @return The matching lines in the {@code path:line: text} format.
+   */
+  @McpTool(
+      title = "mcp.server.filesystem.tool.grep.title",
+      description = "mcp.server.filesystem.tool.grep.description")
+  public String grep(
+      @McpToolParam(
+              name = "start",
+              description = "mcp.server.filesystem.tool.grep.param.start.description",
+              required = true)
+          String start,
+      @McpToolParam(
+              name = "pattern",
+              description = "mcp.server.filesystem.tool.grep.param.pattern.description",
+              required = true)
+          String pattern,
+      @McpToolParam(
+              name = "include",
+              description = "mcp.server.filesystem.tool.grep.param.include.description")
+          String include,
+      @McpToolParam(
+              name = "maxResults",
+              description = "mcp.server.filesystem.tool.grep.param.maxResults.description")
+          Integer maxResults) {
+
+    if (start == null || start.isBlank()) {
+      return "Please provide a valid start path to search.";
+    }
+
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(start);
+    } catch (IOException | InvalidPathException e) {
+      return e.getMessage() + ", stopped searching.";
+    }
+    if (!resolved.exists()) {
+      return "Start path does not exist: " + start + ", stopped searching.";
+    }
+
+    if (pattern == null || pattern.isEmpty()) {
+      return "Please provide a valid text to search for.";
+    }
+
+    try {
+      final int limit = maxResults == null ? ContentSearcher.defaultMaxResults() : maxResults;
+      NameMatcher matcher = NameMatcher.of(include == null || include.isBlank() ? "*" : include);
+      List<ContentMatch> matches = ContentSearcher.search(resolved.path(), pattern, matcher, limit);
+      return ContentSearcher.toText(pattern, matches, limit);
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error searching: %s, %s: %s", pattern, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to delete files or directories from the filesystem. The paths to delete are
+   * given as a single {@code path}, as a list of {@code paths}, or as a {@code glob} pattern
+   * matched under the {@code start} directory, or any combination of them. Directories are only
+   * deleted with all their contents if {@code recursive} is set, in parallel, see {@link
+   * FileDeleter}. With {@code dryRun} set, nothing is deleted and the result tells what would be.
+   *
+   * @param path The path to delete, can be a file or directory, required unless paths or glob is
+   *     given.
+   * @param paths The paths of the files or directories to delete, separated by commas or line
+   *     breaks, optional.
+   * @param start The starting directory of the glob, required with glob.
+   * @param glob The glob pattern of the files or directories to delete under start, optional.
+   * @param recursive Whether to delete directories with all their contents, optional.
+   * @param dryRun Whether to only report what would be deleted, optional.
+   * @return The number of files and directories deleted and of bytes freed, in total and for each
+   *     path.
    */
   @McpTool(
       title = "mcp.server.filesystem.tool.delete.title",
@@ -141,24 +441,303 @@ public final class Tools {
   public String delete(
       @McpToolParam(
               name = "path",
-              description = "mcp.server.filesystem.tool.delete.param.path.description",
+              description = "mcp.server.filesystem.tool.delete.param.path.description")
+          String path,
+      @McpToolParam(
+              name = "paths",
+              description = "mcp.server.filesystem.tool.delete.param.paths.description")
+          String paths,
+      @McpToolParam(
+              name = "start",
+              description = "mcp.server.filesystem.tool.delete.param.start.description")
+          String start,
+      @McpToolParam(
+              name = "glob",
+              description = "mcp.server.filesystem.tool.delete.param.glob.description")
+          String glob,
+      @McpToolParam(
+              name = "recursive",
+              description = "mcp.server.filesystem.tool.delete.param.recursive.description")
+          Boolean recursive,
+      @McpToolParam(
+              name = "dryRun",
+              description = "mcp.server.filesystem.tool.delete.param.dryRun.description")
+          Boolean dryRun) {
+
+    List<String> targets = new ArrayList<>();
+    if (path != null && !path.isBlank()) {
+      targets.add(path);
+    }
+    targets.addAll(splitPaths(paths));
+    final boolean hasGlob = glob != null && !glob.isBlank();
+    if (targets.isEmpty() && !hasGlob) {
+      return "Please provide a valid path, paths or a glob to delete.";
+    }
+
+    if (hasGlob && (start == null || start.isBlank())) {
+      return "Please provide a valid start path for the glob.";
+    }
+
+    try {
+      if (hasGlob) {
+        targets.addAll(FileDeleter.glob(PathSandbox.resolve(start).path(), glob));
+      }
+      final boolean isDryRun = Boolean.TRUE.equals(dryRun);
+      List<DeleteResult> results =
+          FileDeleter.delete(targets, Boolean.TRUE.equals(recursive), isDryRun);
+      return FileDeleter.toText(results, isDryRun);
+    } catch (IOException | IllegalArgumentException e) {
+      final String target = hasGlob ? glob : targets.toString();
+      final String result = String.format("Error deleting: %s, %s: %s", target, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to create a file or replace its content. The content is written to a
+   * temporary file moved over the file atomically, see {@link FileUpdater}, so that the file is
+   * never seen half written.
+   *
+   * @param path The path of the file to write, created with its parent directories if missing,
+   *     required.
+   * @param content The new content of the file, required.
+   * @return The path and size of the file written.
+   */
+  @McpTool(
+      title = "mcp.server.filesystem.tool.write.title",
+      description = "mcp.server.filesystem.tool.write.description")
+  public String write(
+      @McpToolParam(
+              name = "path",
+              description = "mcp.server.filesystem.tool.write.param.path.description",
               required = true)
-          String path) {
+          String path,
+      @McpToolParam(
+              name = "content",
+              description = "mcp.server.filesystem.tool.write.param.content.description",
+              required = true)
+          String content) {
 
     if (path == null || path.isBlank()) {
-      return "Please provide a valid path to delete.";
+      return "Please provide a valid path to write.";
+    }
+
+    if (content == null) {
+      return "Please provide the content to write.";
     }
 
     try {
-      final boolean deleted = Files.deleteIfExists(Path.of(path));
-      if (deleted) {
-        return String.format("Successfully deleted: %s", path);
-      }
-      return String.format("Failed to delete: %s", path);
-    } catch (IOException e) {
-      final String result = String.format("Error deleting: %s, %s: %s", path, e, e.getMessage());
-      log.error(result, e);
+      return FileUpdater.write(path, content).toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error writing file: %s, %s: %s", path, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to append content to the end of a file, creating it if it does not exist.
+   * The previous content is copied to a temporary file by the operating system, without going
+   * through the JVM, and the temporary file is moved over the file atomically, see {@link
+   * FileUpdater}.
+   *
+   * @param path The path of the file to append to, created with its parent directories if missing,
+   *     required.
+   * @param content The content to append to the end of the file, required.
+   * @return The path and size of the file appended to.
+   */
+  @McpTool(
+      title = "mcp.server.filesystem.tool.append.title",
+      description = "mcp.server.filesystem.tool.append.description")
+  public String append(
+      @McpToolParam(
+              name = "path",
+              description = "mcp.server.filesystem.tool.append.param.path.description",
+              required = true)
+          String path,
+      @McpToolParam(
+              name = "content",
+              description = "mcp.server.filesystem.tool.append.param.content.description",
+              required = true)
+          String content) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to append to.";
+    }
+
+    if (content == null) {
+      return "Please provide the content to append.";
+    }
+
+    try {
+      return FileUpdater.append(path, content).toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error appending to file: %s, %s: %s", path, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to apply a patch in the unified diff format to a file. The hunks are located
+   * by their context and removed lines, the unchanged regions between them are copied by the
+   * operating system, and the patched file is moved over the file atomically, see {@link
+   * FileUpdater}. Either all hunks apply, or the file is left as it was.
+   *
+   * @param path The path of the file to patch, required.
+   * @param patch The changes of the file as unified diff hunks, required.
+   * @return The path and size of the file patched and the number of hunks applied.
+   */
+  @McpTool(
+      name = "apply_patch",
+      title = "mcp.server.filesystem.tool.apply_patch.title",
+      description = "mcp.server.filesystem.tool.apply_patch.description")
+  public String applyPatch(
+      @McpToolParam(
+              name = "path",
+              description = "mcp.server.filesystem.tool.apply_patch.param.path.description",
+              required = true)
+          String path,
+      @McpToolParam(
+              name = "patch",
+              description = "mcp.server.filesystem.tool.apply_patch.param.patch.description",
+              required = true)
+          String patch) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to patch.";
+    }
+
+    if (patch == null || patch.isBlank()) {
+      return "Please provide the patch to apply.";
+    }
+
+    try {
+      return FileUpdater.patch(path, patch).toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error patching file: %s, %s: %s", path, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to copy a file or a directory with all its contents to another path. The
+   * content of files is copied by the operating system, without going through the JVM, and
+   * directories are copied in parallel, see {@link FileCopier}.
+   *
+   * @param source The path of the file or directory to copy, required.
+   * @param target The path to copy it to, not the directory to copy it into, created with its
+   *     parent directories if missing, required.
+   * @param overwrite Whether to replace an existing target file or merge into an existing target
+   *     directory, optional.
+   * @return The number of files, directories and bytes copied.
+   */
+  @McpTool(
+      title = "mcp.server.filesystem.tool.copy.title",
+      description = "mcp.server.filesystem.tool.copy.description")
+  public String copy(
+      @McpToolParam(
+              name = "source",
+              description = "mcp.server.filesystem.tool.copy.param.source.description",
+              required = true)
+          String source,
+      @McpToolParam(
+              name = "target",
+              description = "mcp.server.filesystem.tool.copy.param.target.description",
+              required = true)
+          String target,
+      @McpToolParam(
+              name = "overwrite",
+              description = "mcp.server.filesystem.tool.copy.param.overwrite.description")
+          Boolean overwrite) {
+
+    if (source == null || source.isBlank()) {
+      return "Please provide a valid source path to copy.";
+    }
+
+    if (target == null || target.isBlank()) {
+      return "Please provide a valid target path to copy to.";
+    }
+
+    try {
+      final boolean replace = Boolean.TRUE.equals(overwrite);
+      return FileCopier.copy(source, target, replace, () -> false, progress -> {}).toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error copying: %s to %s, %s: %s", source, target, e, e.getMessage());
+      log.error("{}", result, e);
       return result;
     }
   }
+
+  /**
+   * Create an MCP tool to move a file or a directory with all its contents to another path. The
+   * source is renamed if the target is on the same filesystem, and copied then deleted otherwise,
+   * see {@link FileCopier}.
+   *
+   * @param source The path of the file or directory to move, required.
+   * @param target The path to move it to, not the directory to move it into, created with its
+   *     parent directories if missing, required.
+   * @param overwrite Whether to replace an existing target file or merge into an existing target
+   *     directory, optional.
+   * @return The path moved, and the number of files, directories and bytes copied if it was copied.
+   */
+  @McpTool(
+      title = "mcp.server.filesystem.tool.move.title",
+      description = "mcp.server.filesystem.tool.move.description")
+  public String move(
+      @McpToolParam(
+              name = "source",
+              description = "mcp.server.filesystem.tool.move.param.source.description",
+              required = true)
+          String source,
+      @McpToolParam(
+              name = "target",
+              description = "mcp.server.filesystem.tool.move.param.target.description",
+              required = true)
+          String target,
+      @McpToolParam(
+              name = "overwrite",
+              description = "mcp.server.filesystem.tool.move.param.overwrite.description")
+          Boolean overwrite) {
+
+    if (source == null || source.isBlank()) {
+      return "Please provide a valid source path to move.";
+    }
+
+    if (target == null || target.isBlank()) {
+      return "Please provide a valid target path to move to.";
+    }
+
+    try {
+      final boolean replace = Boolean.TRUE.equals(overwrite);
+      return FileCopier.move(source, target, replace, () -> false, progress -> {}).toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error moving: %s to %s, %s: %s", source, target, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Split a list of paths separated by commas or line breaks, ignoring blank entries.
+   *
+   * @param paths The paths to split, may be {@code null}.
+   * @return The trimmed paths.
+   */
+  private static List<String> splitPaths(String paths) {
+    if (paths == null) {
+      return List.of();
+    }
+    return Arrays.stream(paths.split("[,\\r\\n]+"))
+        .map(String::trim)
+        .filter(path -> !path.isEmpty())
+        .toList();
+  }
 }
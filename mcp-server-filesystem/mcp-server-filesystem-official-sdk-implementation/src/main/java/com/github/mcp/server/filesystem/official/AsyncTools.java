@@ -0,0 +1,291 @@
+package com.github.mcp.server.filesystem.official;
+
+import com.github.mcp.server.filesystem.common.FileChunk;
+import com.github.mcp.server.filesystem.common.FileHelper;
+import com.github.mcp.server.filesystem.common.PathSandbox;
+import com.github.mcp.server.filesystem.common.ResolvedPath;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * This class is used to define the async counterparts of the tools in {@link Tools}, registered on
+ * an async MCP server. Reads of files are done without blocking a thread on the read itself, see
+ * {@link FileHelper#readChunkAsync}. Other tool calls, such as directory walks, have no
+ * non-blocking filesystem API to rely on, so they run on the bounded elastic scheduler instead of
+ * the transport threads.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ * @see Tools
+ */
+public final class AsyncTools {
+  /** Logger instance for logging tool-related messages. */
+  private static final Logger log = LoggerFactory.getLogger(AsyncTools.class);
+
+  /**
+   * Create the async counterpart of {@link Tools#find()}. The walk runs on the bounded elastic
+   * scheduler, and stops as soon as the subscriber cancels the call.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification find() throws IOException {
+    return McpServerFeatures.AsyncToolSpecification.builder()
+        .tool(Tools.find().tool())
+        .callHandler(
+            (exchange, request) -> {
+              AtomicBoolean cancelled = new AtomicBoolean();
+              return Mono.fromCallable(
+                      () ->
+                          Tools.find(new McpSyncServerExchange(exchange), request, cancelled::get))
+                  .subscribeOn(Schedulers.boundedElastic())
+                  .doOnCancel(() -> cancelled.set(true));
+            })
+        .build();
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#read()}. Files are read through {@link
+   * FileHelper#readChunkAsync}, while directories are listed on the bounded elastic scheduler.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification read() throws IOException {
+    // Step 1: Create the sync tool, which handles directories and invalid arguments.
+    McpServerFeatures.SyncToolSpecification sync = Tools.read();
+
+    // Step 2: Create an async tool specification reading files without blocking.
+    return McpServerFeatures.AsyncToolSpecification.builder()
+        .tool(sync.tool())
+        .callHandler(
+            (exchange, request) -> {
+              // Step 3: Read the file and return the result.
+              Map<String, Object> arguments = request.arguments();
+              Object path = arguments.get("path");
+
+              if (path == null || path.toString().isBlank()) {
+                return call(sync, exchange, request);
+              }
+
+              // Directories, missing files and paths outside of the allowed roots are left to the
+              // sync tool, which reports them.
+              final ResolvedPath resolved;
+              try {
+                resolved = PathSandbox.resolve(path.toString());
+              } catch (IOException | InvalidPathException e) {
+                return call(sync, exchange, request);
+              }
+              if (!resolved.isRegularFile()) {
+                return call(sync, exchange, request);
+              }
+
+              try {
+                final Path filepath = resolved.path();
+                final long offset = Tools.longArgument(arguments, "offset", 0);
+                final long limit = Tools.longArgument(arguments, "limit", Long.MAX_VALUE);
+                final long position = Tools.longArgument(arguments, "position", -1);
+                final Object unit = arguments.get("unit");
+                FileChunk.Unit chunkUnit = FileChunk.Unit.of(unit == null ? null : unit.toString());
+                return Mono.fromFuture(
+                        FileHelper.readChunkAsync(
+                            filepath,
+                            offset,
+                            position,
+                            limit,
+                            chunkUnit,
+                            runnable -> Schedulers.boundedElastic().schedule(runnable)))
+                    .map(chunk -> Tools.success(chunk.toText()))
+                    .onErrorResume(e -> Mono.just(readError(path, e)));
+              } catch (IOException | IllegalArgumentException e) {
+                return Mono.just(readError(path, e));
+              }
+            })
+        .build();
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#readMany()}. The files are read in parallel by the
+   * worker threads of {@link com.github.mcp.server.filesystem.common.BatchReader}, which the
+   * bounded elastic scheduler only waits for.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification readMany() throws IOException {
+    return offload(Tools.readMany());
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#tree()}. The tree is scanned by the worker threads
+   * of {@link com.github.mcp.server.filesystem.common.FileTree}, which the bounded elastic
+   * scheduler only waits for.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification tree() throws IOException {
+    return offload(Tools.tree());
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#grep()}. The search runs on the bounded elastic
+   * scheduler, and stops as soon as the subscriber cancels the call.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification grep() throws IOException {
+    return McpServerFeatures.AsyncToolSpecification.builder()
+        .tool(Tools.grep().tool())
+        .callHandler(
+            (exchange, request) -> {
+              AtomicBoolean cancelled = new AtomicBoolean();
+              return Mono.fromCallable(
+                      () ->
+                          Tools.grep(new McpSyncServerExchange(exchange), request, cancelled::get))
+                  .subscribeOn(Schedulers.boundedElastic())
+                  .doOnCancel(() -> cancelled.set(true));
+            })
+        .build();
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#delete()}.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification delete() throws IOException {
+    return offload(Tools.delete());
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#write()}.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification write() throws IOException {
+    return offload(Tools.write());
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#append()}.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification append() throws IOException {
+    return offload(Tools.append());
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#applyPatch()}.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification applyPatch() throws IOException {
+    return offload(Tools.applyPatch());
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#copy()}. The copy is waited for on the bounded
+   * elastic scheduler, and stops as soon as the subscriber cancels the call.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification copy() throws IOException {
+    return McpServerFeatures.AsyncToolSpecification.builder()
+        .tool(Tools.copy().tool())
+        .callHandler(
+            (exchange, request) -> {
+              AtomicBoolean cancelled = new AtomicBoolean();
+              return Mono.fromCallable(
+                      () ->
+                          Tools.copy(new McpSyncServerExchange(exchange), request, cancelled::get))
+                  .subscribeOn(Schedulers.boundedElastic())
+                  .doOnCancel(() -> cancelled.set(true));
+            })
+        .build();
+  }
+
+  /**
+   * Create the async counterpart of {@link Tools#move()}. The move is waited for on the bounded
+   * elastic scheduler, and a copy of the source stops as soon as the subscriber cancels the call.
+   *
+   * @return The tool, wrapped as a {@link McpServerFeatures.AsyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.AsyncToolSpecification move() throws IOException {
+    return McpServerFeatures.AsyncToolSpecification.builder()
+        .tool(Tools.move().tool())
+        .callHandler(
+            (exchange, request) -> {
+              AtomicBoolean cancelled = new AtomicBoolean();
+              return Mono.fromCallable(
+                      () ->
+                          Tools.move(new McpSyncServerExchange(exchange), request, cancelled::get))
+                  .subscribeOn(Schedulers.boundedElastic())
+                  .doOnCancel(() -> cancelled.set(true));
+            })
+        .build();
+  }
+
+  /**
+   * Create an async tool specification running the handler of the given sync tool specification on
+   * the bounded elastic scheduler.
+   *
+   * @param sync The sync tool specification.
+   * @return The async tool specification.
+   */
+  private static McpServerFeatures.AsyncToolSpecification offload(
+      McpServerFeatures.SyncToolSpecification sync) {
+    return McpServerFeatures.AsyncToolSpecification.builder()
+        .tool(sync.tool())
+        .callHandler((exchange, request) -> call(sync, exchange, request))
+        .build();
+  }
+
+  /**
+   * Call the handler of the given sync tool specification on the bounded elastic scheduler.
+   *
+   * @param sync The sync tool specification.
+   * @param exchange The exchange of the async server.
+   * @param request The tool call request.
+   * @return The result of the call.
+   */
+  private static Mono<McpSchema.CallToolResult> call(
+      McpServerFeatures.SyncToolSpecification sync,
+      McpAsyncServerExchange exchange,
+      McpSchema.CallToolRequest request) {
+    return Mono.fromCallable(
+            () -> sync.callHandler().apply(new McpSyncServerExchange(exchange), request))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Create the error result of a failed file read.
+   *
+   * @param path The path of the file.
+   * @param e The error.
+   * @return The {@link McpSchema.CallToolResult} object.
+   */
+  private static McpSchema.CallToolResult readError(Object path, Throwable e) {
+    final String result = String.format("Error reading file: %s, %s: %s", path, e, e.getMessage());
+    log.error("{}", result, e);
+    return Tools.error(result);
+  }
+}
@@ -1,11 +1,12 @@
 package com.github.mcp.server.filesystem.official;
 
 import com.github.mcp.server.filesystem.common.HttpServer;
+import com.github.mcp.server.filesystem.common.HttpServerConfig;
 import com.github.mcp.server.filesystem.common.ServerInfo;
+import io.modelcontextprotocol.server.McpAsyncServer;
 import io.modelcontextprotocol.server.McpServer;
 import io.modelcontextprotocol.server.McpSyncServer;
 import io.modelcontextprotocol.server.transport.HttpServletSseServerTransportProvider;
-import io.modelcontextprotocol.spec.McpSchema;
 import java.io.IOException;
 
 /**
@@ -22,9 +23,13 @@ public class McpSseServer {
   /** The MCP sync server instance that handles protocol communication. */
   private McpSyncServer mcpSyncServer;
 
+  /** The MCP async server instance, used instead when the {@code server.type} setting is ASYNC. */
+  private McpAsyncServer mcpAsyncServer;
+
   /**
    * Main entry point for the HTTP SSE MCP server. Initializes the server, configures resources,
-   * prompts, and tools, and starts the HTTP server on port 8080.
+   * prompts, and tools, and starts the HTTP server tuned by the {@code http.*} settings, on port
+   * 8080 by default.
    *
    * @param args command line arguments
    * @throws IOException if an I/O error occurs during server initialization or startup
@@ -33,45 +38,48 @@ public class McpSseServer {
     // Initialize MCP server
     McpSseServer mcpSseServer = new McpSseServer();
     mcpSseServer.initialize();
-    // Add resources
-    mcpSseServer.mcpSyncServer.addResource(Resources.filesystem());
-    // Add prompts
-    mcpSseServer.mcpSyncServer.addPrompt(Prompts.find());
-    mcpSseServer.mcpSyncServer.addPrompt(Prompts.read());
-    mcpSseServer.mcpSyncServer.addPrompt(Prompts.delete());
-    // Add tools
-    mcpSseServer.mcpSyncServer.addTool(Tools.find());
-    mcpSseServer.mcpSyncServer.addTool(Tools.read());
-    mcpSseServer.mcpSyncServer.addTool(Tools.delete());
+    // Add resources, prompts and tools
+    if (mcpSseServer.mcpAsyncServer != null) {
+      ServerFeatures.register(mcpSseServer.mcpAsyncServer);
+    } else {
+      ServerFeatures.register(mcpSseServer.mcpSyncServer);
+    }
     // Start HTTP server
     HttpServer httpserver = new HttpServer();
-    httpserver.use(transport).bind(8080).start();
+    httpserver.use(transport).configure(HttpServerConfig.fromSystemProperties()).start();
   }
 
   /**
    * Initialize the HTTP SSE MCP server with the required capabilities and transport provider.
    * Configures the server to support resources, prompts, and tools for filesystem operations.
+   *
+   * <p>The server is a sync server, or an async server if the {@code server.type} setting is {@code
+   * ASYNC}, see {@link ServerFeatures#isAsync()}.
    */
   private void initialize() {
-    McpSchema.ServerCapabilities serverCapabilities =
-        McpSchema.ServerCapabilities.builder()
-            .resources(true, true)
-            .prompts(true)
-            .tools(true)
-            .build();
-
     transport =
         HttpServletSseServerTransportProvider.builder()
             .sseEndpoint(ServerInfo.SSE_ENDPOINT)
             .messageEndpoint(ServerInfo.MESSAGE_ENDPOINT)
             .build();
 
+    if (ServerFeatures.isAsync()) {
+      mcpAsyncServer =
+          McpServer.async(transport)
+              .serverInfo(ServerInfo.NAME, ServerInfo.VERSION)
+              .requestTimeout(ServerInfo.REQUEST_TIMEOUT)
+              .instructions(ServerInfo.INSTRUCTIONS)
+              .capabilities(ServerFeatures.capabilities())
+              .build();
+      return;
+    }
+
     mcpSyncServer =
         McpServer.sync(transport)
             .serverInfo(ServerInfo.NAME, ServerInfo.VERSION)
             .requestTimeout(ServerInfo.REQUEST_TIMEOUT)
             .instructions(ServerInfo.INSTRUCTIONS)
-            .capabilities(serverCapabilities)
+            .capabilities(ServerFeatures.capabilities())
             .build();
   }
 }
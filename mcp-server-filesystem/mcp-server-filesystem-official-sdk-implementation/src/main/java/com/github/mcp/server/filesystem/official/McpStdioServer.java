@@ -2,10 +2,10 @@ package com.github.mcp.server.filesystem.official;
 
 import com.github.mcp.server.filesystem.common.ServerInfo;
 import io.modelcontextprotocol.json.McpJsonMapper;
+import io.modelcontextprotocol.server.McpAsyncServer;
 import io.modelcontextprotocol.server.McpServer;
 import io.modelcontextprotocol.server.McpSyncServer;
 import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
-import io.modelcontextprotocol.spec.McpSchema;
 import java.io.IOException;
 
 /**
@@ -19,6 +19,9 @@ public class McpStdioServer {
   /** The MCP sync server instance that handles protocol communication over STDIO. */
   private McpSyncServer mcpSyncServer;
 
+  /** The MCP async server instance, used instead when the {@code server.type} setting is ASYNC. */
+  private McpAsyncServer mcpAsyncServer;
+
   /**
    * Main entry point for the STDIO MCP server. Initializes the server, configures resources,
    * prompts, and tools, and starts listening for MCP messages over standard input/output.
@@ -30,37 +33,40 @@ public class McpStdioServer {
     // Initialize MCP server
     McpStdioServer mcpStdioServer = new McpStdioServer();
     mcpStdioServer.initialize();
-    // Add resources
-    mcpStdioServer.mcpSyncServer.addResource(Resources.filesystem());
-    // Add prompts
-    mcpStdioServer.mcpSyncServer.addPrompt(Prompts.find());
-    mcpStdioServer.mcpSyncServer.addPrompt(Prompts.read());
-    mcpStdioServer.mcpSyncServer.addPrompt(Prompts.delete());
-    // Add tools
-    mcpStdioServer.mcpSyncServer.addTool(Tools.find());
-    mcpStdioServer.mcpSyncServer.addTool(Tools.read());
-    mcpStdioServer.mcpSyncServer.addTool(Tools.delete());
+    // Add resources, prompts and tools
+    if (mcpStdioServer.mcpAsyncServer != null) {
+      ServerFeatures.register(mcpStdioServer.mcpAsyncServer);
+    } else {
+      ServerFeatures.register(mcpStdioServer.mcpSyncServer);
+    }
   }
 
   /**
    * Initialize the STDIO MCP server with the required capabilities and transport provider.
    * Configures the server to support resources, prompts, and tools for filesystem operations and
    * sets up communication over standard input/output.
+   *
+   * <p>The server is a sync server, or an async server if the {@code server.type} setting is {@code
+   * ASYNC}, see {@link ServerFeatures#isAsync()}.
    */
   private void initialize() {
-    McpSchema.ServerCapabilities serverCapabilities =
-        McpSchema.ServerCapabilities.builder()
-            .resources(true, true)
-            .prompts(true)
-            .tools(true)
-            .build();
+    if (ServerFeatures.isAsync()) {
+      mcpAsyncServer =
+          McpServer.async(new StdioServerTransportProvider(McpJsonMapper.getDefault()))
+              .serverInfo(ServerInfo.NAME, ServerInfo.VERSION)
+              .requestTimeout(ServerInfo.REQUEST_TIMEOUT)
+              .instructions(ServerInfo.INSTRUCTIONS)
+              .capabilities(ServerFeatures.capabilities())
+              .build();
+      return;
+    }
 
     mcpSyncServer =
         McpServer.sync(new StdioServerTransportProvider(McpJsonMapper.getDefault()))
             .serverInfo(ServerInfo.NAME, ServerInfo.VERSION)
             .requestTimeout(ServerInfo.REQUEST_TIMEOUT)
             .instructions(ServerInfo.INSTRUCTIONS)
-            .capabilities(serverCapabilities)
+            .capabilities(ServerFeatures.capabilities())
             .build();
   }
 }
@@ -1,11 +1,12 @@
 package com.github.mcp.server.filesystem.official;
 
 import com.github.mcp.server.filesystem.common.HttpServer;
+import com.github.mcp.server.filesystem.common.HttpServerConfig;
 import com.github.mcp.server.filesystem.common.ServerInfo;
+import io.modelcontextprotocol.server.McpAsyncServer;
 import io.modelcontextprotocol.server.McpServer;
 import io.modelcontextprotocol.server.McpSyncServer;
 import io.modelcontextprotocol.server.transport.HttpServletStreamableServerTransportProvider;
-import io.modelcontextprotocol.spec.McpSchema;
 import java.io.IOException;
 
 /**
@@ -22,10 +23,13 @@ public class McpStreamableServer {
   /** The MCP sync server instance that handles protocol communication. */
   private McpSyncServer mcpSyncServer;
 
+  /** The MCP async server instance, used instead when the {@code server.type} setting is ASYNC. */
+  private McpAsyncServer mcpAsyncServer;
+
   /**
    * Main entry point for the Streamable HTTP MCP server. Initializes the server, configures
-   * resources, prompts, and tools, and starts the HTTP server on port 8080 with streamable
-   * transport.
+   * resources, prompts, and tools, and starts the HTTP server tuned by the {@code http.*} settings,
+   * on port 8080 by default, with streamable transport.
    *
    * @param args command line arguments
    * @throws IOException if an I/O error occurs during server initialization or startup
@@ -34,45 +38,48 @@ public class McpStreamableServer {
     // Initialize MCP server
     McpStreamableServer mcpStreamableServer = new McpStreamableServer();
     mcpStreamableServer.initialize();
-    // Add resources
-    mcpStreamableServer.mcpSyncServer.addResource(Resources.filesystem());
-    // Add prompts
-    mcpStreamableServer.mcpSyncServer.addPrompt(Prompts.find());
-    mcpStreamableServer.mcpSyncServer.addPrompt(Prompts.read());
-    mcpStreamableServer.mcpSyncServer.addPrompt(Prompts.delete());
-    // Add tools
-    mcpStreamableServer.mcpSyncServer.addTool(Tools.find());
-    mcpStreamableServer.mcpSyncServer.addTool(Tools.read());
-    mcpStreamableServer.mcpSyncServer.addTool(Tools.delete());
+    // Add resources, prompts and tools
+    if (mcpStreamableServer.mcpAsyncServer != null) {
+      ServerFeatures.register(mcpStreamableServer.mcpAsyncServer);
+    } else {
+      ServerFeatures.register(mcpStreamableServer.mcpSyncServer);
+    }
     // Start HTTP server
     HttpServer httpserver = new HttpServer();
-    httpserver.use(transport).bind(8080).start();
+    httpserver.use(transport).configure(HttpServerConfig.fromSystemProperties()).start();
   }
 
   /**
    * Initialize the Streamable HTTP MCP server with the required capabilities and transport
    * provider. Configures the server to support resources, prompts, and tools for filesystem
    * operations and sets up the streamable HTTP transport mechanism.
+   *
+   * <p>The server is a sync server, or an async server if the {@code server.type} setting is {@code
+   * ASYNC}, see {@link ServerFeatures#isAsync()}.
    */
   private void initialize() {
-    McpSchema.ServerCapabilities serverCapabilities =
-        McpSchema.ServerCapabilities.builder()
-            .resources(true, true)
-            .prompts(true)
-            .tools(true)
-            .build();
-
     transport =
         HttpServletStreamableServerTransportProvider.builder()
             .mcpEndpoint(ServerInfo.MCP_ENDPOINT)
             .build();
 
+    if (ServerFeatures.isAsync()) {
+      mcpAsyncServer =
+          McpServer.async(transport)
+              .serverInfo(ServerInfo.NAME, ServerInfo.VERSION)
+              .requestTimeout(ServerInfo.REQUEST_TIMEOUT)
+              .instructions(ServerInfo.INSTRUCTIONS)
+              .capabilities(ServerFeatures.capabilities())
+              .build();
+      return;
+    }
+
     mcpSyncServer =
         McpServer.sync(transport)
             .serverInfo(ServerInfo.NAME, ServerInfo.VERSION)
             .requestTimeout(ServerInfo.REQUEST_TIMEOUT)
             .instructions(ServerInfo.INSTRUCTIONS)
-            .capabilities(serverCapabilities)
+            .capabilities(ServerFeatures.capabilities())
             .build();
   }
 }
@@ -110,6 +110,141 @@ public final class Prompts {
         });
   }
 
+  /**
+   * Create an MCP prompt to correspond with the {@code read_many} tool.
+   *
+   * @return The prompt message, wrapped as a {@link McpServerFeatures.SyncPromptSpecification}
+   *     object.
+   * @see Tools#readMany()
+   */
+  public static McpServerFeatures.SyncPromptSpecification readMany() {
+    // Step 1: Create a prompt argument with name, description, and required flag.
+    McpSchema.PromptArgument argumentPaths =
+        new McpSchema.PromptArgument(
+            "paths",
+            "target file paths",
+            "The paths of the files to read, separated by commas, required.",
+            true);
+
+    // Step 2: Create a prompt with name, description, and arguments.
+    List<McpSchema.PromptArgument> args = List.of(argumentPaths);
+    McpSchema.Prompt prompt =
+        new McpSchema.Prompt(
+            "read_many",
+            "batch file read",
+            "Read many files in one call, given as a list of paths or a glob.",
+            args);
+
+    // Step 3: Create a prompt specification with the prompt and the prompt handler.
+    return new McpServerFeatures.SyncPromptSpecification(
+        prompt,
+        (exchange, request) -> {
+          // Step 4: Create a prompt message with role and content.
+          Map<String, Object> arguments = request.arguments();
+          Object paths = arguments.get(argumentPaths.name());
+
+          if (paths == null || paths.toString().isBlank()) {
+            return result(prompt, "Please provide valid paths to read.");
+          }
+
+          return result(prompt, "Call the MCP tool 'read_many' to read the files: " + paths);
+        });
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code tree} tool.
+   *
+   * @return The prompt message, wrapped as a {@link McpServerFeatures.SyncPromptSpecification}
+   *     object.
+   * @see Tools#tree()
+   */
+  public static McpServerFeatures.SyncPromptSpecification tree() {
+    // Step 1: Create a prompt argument with name, description, and required flag.
+    McpSchema.PromptArgument argumentPath =
+        new McpSchema.PromptArgument(
+            "path",
+            "root path",
+            "The root path of the tree, can be a file or dir, required.",
+            true);
+
+    // Step 2: Create a prompt with name, description, and arguments.
+    List<McpSchema.PromptArgument> args = List.of(argumentPath);
+    McpSchema.Prompt prompt =
+        new McpSchema.Prompt(
+            "tree",
+            "file tree overview",
+            "Show the file tree under a dir with the file counts and sizes of dirs.",
+            args);
+
+    // Step 3: Create a prompt specification with the prompt and the prompt handler.
+    return new McpServerFeatures.SyncPromptSpecification(
+        prompt,
+        (exchange, request) -> {
+          // Step 4: Create a prompt message with role and content.
+          Map<String, Object> arguments = request.arguments();
+          Object path = arguments.get(argumentPath.name());
+
+          if (path == null || path.toString().isBlank()) {
+            return result(prompt, "Please provide a valid path to show the tree of.");
+          }
+
+          return result(prompt, "Call the MCP tool 'tree' to show the file tree under: " + path);
+        });
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code grep} tool.
+   *
+   * @return The prompt message, wrapped as a {@link McpServerFeatures.SyncPromptSpecification}
+   *     object.
+   * @see Tools#grep()
+   */
+  public static McpServerFeatures.SyncPromptSpecification grep() {
+    // Step 1: Create a prompt argument with name, description, and required flag.
+    McpSchema.PromptArgument argumentStart =
+        new McpSchema.PromptArgument(
+            "start", "starting path", "The starting path to search, required.", true);
+    McpSchema.PromptArgument argumentPattern =
+        new McpSchema.PromptArgument(
+            "pattern",
+            "text to search for",
+            "The literal text to search for in file contents, required.",
+            true);
+
+    // Step 2: Create a prompt with name, description, and arguments.
+    List<McpSchema.PromptArgument> args = List.of(argumentStart, argumentPattern);
+    McpSchema.Prompt prompt =
+        new McpSchema.Prompt(
+            "grep",
+            "file content search",
+            "Start from the specified path and recursively search file contents.",
+            args);
+
+    // Step 3: Create a prompt specification with the prompt and the prompt handler.
+    return new McpServerFeatures.SyncPromptSpecification(
+        prompt,
+        (exchange, request) -> {
+          // Step 4: Create a prompt message with role and content.
+          Map<String, Object> arguments = request.arguments();
+          Object start = arguments.get(argumentStart.name());
+          Object pattern = arguments.get(argumentPattern.name());
+
+          if (start == null || start.toString().isBlank()) {
+            return result(prompt, "Please provide a valid start path to search.");
+          }
+
+          if (pattern == null || pattern.toString().isEmpty()) {
+            return result(prompt, "Please provide a valid text to search for.");
+          }
+
+          final String result =
+              String.format(
+                  "Call the MCP tool 'grep' to search for files containing: '%s', starting from the specified path: '%s'",
+                  pattern, start);
+          return result(prompt, result);
+        });
+  }
+
   /**
    * Create an MCP prompt to correspond with the {@code delete} tool.
    *
@@ -130,7 +265,10 @@ public final class Prompts {
     List<McpSchema.PromptArgument> args = List.of(argumentPath);
     McpSchema.Prompt prompt =
         new McpSchema.Prompt(
-            "delete", "file/dir delete", "Delete a file or dir from the filesystem.", args);
+            "delete",
+            "file/dir delete",
+            "Delete files or dirs from the filesystem, recursively if asked to.",
+            args);
 
     // Step 3: Create a prompt specification with the prompt and the prompt handler.
     return new McpServerFeatures.SyncPromptSpecification(
@@ -148,6 +286,214 @@ public final class Prompts {
         });
   }
 
+  /**
+   * Create an MCP prompt to correspond with the {@code write} tool.
+   *
+   * @return The prompt message, wrapped as a {@link McpServerFeatures.SyncPromptSpecification}
+   *     object.
+   * @see Tools#write()
+   */
+  public static McpServerFeatures.SyncPromptSpecification write() {
+    // Step 1: Create a prompt argument with name, description, and required flag.
+    McpSchema.PromptArgument argumentPath =
+        new McpSchema.PromptArgument(
+            "path", "target file path", "The path of the file to write, required.", true);
+
+    // Step 2: Create a prompt with name, description, and arguments.
+    List<McpSchema.PromptArgument> args = List.of(argumentPath);
+    McpSchema.Prompt prompt =
+        new McpSchema.Prompt(
+            "write", "file write", "Create a file or replace its content, atomically.", args);
+
+    // Step 3: Create a prompt specification with the prompt and the prompt handler.
+    return new McpServerFeatures.SyncPromptSpecification(
+        prompt,
+        (exchange, request) -> {
+          // Step 4: Create a prompt message with role and content.
+          Map<String, Object> arguments = request.arguments();
+          Object path = arguments.get(argumentPath.name());
+
+          if (path == null || path.toString().isBlank()) {
+            return result(prompt, "Please provide a valid path to write.");
+          }
+
+          return result(prompt, "Call the MCP tool 'write' to write the file: " + path);
+        });
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code append} tool.
+   *
+   * @return The prompt message, wrapped as a {@link McpServerFeatures.SyncPromptSpecification}
+   *     object.
+   * @see Tools#append()
+   */
+  public static McpServerFeatures.SyncPromptSpecification append() {
+    // Step 1: Create a prompt argument with name, description, and required flag.
+    McpSchema.PromptArgument argumentPath =
+        new McpSchema.PromptArgument(
+            "path", "target file path", "The path of the file to append to, required.", true);
+
+    // Step 2: Create a prompt with name, description, and arguments.
+    List<McpSchema.PromptArgument> args = List.of(argumentPath);
+    McpSchema.Prompt prompt =
+        new McpSchema.Prompt(
+            "append", "file append", "Append content to the end of a file, atomically.", args);
+
+    // Step 3: Create a prompt specification with the prompt and the prompt handler.
+    return new McpServerFeatures.SyncPromptSpecification(
+        prompt,
+        (exchange, request) -> {
+          // Step 4: Create a prompt message with role and content.
+          Map<String, Object> arguments = request.arguments();
+          Object path = arguments.get(argumentPath.name());
+
+          if (path == null || path.toString().isBlank()) {
+            return result(prompt, "Please provide a valid path to append to.");
+          }
+
+          return result(prompt, "Call the MCP tool 'append' to append to the file: " + path);
+        });
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code apply_patch} tool.
+   *
+   * @return The prompt message, wrapped as a {@link McpServerFeatures.SyncPromptSpecification}
+   *     object.
+   * @see Tools#applyPatch()
+   */
+  public static McpServerFeatures.SyncPromptSpecification applyPatch() {
+    // Step 1: Create a prompt argument with name, description, and required flag.
+    McpSchema.PromptArgument argumentPath =
+        new McpSchema.PromptArgument(
+            "path", "target file path", "The path of the file to patch, required.", true);
+
+    // Step 2: Create a prompt with name, description, and arguments.
+    List<McpSchema.PromptArgument> args = List.of(argumentPath);
+    McpSchema.Prompt prompt =
+        new McpSchema.Prompt(
+            "apply_patch",
+            "file patch",
+            "Apply unified diff hunks to a file, atomically, all or nothing.",
+            args);
+
+    // Step 3: Create a prompt specification with the prompt and the prompt handler.
+    return new McpServerFeatures.SyncPromptSpecification(
+        prompt,
+        (exchange, request) -> {
+          // Step 4: Create a prompt message with role and content.
+          Map<String, Object> arguments = request.arguments();
+          Object path = arguments.get(argumentPath.name());
+
+          if (path == null || path.toString().isBlank()) {
+            return result(prompt, "Please provide a valid path to patch.");
+          }
+
+          return result(prompt, "Call the MCP tool 'apply_patch' to patch the file: " + path);
+        });
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code copy} tool.
+   *
+   * @return The prompt message, wrapped as a {@link McpServerFeatures.SyncPromptSpecification}
+   *     object.
+   * @see Tools#copy()
+   */
+  public static McpServerFeatures.SyncPromptSpecification copy() {
+    // Step 1: Create a prompt argument with name, description, and required flag.
+    McpSchema.PromptArgument argumentSource =
+        new McpSchema.PromptArgument(
+            "source", "source path", "The path of the file or dir to copy, required.", true);
+    McpSchema.PromptArgument argumentTarget =
+        new McpSchema.PromptArgument(
+            "target", "target path", "The path to copy the file or dir to, required.", true);
+
+    // Step 2: Create a prompt with name, description, and arguments.
+    List<McpSchema.PromptArgument> args = List.of(argumentSource, argumentTarget);
+    McpSchema.Prompt prompt =
+        new McpSchema.Prompt(
+            "copy",
+            "file/dir copy",
+            "Copy a file or a dir with all its contents to another path.",
+            args);
+
+    // Step 3: Create a prompt specification with the prompt and the prompt handler.
+    return new McpServerFeatures.SyncPromptSpecification(
+        prompt,
+        (exchange, request) -> {
+          // Step 4: Create a prompt message with role and content.
+          Map<String, Object> arguments = request.arguments();
+          Object source = arguments.get(argumentSource.name());
+          Object target = arguments.get(argumentTarget.name());
+
+          if (source == null || source.toString().isBlank()) {
+            return result(prompt, "Please provide a valid source path to copy.");
+          }
+
+          if (target == null || target.toString().isBlank()) {
+            return result(prompt, "Please provide a valid target path to copy to.");
+          }
+
+          final String result =
+              String.format(
+                  "Call the MCP tool 'copy' to copy the file or dir: '%s', to the path: '%s'",
+                  source, target);
+          return result(prompt, result);
+        });
+  }
+
+  /**
+   * Create an MCP prompt to correspond with the {@code move} tool.
+   *
+   * @return The prompt message, wrapped as a {@link McpServerFeatures.SyncPromptSpecification}
+   *     object.
+   * @see Tools#move()
+   */
+  public static McpServerFeatures.SyncPromptSpecification move() {
+    // Step 1: Create a prompt argument with name, description, and required flag.
+    McpSchema.PromptArgument argumentSource =
+        new McpSchema.PromptArgument(
+            "source", "source path", "The path of the file or dir to move, required.", true);
+    McpSchema.PromptArgument argumentTarget =
+        new McpSchema.PromptArgument(
+            "target", "target path", "The path to move the file or dir to, required.", true);
+
+    // Step 2: Create a prompt with name, description, and arguments.
+    List<McpSchema.PromptArgument> args = List.of(argumentSource, argumentTarget);
+    McpSchema.Prompt prompt =
+        new McpSchema.Prompt(
+            "move",
+            "file/dir move",
+            "Move or rename a file or a dir with all its contents to another path.",
+            args);
+
+    // Step 3: Create a prompt specification with the prompt and the prompt handler.
+    return new McpServerFeatures.SyncPromptSpecification(
+        prompt,
+        (exchange, request) -> {
+          // Step 4: Create a prompt message with role and content.
+          Map<String, Object> arguments = request.arguments();
+          Object source = arguments.get(argumentSource.name());
+          Object target = arguments.get(argumentTarget.name());
+
+          if (source == null || source.toString().isBlank()) {
+            return result(prompt, "Please provide a valid source path to move.");
+          }
+
+          if (target == null || target.toString().isBlank()) {
+            return result(prompt, "Please provide a valid target path to move to.");
+          }
+
+          final String result =
+              String.format(
+                  "Call the MCP tool 'move' to move the file or dir: '%s', to the path: '%s'",
+                  source, target);
+          return result(prompt, result);
+        });
+  }
+
   /**
    * Create a prompt result with the given prompt and result.
    *
@@ -0,0 +1,273 @@
+package com.github.mcp.server.filesystem.official;
+
+import com.github.mcp.server.filesystem.common.Metrics;
+import com.github.mcp.server.filesystem.common.ServerConfig;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import java.io.IOException;
+import java.util.Locale;
+import reactor.core.publisher.Mono;
+
+/**
+ * This class is used to register the resources, prompts and tools shared by the STDIO, SSE and
+ * Streamable servers, on either a sync or an async MCP server depending on the {@code server.type}
+ * setting, see {@link ServerConfig}. Every handler is timed, and its failures are counted, by a
+ * timer of {@link Metrics}.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+final class ServerFeatures {
+  /** The default type of the MCP server. */
+  private static final String DEFAULT_SERVER_TYPE = "SYNC";
+
+  private ServerFeatures() {}
+
+  /**
+   * Returns the server capabilities supporting resources, prompts, tools, and logging, which the
+   * {@code find} tool streams its results through.
+   *
+   * @return The server capabilities.
+   */
+  static McpSchema.ServerCapabilities capabilities() {
+    return McpSchema.ServerCapabilities.builder()
+        .resources(true, true)
+        .prompts(true)
+        .tools(true)
+        .logging()
+        .build();
+  }
+
+  /**
+   * Returns whether the MCP server is an async server, as set by the {@code server.type} setting,
+   * either {@code SYNC} or {@code ASYNC}.
+   *
+   * @return {@code true} for an async server, {@code false} for a sync server.
+   * @throws IllegalArgumentException If the setting is neither {@code SYNC} nor {@code ASYNC}.
+   */
+  static boolean isAsync() {
+    final String type = ServerConfig.getString("server.type", DEFAULT_SERVER_TYPE);
+    return switch (type.trim().toUpperCase(Locale.ROOT)) {
+      case "SYNC" -> false;
+      case "ASYNC" -> true;
+      default ->
+          throw new IllegalArgumentException(
+              "Unsupported server type: " + type + ", expected SYNC or ASYNC");
+    };
+  }
+
+  /**
+   * Registers the resources, prompts and tools on the given sync server.
+   *
+   * @param server The sync server.
+   * @throws IOException If the JSON schema of a tool cannot be loaded.
+   */
+  static void register(McpSyncServer server) throws IOException {
+    // Add resources
+    server.addResource(timed(Resources.filesystem()));
+    // Add prompts
+    server.addPrompt(timed(Prompts.find()));
+    server.addPrompt(timed(Prompts.read()));
+    server.addPrompt(timed(Prompts.readMany()));
+    server.addPrompt(timed(Prompts.tree()));
+    server.addPrompt(timed(Prompts.grep()));
+    server.addPrompt(timed(Prompts.delete()));
+    server.addPrompt(timed(Prompts.write()));
+    server.addPrompt(timed(Prompts.append()));
+    server.addPrompt(timed(Prompts.applyPatch()));
+    server.addPrompt(timed(Prompts.copy()));
+    server.addPrompt(timed(Prompts.move()));
+    // Add tools
+    server.addTool(timed(Tools.find()));
+    server.addTool(timed(Tools.read()));
+    server.addTool(timed(Tools.readMany()));
+    server.addTool(timed(Tools.tree()));
+    server.addTool(timed(Tools.grep()));
+    server.addTool(timed(Tools.delete()));
+    server.addTool(timed(Tools.write()));
+    server.addTool(timed(Tools.append()));
+    server.addTool(timed(Tools.applyPatch()));
+    server.addTool(timed(Tools.copy()));
+    server.addTool(timed(Tools.move()));
+  }
+
+  /**
+   * Registers the resources, prompts and tools on the given async server. Resources and prompts
+   * only return constant contents, so their sync handlers are called in place.
+   *
+   * @param server The async server.
+   * @throws IOException If the JSON schema of a tool cannot be loaded.
+   */
+  static void register(McpAsyncServer server) throws IOException {
+    // Add resources
+    server.addResource(async(timed(Resources.filesystem()))).block();
+    // Add prompts
+    server.addPrompt(async(timed(Prompts.find()))).block();
+    server.addPrompt(async(timed(Prompts.read()))).block();
+    server.addPrompt(async(timed(Prompts.readMany()))).block();
+    server.addPrompt(async(timed(Prompts.tree()))).block();
+    server.addPrompt(async(timed(Prompts.grep()))).block();
+    server.addPrompt(async(timed(Prompts.delete()))).block();
+    server.addPrompt(async(timed(Prompts.write()))).block();
+    server.addPrompt(async(timed(Prompts.append()))).block();
+    server.addPrompt(async(timed(Prompts.applyPatch()))).block();
+    server.addPrompt(async(timed(Prompts.copy()))).block();
+    server.addPrompt(async(timed(Prompts.move()))).block();
+    // Add tools
+    server.addTool(timed(AsyncTools.find())).block();
+    server.addTool(timed(AsyncTools.read())).block();
+    server.addTool(timed(AsyncTools.readMany())).block();
+    server.addTool(timed(AsyncTools.tree())).block();
+    server.addTool(timed(AsyncTools.grep())).block();
+    server.addTool(timed(AsyncTools.delete())).block();
+    server.addTool(timed(AsyncTools.write())).block();
+    server.addTool(timed(AsyncTools.append())).block();
+    server.addTool(timed(AsyncTools.applyPatch())).block();
+    server.addTool(timed(AsyncTools.copy())).block();
+    server.addTool(timed(AsyncTools.move())).block();
+  }
+
+  /**
+   * Converts a sync resource specification into an async one.
+   *
+   * @param sync The sync resource specification.
+   * @return The async resource specification.
+   */
+  private static McpServerFeatures.AsyncResourceSpecification async(
+      McpServerFeatures.SyncResourceSpecification sync) {
+    return new McpServerFeatures.AsyncResourceSpecification(
+        sync.resource(),
+        (exchange, request) ->
+            Mono.fromCallable(
+                () -> sync.readHandler().apply(new McpSyncServerExchange(exchange), request)));
+  }
+
+  /**
+   * Converts a sync prompt specification into an async one.
+   *
+   * @param sync The sync prompt specification.
+   * @return The async prompt specification.
+   */
+  private static McpServerFeatures.AsyncPromptSpecification async(
+      McpServerFeatures.SyncPromptSpecification sync) {
+    return new McpServerFeatures.AsyncPromptSpecification(
+        sync.prompt(),
+        (exchange, request) ->
+            Mono.fromCallable(
+                () -> sync.promptHandler().apply(new McpSyncServerExchange(exchange), request)));
+  }
+
+  /**
+   * Wraps the given sync resource specification so that its reads are timed.
+   *
+   * @param sync The sync resource specification.
+   * @return The timed sync resource specification.
+   */
+  private static McpServerFeatures.SyncResourceSpecification timed(
+      McpServerFeatures.SyncResourceSpecification sync) {
+    final Metrics.Timer timer = Metrics.timer("resource", sync.resource().uri());
+    return new McpServerFeatures.SyncResourceSpecification(
+        sync.resource(),
+        (exchange, request) -> {
+          final long start = System.nanoTime();
+          boolean failed = true;
+          try {
+            McpSchema.ReadResourceResult result = sync.readHandler().apply(exchange, request);
+            failed = false;
+            return result;
+          } finally {
+            timer.record(start, failed);
+          }
+        });
+  }
+
+  /**
+   * Wraps the given sync prompt specification so that its calls are timed.
+   *
+   * @param sync The sync prompt specification.
+   * @return The timed sync prompt specification.
+   */
+  private static McpServerFeatures.SyncPromptSpecification timed(
+      McpServerFeatures.SyncPromptSpecification sync) {
+    final Metrics.Timer timer = Metrics.timer("prompt", sync.prompt().name());
+    return new McpServerFeatures.SyncPromptSpecification(
+        sync.prompt(),
+        (exchange, request) -> {
+          final long start = System.nanoTime();
+          boolean failed = true;
+          try {
+            McpSchema.GetPromptResult result = sync.promptHandler().apply(exchange, request);
+            failed = false;
+            return result;
+          } finally {
+            timer.record(start, failed);
+          }
+        });
+  }
+
+  /**
+   * Wraps the given sync tool specification so that its calls are timed. A call fails if it throws
+   * or returns an error result.
+   *
+   * @param sync The sync tool specification.
+   * @return The timed sync tool specification.
+   */
+  private static McpServerFeatures.SyncToolSpecification timed(
+      McpServerFeatures.SyncToolSpecification sync) {
+    final Metrics.Timer timer = Metrics.timer("tool", sync.tool().name());
+    return McpServerFeatures.SyncToolSpecification.builder()
+        .tool(sync.tool())
+        .callHandler(
+            (exchange, request) -> {
+              final long start = System.nanoTime();
+              boolean failed = true;
+              try {
+                McpSchema.CallToolResult result = sync.callHandler().apply(exchange, request);
+                failed = isError(result);
+                return result;
+              } finally {
+                timer.record(start, failed);
+              }
+            })
+        .build();
+  }
+
+  /**
+   * Wraps the given async tool specification so that its calls are timed, from subscription to
+   * completion. A call fails if it errors or completes with an error result. Cancelled calls are
+   * not recorded.
+   *
+   * @param async The async tool specification.
+   * @return The timed async tool specification.
+   */
+  private static McpServerFeatures.AsyncToolSpecification timed(
+      McpServerFeatures.AsyncToolSpecification async) {
+    final Metrics.Timer timer = Metrics.timer("tool", async.tool().name());
+    return McpServerFeatures.AsyncToolSpecification.builder()
+        .tool(async.tool())
+        .callHandler(
+            (exchange, request) ->
+                Mono.defer(
+                    () -> {
+                      final long start = System.nanoTime();
+                      return async
+                          .callHandler()
+                          .apply(exchange, request)
+                          .doOnSuccess(result -> timer.record(start, isError(result)))
+                          .doOnError(e -> timer.record(start, true));
+                    }))
+        .build();
+  }
+
+  /**
+   * Returns whether the given tool call result is missing or an error result.
+   *
+   * @param result The tool call result.
+   * @return {@code true} if the call failed.
+   */
+  private static boolean isError(McpSchema.CallToolResult result) {
+    return result == null || Boolean.TRUE.equals(result.isError());
+  }
+}
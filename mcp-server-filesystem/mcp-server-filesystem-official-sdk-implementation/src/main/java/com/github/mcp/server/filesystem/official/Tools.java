@@ -1,14 +1,37 @@
 package com.github.mcp.server.filesystem.official;
 
+import com.github.mcp.server.filesystem.common.BatchReader;
+import com.github.mcp.server.filesystem.common.ContentMatch;
+import com.github.mcp.server.filesystem.common.ContentSearcher;
+import com.github.mcp.server.filesystem.common.CopyResult;
+import com.github.mcp.server.filesystem.common.DeleteResult;
+import com.github.mcp.server.filesystem.common.DirectoryLister;
+import com.github.mcp.server.filesystem.common.DirectoryQuery;
+import com.github.mcp.server.filesystem.common.FileChunk;
+import com.github.mcp.server.filesystem.common.FileCopier;
+import com.github.mcp.server.filesystem.common.FileDeleter;
+import com.github.mcp.server.filesystem.common.FileFinder;
 import com.github.mcp.server.filesystem.common.FileHelper;
+import com.github.mcp.server.filesystem.common.FileListing;
+import com.github.mcp.server.filesystem.common.FileTree;
+import com.github.mcp.server.filesystem.common.FileUpdater;
+import com.github.mcp.server.filesystem.common.NameMatcher;
+import com.github.mcp.server.filesystem.common.PathSandbox;
+import com.github.mcp.server.filesystem.common.ResolvedPath;
 import io.modelcontextprotocol.json.McpJsonMapper;
 import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
 import io.modelcontextprotocol.spec.McpSchema;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,76 +54,114 @@ public final class Tools {
    * specified {@code start} path. This method recursively traverses the directory beginning at the
    * provided {@code start} path, identifying all entries (both files and directories) whose names
    * contain the specified target {@code name}. The search is case-sensitive and matches partial
-   * names (e.g., "temp" would match "template.log").
+   * names (e.g., "temp" would match "template.log"). The search stops after the optional {@code
+   * maxResults} entries, and the entries found so far are streamed to the client while the search
+   * runs, see {@link #find(McpSyncServerExchange, McpSchema.CallToolRequest, BooleanSupplier)}.
    *
-   * @return A list of absolute path strings for all matching entries found during the search,
-   *     wrapped as a {@link McpServerFeatures.SyncToolSpecification} object.
+   * @return The listing of all matching entries found during the search, as structured content
+   *     conforming to the {@code schema/listing.json} output schema, wrapped as a {@link
+   *     McpServerFeatures.SyncToolSpecification} object.
    * @throws IOException If an I/O error occurs during filesystem traversal
    */
   public static McpServerFeatures.SyncToolSpecification find() throws IOException {
     // Step 1: Load the JSON schema for the tool input arguments.
     final String schema = FileHelper.readResourceAsString("schema/find.json");
+    final String outputSchema = FileHelper.readResourceAsString("schema/listing.json");
 
-    // Step 2: Create a tool with name, description, and JSON schema.
+    // Step 2: Create a tool with name, description, and JSON schemas.
     McpSchema.Tool tool =
         McpSchema.Tool.builder()
             .name("find")
             .title("file/dir search")
             .description("Start from the specified path and recursively search subitems.")
             .inputSchema(McpJsonMapper.getDefault(), schema)
+            .outputSchema(McpJsonMapper.getDefault(), outputSchema)
             .build();
 
-    // Step 3: Create a tool specification with the tool and the call function.
+    // Step 3: Create a tool specification with the tool and the call function. The sync SDK does
+    // not tell handlers that a call is cancelled, so the walk only stops early once a notification
+    // cannot be sent.
     return McpServerFeatures.SyncToolSpecification.builder()
         .tool(tool)
-        .callHandler(
-            (exchange, request) -> {
-              // Step 4: List files and return the result.
-              Map<String, Object> arguments = request.arguments();
-              Object start = arguments.get("start");
-              Object name = arguments.get("name");
+        .callHandler((exchange, request) -> find(exchange, request, () -> false))
+        .build();
+  }
 
-              if (start == null || start.toString().isBlank()) {
-                return error("Please provide a valid start path to find.");
-              }
+  /**
+   * Call the {@code find} tool. While the file tree is walked, every new batch of matching entries
+   * is sent to the client as a progress notification if the request carries a progress token, or as
+   * a logging notification otherwise. The walk stops once a notification cannot be sent because the
+   * client is gone, or once the given condition holds, which only the async server can tell.
+   *
+   * @param exchange The exchange with the client.
+   * @param request The tool call request.
+   * @param cancelled The condition telling whether the call is cancelled.
+   * @return The sorted list of matching entries.
+   */
+  static McpSchema.CallToolResult find(
+      McpSyncServerExchange exchange,
+      McpSchema.CallToolRequest request,
+      BooleanSupplier cancelled) {
+    // Step 4: Find files and return the result.
+    Map<String, Object> arguments = request.arguments();
+    Object start = arguments.get("start");
+    Object name = arguments.get("name");
 
-              if (name == null || name.toString().isBlank()) {
-                return error("Please provide a valid file/dir name to find.");
-              }
+    if (start == null || start.toString().isBlank()) {
+      return error("Please provide a valid start path to find.");
+    }
 
-              Path startPath = Path.of(start.toString());
-              if (Files.notExists(startPath)) {
-                return error("Start path does not exist: " + start + ", stopped finding.");
-              }
+    if (name == null || name.toString().isBlank()) {
+      return error("Please provide a valid file/dir name to find.");
+    }
 
-              try {
-                List<String> paths = FileHelper.fuzzySearch(start.toString(), name.toString());
-                if (paths.isEmpty()) {
-                  return success(String.format("No file/dir found with name '%s'", name));
-                }
-                return success(String.format("Found files/dirs with name '%s': %s", name, paths));
-              } catch (IOException e) {
-                final String result =
-                    String.format("Error finding file/dir: %s, %s: %s", name, e, e.getMessage());
-                log.error(result, e);
-                return error(result);
-              }
-            })
-        .build();
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(start.toString());
+    } catch (IOException | InvalidPathException e) {
+      return error(e.getMessage() + ", stopped finding.");
+    }
+    if (!resolved.exists()) {
+      return error("Start path does not exist: " + start + ", stopped finding.");
+    }
+
+    try {
+      final Path startPath = resolved.path();
+      final int maxResults =
+          Math.toIntExact(longArgument(arguments, "maxResults", FileFinder.defaultMaxResults()));
+      NameMatcher matcher = NameMatcher.of(name.toString());
+      List<String> paths =
+          FileFinder.find(
+              startPath, matcher, maxResults, cancelled, notifier(exchange, request, "find"));
+      FileListing listing = FileFinder.toListing(startPath, paths, maxResults);
+      final String text = FileFinder.toText(name.toString(), listing, FileListing.textFallback());
+      return success(text, listing);
+    } catch (IOException | IllegalArgumentException | ArithmeticException e) {
+      final String result =
+          String.format("Error finding file/dir: %s, %s: %s", name, e, e.getMessage());
+      log.error("{}", result, e);
+      return error(result);
+    }
   }
 
   /**
    * Create an MCP tool to read and return the content of a file or the list of immediate
    * subdirectories and files within a directory from the filesystem. This method checks the type of
-   * the specified path: If the path points to a file, it reads the entire content of the file and
-   * returns it as a string. If the path points to a directory, it returns a list of strings
-   * representing the direct children (immediate subdirectories and files) directly under the
-   * specified directory (non-recursive).
+   * the specified path: If the path points to a file, it reads a window of the file starting at the
+   * optional {@code offset} and bounded by the optional {@code limit}, both counted in the optional
+   * {@code unit} of bytes or lines, and returns it as a string with a hint on how to continue
+   * reading. A read in lines continues right at the optional byte {@code position} returned by the
+   * previous one. If the path points to a directory, it returns the listing of the direct children
+   * (immediate subdirectories and files) directly under the specified directory (non-recursive),
+   * one page of at most {@code limit} entries at a time, filtered and sorted by the optional
+   * arguments, see {@link DirectoryQuery#of}. The {@code cursor} returned with a page lists the
+   * next one.
    *
    * @return If the path points to a file, it returns a string containing the file's content. If the
-   *     path points to a directory, it returns a list of strings representing the direct children
-   *     (immediate subdirectories and files) directly under the specified directory
-   *     (non-recursive), wrapped as a {@link McpServerFeatures.SyncToolSpecification} object.
+   *     path points to a directory, it returns the listing of the direct children (immediate
+   *     subdirectories and files) directly under the specified directory (non-recursive), as
+   *     structured content shaped like the {@code schema/listing.json} output schema of the {@code
+   *     find} tool, wrapped as a {@link McpServerFeatures.SyncToolSpecification} object.
    * @throws IOException If an I/O error occurs during reading.
    */
   public static McpServerFeatures.SyncToolSpecification read() throws IOException {
@@ -129,30 +190,118 @@ public final class Tools {
                 return error("Please provide a valid path to read.");
               }
 
-              Path filepath = Path.of(path.toString());
-              if (Files.notExists(filepath)) {
-                return error("The path does not exist: " + filepath + ", stopped reading.");
+              final ResolvedPath resolved;
+              try {
+                resolved = PathSandbox.resolve(path.toString());
+              } catch (IOException | InvalidPathException e) {
+                return error(e.getMessage() + ", stopped reading.");
+              }
+              if (!resolved.exists()) {
+                return error("The path does not exist: " + path + ", stopped reading.");
               }
 
-              if (Files.isDirectory(filepath)) {
+              final Path filepath = resolved.path();
+              if (resolved.isDirectory()) {
                 try {
-                  List<String> paths = FileHelper.listDirectory(path.toString());
-                  return success(String.format("The dir '%s' contains: %s", path, paths));
-                } catch (IOException e) {
+                  DirectoryQuery query =
+                      DirectoryQuery.of(
+                          stringArgument(arguments, "include"),
+                          stringArgument(arguments, "type"),
+                          longArgument(arguments, "minSize", 0),
+                          longArgument(arguments, "maxSize", Long.MAX_VALUE),
+                          stringArgument(arguments, "modifiedSince"),
+                          stringArgument(arguments, "sort"),
+                          stringArgument(arguments, "order"),
+                          stringArgument(arguments, "cursor"),
+                          longArgument(arguments, "limit", DirectoryQuery.pageSize()));
+                  FileListing listing = DirectoryLister.list(filepath, query);
+                  final String text =
+                      DirectoryLister.toText(path.toString(), listing, FileListing.textFallback());
+                  return success(text, listing);
+                } catch (IOException | IllegalArgumentException e) {
                   final String result =
                       String.format("Error reading dir: %s, %s: %s", path, e, e.getMessage());
-                  log.error(result, e);
+                  log.error("{}", result, e);
                   return error(result);
                 }
               }
 
               try {
-                final String result = FileHelper.readAsString(filepath);
-                return success(result);
-              } catch (IOException e) {
+                final long offset = longArgument(arguments, "offset", 0);
+                final long limit = longArgument(arguments, "limit", Long.MAX_VALUE);
+                final long position = longArgument(arguments, "position", -1);
+                final Object unit = arguments.get("unit");
+                FileChunk.Unit chunkUnit = FileChunk.Unit.of(unit == null ? null : unit.toString());
+                FileChunk chunk =
+                    FileHelper.readChunk(filepath, offset, position, limit, chunkUnit);
+                return success(chunk.toText());
+              } catch (IOException | IllegalArgumentException e) {
                 final String result =
                     String.format("Error reading file: %s, %s: %s", path, e, e.getMessage());
-                log.error(result, e);
+                log.error("{}", result, e);
+                return error(result);
+              }
+            })
+        .build();
+  }
+
+  /**
+   * Create an MCP tool to read many files in one call. The files are given either as a list of
+   * {@code paths}, or as a {@code glob} pattern matched under the {@code start} directory. They are
+   * read in parallel, and their total size is bounded by a byte budget, see {@link BatchReader}.
+   *
+   * @return The content or error of each file, wrapped as a {@link
+   *     McpServerFeatures.SyncToolSpecification} object.
+   * @throws IOException If an I/O error occurs during reading.
+   */
+  public static McpServerFeatures.SyncToolSpecification readMany() throws IOException {
+    // Step 1: Load the JSON schema for the tool input arguments.
+    final String schema = FileHelper.readResourceAsString("schema/read_many.json");
+
+    // Step 2: Create a tool with name, description, and JSON schema.
+    McpSchema.Tool tool =
+        McpSchema.Tool.builder()
+            .name("read_many")
+            .title("batch file read")
+            .description("Read many files in one call, given as a list of paths or a glob.")
+            .inputSchema(McpJsonMapper.getDefault(), schema)
+            .build();
+
+    // Step 3: Create a tool specification with the tool and the call function.
+    return McpServerFeatures.SyncToolSpecification.builder()
+        .tool(tool)
+        .callHandler(
+            (exchange, request) -> {
+              // Step 4: Read the files and return the result.
+              Map<String, Object> arguments = request.arguments();
+              Object paths = arguments.get("paths");
+              Object start = arguments.get("start");
+              Object glob = arguments.get("glob");
+
+              final boolean hasPaths = paths instanceof List<?> list && !list.isEmpty();
+              if (!hasPaths && (glob == null || glob.toString().isBlank())) {
+                return error("Please provide valid paths or a glob to read.");
+              }
+
+              if (!hasPaths && (start == null || start.toString().isBlank())) {
+                return error("Please provide a valid start path for the glob.");
+              }
+
+              try {
+                List<String> files =
+                    hasPaths
+                        ? ((List<?>) paths).stream().map(String::valueOf).toList()
+                        : BatchReader.glob(
+                            PathSandbox.resolve(start.toString()).path(), glob.toString());
+                if (files.isEmpty()) {
+                  return success(String.format("No file found matching '%s'", glob));
+                }
+                return success(BatchReader.toText(BatchReader.read(files)));
+              } catch (IOException | IllegalArgumentException e) {
+                final String target = hasPaths ? paths.toString() : glob.toString();
+                final String result =
+                    String.format("Error reading files: %s, %s: %s", target, e, e.getMessage());
+                log.error("{}", result, e);
                 return error(result);
               }
             })
@@ -160,10 +309,179 @@ public final class Tools {
   }
 
   /**
-   * Create an MCP tool to delete a file or directory from the filesystem.
+   * Create an MCP tool to return an overview of the file tree rooted at the specified {@code path},
+   * down to the optional {@code depth} and cut off at the optional {@code maxNodes}, with the
+   * number of files and directories and the total size of every directory. The tree is scanned in
+   * parallel, see {@link FileTree}, so that a single call replaces many calls of the {@code read}
+   * tool on directories.
    *
-   * @return The operation result, wrapped as a {@link McpServerFeatures.SyncToolSpecification}
-   *     object.
+   * @return The tree, as structured content conforming to the {@code schema/file_tree.json} output
+   *     schema, wrapped as a {@link McpServerFeatures.SyncToolSpecification} object.
+   * @throws IOException If an I/O error occurs during scanning.
+   */
+  public static McpServerFeatures.SyncToolSpecification tree() throws IOException {
+    // Step 1: Load the JSON schema for the tool input arguments.
+    final String schema = FileHelper.readResourceAsString("schema/tree.json");
+    final String outputSchema = FileHelper.readResourceAsString("schema/file_tree.json");
+
+    // Step 2: Create a tool with name, description, and JSON schemas.
+    McpSchema.Tool tool =
+        McpSchema.Tool.builder()
+            .name("tree")
+            .title("file tree overview")
+            .description("Show the file tree under a dir with the file counts and sizes of dirs.")
+            .inputSchema(McpJsonMapper.getDefault(), schema)
+            .outputSchema(McpJsonMapper.getDefault(), outputSchema)
+            .build();
+
+    // Step 3: Create a tool specification with the tool and the call function.
+    return McpServerFeatures.SyncToolSpecification.builder()
+        .tool(tool)
+        .callHandler(
+            (exchange, request) -> {
+              // Step 4: Scan the tree and return the result.
+              Map<String, Object> arguments = request.arguments();
+              Object path = arguments.get("path");
+
+              if (path == null || path.toString().isBlank()) {
+                return error("Please provide a valid path to show the tree of.");
+              }
+
+              final ResolvedPath resolved;
+              try {
+                resolved = PathSandbox.resolve(path.toString(), LinkOption.NOFOLLOW_LINKS);
+              } catch (IOException | InvalidPathException e) {
+                return error(e.getMessage() + ", stopped scanning.");
+              }
+              if (!resolved.exists()) {
+                return error("The path does not exist: " + path + ", stopped scanning.");
+              }
+
+              try {
+                final Path root = resolved.path();
+                final int depth =
+                    Math.toIntExact(longArgument(arguments, "depth", FileTree.DEFAULT_DEPTH));
+                final int maxNodes =
+                    Math.toIntExact(
+                        longArgument(arguments, "maxNodes", FileTree.defaultMaxNodes()));
+                FileTree fileTree = FileTree.build(root, depth, maxNodes);
+                return success(fileTree.toText(FileListing.textFallback()), fileTree);
+              } catch (IOException | IllegalArgumentException | ArithmeticException e) {
+                final String result =
+                    String.format("Error scanning tree: %s, %s: %s", path, e, e.getMessage());
+                log.error("{}", result, e);
+                return error(result);
+              }
+            })
+        .build();
+  }
+
+  /**
+   * Create an MCP tool to search the contents of the files within the filesystem starting from the
+   * specified {@code start} path for the specified literal {@code pattern}. Files are scanned in
+   * parallel on their raw bytes, binary files are skipped, and only the files whose names match the
+   * optional {@code include} pattern are searched. The matching lines are streamed to the client
+   * while the search runs, and the search stops after the optional {@code maxResults} of them.
+   *
+   * @return The matching lines in the {@code path:line: text} format, wrapped as a {@link
+   *     McpServerFeatures.SyncToolSpecification} object.
+   * @throws IOException If an I/O error occurs during searching.
+   */
+  public static McpServerFeatures.SyncToolSpecification grep() throws IOException {
+    // Step 1: Load the JSON schema for the tool input arguments.
+    final String schema = FileHelper.readResourceAsString("schema/grep.json");
+
+    // Step 2: Create a tool with name, description, and JSON schema.
+    McpSchema.Tool tool =
+        McpSchema.Tool.builder()
+            .name("grep")
+            .title("file content search")
+            .description("Start from the specified path and recursively search file contents.")
+            .inputSchema(McpJsonMapper.getDefault(), schema)
+            .build();
+
+    // Step 3: Create a tool specification with the tool and the call function. Like for find, the
+    // search only stops early once a notification cannot be sent.
+    return McpServerFeatures.SyncToolSpecification.builder()
+        .tool(tool)
+        .callHandler((exchange, request) -> grep(exchange, request, () -> false))
+        .build();
+  }
+
+  /**
+   * Call the {@code grep} tool. While the files are scanned, every new batch of matching lines is
+   * sent to the client like the entries found by {@link #find()} are. The search stops once a
+   * notification cannot be sent because the client is gone, or once the given condition holds,
+   * which only the async server can tell.
+   *
+   * @param exchange The exchange with the client.
+   * @param request The tool call request.
+   * @param cancelled The condition telling whether the call is cancelled.
+   * @return The sorted matching lines.
+   */
+  static McpSchema.CallToolResult grep(
+      McpSyncServerExchange exchange,
+      McpSchema.CallToolRequest request,
+      BooleanSupplier cancelled) {
+    // Step 4: Search file contents and return the result.
+    Map<String, Object> arguments = request.arguments();
+    Object start = arguments.get("start");
+    Object pattern = arguments.get("pattern");
+    Object include = arguments.get("include");
+
+    if (start == null || start.toString().isBlank()) {
+      return error("Please provide a valid start path to search.");
+    }
+
+    if (pattern == null || pattern.toString().isEmpty()) {
+      return error("Please provide a valid text to search for.");
+    }
+
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(start.toString());
+    } catch (IOException | InvalidPathException e) {
+      return error(e.getMessage() + ", stopped searching.");
+    }
+    if (!resolved.exists()) {
+      return error("Start path does not exist: " + start + ", stopped searching.");
+    }
+
+    try {
+      final Path startPath = resolved.path();
+      final String literal = pattern.toString();
+      final int maxResults =
+          Math.toIntExact(
+              longArgument(arguments, "maxResults", ContentSearcher.defaultMaxResults()));
+      NameMatcher matcher =
+          NameMatcher.of(
+              include == null || include.toString().isBlank() ? "*" : include.toString());
+      List<ContentMatch> matches =
+          ContentSearcher.search(
+              startPath,
+              literal,
+              matcher,
+              maxResults,
+              cancelled,
+              notifier(exchange, request, "grep"));
+      return success(ContentSearcher.toText(literal, matches, maxResults));
+    } catch (IOException | IllegalArgumentException | ArithmeticException e) {
+      final String result =
+          String.format("Error searching: %s, %s: %s", pattern, e, e.getMessage());
+      log.error("{}", result, e);
+      return error(result);
+    }
+  }
+
+  /**
+   * Create an MCP tool to delete files or directories from the filesystem. The paths to delete are
+   * given as a single {@code path}, as a list of {@code paths}, or as a {@code glob} pattern
+   * matched under the {@code start} directory, or any combination of them. Directories are only
+   * deleted with all their contents if {@code recursive} is set, in parallel, see {@link
+   * FileDeleter}. With {@code dryRun} set, nothing is deleted and the result tells what would be.
+   *
+   * @return The number of files and directories deleted and of bytes freed, in total and for each
+   *     path, wrapped as a {@link McpServerFeatures.SyncToolSpecification} object.
    * @throws IOException If an I/O error occurs during deletion.
    */
   public static McpServerFeatures.SyncToolSpecification delete() throws IOException {
@@ -175,7 +493,7 @@ public final class Tools {
         McpSchema.Tool.builder()
             .name("delete")
             .title("file/dir delete")
-            .description("Delete a file or dir from the filesystem.")
+            .description("Delete files or dirs from the filesystem, recursively if asked to.")
             .inputSchema(McpJsonMapper.getDefault(), schema)
             .build();
 
@@ -184,30 +502,462 @@ public final class Tools {
         .tool(tool)
         .callHandler(
             (exchange, request) -> {
-              // Step 4: Delete the path and return the result.
+              // Step 4: Delete the paths and return the result.
               Map<String, Object> arguments = request.arguments();
-              Object path = arguments.get("path");
+              final String path = stringArgument(arguments, "path");
+              final Object paths = arguments.get("paths");
+              final String start = stringArgument(arguments, "start");
+              final String glob = stringArgument(arguments, "glob");
 
-              if (path == null || path.toString().isBlank()) {
-                return error("Please provide a valid path to delete.");
+              List<String> targets = new ArrayList<>();
+              if (path != null && !path.isBlank()) {
+                targets.add(path);
+              }
+              if (paths instanceof List<?> list) {
+                list.forEach(item -> targets.add(String.valueOf(item)));
+              }
+              final boolean hasGlob = glob != null && !glob.isBlank();
+              if (targets.isEmpty() && !hasGlob) {
+                return error("Please provide a valid path, paths or a glob to delete.");
+              }
+
+              if (hasGlob && (start == null || start.isBlank())) {
+                return error("Please provide a valid start path for the glob.");
               }
 
               try {
-                final boolean deleted = Files.deleteIfExists(Path.of(path.toString()));
-                if (deleted) {
-                  return success("Successfully deleted: " + path);
+                if (hasGlob) {
+                  targets.addAll(FileDeleter.glob(PathSandbox.resolve(start).path(), glob));
                 }
-                return error("Failed to delete: " + path);
-              } catch (IOException e) {
+                final boolean recursive = booleanArgument(arguments, "recursive");
+                final boolean dryRun = booleanArgument(arguments, "dryRun");
+                List<DeleteResult> results = FileDeleter.delete(targets, recursive, dryRun);
+                final String text = FileDeleter.toText(results, dryRun);
+                final boolean failed = results.stream().anyMatch(result -> !result.isSuccess());
+                return failed ? error(text) : success(text);
+              } catch (IOException | IllegalArgumentException e) {
+                final String target = hasGlob ? glob : targets.toString();
+                final String result =
+                    String.format("Error deleting: %s, %s: %s", target, e, e.getMessage());
+                log.error("{}", result, e);
+                return error(result);
+              }
+            })
+        .build();
+  }
+
+  /**
+   * Create an MCP tool to create a file or replace its content. The content is written to a
+   * temporary file moved over the file atomically, see {@link FileUpdater}, so that the file is
+   * never seen half written.
+   *
+   * @return The path and size of the file written, wrapped as a {@link
+   *     McpServerFeatures.SyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.SyncToolSpecification write() throws IOException {
+    // Step 1: Load the JSON schema for the tool input arguments.
+    final String schema = FileHelper.readResourceAsString("schema/write.json");
+
+    // Step 2: Create a tool with name, description, and JSON schema.
+    McpSchema.Tool tool =
+        McpSchema.Tool.builder()
+            .name("write")
+            .title("file write")
+            .description("Create a file or replace its content, atomically.")
+            .inputSchema(McpJsonMapper.getDefault(), schema)
+            .build();
+
+    // Step 3: Create a tool specification with the tool and the call function.
+    return McpServerFeatures.SyncToolSpecification.builder()
+        .tool(tool)
+        .callHandler(
+            (exchange, request) -> {
+              // Step 4: Write the file and return the result.
+              Map<String, Object> arguments = request.arguments();
+              final String path = stringArgument(arguments, "path");
+              final String content = stringArgument(arguments, "content");
+
+              if (path == null || path.isBlank()) {
+                return error("Please provide a valid path to write.");
+              }
+
+              if (content == null) {
+                return error("Please provide the content to write.");
+              }
+
+              try {
+                return success(FileUpdater.write(path, content).toString());
+              } catch (IOException | IllegalArgumentException e) {
+                final String result =
+                    String.format("Error writing file: %s, %s: %s", path, e, e.getMessage());
+                log.error("{}", result, e);
+                return error(result);
+              }
+            })
+        .build();
+  }
+
+  /**
+   * Create an MCP tool to append content to the end of a file, creating it if it does not exist.
+   * The previous content is copied to a temporary file by the operating system, without going
+   * through the JVM, and the temporary file is moved over the file atomically, see {@link
+   * FileUpdater}.
+   *
+   * @return The path and size of the file appended to, wrapped as a {@link
+   *     McpServerFeatures.SyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.SyncToolSpecification append() throws IOException {
+    // Step 1: Load the JSON schema for the tool input arguments.
+    final String schema = FileHelper.readResourceAsString("schema/append.json");
+
+    // Step 2: Create a tool with name, description, and JSON schema.
+    McpSchema.Tool tool =
+        McpSchema.Tool.builder()
+            .name("append")
+            .title("file append")
+            .description("Append content to the end of a file, atomically.")
+            .inputSchema(McpJsonMapper.getDefault(), schema)
+            .build();
+
+    // Step 3: Create a tool specification with the tool and the call function.
+    return McpServerFeatures.SyncToolSpecification.builder()
+        .tool(tool)
+        .callHandler(
+            (exchange, request) -> {
+              // Step 4: Append to the file and return the result.
+              Map<String, Object> arguments = request.arguments();
+              final String path = stringArgument(arguments, "path");
+              final String content = stringArgument(arguments, "content");
+
+              if (path == null || path.isBlank()) {
+                return error("Please provide a valid path to append to.");
+              }
+
+              if (content == null) {
+                return error("Please provide the content to append.");
+              }
+
+              try {
+                return success(FileUpdater.append(path, content).toString());
+              } catch (IOException | IllegalArgumentException e) {
+                final String result =
+                    String.format("Error appending to file: %s, %s: %s", path, e, e.getMessage());
+                log.error("{}", result, e);
+                return error(result);
+              }
+            })
+        .build();
+  }
+
+  /**
+   * Create an MCP tool to apply a patch in the unified diff format to a file. The hunks are located
+   * by their context and removed lines, the unchanged regions between them are copied by the
+   * operating system, and the patched file is moved over the file atomically, see {@link
+   * FileUpdater}. Either all hunks apply, or the file is left as it was.
+   *
+   * @return The path and size of the file patched and the number of hunks applied, wrapped as a
+   *     {@link McpServerFeatures.SyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.SyncToolSpecification applyPatch() throws IOException {
+    // Step 1: Load the JSON schema for the tool input arguments.
+    final String schema = FileHelper.readResourceAsString("schema/apply_patch.json");
+
+    // Step 2: Create a tool with name, description, and JSON schema.
+    McpSchema.Tool tool =
+        McpSchema.Tool.builder()
+            .name("apply_patch")
+            .title("file patch")
+            .description("Apply unified diff hunks to a file, atomically, all or nothing.")
+            .inputSchema(McpJsonMapper.getDefault(), schema)
+            .build();
+
+    // Step 3: Create a tool specification with the tool and the call function.
+    return McpServerFeatures.SyncToolSpecification.builder()
+        .tool(tool)
+        .callHandler(
+            (exchange, request) -> {
+              // Step 4: Patch the file and return the result.
+              Map<String, Object> arguments = request.arguments();
+              final String path = stringArgument(arguments, "path");
+              final String patch = stringArgument(arguments, "patch");
+
+              if (path == null || path.isBlank()) {
+                return error("Please provide a valid path to patch.");
+              }
+
+              if (patch == null || patch.isBlank()) {
+                return error("Please provide the patch to apply.");
+              }
+
+              try {
+                return success(FileUpdater.patch(path, patch).toString());
+              } catch (IOException | IllegalArgumentException e) {
                 final String result =
-                    String.format("Error deleting: %s, %s: %s", path, e, e.getMessage());
-                log.error(result, e);
+                    String.format("Error patching file: %s, %s: %s", path, e, e.getMessage());
+                log.error("{}", result, e);
                 return error(result);
               }
             })
         .build();
   }
 
+  /**
+   * Create an MCP tool to copy a file or a directory with all its contents to the specified {@code
+   * target} path. The content of files is copied by the operating system, without going through the
+   * JVM, and directories are copied in parallel, see {@link FileCopier}. The progress is sent to
+   * the client while the copy runs, see {@link #copy(McpSyncServerExchange,
+   * McpSchema.CallToolRequest, BooleanSupplier)}.
+   *
+   * @return The number of files, directories and bytes copied, wrapped as a {@link
+   *     McpServerFeatures.SyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.SyncToolSpecification copy() throws IOException {
+    // Step 1: Load the JSON schema for the tool input arguments.
+    final String schema = FileHelper.readResourceAsString("schema/copy.json");
+
+    // Step 2: Create a tool with name, description, and JSON schema.
+    McpSchema.Tool tool =
+        McpSchema.Tool.builder()
+            .name("copy")
+            .title("file/dir copy")
+            .description("Copy a file or a dir with all its contents to another path.")
+            .inputSchema(McpJsonMapper.getDefault(), schema)
+            .build();
+
+    // Step 3: Create a tool specification with the tool and the call function.
+    return McpServerFeatures.SyncToolSpecification.builder()
+        .tool(tool)
+        .callHandler((exchange, request) -> copy(exchange, request, () -> false))
+        .build();
+  }
+
+  /**
+   * Call the {@code copy} tool. While the copy runs, its progress is sent to the client as a
+   * progress notification if the request carries a progress token. The copy stops once the call is
+   * cancelled, leaving the entries copied so far.
+   *
+   * @param exchange The exchange with the client.
+   * @param request The tool call request.
+   * @param cancelled The condition telling whether the call is cancelled.
+   * @return The number of files, directories and bytes copied.
+   */
+  static McpSchema.CallToolResult copy(
+      McpSyncServerExchange exchange,
+      McpSchema.CallToolRequest request,
+      BooleanSupplier cancelled) {
+    // Step 4: Copy the source and return the result.
+    Map<String, Object> arguments = request.arguments();
+    final String source = stringArgument(arguments, "source");
+    final String target = stringArgument(arguments, "target");
+
+    if (source == null || source.isBlank()) {
+      return error("Please provide a valid source path to copy.");
+    }
+
+    if (target == null || target.isBlank()) {
+      return error("Please provide a valid target path to copy to.");
+    }
+
+    try {
+      final boolean overwrite = booleanArgument(arguments, "overwrite");
+      CopyResult copied =
+          FileCopier.copy(source, target, overwrite, cancelled, progress(exchange, request));
+      return copied.isSuccess() ? success(copied.toString()) : error(copied.toString());
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error copying: %s to %s, %s: %s", source, target, e, e.getMessage());
+      log.error("{}", result, e);
+      return error(result);
+    }
+  }
+
+  /**
+   * Create an MCP tool to move a file or a directory with all its contents to the specified {@code
+   * target} path. The source is renamed if the target is on the same filesystem, and copied then
+   * deleted otherwise, see {@link FileCopier}, in which case the progress is sent to the client
+   * while the copy runs, see {@link #move(McpSyncServerExchange, McpSchema.CallToolRequest,
+   * BooleanSupplier)}.
+   *
+   * @return The path moved, and the number of files, directories and bytes copied if it was copied,
+   *     wrapped as a {@link McpServerFeatures.SyncToolSpecification} object.
+   * @throws IOException If the JSON schema of the tool cannot be loaded.
+   */
+  public static McpServerFeatures.SyncToolSpecification move() throws IOException {
+    // Step 1: Load the JSON schema for the tool input arguments.
+    final String schema = FileHelper.readResourceAsString("schema/move.json");
+
+    // Step 2: Create a tool with name, description, and JSON schema.
+    McpSchema.Tool tool =
+        McpSchema.Tool.builder()
+            .name("move")
+            .title("file/dir move")
+            .description("Move or rename a file or a dir with all its contents to another path.")
+            .inputSchema(McpJsonMapper.getDefault(), schema)
+            .build();
+
+    // Step 3: Create a tool specification with the tool and the call function.
+    return McpServerFeatures.SyncToolSpecification.builder()
+        .tool(tool)
+        .callHandler((exchange, request) -> move(exchange, request, () -> false))
+        .build();
+  }
+
+  /**
+   * Call the {@code move} tool. If the source has to be copied, its progress is sent to the client
+   * as a progress notification if the request carries a progress token. The copy stops once the
+   * call is cancelled, in which case the source is not deleted.
+   *
+   * @param exchange The exchange with the client.
+   * @param request The tool call request.
+   * @param cancelled The condition telling whether the call is cancelled.
+   * @return The path moved, and the number of files, directories and bytes copied.
+   */
+  static McpSchema.CallToolResult move(
+      McpSyncServerExchange exchange,
+      McpSchema.CallToolRequest request,
+      BooleanSupplier cancelled) {
+    // Step 4: Move the source and return the result.
+    Map<String, Object> arguments = request.arguments();
+    final String source = stringArgument(arguments, "source");
+    final String target = stringArgument(arguments, "target");
+
+    if (source == null || source.isBlank()) {
+      return error("Please provide a valid source path to move.");
+    }
+
+    if (target == null || target.isBlank()) {
+      return error("Please provide a valid target path to move to.");
+    }
+
+    try {
+      final boolean overwrite = booleanArgument(arguments, "overwrite");
+      CopyResult moved =
+          FileCopier.move(source, target, overwrite, cancelled, progress(exchange, request));
+      return moved.isSuccess() ? success(moved.toString()) : error(moved.toString());
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error moving: %s to %s, %s: %s", source, target, e, e.getMessage());
+      log.error("{}", result, e);
+      return error(result);
+    }
+  }
+
+  /**
+   * Create the listener sending the batches of results found by the {@code find} and {@code grep}
+   * tools to the client, one result per line.
+   *
+   * @param exchange The exchange with the client, {@code null} if the handler is called directly,
+   *     in which case nothing is sent.
+   * @param request The tool call request.
+   * @param logger The name of the tool, used as the logger of logging notifications.
+   * @param <T> The type of the results.
+   * @return The listener.
+   */
+  private static <T> Consumer<List<T>> notifier(
+      McpSyncServerExchange exchange, McpSchema.CallToolRequest request, String logger) {
+    if (exchange == null) {
+      return batch -> {};
+    }
+    final Object progressToken = request.progressToken();
+    if (progressToken == null) {
+      return batch ->
+          exchange.loggingNotification(
+              McpSchema.LoggingMessageNotification.builder()
+                  .level(McpSchema.LoggingLevel.INFO)
+                  .logger(logger)
+                  .data(lines(batch))
+                  .build());
+    }
+    final int[] found = {0};
+    return batch -> {
+      found[0] += batch.size();
+      exchange.progressNotification(
+          new McpSchema.ProgressNotification(progressToken, found[0], null, lines(batch)));
+    };
+  }
+
+  /**
+   * Join a batch of results into one result per line.
+   *
+   * @param batch The batch of results.
+   * @return The results, separated by line breaks.
+   */
+  private static String lines(List<?> batch) {
+    return batch.stream().map(Object::toString).collect(Collectors.joining(System.lineSeparator()));
+  }
+
+  /**
+   * Create the listener sending the progress of the {@code copy} and {@code move} tools to the
+   * client, as the number of bytes copied so far.
+   *
+   * @param exchange The exchange with the client, {@code null} if the handler is called directly,
+   *     in which case nothing is sent.
+   * @param request The tool call request, nothing is sent if it carries no progress token.
+   * @return The listener.
+   */
+  private static Consumer<CopyResult> progress(
+      McpSyncServerExchange exchange, McpSchema.CallToolRequest request) {
+    final Object progressToken = request.progressToken();
+    if (exchange == null || progressToken == null) {
+      return copied -> {};
+    }
+    return copied ->
+        exchange.progressNotification(
+            new McpSchema.ProgressNotification(
+                progressToken, copied.bytes(), null, copied.toString()));
+  }
+
+  /**
+   * Get an optional integer argument of a tool call.
+   *
+   * @param arguments The arguments of the tool call.
+   * @param name The name of the argument.
+   * @param defaultValue The value returned if the argument is absent.
+   * @return The value of the argument.
+   * @throws NumberFormatException If the argument is not a valid integer.
+   */
+  static long longArgument(Map<String, Object> arguments, String name, long defaultValue) {
+    Object value = arguments.get(name);
+    if (value instanceof Number number) {
+      return number.longValue();
+    }
+    if (value == null || value.toString().isBlank()) {
+      return defaultValue;
+    }
+    return Long.parseLong(value.toString().trim());
+  }
+
+  /**
+   * Get an optional boolean argument of a tool call, {@code false} if it is absent.
+   *
+   * @param arguments The arguments of the tool call.
+   * @param name The name of the argument.
+   * @return The value of the argument.
+   */
+  static boolean booleanArgument(Map<String, Object> arguments, String name) {
+    Object value = arguments.get(name);
+    if (value instanceof Boolean bool) {
+      return bool;
+    }
+    return value != null && Boolean.parseBoolean(value.toString().trim());
+  }
+
+  /**
+   * Get an optional string argument of a tool call.
+   *
+   * @param arguments The arguments of the tool call.
+   * @param name The name of the argument.
+   * @return The value of the argument, {@code null} if it is absent.
+   */
+  static String stringArgument(Map<String, Object> arguments, String name) {
+    Object value = arguments.get(name);
+    return value == null ? null : value.toString();
+  }
+
   /**
    * Create a {@link McpSchema.CallToolResult} object with the given result and error flag.
    *
@@ -227,10 +977,28 @@ public final class Tools {
    * @param result The result string to be wrapped.
    * @return The {@link McpSchema.CallToolResult} object.
    */
-  private static McpSchema.CallToolResult success(String result) {
+  static McpSchema.CallToolResult success(String result) {
     return result(result, false);
   }
 
+  /**
+   * Create a {@link McpSchema.CallToolResult} object with the given result and structured content,
+   * and set the error flag to {@code false}. The structured content is serialized by the MCP SDK
+   * straight from the given object.
+   *
+   * @param result The result string to be wrapped.
+   * @param structuredContent The structured content of the result.
+   * @return The {@link McpSchema.CallToolResult} object.
+   */
+  static McpSchema.CallToolResult success(String result, Object structuredContent) {
+    McpSchema.Content content = new McpSchema.TextContent(result);
+    return McpSchema.CallToolResult.builder()
+        .content(List.of(content))
+        .structuredContent(structuredContent)
+        .isError(false)
+        .build();
+  }
+
   /**
    * Create a {@link McpSchema.CallToolResult} object with the given result and set the error flag
    * to {@code true}.
@@ -238,7 +1006,7 @@ public final class Tools {
    * @param result The result string to be wrapped.
    * @return The {@link McpSchema.CallToolResult} object.
    */
-  private static McpSchema.CallToolResult error(String result) {
+  static McpSchema.CallToolResult error(String result) {
     return result(result, true);
   }
 }
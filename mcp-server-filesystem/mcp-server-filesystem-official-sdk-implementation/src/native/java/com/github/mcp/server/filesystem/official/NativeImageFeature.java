@@ -0,0 +1,57 @@
+package com.github.mcp.server.filesystem.official;
+
+import com.github.mcp.server.filesystem.common.FileEntry;
+import com.github.mcp.server.filesystem.common.FileListing;
+import com.github.mcp.server.filesystem.common.FileTree;
+import com.github.mcp.server.filesystem.common.TreeNode;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.nativeimage.hosted.RuntimeReflection;
+
+/**
+ * GraalVM native image feature registering the classes that Jackson serializes and deserializes by
+ * reflection, so that the native executable of {@link McpStdioServer} can read and write MCP
+ * messages. It is only compiled by the {@code native} profile, which also adds the {@code
+ * native-image.properties} enabling it, so that the JVM builds need no GraalVM SDK.
+ *
+ * <p>The MCP messages are the nested classes of {@link McpSchema}, which change with every release
+ * of the MCP Java SDK, so they are registered by walking {@link McpSchema} rather than listed in a
+ * {@code reflect-config.json} file. The structured content of the tools is registered as well.
+ *
+ * @author <a href="https://github.com/codeboyzhou">codeboyzhou</a>
+ */
+public final class NativeImageFeature implements Feature {
+
+  @Override
+  public String getDescription() {
+    return "Registers the MCP messages and tool results for Jackson";
+  }
+
+  @Override
+  public void beforeAnalysis(BeforeAnalysisAccess access) {
+    register(McpSchema.class);
+    register(FileListing.class);
+    register(FileEntry.class);
+    register(FileTree.class);
+    register(TreeNode.class);
+  }
+
+  /**
+   * Registers the given class, its constructors, methods, fields and record components, and all of
+   * its nested classes, for reflection at run time.
+   *
+   * @param type the class to register
+   */
+  private static void register(Class<?> type) {
+    RuntimeReflection.register(type);
+    RuntimeReflection.register(type.getDeclaredConstructors());
+    RuntimeReflection.register(type.getDeclaredMethods());
+    RuntimeReflection.register(type.getDeclaredFields());
+    if (type.isRecord()) {
+      RuntimeReflection.registerAllRecordComponents(type);
+    }
+    for (Class<?> nested : type.getDeclaredClasses()) {
+      register(nested);
+    }
+  }
+}
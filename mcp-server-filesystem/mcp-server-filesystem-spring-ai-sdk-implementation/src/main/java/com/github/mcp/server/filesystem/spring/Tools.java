@@ -1,12 +1,38 @@
 package com.github.mcp.server.filesystem.spring;
 
+import com.github.mcp.server.filesystem.common.BatchReader;
+import com.github.mcp.server.filesystem.common.ContentMatch;
+import com.github.mcp.server.filesystem.common.ContentSearcher;
+import com.github.mcp.server.filesystem.common.CopyResult;
+import com.github.mcp.server.filesystem.common.DeleteResult;
+import com.github.mcp.server.filesystem.common.DirectoryLister;
+import com.github.mcp.server.filesystem.common.DirectoryQuery;
+import com.github.mcp.server.filesystem.common.FileChunk;
+import com.github.mcp.server.filesystem.common.FileCopier;
+import com.github.mcp.server.filesystem.common.FileDeleter;
+import com.github.mcp.server.filesystem.common.FileFinder;
 import com.github.mcp.server.filesystem.common.FileHelper;
+import com.github.mcp.server.filesystem.common.FileListing;
+import com.github.mcp.server.filesystem.common.FileTree;
+import com.github.mcp.server.filesystem.common.FileUpdater;
+import com.github.mcp.server.filesystem.common.NameMatcher;
+import com.github.mcp.server.filesystem.common.PathSandbox;
+import com.github.mcp.server.filesystem.common.ResolvedPath;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
@@ -30,8 +56,14 @@ public class Tools {
    * from the specified start path. This method recursively traverses the directory structure
    * beginning at the provided {@code start} path, identifying all entries (both files and
    * directories) whose names contain the specified target {@code name}. The search is
-   * case-sensitive and matches partial names (e.g., "temp" would match "template.log").
+   * case-sensitive and matches partial names (e.g., "temp" would match "template.log"). The search
+   * stops after the optional {@code maxResults} entries, and the entries found so far are sent to
+   * the client as logging notifications while the search runs.
    *
+   * @param start The starting path to search, required.
+   * @param name The name of the target file or dir to search, required.
+   * @param maxResults The maximum number of files/dirs to return, optional.
+   * @param toolContext The context of the call, holding the exchange with the MCP client.
    * @return A list of absolute path strings for all matching entries found during the search.
    */
   @Tool(description = "Start from the specified path and recursively search subitems.")
@@ -39,14 +71,25 @@ public class Tools {
       @ToolParam(description = "The starting path to search, required.") String start,
       @ToolParam(
               description =
-                  "The name of the target file or dir to search, fuzzy matching supported, required.")
-          String name) {
+                  "The name of the target file or dir to search, fuzzy matching supported, glob: and regex: prefixes supported, required.")
+          String name,
+      @ToolParam(
+              description = "The maximum number of files/dirs to return, optional.",
+              required = false)
+          Integer maxResults,
+      ToolContext toolContext) {
 
     if (start == null || start.isBlank()) {
       return "Please provide a valid start path to find.";
     }
 
-    if (Files.notExists(Path.of(start))) {
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(start);
+    } catch (IOException | InvalidPathException e) {
+      return e.getMessage() + ", stopped finding.";
+    }
+    if (!resolved.exists()) {
       return "Start path does not exist: " + start + ", stopped finding.";
     }
 
@@ -55,15 +98,17 @@ public class Tools {
     }
 
     try {
-      List<String> paths = FileHelper.fuzzySearch(start, name);
-      if (paths.isEmpty()) {
-        return String.format("No file/dir found with name '%s'", name);
-      }
-      return String.format("Found files/dirs with name '%s': %s", name, paths);
-    } catch (IOException e) {
+      final int limit = maxResults == null ? FileFinder.defaultMaxResults() : maxResults;
+      NameMatcher matcher = NameMatcher.of(name);
+      List<String> paths =
+          FileFinder.find(
+              resolved.path(), matcher, limit, () -> false, notifier(toolContext, "find"));
+      FileListing listing = FileFinder.toListing(resolved.path(), paths, limit);
+      return FileFinder.toText(name, listing, true);
+    } catch (IOException | IllegalArgumentException e) {
       final String result =
           String.format("Error finding file/dir: %s, %s: %s", name, e, e.getMessage());
-      log.error(result, e);
+      log.error("{}", result, e);
       return result;
     }
   }
@@ -71,76 +116,656 @@ public class Tools {
   /**
    * Create an MCP tool to read and return the content of a file or the list of immediate
    * subdirectories and files within a directory from the filesystem. This method checks the type of
-   * the specified path: If the path points to a file, it reads the entire content of the file and
-   * returns it as a string. If the path points to a directory, it returns a list of strings
-   * representing the direct children (immediate subdirectories and files) directly under the
-   * specified directory (non-recursive).
+   * the specified path: If the path points to a file, it reads a window of the file starting at the
+   * given {@code offset} and bounded by the given {@code limit}, and returns it as a string with a
+   * hint on how to continue reading. If the path points to a directory, it returns the direct
+   * children (immediate subdirectories and files) directly under the specified directory
+   * (non-recursive), one page of at most {@code limit} entries at a time, filtered and sorted by
+   * the optional arguments. The cursor returned with a page lists the next one.
    *
    * @param path The path to read, both file and directory are acceptable, required.
+   * @param offset The number of bytes or lines to skip when reading a file, optional.
+   * @param limit The maximum number of bytes or lines to read from a file, or of entries to list
+   *     from a directory, optional.
+   * @param unit The unit of offset and limit, bytes or lines, optional.
+   * @param position The byte position of the line at offset, as returned by the previous read in
+   *     lines, optional.
+   * @param include The pattern the names of the listed dir entries must match, optional.
+   * @param type The type of the listed dir entries, optional.
+   * @param minSize The minimum size of the listed dir entries in bytes, optional.
+   * @param maxSize The maximum size of the listed dir entries in bytes, optional.
+   * @param modifiedSince The time the listed dir entries must have been modified at or after,
+   *     optional.
+   * @param sort The key to sort dir entries by, name, size or modified, optional.
+   * @param order The order to sort dir entries in, asc or desc, optional.
+   * @param cursor The cursor returned by the previous listing of the dir, optional.
    * @return If the path points to a file, it returns a string containing the file's content. If the
-   *     path points to a directory, it returns a list of strings representing the direct children
-   *     (immediate subdirectories and files) directly under the specified directory
-   *     (non-recursive).
+   *     path points to a directory, it returns a page of the direct children (immediate
+   *     subdirectories and files) directly under the specified directory (non-recursive).
    */
   @Tool(description = "Read a file or list dir contents non-recursively.")
   public String read(
-      @ToolParam(description = "The path to read, can be a file or dir, required.") String path) {
+      @ToolParam(description = "The path to read, can be a file or dir, required.") String path,
+      @ToolParam(
+              description =
+                  "The number of bytes or lines to skip when reading a file, defaults to 0, optional.",
+              required = false)
+          Long offset,
+      @ToolParam(
+              description =
+                  "The maximum number of bytes or lines to read from a file, or of entries to list from a dir, capped by the server, optional.",
+              required = false)
+          Long limit,
+      @ToolParam(
+              description =
+                  "The unit of offset and limit, bytes or lines, defaults to bytes, optional.",
+              required = false)
+          String unit,
+      @ToolParam(
+              description =
+                  "The byte position the line at offset starts at, as given by the hint of the previous read in lines, to continue without scanning the file again, optional.",
+              required = false)
+          Long position,
+      @ToolParam(
+              description =
+                  "Only list dir entries whose name matches, same syntax as the name of the find tool, optional.",
+              required = false)
+          String include,
+      @ToolParam(
+              description =
+                  "Only list dir entries of this type: file, directory, symlink or other, optional.",
+              required = false)
+          String type,
+      @ToolParam(
+              description = "Only list dir entries of at least this many bytes, optional.",
+              required = false)
+          Long minSize,
+      @ToolParam(
+              description = "Only list dir entries of at most this many bytes, optional.",
+              required = false)
+          Long maxSize,
+      @ToolParam(
+              description =
+                  "Only list dir entries modified at or after this time, an ISO-8601 instant or date, or milliseconds since the epoch, optional.",
+              required = false)
+          String modifiedSince,
+      @ToolParam(
+              description =
+                  "The key to sort dir entries by: name, size or modified, defaults to name, optional.",
+              required = false)
+          String sort,
+      @ToolParam(
+              description =
+                  "The order to sort dir entries in: asc or desc, defaults to asc, optional.",
+              required = false)
+          String order,
+      @ToolParam(
+              description =
+                  "The cursor returned by the previous listing of the dir, to list the next entries, optional.",
+              required = false)
+          String cursor) {
 
     if (path == null || path.isBlank()) {
       return "Please provide a valid path to read.";
     }
 
-    Path filepath = Path.of(path);
-    if (Files.notExists(filepath)) {
-      return "The path does not exist: " + filepath + ", stopped reading.";
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(path);
+    } catch (IOException | InvalidPathException e) {
+      return e.getMessage() + ", stopped reading.";
+    }
+    if (!resolved.exists()) {
+      return "The path does not exist: " + path + ", stopped reading.";
     }
 
-    if (Files.isDirectory(filepath)) {
+    final Path filepath = resolved.path();
+    if (resolved.isDirectory()) {
       try {
-        List<String> paths = FileHelper.listDirectory(path);
-        return String.format("The dir '%s' contains: %s", path, paths);
-      } catch (IOException e) {
+        DirectoryQuery query =
+            DirectoryQuery.of(
+                include, type, minSize, maxSize, modifiedSince, sort, order, cursor, limit);
+        return DirectoryLister.toText(path, DirectoryLister.list(filepath, query), true);
+      } catch (IOException | IllegalArgumentException e) {
         final String result =
             String.format("Error reading dir: %s, %s: %s", path, e, e.getMessage());
-        log.error(result, e);
+        log.error("{}", result, e);
         return result;
       }
     }
 
     try {
-      return FileHelper.readAsString(filepath);
-    } catch (IOException e) {
+      final long chunkOffset = offset == null ? 0 : offset;
+      final long chunkLimit = limit == null ? Long.MAX_VALUE : limit;
+      final long chunkPosition = position == null ? -1 : position;
+      FileChunk.Unit chunkUnit = FileChunk.Unit.of(unit);
+      return FileHelper.readChunk(filepath, chunkOffset, chunkPosition, chunkLimit, chunkUnit)
+          .toText();
+    } catch (IOException | IllegalArgumentException e) {
       final String result =
           String.format("Error reading file: %s, %s: %s", path, e, e.getMessage());
-      log.error(result, e);
+      log.error("{}", result, e);
       return result;
     }
   }
 
   /**
-   * Create an MCP tool to delete a file or directory from the filesystem.
+   * Create an MCP tool to read many files in one call. The files are given either as a list of
+   * {@code paths}, or as a {@code glob} pattern matched under the {@code start} directory. They are
+   * read in parallel, and their total size is bounded by a byte budget, see {@link BatchReader}.
    *
-   * @param path The path to delete, can be a file or directory, required.
-   * @return A message indicating whether the path was successfully deleted or not.
+   * @param paths The paths of the files to read, required unless glob is given.
+   * @param start The starting directory of the glob, required with glob.
+   * @param glob The glob pattern of the files to read under start, optional.
+   * @return The content or error of each file.
    */
-  @Tool(description = "Delete a file or dir from the filesystem.")
-  public String delete(
-      @ToolParam(description = "The path to delete, can be a file or dir, required.") String path) {
+  @Tool(
+      name = "read_many",
+      description = "Read many files in one call, given as a list of paths or a glob.")
+  public String readMany(
+      @ToolParam(
+              description = "The paths of the files to read, required unless glob is given.",
+              required = false)
+          List<String> paths,
+      @ToolParam(
+              description = "The starting dir of the glob, required with glob.",
+              required = false)
+          String start,
+      @ToolParam(
+              description =
+                  "The glob pattern of the files to read under start, such as *.java or src/**/*.java, optional.",
+              required = false)
+          String glob) {
+
+    final boolean hasPaths = paths != null && !paths.isEmpty();
+    if (!hasPaths && (glob == null || glob.isBlank())) {
+      return "Please provide valid paths or a glob to read.";
+    }
+
+    if (!hasPaths && (start == null || start.isBlank())) {
+      return "Please provide a valid start path for the glob.";
+    }
+
+    try {
+      List<String> files =
+          hasPaths ? paths : BatchReader.glob(PathSandbox.resolve(start).path(), glob);
+      if (files.isEmpty()) {
+        return String.format("No file found matching '%s'", glob);
+      }
+      return BatchReader.toText(BatchReader.read(files));
+    } catch (IOException | IllegalArgumentException e) {
+      final String target = hasPaths ? paths.toString() : glob;
+      final String result =
+          String.format("Error reading files: %s, %s: %s", target, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to return an overview of the file tree rooted at the specified path, down to
+   * the optional depth and cut off at the optional number of nodes, with the number of files and
+   * directories and the total size of every directory. The tree is scanned in parallel, see {@link
+   * FileTree}, so that a single call replaces many calls of the {@code read} tool on directories.
+   *
+   * @param path The root path of the tree, can be a file or dir, required.
+   * @param depth The number of levels below the root to show, optional.
+   * @param maxNodes The maximum number of files/dirs to show, optional.
+   * @return The tree, one indented line per file or dir.
+   */
+  @Tool(
+      name = "tree",
+      description = "Show the file tree under a dir with the file counts and sizes of dirs.")
+  public String tree(
+      @ToolParam(description = "The root path of the tree, can be a file or dir, required.")
+          String path,
+      @ToolParam(
+              description = "The number of levels below the root to show, defaults to 3, optional.",
+              required = false)
+          Integer depth,
+      @ToolParam(
+              description = "The maximum number of files/dirs to show, optional.",
+              required = false)
+          Integer maxNodes) {
 
     if (path == null || path.isBlank()) {
-      return "Please provide a valid path to delete.";
+      return "Please provide a valid path to show the tree of.";
+    }
+
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(path, LinkOption.NOFOLLOW_LINKS);
+    } catch (IOException | InvalidPathException e) {
+      return e.getMessage() + ", stopped scanning.";
+    }
+    if (!resolved.exists()) {
+      return "The path does not exist: " + path + ", stopped scanning.";
+    }
+
+    try {
+      FileTree fileTree =
+          FileTree.build(
+              resolved.path(),
+              depth == null ? FileTree.DEFAULT_DEPTH : depth,
+              maxNodes == null ? FileTree.defaultMaxNodes() : maxNodes);
+      return fileTree.toText(true);
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error scanning tree: %s, %s: %s", path, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to search the contents of the files within the filesystem starting from the
+   * specified start path for the specified literal text. Files are scanned in parallel on their raw
+   * bytes, binary files are skipped, and only the files whose names match the optional {@code
+   * include} pattern are searched. The matching lines are streamed to the client as logging
+   * notifications while the search runs.
+   *
+   * @param start The starting path to search, can be a file or directory, required.
+   * @param pattern The literal text to search for, case-sensitive, required.
+   * @param include The pattern the names of the searched files must match, optional.
+   * @param maxResults The maximum number of matching lines to return, optional.
+   * @param toolContext The context of the call, holding the exchange with the MCP client.
+   * @return The matching lines in the {@code path:line: text} format.
+   */
+  @Tool(description = "Start from the specified path and recursively search file contents.")
+  public String grep(
+      @ToolParam(description = "The starting path to search, can be a file or dir, required.")
+          String start,
+      @ToolParam(
+              description =
+                  "The literal text to search for in file contents, case-sensitive, required.")
+          String pattern,
+      @ToolParam(
+              description =
+                  "Only search files whose name matches, same syntax as the name of the find tool, optional.",
+              required = false)
+          String include,
+      @ToolParam(
+              description = "The maximum number of matching lines to return, optional.",
+              required = false)
+          Integer maxResults,
+      ToolContext toolContext) {
+
+    if (start == null || start.isBlank()) {
+      return "Please provide a valid start path to search.";
+    }
+
+    final ResolvedPath resolved;
+    try {
+      resolved = PathSandbox.resolve(start);
+    } catch (IOException | InvalidPathException e) {
+      return e.getMessage() + ", stopped searching.";
+    }
+    if (!resolved.exists()) {
+      return "Start path does not exist: " + start + ", stopped searching.";
+    }
+
+    if (pattern == null || pattern.isEmpty()) {
+      return "Please provide a valid text to search for.";
+    }
+
+    try {
+      final int limit = maxResults == null ? ContentSearcher.defaultMaxResults() : maxResults;
+      NameMatcher matcher = NameMatcher.of(include == null || include.isBlank() ? "*" : include);
+      List<ContentMatch> matches =
+          ContentSearcher.search(
+              resolved.path(), pattern, matcher, limit, () -> false, notifier(toolContext, "grep"));
+      return ContentSearcher.toText(pattern, matches, limit);
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error searching: %s, %s: %s", pattern, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to delete files or directories from the filesystem. The paths to delete are
+   * given as a single {@code path}, as a list of {@code paths}, or as a {@code glob} pattern
+   * matched under the {@code start} directory, or any combination of them. Directories are only
+   * deleted with all their contents if {@code recursive} is set, in parallel, see {@link
+   * FileDeleter}. With {@code dryRun} set, nothing is deleted and the result tells what would be.
+   *
+   * @param path The path to delete, can be a file or directory, required unless paths or glob is
+   *     given.
+   * @param paths The paths of the files or directories to delete, optional.
+   * @param start The starting directory of the glob, required with glob.
+   * @param glob The glob pattern of the files or directories to delete under start, optional.
+   * @param recursive Whether to delete directories with all their contents, optional.
+   * @param dryRun Whether to only report what would be deleted, optional.
+   * @return The number of files and directories deleted and of bytes freed, in total and for each
+   *     path.
+   */
+  @Tool(description = "Delete files or dirs from the filesystem, recursively if asked to.")
+  public String delete(
+      @ToolParam(
+              description =
+                  "The path to delete, can be a file or dir, required unless paths or glob is given.",
+              required = false)
+          String path,
+      @ToolParam(
+              description = "The paths of the files or dirs to delete, optional.",
+              required = false)
+          List<String> paths,
+      @ToolParam(
+              description = "The starting dir of the glob, required with glob.",
+              required = false)
+          String start,
+      @ToolParam(
+              description =
+                  "The glob pattern of the files or dirs to delete under start, such as *.class or **/target, optional.",
+              required = false)
+          String glob,
+      @ToolParam(
+              description =
+                  "Whether to delete dirs with all their contents, defaults to false, optional.",
+              required = false)
+          Boolean recursive,
+      @ToolParam(
+              description =
+                  "Whether to only report what would be deleted and how many bytes would be freed, defaults to false, optional.",
+              required = false)
+          Boolean dryRun) {
+
+    List<String> targets = new ArrayList<>();
+    if (path != null && !path.isBlank()) {
+      targets.add(path);
+    }
+    targets.addAll(paths == null ? List.of() : paths);
+    final boolean hasGlob = glob != null && !glob.isBlank();
+    if (targets.isEmpty() && !hasGlob) {
+      return "Please provide a valid path, paths or a glob to delete.";
+    }
+
+    if (hasGlob && (start == null || start.isBlank())) {
+      return "Please provide a valid start path for the glob.";
     }
 
     try {
-      final boolean deleted = Files.deleteIfExists(Path.of(path));
-      if (deleted) {
-        return "Successfully deleted: " + path;
+      if (hasGlob) {
+        targets.addAll(FileDeleter.glob(PathSandbox.resolve(start).path(), glob));
       }
-      return "Failed to delete: " + path;
-    } catch (IOException e) {
-      final String result = String.format("Error deleting: %s, %s: %s", path, e, e.getMessage());
-      log.error(result, e);
+      final boolean isDryRun = Boolean.TRUE.equals(dryRun);
+      List<DeleteResult> results =
+          FileDeleter.delete(targets, Boolean.TRUE.equals(recursive), isDryRun);
+      return FileDeleter.toText(results, isDryRun);
+    } catch (IOException | IllegalArgumentException e) {
+      final String target = hasGlob ? glob : targets.toString();
+      final String result = String.format("Error deleting: %s, %s: %s", target, e, e.getMessage());
+      log.error("{}", result, e);
       return result;
     }
   }
+
+  /**
+   * Create an MCP tool to create a file or replace its content. The content is written to a
+   * temporary file moved over the file atomically, see {@link FileUpdater}, so that the file is
+   * never seen half written.
+   *
+   * @param path The path of the file to write, created with its parent directories if missing,
+   *     required.
+   * @param content The new content of the file, required.
+   * @return The path and size of the file written.
+   */
+  @Tool(name = "write", description = "Create a file or replace its content, atomically.")
+  public String write(
+      @ToolParam(
+              description =
+                  "The path of the file to write, created with its parent dirs if missing, required.")
+          String path,
+      @ToolParam(description = "The new content of the file, replacing the previous one, required.")
+          String content) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to write.";
+    }
+
+    if (content == null) {
+      return "Please provide the content to write.";
+    }
+
+    try {
+      return FileUpdater.write(path, content).toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error writing file: %s, %s: %s", path, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to append content to the end of a file, creating it if it does not exist.
+   * The previous content is copied to a temporary file by the operating system, without going
+   * through the JVM, and the temporary file is moved over the file atomically, see {@link
+   * FileUpdater}.
+   *
+   * @param path The path of the file to append to, created with its parent directories if missing,
+   *     required.
+   * @param content The content to append to the end of the file, required.
+   * @return The path and size of the file appended to.
+   */
+  @Tool(name = "append", description = "Append content to the end of a file, atomically.")
+  public String append(
+      @ToolParam(
+              description =
+                  "The path of the file to append to, created with its parent dirs if missing, required.")
+          String path,
+      @ToolParam(description = "The content to append to the end of the file, required.")
+          String content) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to append to.";
+    }
+
+    if (content == null) {
+      return "Please provide the content to append.";
+    }
+
+    try {
+      return FileUpdater.append(path, content).toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error appending to file: %s, %s: %s", path, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to apply a patch in the unified diff format to a file. The hunks are located
+   * by their context and removed lines, the unchanged regions between them are copied by the
+   * operating system, and the patched file is moved over the file atomically, see {@link
+   * FileUpdater}. Either all hunks apply, or the file is left as it was.
+   *
+   * @param path The path of the file to patch, required.
+   * @param patch The changes of the file as unified diff hunks, required.
+   * @return The path and size of the file patched and the number of hunks applied.
+   */
+  @Tool(
+      name = "apply_patch",
+      description = "Apply unified diff hunks to a file, atomically, all or nothing.")
+  public String applyPatch(
+      @ToolParam(description = "The path of the file to patch, required.") String path,
+      @ToolParam(
+              description =
+                  "The changes of the file as unified diff hunks, each starting with @@ -line +line @@ followed by context lines prefixed with a space, removed lines prefixed with - and added lines prefixed with +, required.")
+          String patch) {
+
+    if (path == null || path.isBlank()) {
+      return "Please provide a valid path to patch.";
+    }
+
+    if (patch == null || patch.isBlank()) {
+      return "Please provide the patch to apply.";
+    }
+
+    try {
+      return FileUpdater.patch(path, patch).toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error patching file: %s, %s: %s", path, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to copy a file or a directory with all its contents to another path. The
+   * content of files is copied by the operating system, without going through the JVM, and
+   * directories are copied in parallel, see {@link FileCopier}. The progress is sent to the client
+   * as logging notifications while the copy runs.
+   *
+   * @param source The path of the file or directory to copy, required.
+   * @param target The path to copy it to, not the directory to copy it into, required.
+   * @param overwrite Whether to replace an existing target file or merge into an existing target
+   *     directory, optional.
+   * @param toolContext The context of the call, holding the exchange with the MCP client.
+   * @return The number of files, directories and bytes copied.
+   */
+  @Tool(description = "Copy a file or a dir with all its contents to another path.")
+  public String copy(
+      @ToolParam(
+              description =
+                  "The path of the file or dir to copy, dirs with all their contents, links as links, required.")
+          String source,
+      @ToolParam(
+              description =
+                  "The path to copy it to, not the dir to copy it into, created with its parent dirs if missing, required.")
+          String target,
+      @ToolParam(
+              description =
+                  "Whether to replace an existing target file or merge into an existing target dir, defaults to false, optional.",
+              required = false)
+          Boolean overwrite,
+      ToolContext toolContext) {
+
+    if (source == null || source.isBlank()) {
+      return "Please provide a valid source path to copy.";
+    }
+
+    if (target == null || target.isBlank()) {
+      return "Please provide a valid target path to copy to.";
+    }
+
+    try {
+      final boolean replace = Boolean.TRUE.equals(overwrite);
+      return FileCopier.copy(source, target, replace, () -> false, progress(toolContext, "copy"))
+          .toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error copying: %s to %s, %s: %s", source, target, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create an MCP tool to move a file or a directory with all its contents to another path. The
+   * source is renamed if the target is on the same filesystem, and copied then deleted otherwise,
+   * see {@link FileCopier}, in which case the progress is sent to the client as logging
+   * notifications while the copy runs.
+   *
+   * @param source The path of the file or directory to move, required.
+   * @param target The path to move it to, not the directory to move it into, required.
+   * @param overwrite Whether to replace an existing target file or merge into an existing target
+   *     directory, optional.
+   * @param toolContext The context of the call, holding the exchange with the MCP client.
+   * @return The path moved, and the number of files, directories and bytes copied if it was copied.
+   */
+  @Tool(description = "Move or rename a file or a dir with all its contents to another path.")
+  public String move(
+      @ToolParam(
+              description =
+                  "The path of the file or dir to move, dirs with all their contents, required.")
+          String source,
+      @ToolParam(
+              description =
+                  "The path to move it to, not the dir to move it into, created with its parent dirs if missing, required.")
+          String target,
+      @ToolParam(
+              description =
+                  "Whether to replace an existing target file or merge into an existing target dir, defaults to false, optional.",
+              required = false)
+          Boolean overwrite,
+      ToolContext toolContext) {
+
+    if (source == null || source.isBlank()) {
+      return "Please provide a valid source path to move.";
+    }
+
+    if (target == null || target.isBlank()) {
+      return "Please provide a valid target path to move to.";
+    }
+
+    try {
+      final boolean replace = Boolean.TRUE.equals(overwrite);
+      return FileCopier.move(source, target, replace, () -> false, progress(toolContext, "move"))
+          .toString();
+    } catch (IOException | IllegalArgumentException e) {
+      final String result =
+          String.format("Error moving: %s to %s, %s: %s", source, target, e, e.getMessage());
+      log.error("{}", result, e);
+      return result;
+    }
+  }
+
+  /**
+   * Create the listener sending the batches of results found by the {@code find} and {@code grep}
+   * tools to the MCP client as logging notifications, one result per line.
+   *
+   * @param toolContext The context of the call, holding the exchange with the MCP client.
+   * @param logger The name of the tool, used as the logger of the notifications.
+   * @param <T> The type of the results.
+   * @return The listener, which sends nothing if the call has no MCP client.
+   */
+  private static <T> Consumer<List<T>> notifier(ToolContext toolContext, String logger) {
+    Optional<McpSyncServerExchange> exchange =
+        toolContext == null ? Optional.empty() : McpToolUtils.getMcpExchange(toolContext);
+    if (exchange.isEmpty()) {
+      return batch -> {};
+    }
+    return batch ->
+        exchange
+            .get()
+            .loggingNotification(
+                McpSchema.LoggingMessageNotification.builder()
+                    .level(McpSchema.LoggingLevel.INFO)
+                    .logger(logger)
+                    .data(
+                        batch.stream()
+                            .map(Object::toString)
+                            .collect(Collectors.joining(System.lineSeparator())))
+                    .build());
+  }
+
+  /**
+   * Create the listener sending the progress of the {@code copy} and {@code move} tools to the MCP
+   * client as logging notifications, since the tool context gives no access to the progress token
+   * of the call.
+   *
+   * @param toolContext The context of the call, holding the exchange with the MCP client.
+   * @param logger The name of the tool, used as the logger of the notifications.
+   * @return The listener, which sends nothing if the call has no MCP client.
+   */
+  private static Consumer<CopyResult> progress(ToolContext toolContext, String logger) {
+    Optional<McpSyncServerExchange> exchange =
+        toolContext == null ? Optional.empty() : McpToolUtils.getMcpExchange(toolContext);
+    if (exchange.isEmpty()) {
+      return copied -> {};
+    }
+    return copied ->
+        exchange
+            .get()
+            .loggingNotification(
+                McpSchema.LoggingMessageNotification.builder()
+                    .level(McpSchema.LoggingLevel.INFO)
+                    .logger(logger)
+                    .data(copied.toString())
+                    .build());
+  }
 }